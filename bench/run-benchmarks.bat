@@ -0,0 +1,52 @@
+@echo off
+setlocal
+
+rem
+rem The following batch file builds and runs the JMH benchmarks of the
+rem bench\src directory. It must be run from the root directory of the
+rem project, after the library was built (see build-generic-rtsdk.bat).
+rem It assumes the following environment:
+rem
+rem		JAVA_HOME - Root directory of your JDK 8 environment
+rem		RT_JAVA_HOME - Root directory of your Real-Time SDK installation
+rem		ETA_EMA_VERSION - Version of the EMA and ETA jar files
+rem		JMH_HOME - Directory that contains the JMH jar files
+rem
+rem The arguments are passed to JMH. The benchmarks load the RDM dictionary
+rem from etc\RDMFieldDictionary and etc\enumtype.def by default. Use the
+rem fieldDictionaryPath and enumTypeDefPath parameters to load other files.
+rem For example:
+rem
+rem		bench\run-benchmarks.bat MarketPriceUpdateBenchmark -prof gc -p "fieldDictionaryPath=%RT_JAVA_HOME%\Java\etc\RDMFieldDictionary" -p "enumTypeDefPath=%RT_JAVA_HOME%\Java\etc\enumtype.def"
+rem
+
+set JMH_VERSION=1.37
+set BINDIR=build\classes
+set BENCH_BINDIR=build\bench-classes
+set EMA_HOME=%RT_JAVA_HOME%\Java\Ema
+set ETA_HOME=%RT_JAVA_HOME%\Java\Eta
+set EMA_BINARY_PACK=%RT_JAVA_HOME%\RTSDK-BinaryPack\Java\Ema
+set ETA_BINARY_PACK=%RT_JAVA_HOME%\RTSDK-BinaryPack\Java\Eta
+
+set JAVAC="%JAVA_HOME%\bin\javac"
+set JAVA="%JAVA_HOME%\bin\java"
+
+set JMH_CLASSPATH=%JMH_HOME%\jmh-core-%JMH_VERSION%.jar;%JMH_HOME%\jopt-simple-5.0.4.jar;%JMH_HOME%\commons-math3-3.6.1.jar
+set JMH_PROCESSORPATH=%JMH_CLASSPATH%;%JMH_HOME%\jmh-generator-annprocess-%JMH_VERSION%.jar
+set CLASSPATH=%BINDIR%;%EMA_HOME%\Libs\ema-%ETA_EMA_VERSION%.jar;%ETA_BINARY_PACK%\Libs\SLF4J\slf4j-1.7.12\slf4j-api-1.7.12.jar;%ETA_BINARY_PACK%\Libs\SLF4J\slf4j-1.7.12\slf4j-jdk14-1.7.12.jar;%EMA_BINARY_PACK%\Libs\apache\commons-configuration-1.10.jar;%EMA_BINARY_PACK%\Libs\apache\commons-logging-1.2.jar;%EMA_BINARY_PACK%\Libs\apache\commons-lang-2.6.jar;%EMA_BINARY_PACK%\Libs\apache\commons-collections-3.2.2.jar;%ETA_HOME%\Libs\eta-%ETA_EMA_VERSION%.jar;%ETA_HOME%\Libs\etaValueAdd-%ETA_EMA_VERSION%.jar;%JMH_CLASSPATH%
+
+if not exist %BENCH_BINDIR% (mkdir %BENCH_BINDIR%)
+
+echo Building the benchmarks...
+%JAVAC% -Xlint -encoding UTF-8 -d %BENCH_BINDIR% -processorpath %JMH_PROCESSORPATH% bench\src\com\refinitiv\platformservices\rt\objects\common\*.java bench\src\com\refinitiv\platformservices\rt\objects\marketprice\*.java
+if %errorlevel% neq 0 goto :ERROR
+
+echo Running the benchmarks...
+%JAVA% -cp %BENCH_BINDIR%;%CLASSPATH% org.openjdk.jmh.Main %*
+if %errorlevel% neq 0 goto :ERROR
+
+goto :EOF
+
+:ERROR
+echo.
+echo Benchmarks failed.  Exiting.
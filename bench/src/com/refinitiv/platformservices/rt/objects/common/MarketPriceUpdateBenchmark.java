@@ -0,0 +1,212 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import com.refinitiv.ema.access.DataType.DataTypes;
+import com.refinitiv.ema.access.Data;
+import com.refinitiv.ema.access.EmaFactory;
+import com.refinitiv.ema.access.OmmInt;
+import com.refinitiv.ema.access.OmmReal;
+import com.refinitiv.ema.access.OmmState;
+import com.refinitiv.ema.rdm.DataDictionary;
+import com.refinitiv.ema.rdm.EmaRdm;
+import com.refinitiv.platformservices.rt.objects.data.DataFactory;
+import com.refinitiv.platformservices.rt.objects.marketprice.MarketPrice;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the processing of an update message by a <code>MarketPrice</code>,
+ * with and without in-place updates, for REAL and INT fields. Run with 
+ * <code>-prof gc</code> to compare the number of bytes allocated per update
+ * (<code>gc.alloc.rate.norm</code>) of the two modes.
+ * <br>
+ * <br>
+ * The messages are delivered the way a <code>MessageReplayer</code> delivers
+ * recorded messages, so that the benchmark does not need an
+ * <code>OmmConsumer</code> nor a provider. This is why this class is in the
+ * package of <code>RecordedMessage</code>. Updates of {@link #UPDATE_SIZE}
+ * fields are applied alternately to an image of up to {@link #IMAGE_SIZE}
+ * fields of the same type, and are received by an <code>onUpdate</code>
+ * function that reads their values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MarketPriceUpdateBenchmark
+{
+    private static final int IMAGE_SIZE = 64;
+    private static final int UPDATE_SIZE = 8;
+    private static final String SERVICE_NAME = "ELEKTRON_DD";
+    private static final String ITEM_NAME = "BENCHMARK=";
+    private static final int STREAM_ID = 5;
+
+    @Param({"false", "true"})
+    boolean inPlaceUpdates;
+
+    @Param({"REAL", "INT"})
+    String rwfType;
+
+    @Param("etc/RDMFieldDictionary")
+    String fieldDictionaryPath;
+
+    @Param("etc/enumtype.def")
+    String enumTypeDefPath;
+
+    private MarketPrice marketPrice;
+    private MessageReplayer.Client client;
+    // Two updates delivered alternately
+    private RecordedMessage[] updates;
+    private int updateIndex;
+    // Written by the onUpdate function so that the read values are used
+    private long readValues;
+
+    @Setup
+    public void setup()
+    {
+        DataDictionary dataDictionary = EmaFactory.createDataDictionary();
+        dataDictionary.loadFieldDictionary(fieldDictionaryPath);
+        dataDictionary.loadEnumTypeDictionary(enumTypeDefPath);
+
+        int dataType = "INT".equals(rwfType) ? DataTypes.INT : DataTypes.REAL;
+        List<Integer> fieldIds = new ArrayList<>();
+        for(int fieldId = 1; fieldId <= dataDictionary.maxFid() && fieldIds.size() < IMAGE_SIZE; ++fieldId)
+        {
+            if(dataDictionary.hasEntry(fieldId)
+                    && dataDictionary.entry(fieldId).rwfType() == dataType)
+            {
+                fieldIds.add(fieldId);
+            }
+        }
+        if(fieldIds.size() < UPDATE_SIZE)
+        {
+            throw new IllegalStateException("The dictionary has only " + fieldIds.size() + " " + rwfType + " fields.");
+        }
+
+        marketPrice = new MarketPrice.Builder()
+                .withMessageReplayer(new DirectReplayer(dataDictionary))
+                .withServiceName(SERVICE_NAME)
+                .withName(ITEM_NAME)
+                .withInPlaceUpdates(inPlaceUpdates)
+                .onUpdate((marketPrice, update) ->
+                        update.forEach((field) -> readValues += valueOf(field.value())))
+                .build();
+        marketPrice.open();
+
+        RecordedMessage refresh = new RecordedMessage();
+        refresh.set(RecordedMessage.Type.REFRESH, 0, SERVICE_NAME, ITEM_NAME, EmaRdm.MMT_MARKET_PRICE, STREAM_ID,
+                DataFactory.createState(OmmState.StreamState.OPEN, OmmState.DataState.OK, OmmState.StatusCode.NONE, "All is well"),
+                true, true);
+        for(int fieldId : fieldIds)
+        {
+            refresh.addField(fieldId, createValue(dataType, fieldId));
+        }
+        client.onRecordedMessage(refresh);
+
+        updates = new RecordedMessage[2];
+        for(int updateNumber = 0; updateNumber < updates.length; ++updateNumber)
+        {
+            updates[updateNumber] = new RecordedMessage();
+            updates[updateNumber].set(RecordedMessage.Type.UPDATE, 0, SERVICE_NAME, ITEM_NAME, EmaRdm.MMT_MARKET_PRICE, STREAM_ID,
+                    null, false, true);
+            for(int index = 0; index < UPDATE_SIZE; ++index)
+            {
+                updates[updateNumber].addField(fieldIds.get(index),
+                        createValue(dataType, 1_000 * (updateNumber + 1) + index));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        marketPrice.close();
+    }
+
+    @Benchmark
+    public long processUpdate()
+    {
+        updateIndex ^= 1;
+        client.onRecordedMessage(updates[updateIndex]);
+        return readValues;
+    }
+
+    private static Data createValue(int dataType, long value)
+    {
+        return dataType == DataTypes.INT 
+                ? DataFactory.createInt(value) 
+                : DataFactory.createReal(value, OmmReal.MagnitudeType.EXPONENT_NEG2);
+    }
+
+    private static long valueOf(Data value)
+    {
+        return value.dataType() == DataTypes.INT 
+                ? ((OmmInt) value).intValue() 
+                : ((OmmReal) value).mantissa();
+    }
+
+    /**
+     * Hands the messages of the benchmark to the <code>MarketPrice</code>
+     * synchronously, instead of reading them from a recording file.
+     */
+    private class DirectReplayer implements MessageReplayer
+    {
+        private final DataDictionary dataDictionary;
+
+        DirectReplayer(DataDictionary dataDictionary)
+        {
+            this.dataDictionary = dataDictionary;
+        }
+
+        @Override
+        public void registerClient(String serviceName, String name, Client registeredClient)
+        {
+            client = registeredClient;
+        }
+
+        @Override
+        public void unregisterClient(String serviceName, String name, Client unregisteredClient)
+        {
+            client = null;
+        }
+
+        @Override
+        public long replay()
+        {
+            throw new UnsupportedOperationException("The messages of the benchmark are delivered directly.");
+        }
+
+        @Override
+        public DataDictionary getDataDictionary()
+        {
+            return dataDictionary;
+        }
+    }
+}
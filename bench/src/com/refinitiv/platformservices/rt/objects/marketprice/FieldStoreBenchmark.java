@@ -0,0 +1,285 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.ema.access.DataType.DataTypes;
+import com.refinitiv.ema.access.EmaFactory;
+import com.refinitiv.ema.access.OmmReal;
+import com.refinitiv.ema.rdm.DataDictionary;
+import com.refinitiv.platformservices.rt.objects.data.DataFactory;
+import com.refinitiv.platformservices.rt.objects.data.Field;
+import com.refinitiv.platformservices.rt.objects.data.FieldDictionary;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the <code>FieldStore</code> of <code>MarketPrice</code> images
+ * with the twin <code>TreeMap</code>s it replaced (fields by Id and fields by
+ * name) and with twin <code>HashMap</code>s. Each benchmark runs the same
+ * operation on the three stores:
+ * <ul>
+ * <li>applyUpdate: replaces the fields of an update of
+ * {@link #UPDATE_SIZE} fields, as the dispatching thread does for each
+ * update message.</li>
+ * <li>getById / getByName: looks up every field of the image in random
+ * order, as <code>MarketPrice.getField()</code> does.</li>
+ * <li>iterateInFieldIdOrder: reads the whole image sorted by field Id, as
+ * <code>MarketPrice.getFields()</code> does. The <code>HashMap</code>
+ * variant has to sort the fields.</li>
+ * </ul>
+ * The fields are REAL fields of the RDM dictionary. Run with
+ * <code>-prof gc</code> to compare the allocations of the stores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldStoreBenchmark
+{
+    private static final int UPDATE_SIZE = 8;
+    private static final Comparator<Field> BY_FIELD_ID =
+            Comparator.comparingInt((Field field) -> field.description().fid());
+
+    @Param({"16", "64", "256"})
+    int fieldsCount;
+
+    @Param("etc/RDMFieldDictionary")
+    String fieldDictionaryPath;
+
+    @Param("etc/enumtype.def")
+    String enumTypeDefPath;
+
+    private FieldStore fieldStore;
+    private Map<Integer, Field> treeMapById;
+    private Map<String, Field> treeMapByName;
+    private Map<Integer, Field> hashMapById;
+    private Map<String, Field> hashMapByName;
+
+    // Ids and names of the image fields, in random order
+    private int[] lookedUpFieldIds;
+    private String[] lookedUpFieldNames;
+
+    // Two updates applied alternately
+    private Field[][] updates;
+    private int updateIndex;
+
+    @Setup
+    public void setup()
+    {
+        DataDictionary dataDictionary = EmaFactory.createDataDictionary();
+        dataDictionary.loadFieldDictionary(fieldDictionaryPath);
+        dataDictionary.loadEnumTypeDictionary(enumTypeDefPath);
+        FieldDictionary fieldDictionary = FieldDictionary.of(dataDictionary);
+
+        List<Integer> fieldIds = new ArrayList<>();
+        for(int fieldId = 1; fieldId <= dataDictionary.maxFid() && fieldIds.size() < fieldsCount; ++fieldId)
+        {
+            if(fieldDictionary.hasEntry(fieldId)
+                    && fieldDictionary.entry(fieldId).rwfType() == DataTypes.REAL)
+            {
+                fieldIds.add(fieldId);
+            }
+        }
+        if(fieldIds.size() < fieldsCount)
+        {
+            throw new IllegalStateException("The dictionary has only " + fieldIds.size() + " REAL fields.");
+        }
+
+        fieldStore = new FieldStore();
+        treeMapById = new TreeMap<>();
+        treeMapByName = new TreeMap<>();
+        hashMapById = new HashMap<>();
+        hashMapByName = new HashMap<>();
+        for(int fieldId : fieldIds)
+        {
+            Field field = realField(fieldId, fieldId, fieldDictionary);
+            fieldStore.put(field);
+            treeMapById.put(fieldId, field);
+            treeMapByName.put(field.description().acronym(), field);
+            hashMapById.put(fieldId, field);
+            hashMapByName.put(field.description().acronym(), field);
+        }
+
+        Random random = new Random(42);
+        Collections.shuffle(fieldIds, random);
+        lookedUpFieldIds = new int[fieldsCount];
+        lookedUpFieldNames = new String[fieldsCount];
+        for(int index = 0; index < fieldsCount; ++index)
+        {
+            lookedUpFieldIds[index] = fieldIds.get(index);
+            lookedUpFieldNames[index] = fieldDictionary.entry(fieldIds.get(index)).acronym();
+        }
+
+        updates = new Field[2][UPDATE_SIZE];
+        for(int index = 0; index < UPDATE_SIZE; ++index)
+        {
+            int fieldId = fieldIds.get(index % fieldsCount);
+            updates[0][index] = realField(fieldId, 1_000 + index, fieldDictionary);
+            updates[1][index] = realField(fieldId, 2_000 + index, fieldDictionary);
+        }
+    }
+
+    @Benchmark
+    public int applyUpdate_fieldStore()
+    {
+        int slots = 0;
+        for(Field field : nextUpdate())
+        {
+            slots += fieldStore.put(field);
+        }
+        return slots;
+    }
+
+    @Benchmark
+    public Field applyUpdate_treeMaps()
+    {
+        return applyUpdateTo(treeMapById, treeMapByName);
+    }
+
+    @Benchmark
+    public Field applyUpdate_hashMaps()
+    {
+        return applyUpdateTo(hashMapById, hashMapByName);
+    }
+
+    @Benchmark
+    public void getById_fieldStore(Blackhole blackhole)
+    {
+        for(int fieldId : lookedUpFieldIds)
+        {
+            blackhole.consume(fieldStore.get(fieldId));
+        }
+    }
+
+    @Benchmark
+    public void getById_treeMaps(Blackhole blackhole)
+    {
+        for(int fieldId : lookedUpFieldIds)
+        {
+            blackhole.consume(treeMapById.get(fieldId));
+        }
+    }
+
+    @Benchmark
+    public void getById_hashMaps(Blackhole blackhole)
+    {
+        for(int fieldId : lookedUpFieldIds)
+        {
+            blackhole.consume(hashMapById.get(fieldId));
+        }
+    }
+
+    @Benchmark
+    public void getByName_fieldStore(Blackhole blackhole)
+    {
+        for(String fieldName : lookedUpFieldNames)
+        {
+            blackhole.consume(fieldStore.get(fieldName));
+        }
+    }
+
+    @Benchmark
+    public void getByName_treeMaps(Blackhole blackhole)
+    {
+        for(String fieldName : lookedUpFieldNames)
+        {
+            blackhole.consume(treeMapByName.get(fieldName));
+        }
+    }
+
+    @Benchmark
+    public void getByName_hashMaps(Blackhole blackhole)
+    {
+        for(String fieldName : lookedUpFieldNames)
+        {
+            blackhole.consume(hashMapByName.get(fieldName));
+        }
+    }
+
+    @Benchmark
+    public void iterateInFieldIdOrder_fieldStore(Blackhole blackhole)
+    {
+        for(Field field : fieldStore.values())
+        {
+            blackhole.consume(field);
+        }
+    }
+
+    @Benchmark
+    public void iterateInFieldIdOrder_treeMaps(Blackhole blackhole)
+    {
+        for(Field field : treeMapById.values())
+        {
+            blackhole.consume(field);
+        }
+    }
+
+    @Benchmark
+    public void iterateInFieldIdOrder_hashMaps(Blackhole blackhole)
+    {
+        List<Field> sortedFields = new ArrayList<>(hashMapById.values());
+        sortedFields.sort(BY_FIELD_ID);
+        for(Field field : sortedFields)
+        {
+            blackhole.consume(field);
+        }
+    }
+
+    private Field[] nextUpdate()
+    {
+        updateIndex ^= 1;
+        return updates[updateIndex];
+    }
+
+    private Field applyUpdateTo(Map<Integer, Field> fieldsById, Map<String, Field> fieldsByName)
+    {
+        Field previousField = null;
+        for(Field field : nextUpdate())
+        {
+            previousField = fieldsById.put(field.description().fid(), field);
+            fieldsByName.put(field.description().acronym(), field);
+        }
+        return previousField;
+    }
+
+    private static Field realField(int fieldId, long mantissa, FieldDictionary fieldDictionary)
+    {
+        return new Field.Builder()
+                .withId(fieldId)
+                .withValue(DataFactory.createReal(mantissa, OmmReal.MagnitudeType.EXPONENT_NEG2))
+                .withFieldDictionary(fieldDictionary)
+                .build();
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.chain;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of the elements of a <code>FlatChain</code> (see 
+ * {@link FlatChain#getElementsSnapshot()}). Snapshots share the chunks of 
+ * elements of the chain they are taken from: the chain copies a chunk the 
+ * first time it modifies it after a snapshot was taken. They can be held and
+ * read by any thread without locking the chain.
+ * <br>
+ * <br>
+ * Elements are accessed by position in constant time. Ranges of elements are
+ * returned as other <code>ChainElements</code> that share the same chunks.
+ */
+public final class ChainElements
+{
+    static final int CHUNK_SHIFT = 8;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final String[][] chunks;
+    private final long fromPosition;
+    private final long toPosition;
+    // Number of elements in the range, computed on first use for ranges
+    private int size;
+
+    /**
+     * Builds a snapshot.
+     * @param chunks the chunks of elements. Never modified afterwards.
+     * @param fromPosition the first position of the snapshot (inclusive).
+     * @param toPosition the end position of the snapshot (exclusive).
+     * @param size the number of elements between the two positions or -1 if
+     * it is unknown.
+     */
+    ChainElements(String[][] chunks, long fromPosition, long toPosition, int size)
+    {
+        this.chunks = chunks;
+        this.fromPosition = fromPosition;
+        this.toPosition = Math.max(fromPosition, toPosition);
+        this.size = size;
+    }
+
+    /**
+     * Returns the name of the element at a position.
+     * @param position the position of the element. The first position is 0.
+     * @return the name of the element or null if there is no element at this
+     * position in this snapshot.
+     */
+    public String elementAt(long position)
+    {
+        if(position < fromPosition || position >= toPosition)
+        {
+            return null;
+        }
+
+        String[] chunk = chunks[(int) (position >>> CHUNK_SHIFT)];
+        
+        return chunk == null ? null : chunk[(int) (position & CHUNK_MASK)];
+    }
+
+    /**
+     * Returns the elements of this snapshot that are in a range of positions.
+     * The returned <code>ChainElements</code> shares the elements of this 
+     * snapshot, nothing is copied.
+     * @param from the first position of the range (inclusive).
+     * @param to the end position of the range (exclusive).
+     * @return the elements of the range.
+     */
+    public ChainElements elements(long from, long to)
+    {
+        return new ChainElements(
+                chunks, 
+                Math.max(from, fromPosition), 
+                Math.min(to, toPosition), 
+                -1);
+    }
+
+    /**
+     * Returns the number of elements of this snapshot.
+     * @return the number of elements.
+     */
+    public int size()
+    {
+        if(size < 0)
+        {
+            int count = 0;
+            for(long position = nextPosition(fromPosition); position < toPosition; position = nextPosition(position + 1))
+            {
+                ++count;
+            }
+            size = count;
+        }
+        
+        return size;
+    }
+
+    /**
+     * Returns the elements of this snapshot as an unmodifiable 
+     * <code>Map</code>, with the elements positions as keys and the elements
+     * names as values. The map iterates in the order of the positions.
+     * @return a view of this snapshot.
+     */
+    public Map<Long, String> asMap()
+    {
+        return new MapView();
+    }
+
+    @Override
+    public String toString()
+    {
+        return asMap().toString();
+    }
+
+    /**
+     * Returns the position of the first element at or after a position.
+     * @param position the position to start from.
+     * @return the position of the element or <code>toPosition</code> if 
+     * there is none.
+     */
+    private long nextPosition(long position)
+    {
+        while(position < toPosition)
+        {
+            String[] chunk = chunks[(int) (position >>> CHUNK_SHIFT)];
+            if(chunk == null)
+            {
+                // Skips the whole chunk
+                position = (position | CHUNK_MASK) + 1;
+                continue;
+            }
+            
+            if(chunk[(int) (position & CHUNK_MASK)] != null)
+            {
+                return position;
+            }
+            ++position;
+        }
+        
+        return toPosition;
+    }
+
+    private class MapView extends AbstractMap<Long, String>
+    {
+        @Override
+        public String get(Object key)
+        {
+            return key instanceof Long ? elementAt((Long) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size()
+        {
+            return ChainElements.this.size();
+        }
+
+        @Override
+        public Set<Map.Entry<Long, String>> entrySet()
+        {
+            return new AbstractSet<Map.Entry<Long, String>>()
+            {
+                @Override
+                public Iterator<Map.Entry<Long, String>> iterator()
+                {
+                    return new Iterator<Map.Entry<Long, String>>()
+                    {
+                        private long position = nextPosition(fromPosition);
+
+                        @Override
+                        public boolean hasNext()
+                        {
+                            return position < toPosition;
+                        }
+
+                        @Override
+                        public Map.Entry<Long, String> next()
+                        {
+                            if(!hasNext())
+                            {
+                                throw new NoSuchElementException();
+                            }
+                            
+                            Map.Entry<Long, String> entry = new AbstractMap.SimpleImmutableEntry<>(position, elementAt(position));
+                            position = nextPosition(position + 1);
+                            
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size()
+                {
+                    return ChainElements.this.size();
+                }
+            };
+        }
+    }
+}
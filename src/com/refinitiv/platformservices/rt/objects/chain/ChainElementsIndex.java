@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.chain;
+
+import java.util.Arrays;
+
+import static com.refinitiv.platformservices.rt.objects.chain.ChainElements.CHUNK_MASK;
+import static com.refinitiv.platformservices.rt.objects.chain.ChainElements.CHUNK_SHIFT;
+import static com.refinitiv.platformservices.rt.objects.chain.ChainElements.CHUNK_SIZE;
+
+/**
+ * The elements of a <code>FlatChain</code>, stored by position in chunks of
+ * 256 names. Chunks are copied on write once they are shared with a 
+ * {@link ChainElements} snapshot, so that taking a snapshot only copies the 
+ * array of chunks. Not thread safe: guarded by the <code>FlatChain</code>.
+ */
+class ChainElementsIndex
+{
+    private static final String[][] NO_CHUNKS = new String[0][];
+
+    private String[][] chunks = NO_CHUNKS;
+    // False for the chunks shared with a snapshot
+    private boolean[] ownedChunks = new boolean[0];
+    private int size;
+    // End position of the elements (last position + 1)
+    private long endPosition;
+    // Last snapshot taken, reused until the next modification
+    private ChainElements snapshot;
+
+    /**
+     * Returns the name of the element at a position.
+     * @param position the position of the element.
+     * @return the name of the element or null if there is none.
+     */
+    String get(long position)
+    {
+        int chunkIndex = (int) (position >>> CHUNK_SHIFT);
+        if(position < 0 || chunkIndex >= chunks.length || chunks[chunkIndex] == null)
+        {
+            return null;
+        }
+        
+        return chunks[chunkIndex][(int) (position & CHUNK_MASK)];
+    }
+
+    /**
+     * Sets the name of the element at a position.
+     * @param position the position of the element.
+     * @param name the name of the element.
+     */
+    void put(long position, String name)
+    {
+        String[] chunk = writableChunk(position);
+        int indexInChunk = (int) (position & CHUNK_MASK);
+        if(chunk[indexInChunk] == null)
+        {
+            ++size;
+        }
+        chunk[indexInChunk] = name;
+        endPosition = Math.max(endPosition, position + 1);
+    }
+
+    /**
+     * Replaces the name of an existing element.
+     * @param position the position of the element.
+     * @param name the new name of the element.
+     */
+    void replace(long position, String name)
+    {
+        if(get(position) != null)
+        {
+            put(position, name);
+        }
+    }
+
+    /**
+     * Removes the element at a position.
+     * @param position the position of the element.
+     */
+    void remove(long position)
+    {
+        if(get(position) == null)
+        {
+            return;
+        }
+        
+        writableChunk(position)[(int) (position & CHUNK_MASK)] = null;
+        --size;
+    }
+
+    void clear()
+    {
+        chunks = NO_CHUNKS;
+        ownedChunks = new boolean[0];
+        size = 0;
+        endPosition = 0;
+        snapshot = null;
+    }
+
+    /**
+     * Returns an immutable snapshot of the elements. Marks all the chunks as
+     * shared.
+     * @return the snapshot.
+     */
+    ChainElements snapshot()
+    {
+        if(snapshot == null)
+        {
+            snapshot = new ChainElements(chunks.clone(), 0, endPosition, size);
+            Arrays.fill(ownedChunks, false);
+        }
+        
+        return snapshot;
+    }
+
+    private String[] writableChunk(long position)
+    {
+        if(position < 0)
+        {
+            throw new IllegalArgumentException("Invalid element position: " + position);
+        }
+
+        snapshot = null;
+        int chunkIndex = (int) (position >>> CHUNK_SHIFT);
+        if(chunkIndex >= chunks.length)
+        {
+            int newLength = Math.max(chunkIndex + 1, chunks.length * 2);
+            chunks = Arrays.copyOf(chunks, newLength);
+            ownedChunks = Arrays.copyOf(ownedChunks, newLength);
+        }
+        
+        if(!ownedChunks[chunkIndex])
+        {
+            chunks[chunkIndex] = chunks[chunkIndex] == null 
+                    ? new String[CHUNK_SIZE] 
+                    : chunks[chunkIndex].clone();
+            ownedChunks[chunkIndex] = true;
+        }
+        
+        return chunks[chunkIndex];
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.chain;
+
+/**
+ * An event published by a <code>FlatChain</code> into its event pipeline
+ * (see {@link FlatChain.Builder#withEventPipeline(com.refinitiv.platformservices.rt.objects.common.RingBuffer)}).
+ * <code>ChainEvent</code>s are the reusable slots of a
+ * <code>RingBuffer</code>: they are created once by the event factory of the
+ * ring buffer (<code>ChainEvent::new</code>) and overwritten by each new
+ * event. Consumers must copy the values they want to keep.
+ */
+public final class ChainEvent
+{
+    /**
+     * The types of <code>ChainEvent</code>s. They match the functional
+     * interfaces of the <code>FlatChain</code>.
+     */
+    public enum Type
+    {
+        /**
+         * A new element was decoded (see {@link FlatChain.OnElementAddedFunction}).
+         */
+        ELEMENT_ADDED,
+
+        /**
+         * An element changed (see {@link FlatChain.OnElementChangedFunction}).
+         */
+        ELEMENT_CHANGED,
+
+        /**
+         * An element was removed (see {@link FlatChain.OnElementRemovedFunction}).
+         */
+        ELEMENT_REMOVED,
+
+        /**
+         * An error occurred (see {@link FlatChain.OnErrorFunction}).
+         */
+        ERROR
+    }
+
+    private Type type;
+    private FlatChain chain;
+    private long position;
+    private String name;
+    private String previousName;
+    private String errorMessage;
+
+    /**
+     * Creates an empty event. Used as the event factory of the ring buffer.
+     */
+    public ChainEvent()
+    {
+    }
+
+    /**
+     * Overwrites this event.
+     * @param type the type of the event.
+     * @param chain the <code>FlatChain</code> that publishes it.
+     * @param position the position of the element.
+     * @param name the name of the element.
+     * @param previousName the previous name of a changed element.
+     * @param errorMessage the error message.
+     */
+    void set(Type type, FlatChain chain, long position, String name, String previousName, String errorMessage)
+    {
+        this.type = type;
+        this.chain = chain;
+        this.position = position;
+        this.name = name;
+        this.previousName = previousName;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Returns the type of this event.
+     * @return the type.
+     */
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * Returns the <code>FlatChain</code> that published this event.
+     * @return the chain.
+     */
+    public FlatChain getChain()
+    {
+        return chain;
+    }
+
+    /**
+     * Returns the position of the added, changed or removed element.
+     * @return the position. -1 for {@link Type#ERROR} events.
+     */
+    public long getPosition()
+    {
+        return position;
+    }
+
+    /**
+     * Returns the name of the added element, or the new name of the changed
+     * element.
+     * @return the name. Null for other events.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the previous name of the changed element.
+     * @return the previous name. Null for other events.
+     */
+    public String getPreviousName()
+    {
+        return previousName;
+    }
+
+    /**
+     * Returns the message of an error event.
+     * @return the error message. Null for other events.
+     */
+    public String getErrorMessage()
+    {
+        return errorMessage;
+    }
+
+    @Override
+    public String toString()
+    {
+        return type + " " + (chain == null ? "" : chain.getName()) + "[" + position + "]";
+    }
+}
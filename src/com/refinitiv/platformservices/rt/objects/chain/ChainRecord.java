@@ -23,17 +23,23 @@ import com.refinitiv.ema.access.GenericMsg;
 import com.refinitiv.ema.access.Msg;
 import com.refinitiv.ema.access.OmmConsumerClient;
 import com.refinitiv.ema.access.OmmConsumerEvent;
+import com.refinitiv.ema.access.OmmAscii;
 import com.refinitiv.ema.access.OmmState;
+import com.refinitiv.ema.access.OmmUInt;
 import com.refinitiv.ema.access.Payload;
 import com.refinitiv.ema.access.RefreshMsg;
 import com.refinitiv.ema.access.StatusMsg;
 import com.refinitiv.ema.access.UpdateMsg;
 import com.refinitiv.ema.rdm.EmaRdm;
+import com.refinitiv.platformservices.rt.objects.common.Dispatcher;
+import com.refinitiv.platformservices.rt.objects.common.MessageRecorder;
+import com.refinitiv.platformservices.rt.objects.common.MessageReplayer;
+import com.refinitiv.platformservices.rt.objects.common.RecordedMessage;
 import java.util.Arrays;
 import java.util.List;
 import java.util.TreeSet;
 
-class ChainRecord implements OmmConsumerClient
+class ChainRecord implements OmmConsumerClient, MessageReplayer.Client
 {
     private final String name;
     private final ChainRecordFactory factory;
@@ -148,6 +154,14 @@ class ChainRecord implements OmmConsumerClient
 
     private void subscribe()
     {
+        MessageReplayer messageReplayer = context.getMessageReplayer();
+        if(messageReplayer != null)
+        {
+            messageReplayer.registerClient(context.getServiceName(), name, this);
+            instrumentStreamState = OmmState.StreamState.OPEN;
+            return;
+        }
+        
         subscriptionHandle = context.getOmmConsumer()
                 .registerClient(
                         EmaFactory.createReqMsg()
@@ -161,6 +175,13 @@ class ChainRecord implements OmmConsumerClient
     
     private void unsubscribe()
     {
+        MessageReplayer messageReplayer = context.getMessageReplayer();
+        if(messageReplayer != null)
+        {
+            messageReplayer.unregisterClient(context.getServiceName(), name, this);
+            return;
+        }
+        
         if(instrumentStreamState == OmmState.StreamState.CLOSED ||
            instrumentStreamState == OmmState.StreamState.CLOSED_RECOVER ||
            instrumentStreamState == OmmState.StreamState.CLOSED_REDIRECTED)
@@ -174,49 +195,137 @@ class ChainRecord implements OmmConsumerClient
     @Override
     public synchronized void onRefreshMsg(RefreshMsg message, OmmConsumerEvent event)
     {
-        instrumentStreamState = message.state().streamState();
+        Dispatcher.callbackStarted();
+        try
+        {
+            recordIfNeeded(message);
+
+            instrumentStreamState = message.state().streamState();
         
-        Payload payload = message.payload();
-        if (!isAFieldList(payload) || !isAChainRecord(payload))
+            Payload payload = message.payload();
+            if (!isAFieldList(payload) || !isAChainRecord(getMandatoryFieldsInPayload(payload)))
+            {
+                notifyNotAChainRecord();
+                return;
+            }
+
+            Fields receivedFields = decodePayload(payload);
+            digest(receivedFields);
+        }
+        finally
         {
-            String errorMessage = context.getServiceName() + "/" + name + " is not a ChainRecord.";
-            listener.onError(errorMessage, this);
-            return;
+            Dispatcher.callbackEnded();
         }
-
-        Fields receivedFields = decodePayload(payload);
-        digest(receivedFields);
     }
 
     @Override
     public synchronized void onUpdateMsg(UpdateMsg message, OmmConsumerEvent event)
     {
-        Payload payload = message.payload();        
-        if (!isAFieldList(payload))
+        Dispatcher.callbackStarted();
+        try
         {
+            recordIfNeeded(message);
 
-            String errorMessage = "Invalid update received for " + context.getServiceName() + "/" + name + ". The data type should be a FIELD_LIST.";
-            listener.onError(errorMessage, this);
-            return;
-        }
+            Payload payload = message.payload();        
+            if (!isAFieldList(payload))
+            {
+                notifyInvalidUpdate();
+                return;
+            }
         
-        Fields receivedFields = decodePayload(payload);
-        digest(receivedFields);
+            Fields receivedFields = decodePayload(payload);
+            digest(receivedFields);
+        }
+        finally
+        {
+            Dispatcher.callbackEnded();
+        }
     }
 
     @Override
     public synchronized void onStatusMsg(StatusMsg message, OmmConsumerEvent event)
     {
-        if (message.hasState())
+        Dispatcher.callbackStarted();
+        try
         {
-            instrumentStreamState = message.state().streamState();
-                    
-            if(message.state().dataState() == OmmState.DataState.SUSPECT)
+            recordIfNeeded(message);
+
+            if (message.hasState())
             {
-                String errorMessage = "Invalid status received for <" + name + ">: " + message.state();
-                listener.onError(errorMessage, this);
+                digestState(message.state());
             }
         }
+        finally
+        {
+            Dispatcher.callbackEnded();
+        }
+    }
+
+    @Override
+    public synchronized void onRecordedMessage(RecordedMessage message)
+    {
+        // The replaying thread may still deliver a message after close()
+        if(state == State.CLOSED)
+            return;
+        
+        switch(message.getType())
+        {
+            case REFRESH:
+                instrumentStreamState = message.getState().streamState();
+                if (!message.hasFieldList() || !isAChainRecord(getMandatoryFieldsIn(message)))
+                {
+                    notifyNotAChainRecord();
+                    return;
+                }
+                digest(decodeRecordedMessage(message));
+                break;
+            case UPDATE:
+                if (!message.hasFieldList())
+                {
+                    notifyInvalidUpdate();
+                    return;
+                }
+                digest(decodeRecordedMessage(message));
+                break;
+            case STATUS:
+                if (message.getState() != null)
+                {
+                    digestState(message.getState());
+                }
+                break;
+        }
+    }
+    
+    private void recordIfNeeded(Msg message)
+    {
+        MessageRecorder messageRecorder = context.getMessageRecorder();
+        if(messageRecorder != null)
+        {
+            messageRecorder.record(context.getServiceName(), name, message);
+        }
+    }
+    
+    private void digestState(OmmState newState)
+    {
+        instrumentStreamState = newState.streamState();
+
+        if(newState.dataState() == OmmState.DataState.SUSPECT)
+        {
+            String errorMessage = "Invalid status received for <" + name + ">: " + newState;
+            listener.onError(errorMessage, this);
+        }
+    }
+    
+    private void notifyNotAChainRecord()
+    {
+        String errorMessage = context.getServiceName() + "/" + name + " is not a ChainRecord.";
+        listener.onError(errorMessage, this);
+    }
+    
+    private void notifyInvalidUpdate()
+    {
+        String errorMessage = "Invalid update received for " + context.getServiceName() + "/" + name + ". The data type should be a FIELD_LIST.";
+        listener.onError(errorMessage, this);
     }
 
     @Override
@@ -241,10 +350,8 @@ class ChainRecord implements OmmConsumerClient
         return isAChainRecord;
     }
     
-    private boolean isAChainRecord(Payload payload)
+    private boolean isAChainRecord(TreeSet<Integer> mandatoryFieldsSet)
     {
-        TreeSet<Integer> mandatoryFieldsSet = getMandatoryFieldsInPayload(payload);
-
         isAChainRecord = false;
         
         if (mandatoryFieldsSet.containsAll(FieldIds.LINK_MANDATORY_FIELDS) ||
@@ -271,6 +378,21 @@ class ChainRecord implements OmmConsumerClient
 
         return mandatoryFieldsSetInPayload;  
     }
+    
+    private TreeSet<Integer> getMandatoryFieldsIn(RecordedMessage message)
+    {
+        TreeSet<Integer> mandatoryFieldsSetInMessage = new TreeSet<>();
+        for(int index = 0; index < message.getFieldsCount(); ++index)
+        {
+            int fieldId = message.getFieldId(index);
+            if (FieldIds.ALL_MANDATORY_FIELDS.contains(fieldId))
+            {
+                mandatoryFieldsSetInMessage.add(fieldId);
+            }
+        }
+
+        return mandatoryFieldsSetInMessage;  
+    }
 
     private Fields decodePayload(Payload payload)
     {               
@@ -280,6 +402,14 @@ class ChainRecord implements OmmConsumerClient
         return fields;
     }
 
+    private Fields decodeRecordedMessage(RecordedMessage message)
+    {               
+        Fields fields = new Fields();       
+        fields.decodeRecordedMessage(message);
+        
+        return fields;
+    }
+
     private void digest(Fields fields)
     {
         if(state == State.OPENED)
@@ -619,86 +749,97 @@ class ChainRecord implements OmmConsumerClient
         {               
             for (FieldEntry fieldEntry : payload.fieldList())
             {
-                int fieldId = fieldEntry.fieldId();
-
-                switch (fieldId)
-                {
-                    case FieldIds.REF_COUNT:
-                        decodeRefCountField(fieldEntry);
-                        break;
-                    case FieldIds.PREV_LR:
-                    case FieldIds.LONGPREVLR:
-                    case FieldIds.BR_PREVLR:
-                        decodePrevField(fieldEntry);
-                        break;
-                    case FieldIds.NEXT_LR:
-                    case FieldIds.LONGNEXTLR:
-                    case FieldIds.BR_NEXTLR:
-                        decodeNextField(fieldEntry);
-                        break;
-                    case FieldIds.LINK_1:
-                    case FieldIds.LINK_2:
-                    case FieldIds.LINK_3:
-                    case FieldIds.LINK_4:
-                    case FieldIds.LINK_5:
-                    case FieldIds.LINK_6:
-                    case FieldIds.LINK_7:
-                    case FieldIds.LINK_8:
-                    case FieldIds.LINK_9:
-                    case FieldIds.LINK_10:
-                    case FieldIds.LINK_11:
-                    case FieldIds.LINK_12:
-                    case FieldIds.LINK_13:
-                    case FieldIds.LINK_14:
-                        decodeLinkField(fieldEntry, fieldId, FieldIds.LINK_1);
-                        break;
-                    case FieldIds.LONGLINK1:
-                    case FieldIds.LONGLINK2:
-                    case FieldIds.LONGLINK3:
-                    case FieldIds.LONGLINK4:
-                    case FieldIds.LONGLINK5:
-                    case FieldIds.LONGLINK6:
-                    case FieldIds.LONGLINK7:
-                    case FieldIds.LONGLINK8:
-                    case FieldIds.LONGLINK9:
-                    case FieldIds.LONGLINK10:
-                    case FieldIds.LONGLINK11:
-                    case FieldIds.LONGLINK12:
-                    case FieldIds.LONGLINK13:
-                    case FieldIds.LONGLINK14:
-                        decodeLinkField(fieldEntry, fieldId, FieldIds.LONGLINK1);
-                        break;
-                    case FieldIds.BR_LINK1:
-                    case FieldIds.BR_LINK2:
-                    case FieldIds.BR_LINK3:
-                    case FieldIds.BR_LINK4:
-                    case FieldIds.BR_LINK5:
-                    case FieldIds.BR_LINK6:
-                    case FieldIds.BR_LINK7:
-                    case FieldIds.BR_LINK8:
-                    case FieldIds.BR_LINK9:
-                    case FieldIds.BR_LINK10:
-                    case FieldIds.BR_LINK11:
-                    case FieldIds.BR_LINK12:
-                    case FieldIds.BR_LINK13:
-                    case FieldIds.BR_LINK14:
-                        decodeLinkField(fieldEntry, fieldId, FieldIds.BR_LINK1);
-                        break;
-                    case FieldIds.PREF_DISP:
-                    case FieldIds.PREV_DISP:
-                    case FieldIds.RDNDISPLAY:
-                        decodeDisplayTemplateField(fieldEntry, fieldId);
-                        break;
-                }
+                decodeField(fieldEntry.fieldId(), fieldEntry.load());
+            }
+        }        
+        
+        private void decodeRecordedMessage(RecordedMessage message)
+        {               
+            for (int index = 0; index < message.getFieldsCount(); ++index)
+            {
+                decodeField(message.getFieldId(index), message.getFieldValue(index));
+            }
+        }        
+        
+        private void decodeField(int fieldId, Data value)
+        {               
+            switch (fieldId)
+            {
+                case FieldIds.REF_COUNT:
+                    decodeRefCountField(value);
+                    break;
+                case FieldIds.PREV_LR:
+                case FieldIds.LONGPREVLR:
+                case FieldIds.BR_PREVLR:
+                    decodePrevField(value);
+                    break;
+                case FieldIds.NEXT_LR:
+                case FieldIds.LONGNEXTLR:
+                case FieldIds.BR_NEXTLR:
+                    decodeNextField(value);
+                    break;
+                case FieldIds.LINK_1:
+                case FieldIds.LINK_2:
+                case FieldIds.LINK_3:
+                case FieldIds.LINK_4:
+                case FieldIds.LINK_5:
+                case FieldIds.LINK_6:
+                case FieldIds.LINK_7:
+                case FieldIds.LINK_8:
+                case FieldIds.LINK_9:
+                case FieldIds.LINK_10:
+                case FieldIds.LINK_11:
+                case FieldIds.LINK_12:
+                case FieldIds.LINK_13:
+                case FieldIds.LINK_14:
+                    decodeLinkField(value, fieldId, FieldIds.LINK_1);
+                    break;
+                case FieldIds.LONGLINK1:
+                case FieldIds.LONGLINK2:
+                case FieldIds.LONGLINK3:
+                case FieldIds.LONGLINK4:
+                case FieldIds.LONGLINK5:
+                case FieldIds.LONGLINK6:
+                case FieldIds.LONGLINK7:
+                case FieldIds.LONGLINK8:
+                case FieldIds.LONGLINK9:
+                case FieldIds.LONGLINK10:
+                case FieldIds.LONGLINK11:
+                case FieldIds.LONGLINK12:
+                case FieldIds.LONGLINK13:
+                case FieldIds.LONGLINK14:
+                    decodeLinkField(value, fieldId, FieldIds.LONGLINK1);
+                    break;
+                case FieldIds.BR_LINK1:
+                case FieldIds.BR_LINK2:
+                case FieldIds.BR_LINK3:
+                case FieldIds.BR_LINK4:
+                case FieldIds.BR_LINK5:
+                case FieldIds.BR_LINK6:
+                case FieldIds.BR_LINK7:
+                case FieldIds.BR_LINK8:
+                case FieldIds.BR_LINK9:
+                case FieldIds.BR_LINK10:
+                case FieldIds.BR_LINK11:
+                case FieldIds.BR_LINK12:
+                case FieldIds.BR_LINK13:
+                case FieldIds.BR_LINK14:
+                    decodeLinkField(value, fieldId, FieldIds.BR_LINK1);
+                    break;
+                case FieldIds.PREF_DISP:
+                case FieldIds.PREV_DISP:
+                case FieldIds.RDNDISPLAY:
+                    decodeDisplayTemplateField(value, fieldId);
+                    break;
             }
         }        
         
-        private void decodeRefCountField(FieldEntry fieldEntry)
+        private void decodeRefCountField(Data value)
         {
-            if(fieldEntry.code() == Data.DataCode.BLANK || fieldEntry.loadType() != DataTypes.UINT)
+            if(value.code() == Data.DataCode.BLANK || value.dataType() != DataTypes.UINT)
                 refCount = 0;
             else
-                refCount = (int)fieldEntry.uintValue();
+                refCount = (int)((OmmUInt)value).longValue();
 
             if(refCount < 0)
                 refCount = 0;
@@ -707,38 +848,38 @@ class ChainRecord implements OmmConsumerClient
                 refCount = 14;
         }
 
-        private void decodePrevField(FieldEntry fieldEntry)
+        private void decodePrevField(Data value)
         {
-            prevLR = extractStringFrom(fieldEntry);
+            prevLR = extractStringFrom(value);
         }
 
-        private void decodeNextField(FieldEntry fieldEntry)
+        private void decodeNextField(Data value)
         {
-            nextLR = extractStringFrom(fieldEntry);
+            nextLR = extractStringFrom(value);
         }
 
-        private void decodeLinkField(FieldEntry fieldEntry, int fieldId, int fieldBase)
+        private void decodeLinkField(Data value, int fieldId, int fieldBase)
         {
             int linkPositionInChainRecord = fieldId - fieldBase;
 
-            String instrumentName = extractStringFrom(fieldEntry);
+            String instrumentName = extractStringFrom(value);
             links[linkPositionInChainRecord] = instrumentName;
         }
 
-        private String extractStringFrom(FieldEntry fieldEntry)
+        private String extractStringFrom(Data value)
         {
             String extractedString = "";
 
-            if(fieldEntry.code() != Data.DataCode.BLANK 
-                    && fieldEntry.loadType() == DataTypes.ASCII)
+            if(value.code() != Data.DataCode.BLANK 
+                    && value.dataType() == DataTypes.ASCII)
             {
-                extractedString = fieldEntry.ascii().ascii();
+                extractedString = ((OmmAscii)value).ascii();
             }
             
             return extractedString;
         }
 
-        private void decodeDisplayTemplateField(FieldEntry fieldEntry, int fieldId)
+        private void decodeDisplayTemplateField(Data value, int fieldId)
         {
             if (ChainRecord.this.context.getSummaryLinksToSkipByDisplayTemplate() == null)
             {
@@ -747,10 +888,10 @@ class ChainRecord implements OmmConsumerClient
             
             long templateId = 0;
             
-            if(fieldEntry.code() != Data.DataCode.BLANK
-                    && fieldEntry.loadType() == DataTypes.UINT)
+            if(value.code() != Data.DataCode.BLANK
+                    && value.dataType() == DataTypes.UINT)
             {
-                templateId = fieldEntry.uintValue();
+                templateId = ((OmmUInt)value).longValue();
             }
 
             switch (fieldId)
@@ -14,6 +14,8 @@
 package com.refinitiv.platformservices.rt.objects.chain;
 
 import com.refinitiv.ema.access.OmmConsumer;
+import com.refinitiv.platformservices.rt.objects.common.MessageRecorder;
+import com.refinitiv.platformservices.rt.objects.common.MessageReplayer;
 import com.refinitiv.platformservices.rt.objects.chain.FlatChain.OnCompleteFunction;
 import com.refinitiv.platformservices.rt.objects.chain.FlatChain.OnErrorFunction;
 import com.refinitiv.platformservices.rt.objects.chain.FlatChain.OnElementAddedFunction;
@@ -23,6 +25,10 @@ import com.refinitiv.platformservices.rt.objects.chain.FlatChain.OnElementRemove
 interface ChainRecordContext
 {
     OmmConsumer getOmmConsumer();
+    
+    MessageRecorder getMessageRecorder();
+    
+    MessageReplayer getMessageReplayer();
             
     String getName();
     
@@ -33,6 +39,8 @@ interface ChainRecordContext
     SummaryLinksToSkipByDisplayTemplate getSummaryLinksToSkipByDisplayTemplate();
     
     int getNameGuessesCount();
+    
+    ChainTopologyCache getTopologyCache();
 
     OnElementAddedFunction getOnElementAddedFunction();
     
@@ -18,5 +18,7 @@ interface ChainRecordFactory
 
     ChainRecord acquire(String name);
 
+    void onChainCompleted(ChainRecord lastChainRecord);
+
     void releaseAll();
 }
@@ -13,19 +13,55 @@
  */
 package com.refinitiv.platformservices.rt.objects.chain;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Creates the <code>Chain Records</code> of a chain and implements the 
+ * "Name Guessing Optimization". When a record is acquired, the names of the 
+ * next records are guessed and pre-opened, so that they are already 
+ * subscribed to when the chain reaches them. The guessing is adaptive:
+ * <ul>
+ * <li>the number of records of each chain is learned when the chain 
+ * completes, and the records of a chain opened again are all guessed at 
+ * once.</li>
+ * <li>the number of records guessed ahead doubles each time a guess is 
+ * acquired by the chain, starting from the configured number of guesses.</li>
+ * <li>the guessing stops as soon as a guessed record does not exist or the 
+ * chain acquires a record that was not guessed. The pre-opened records that 
+ * can no longer be acquired are then closed.</li>
+ * </ul>
+ * When the chain has a topology cache, the records it had when it last 
+ * completed are all pre-opened when the first record is acquired. They are
+ * then acquired as the chain follows the real links of its records, and the 
+ * cached records that are not part of the chain any more are closed.
+ */
 class ChainRecordFactoryImpl implements ChainRecordFactory, ChainRecordListener
 {
+    private static final int MAX_NAME_GUESSES_WINDOW = 256;
+    private static final int NO_GUESS = -1;
+    
+    // Number of records of the chains that completed, keyed by service name 
+    // and root name. Shared by all chains.
+    private static final Map<String, Integer> RECORDS_COUNT_BY_ROOT = new ConcurrentHashMap<>();
 
     private final ChainRecordContext context;
     private final ChainRecordListener listener;
     private final Map<String, ChainRecord> preOpenedChainRecordByName = new HashMap<>();
     private boolean useGuessedNamesOptimization = false;
-    private static final String chainNamePattern = "^[0-9A-F]+#";
+    // Number of records guessed ahead of the last acquired record
+    private int nameGuessesWindow;
+    // Highest position guessed for the current chain
+    private int lastGuessedId = NO_GUESS;
+    private boolean guessMissed = false;
+    // Names of the acquired records, in the order of the chain. Only kept 
+    // when the chain has a topology cache.
+    private final List<String> acquiredNames = new ArrayList<>();
+    private boolean firstAcquisition = true;
 
     ChainRecordFactoryImpl(
             ChainRecordContext context,
@@ -39,22 +75,50 @@ class ChainRecordFactoryImpl implements ChainRecordFactory, ChainRecordListener
         {
             useGuessedNamesOptimization = true;
         }
+        nameGuessesWindow = context.getNameGuessesCount();
     }
 
     @Override
     public synchronized ChainRecord acquire(String name)
     {
         ChainRecord chainRecord=null;
+        boolean firstChainRecord = firstAcquisition;
+        firstAcquisition = false;
+        if(context.getTopologyCache() != null)
+        {
+            acquiredNames.add(name);
+        }
+        
+        chainRecord = preOpenedChainRecordByName.remove(name);
+        if(chainRecord != null)
+        {
+            chainRecord.setListener(listener);
+            if(useGuessedNamesOptimization)
+            {
+                nameGuessesWindow = Math.min(nameGuessesWindow * 2, MAX_NAME_GUESSES_WINDOW);
+                guessAndPreOpenNextChainRecordsFor(ChainRecordName.parse(name));
+            }
+            return chainRecord;
+        }
+        
+        if(firstChainRecord)
+        {
+            preOpenCachedChainRecordsAfter(name);
+        }
+        else if(!preOpenedChainRecordByName.isEmpty())
+        {
+            // The chain does not follow the guessed or cached names
+            stopGuessing();
+        }
         
         if(useGuessedNamesOptimization)
         {
-            if(isPreOpened(name))
+            ChainRecordName chainRecordName = ChainRecordName.parse(name);
+            if(lastGuessedId == NO_GUESS)
             {
-                chainRecord = preOpenedChainRecordByName.remove(name);
-                chainRecord.setListener(listener);
-                return chainRecord;
+                startGuessingFor(chainRecordName);
             }
-            guessAndPreOpenNextChainRecordsFor(name);
+            guessAndPreOpenNextChainRecordsFor(chainRecordName);
         }
         
         ChainRecordFactory chainRecordFactory = this;
@@ -67,6 +131,26 @@ class ChainRecordFactoryImpl implements ChainRecordFactory, ChainRecordListener
         return chainRecord;
     }
     
+    @Override
+    public synchronized void onChainCompleted(ChainRecord lastChainRecord)
+    {
+        if(useGuessedNamesOptimization)
+        {
+            ChainRecordName chainRecordName = ChainRecordName.parse(lastChainRecord.getName());
+            RECORDS_COUNT_BY_ROOT.put(
+                    rootKeyOf(chainRecordName), 
+                    chainRecordName.getId() + 1);
+        }
+        
+        ChainTopologyCache topologyCache = context.getTopologyCache();
+        if(topologyCache != null)
+        {
+            topologyCache.update(context.getServiceName(), context.getName(), acquiredNames);
+        }
+        
+        closeAndRemoveRemainingPreOpenedChainRecords();
+    }
+    
     @Override
     public synchronized void releaseAll()
     {
@@ -75,6 +159,11 @@ class ChainRecordFactoryImpl implements ChainRecordFactory, ChainRecordListener
         );
         
         preOpenedChainRecordByName.clear();
+        nameGuessesWindow = context.getNameGuessesCount();
+        lastGuessedId = NO_GUESS;
+        guessMissed = false;
+        acquiredNames.clear();
+        firstAcquisition = true;
     }
     
     private boolean isPreOpened(String name)
@@ -82,41 +171,84 @@ class ChainRecordFactoryImpl implements ChainRecordFactory, ChainRecordListener
         return preOpenedChainRecordByName.containsKey(name);
     }
     
-    private void guessAndPreOpenNextChainRecordsFor(String name)
-    {   
-        String strId = "0";
-        String rootName = name;
+    /**
+     * Pre-opens all the records the chain had when it last completed, if 
+     * the chain has a topology cache and starts with the same record.
+     */
+    private void preOpenCachedChainRecordsAfter(String firstChainRecordName)
+    {
+        ChainTopologyCache topologyCache = context.getTopologyCache();
+        if(topologyCache == null)
+            return;
         
-        Pattern regExPattern = Pattern.compile(chainNamePattern);
-        Matcher RegExMatcher = regExPattern.matcher(name);    
+        List<String> cachedNames = topologyCache.topologyOf(context.getServiceName(), context.getName());
+        if(cachedNames == null 
+                || cachedNames.isEmpty() 
+                || !cachedNames.get(0).equals(firstChainRecordName))
+            return;
         
-        if(RegExMatcher.find())
+        for(String cachedName : cachedNames.subList(1, cachedNames.size()))
+        {
+            preOpen(cachedName);
+        }
+    }
+    
+    /**
+     * Sizes the guesses window for the first acquired record of a chain. If 
+     * the chain completed before, all its known records are guessed.
+     */
+    private void startGuessingFor(ChainRecordName firstChainRecordName)
+    {
+        Integer knownRecordsCount = RECORDS_COUNT_BY_ROOT.get(rootKeyOf(firstChainRecordName));
+        if(knownRecordsCount != null)
         {
-            strId = name.substring(RegExMatcher.start(), RegExMatcher.end()-1);
-            rootName = name.substring(RegExMatcher.end());
+            int knownRecordsAhead = knownRecordsCount - 1 - firstChainRecordName.getId();
+            nameGuessesWindow = Math.max(nameGuessesWindow, 
+                    Math.min(knownRecordsAhead, MAX_NAME_GUESSES_WINDOW));
         }
-                
-        int id = Integer.parseUnsignedInt(strId, 16);
-        int maxId = id + context.getNameGuessesCount();
-        for(int nextId = id+1; nextId <= maxId; ++nextId)
+        lastGuessedId = firstChainRecordName.getId();
+    }
+    
+    private void guessAndPreOpenNextChainRecordsFor(ChainRecordName chainRecordName)
+    {   
+        if(guessMissed)
+            return;
+        
+        int maxId = chainRecordName.getId() + nameGuessesWindow;
+        for(int nextId = Math.max(lastGuessedId, chainRecordName.getId()) + 1; 
+                nextId <= maxId; 
+                ++nextId)
         {
-            String nextStrId = Integer.toString(nextId, 16);
-            nextStrId = nextStrId.toUpperCase();
-            String nextName = nextStrId + "#" + rootName;
-            
-            if(!isPreOpened(nextName))
-            {
-                ChainRecordFactory chainRecordFactory = this;
-                ChainRecordListener listener = this;
-                ChainRecord chainRecord = new ChainRecord(
-                        nextName,
-                        chainRecordFactory,
-                        context,
-                        listener);
-                chainRecord.preOpen();
-                preOpenedChainRecordByName.put(nextName, chainRecord);
-            }
+            preOpen(chainRecordName.nameAt(nextId));
         }
+        lastGuessedId = Math.max(lastGuessedId, maxId);
+    }
+    
+    private void preOpen(String name)
+    {
+        if(isPreOpened(name))
+            return;
+        
+        ChainRecordFactory chainRecordFactory = this;
+        ChainRecordListener listener = this;
+        ChainRecord chainRecord = new ChainRecord(
+                name,
+                chainRecordFactory,
+                context,
+                listener);
+        chainRecord.preOpen();
+        preOpenedChainRecordByName.put(name, chainRecord);
+    }
+    
+    private void stopGuessing()
+    {
+        guessMissed = true;
+        closeAndRemoveRemainingPreOpenedChainRecords();
+    }
+    
+    private String rootKeyOf(ChainRecordName chainRecordName)
+    {
+        return context.getServiceName() + "/" + chainRecordName.getRootName();
     }
 
     @Override
@@ -149,9 +281,26 @@ class ChainRecordFactoryImpl implements ChainRecordFactory, ChainRecordListener
         closeAndRemovedInvalidPreOpenedChainRecord(chainRecord);
     }
     
+    /**
+     * Closes a guessed record that does not exist and the guessed records 
+     * that follow it, as they do not exist either, and stops guessing.
+     */
     private void closeAndRemovedInvalidPreOpenedChainRecord(ChainRecord chainRecord)
     {
         chainRecord.close();
         preOpenedChainRecordByName.remove(chainRecord.getName());
+        guessMissed = true;
+        
+        int missedId = ChainRecordName.parse(chainRecord.getName()).getId();
+        Iterator<ChainRecord> preOpenedChainRecords = preOpenedChainRecordByName.values().iterator();
+        while(preOpenedChainRecords.hasNext())
+        {
+            ChainRecord preOpenedChainRecord = preOpenedChainRecords.next();
+            if(ChainRecordName.parse(preOpenedChainRecord.getName()).getId() > missedId)
+            {
+                preOpenedChainRecord.close();
+                preOpenedChainRecords.remove();
+            }
+        }
     }
 }
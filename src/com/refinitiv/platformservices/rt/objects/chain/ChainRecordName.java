@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.chain;
+
+/**
+ * The name of a <code>Chain Record</code>, split into its hexadecimal 
+ * position prefix and its root name. For example "1A#.INDEX" is split into 
+ * the position 26 and the root ".INDEX". Names without a prefix, like the 
+ * name of the first record of some chains, are at position 0.
+ */
+class ChainRecordName
+{
+    // Longer prefixes would overflow an int
+    private static final int MAX_ID_DIGITS = 7;
+
+    private final int id;
+    private final String rootName;
+
+    private ChainRecordName(int id, String rootName)
+    {
+        this.id = id;
+        this.rootName = rootName;
+    }
+
+    /**
+     * Splits a <code>Chain Record</code> name. The prefix is made of upper 
+     * case hexadecimal digits followed by a '#'.
+     * @param name the name of the <code>Chain Record</code>.
+     * @return the split name.
+     */
+    static ChainRecordName parse(String name)
+    {
+        int id = 0;
+        int index = 0;
+        while(index < name.length() && index <= MAX_ID_DIGITS)
+        {
+            int digit = hexDigitValue(name.charAt(index));
+            if(digit < 0)
+            {
+                break;
+            }
+            id = (id << 4) | digit;
+            ++index;
+        }
+
+        if(index == 0 
+                || index > MAX_ID_DIGITS 
+                || index == name.length() 
+                || name.charAt(index) != '#')
+        {
+            return new ChainRecordName(0, name);
+        }
+
+        return new ChainRecordName(id, name.substring(index + 1));
+    }
+
+    private static int hexDigitValue(char character)
+    {
+        if(character >= '0' && character <= '9')
+        {
+            return character - '0';
+        }
+        if(character >= 'A' && character <= 'F')
+        {
+            return character - 'A' + 10;
+        }
+        
+        return -1;
+    }
+
+    int getId()
+    {
+        return id;
+    }
+
+    String getRootName()
+    {
+        return rootName;
+    }
+
+    /**
+     * Builds the name of the <code>Chain Record</code> at another position 
+     * of the same chain.
+     * @param otherId the position of the other record.
+     * @return the name of the other record.
+     */
+    String nameAt(int otherId)
+    {
+        return Integer.toHexString(otherId).toUpperCase() + "#" + rootName;
+    }
+}
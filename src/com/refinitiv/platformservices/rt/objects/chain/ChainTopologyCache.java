@@ -0,0 +1,219 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.chain;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A file that persists the topology of the chains built with a topology 
+ * cache (see {@link FlatChain.Builder#withTopologyCache(Path)}), that is the
+ * ordered names of their <code>Chain Records</code>. There is one 
+ * <code>ChainTopologyCache</code> per path, shared by all the chains that use
+ * this path.
+ * <br>
+ * The topology of a chain is updated each time the chain completes and the 
+ * file is rewritten in the background, through a temporary file that 
+ * replaces the previous file once complete. Each line of the file holds the
+ * service name, the chain name and the names of the records of a chain, 
+ * separated by tabulations. Missing or malformed files are ignored.
+ */
+class ChainTopologyCache
+{
+    private static final Logger LOGGER = Logger.getLogger(ChainTopologyCache.class.getName());
+
+    private static final String SEPARATOR = "\t";
+    
+    private static final ConcurrentHashMap<Path, ChainTopologyCache> CACHES = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final Path temporaryPath;
+    // Record names of the chains, keyed by service name and chain name
+    private final Map<String, List<String>> topologies;
+    private final AtomicBoolean persistenceScheduled = new AtomicBoolean();
+
+    /**
+     * Returns the <code>ChainTopologyCache</code> of a path. The file is 
+     * loaded the first time the path is used.
+     * @param path the path of the file.
+     * @return the shared <code>ChainTopologyCache</code>.
+     */
+    static ChainTopologyCache forPath(Path path)
+    {
+        return CACHES.computeIfAbsent(path.toAbsolutePath().normalize(), ChainTopologyCache::new);
+    }
+
+    private ChainTopologyCache(Path path)
+    {
+        this.path = path;
+        temporaryPath = Paths.get(path.toString() + ".tmp");
+        topologies = load(path);
+    }
+
+    /**
+     * Returns the last known topology of a chain.
+     * @param serviceName the service name of the chain.
+     * @param chainName the name of the chain.
+     * @return the ordered names of the records of the chain or null if the
+     * chain is unknown.
+     */
+    List<String> topologyOf(String serviceName, String chainName)
+    {
+        return topologies.get(keyOf(serviceName, chainName));
+    }
+
+    /**
+     * Updates the topology of a chain and schedules the persistence of the
+     * file.
+     * @param serviceName the service name of the chain.
+     * @param chainName the name of the chain.
+     * @param recordNames the ordered names of the records of the chain.
+     */
+    void update(String serviceName, String chainName, List<String> recordNames)
+    {
+        List<String> topology = Collections.unmodifiableList(new ArrayList<>(recordNames));
+        List<String> previousTopology = topologies.put(keyOf(serviceName, chainName), topology);
+        if(topology.equals(previousTopology))
+        {
+            return;
+        }
+        
+        // Updates received while a persistence is pending are written by it
+        if(persistenceScheduled.compareAndSet(false, true))
+        {
+            PersistenceThread.INSTANCE.execute(this::persist);
+        }
+    }
+
+    /**
+     * Writes the topologies to the file. Errors are logged with 
+     * <code>java.util.logging</code> and the previous file is kept.
+     */
+    private void persist()
+    {
+        persistenceScheduled.set(false);
+        try
+        {
+            Path directory = path.getParent();
+            if(directory != null)
+            {
+                Files.createDirectories(directory);
+            }
+            
+            try(BufferedWriter writer = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8))
+            {
+                for(Map.Entry<String, List<String>> entry : topologies.entrySet())
+                {
+                    writer.write(entry.getKey());
+                    for(String recordName : entry.getValue())
+                    {
+                        writer.write(SEPARATOR);
+                        writer.write(recordName);
+                    }
+                    writer.newLine();
+                }
+            }
+
+            try
+            {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch(AtomicMoveNotSupportedException exception)
+            {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch(IOException | RuntimeException exception)
+        {
+            LOGGER.log(Level.WARNING, "The chain topology cache <" + path + "> cannot be written", exception);
+        }
+    }
+
+    /**
+     * Reads the topologies of an existing file.
+     * @param path the path of the file.
+     * @return the topologies keyed by service name and chain name. Empty if 
+     * the file does not exist or cannot be read.
+     */
+    private static Map<String, List<String>> load(Path path)
+    {
+        ConcurrentHashMap<String, List<String>> loadedTopologies = new ConcurrentHashMap<>();
+        if(!Files.isRegularFile(path))
+        {
+            return loadedTopologies;
+        }
+
+        try(BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+        {
+            String line;
+            while((line = reader.readLine()) != null)
+            {
+                String[] columns = line.split(SEPARATOR);
+                // The key holds the service name and the chain name
+                if(columns.length < 3)
+                {
+                    throw new IllegalArgumentException("Malformed line <" + line + ">.");
+                }
+                loadedTopologies.put(columns[0] + SEPARATOR + columns[1], 
+                        Collections.unmodifiableList(Arrays.asList(columns).subList(2, columns.length)));
+            }
+        }
+        catch(IOException | RuntimeException exception)
+        {
+            LOGGER.log(Level.WARNING, "The chain topology cache <" + path + "> is ignored", exception);
+            loadedTopologies.clear();
+        }
+
+        return loadedTopologies;
+    }
+
+    private static String keyOf(String serviceName, String chainName)
+    {
+        return serviceName + SEPARATOR + chainName;
+    }
+
+    /**
+     * Holder of the thread shared by all the <code>ChainTopologyCache</code>s
+     * to write their files. The thread is a daemon thread, created on first 
+     * use.
+     */
+    private static class PersistenceThread
+    {
+        static final ExecutorService INSTANCE =
+                Executors.newSingleThreadExecutor(
+                        (runnable) -> {
+                            Thread thread = new Thread(runnable, "Chain-TopologyCache");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+}
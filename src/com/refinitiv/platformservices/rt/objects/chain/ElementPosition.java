@@ -0,0 +1,172 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.chain;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The position of an element of a <code>RecursiveChain</code>, stored as an 
+ * array of primitive positions (one per depth) and exposed as an immutable 
+ * <code>List&lt;Long&gt;</code>. Positions are only boxed when they are read
+ * through the <code>List</code> interface.
+ */
+final class ElementPosition extends AbstractList<Long> implements RandomAccess
+{
+    /**
+     * Orders positions depth by depth, shorter positions first when one is
+     * the prefix of the other. <code>ElementPosition</code>s are compared
+     * without boxing.
+     */
+    static final Comparator<List<Long>> ORDER = ElementPosition::compare;
+
+    private final long[] positions;
+
+    private ElementPosition(long[] positions)
+    {
+        this.positions = positions;
+    }
+
+    /**
+     * Builds the position of an element at the first depth.
+     * @param position the position of the element.
+     * @return the built position.
+     */
+    static ElementPosition of(long position)
+    {
+        return new ElementPosition(new long[] {position});
+    }
+
+    /**
+     * Converts a list of positions.
+     * @param positions the positions, one per depth.
+     * @return the same object if it is an <code>ElementPosition</code>, a 
+     * copy otherwise.
+     */
+    static ElementPosition of(List<Long> positions)
+    {
+        if(positions instanceof ElementPosition)
+        {
+            return (ElementPosition) positions;
+        }
+
+        long[] copiedPositions = new long[positions.size()];
+        int depth = 0;
+        for(Long position : positions)
+        {
+            copiedPositions[depth++] = position;
+        }
+        
+        return new ElementPosition(copiedPositions);
+    }
+
+    /**
+     * Builds the position of this element in a parent chain.
+     * @param parentPosition the position of the sub-chain that contains this
+     * element in the parent chain.
+     * @return the position in the parent chain.
+     */
+    ElementPosition prefixedWith(long parentPosition)
+    {
+        long[] prefixedPositions = new long[positions.length + 1];
+        prefixedPositions[0] = parentPosition;
+        System.arraycopy(positions, 0, prefixedPositions, 1, positions.length);
+        
+        return new ElementPosition(prefixedPositions);
+    }
+
+    /**
+     * Returns the first position that follows this position and all the 
+     * positions it prefixes. Used as the exclusive upper bound of the 
+     * elements of a sub-chain.
+     * @return the next sibling position.
+     */
+    ElementPosition nextSibling()
+    {
+        long[] siblingPositions = positions.clone();
+        ++siblingPositions[siblingPositions.length - 1];
+        
+        return new ElementPosition(siblingPositions);
+    }
+
+    @Override
+    public Long get(int depth)
+    {
+        return positions[depth];
+    }
+
+    @Override
+    public int size()
+    {
+        return positions.length;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof ElementPosition)
+        {
+            return Arrays.equals(positions, ((ElementPosition) other).positions);
+        }
+        
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        // Same value as List.hashCode()
+        int hashCode = 1;
+        for(long position : positions)
+        {
+            hashCode = 31 * hashCode + Long.hashCode(position);
+        }
+        
+        return hashCode;
+    }
+
+    private static int compare(List<Long> positions1, List<Long> positions2)
+    {
+        if(positions1 instanceof ElementPosition && positions2 instanceof ElementPosition)
+        {
+            long[] array1 = ((ElementPosition) positions1).positions;
+            long[] array2 = ((ElementPosition) positions2).positions;
+            int commonDepth = Math.min(array1.length, array2.length);
+            for(int depth = 0; depth < commonDepth; ++depth)
+            {
+                if(array1[depth] != array2[depth])
+                {
+                    return Long.compare(array1[depth], array2[depth]);
+                }
+            }
+            
+            return Integer.compare(array1.length, array2.length);
+        }
+
+        int commonDepth = Math.min(positions1.size(), positions2.size());
+        for(int depth = 0; depth < commonDepth; ++depth)
+        {
+            int comparison = Long.compare(positions1.get(depth), positions2.get(depth));
+            if(comparison != 0)
+            {
+                return comparison;
+            }
+        }
+        
+        return Integer.compare(positions1.size(), positions2.size());
+    }
+}
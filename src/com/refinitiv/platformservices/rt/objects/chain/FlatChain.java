@@ -14,7 +14,16 @@
 package com.refinitiv.platformservices.rt.objects.chain;
 
 import com.refinitiv.ema.access.OmmConsumer;
+import com.refinitiv.platformservices.rt.objects.common.CallbackExecutors;
+import com.refinitiv.platformservices.rt.objects.common.DispatcherPool;
+import com.refinitiv.platformservices.rt.objects.common.MessageRecorder;
+import com.refinitiv.platformservices.rt.objects.common.MessageReplayer;
+import com.refinitiv.platformservices.rt.objects.common.RingBuffer;
+import com.refinitiv.platformservices.rt.objects.common.SerialExecutor;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The interface of a <code>Chain</code> implementation you can use to open flat
@@ -49,12 +58,32 @@ import java.util.Map;
 public interface FlatChain extends Chain
 {
 
+    /**
+     * Opens this <code>FlatChain</code> asynchronously, whatever the synchronous
+     * mode set at build time. The returned <code>CompletableFuture</code> is 
+     * completed with this <code>FlatChain</code> as soon as it is complete 
+     * (see {@link #isComplete()}), right after the <code>OnCompleteFunction</code> 
+     * is called. It is cancelled if the <code>FlatChain</code> is closed before 
+     * it completes. If the <code>FlatChain</code> is already opened or being 
+     * opened, the future of this previous open is returned.
+     * <br>
+     * <br>
+     * <strong>Note:</strong> The future is completed by the thread that 
+     * dispatches EMA events. Dependent actions that are not registered with 
+     * an <code>Executor</code> are run by this thread and must not block it.
+     * @return the future of the open.
+     */
+    CompletableFuture<FlatChain> openAsync();
+
     /**
      * Returns the elements of this chain. FlatChain elements are returned in 
      * a <code>Map</code> with the elements positions as keys and the elements 
      * names as values. The first position starts at 0. The map is sorted 
      * according to the natural ordering of the positions. If the chain is not 
      * complete this method may return a partial list of elements. 
+     * The returned <code>Map</code> is an unmodifiable view of a snapshot 
+     * (see {@link #getElementsSnapshot()}): it does not reflect the elements
+     * added, changed or removed afterwards.
      * @see Chain#isComplete()
      * @see Builder#onComplete(FlatChain.OnCompleteFunction)
      * 
@@ -62,6 +91,27 @@ public interface FlatChain extends Chain
      * their respective positions (keys).
      */
     Map<Long, String> getElements();
+
+    /**
+     * Returns an immutable snapshot of the elements of this chain. Snapshots
+     * give access to the elements by position in constant time, and to ranges
+     * of elements without copying them. They can be held and read by any 
+     * thread without locking the chain. Taking a snapshot does not copy the
+     * elements: the chain copies them by chunks when it modifies them later.
+     * If the chain is not complete the snapshot may contain a partial list of
+     * elements. 
+     * 
+     * @return the snapshot of the elements.
+     */
+    ChainElements getElementsSnapshot();
+
+    /**
+     * Returns the name of the element at a position, in constant time.
+     * @param position the position of the element. The first position is 0.
+     * @return the name of the element or null if there is no element at this
+     * position.
+     */
+    String getElementAt(long position);
         
     /**
      * Represents an optional operation that is called when an element is added 
@@ -195,12 +245,18 @@ public interface FlatChain extends Chain
     public static class Builder
     {
         OmmConsumer ommConsumer;
+        DispatcherPool dispatcherPool;
         String chainName = "";
         String serviceName = "ELEKTRON_DD";
         boolean withUpdates = false;
         SummaryLinksToSkipByDisplayTemplate summaryLinksToSkipByDisplayTemplate;
         int nameGuessesCount = 0;
+        Path topologyCachePath;
         boolean synchronousModeActivated;
+        Executor callbackExecutor;
+        RingBuffer<ChainEvent> eventPipeline;
+        MessageRecorder messageRecorder;
+        MessageReplayer messageReplayer;
         boolean autoDispatch;        
         OnElementAddedFunction onElementAddedFunction = (position, name, chain) ->{};
         OnElementChangedFunction onElementChangedFunction = (position, previousName, newName, chain) ->{};
@@ -225,9 +281,25 @@ public interface FlatChain extends Chain
             {
                 throw new IllegalStateException("The Chain.Builder cannot build a chain without a name");
             }
-            if (ommConsumer == null)
+            if (ommConsumer == null && dispatcherPool == null && messageReplayer == null)
+            {
+                throw new IllegalStateException("The Chain.Builder cannot build a chain without an OmmConsumer or a DispatcherPool.");
+            }
+            if (messageReplayer != null && (ommConsumer != null || dispatcherPool != null))
+            {
+                throw new IllegalStateException("The Chain.Builder cannot build a chain with both a MessageReplayer and an OmmConsumer or a DispatcherPool.");
+            }
+            if (messageReplayer != null && synchronousModeActivated)
+            {
+                throw new IllegalStateException("The Chain.Builder cannot build a chain that is opened synchronously with a MessageReplayer.");
+            }
+            if (ommConsumer != null && dispatcherPool != null)
+            {
+                throw new IllegalStateException("The Chain.Builder cannot build a chain with both an OmmConsumer and a DispatcherPool.");
+            }
+            if (eventPipeline != null && callbackExecutor != null)
             {
-                throw new IllegalStateException("The Chain.Builder cannot build a chain without an OmmConsumer.");
+                throw new IllegalStateException("The Chain.Builder cannot build a chain with both an event pipeline and a callback executor.");
             }
 
             FlatChainImpl builtChain = new FlatChainImpl(this);
@@ -251,6 +323,28 @@ public interface FlatChain extends Chain
             return this;
         }
 
+        /**
+         * Sets the <code>DispatcherPool</code> that provides the EMA OmmConsumer
+         * used by the chain to subscribe to the underlying <code>Chain 
+         * Records</code>. The OmmConsumer is selected by the sharding policy of
+         * the pool, based on the chain name, and its events are dispatched by
+         * the threads of the pool. Use either this method or 
+         * <code>withOmmConsumer()</code>, not both.
+         * <br>
+         * <br>
+         * <strong>Note:</strong> As events are dispatched by the pool, the 
+         * autoDispatch parameter of the synchronous mode is ignored: the 
+         * <code>open()</code> method just waits for the completion of the 
+         * chain.
+         * @param dispatcherPool the pool of OmmConsumers.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withDispatcherPool(DispatcherPool dispatcherPool)
+        {
+            this.dispatcherPool = dispatcherPool;
+            return this;
+        }
+
         /**
          * Sets the name of the chain.
          * @param chainName the name of the chain.
@@ -320,8 +414,13 @@ public interface FlatChain extends Chain
          * Record</code>. Checkout this <a href="https://developers.refinitiv.com/platform-services-work-progress/ema/docs?content=12021&type=documentation_item" target="_blank">Refinitiv article</a> 
          * to learn more about the name guessing optimization.  If this method 
          * is not called, the "Name Guessing Optimization" is not activated.
-         * @param guessesCount the number of names to guess. A reasonable value 
-         * would be between 5 and 50.
+         * <br>
+         * The guessing is adaptive: the number of names guessed ahead doubles
+         * (up to 256) each time a guessed record is reached, the length of the
+         * chain is remembered for its next opens, and the guessing stops as 
+         * soon as a guessed record does not exist.
+         * @param guessesCount the initial number of names to guess. A 
+         * reasonable value would be between 5 and 50.
          * @return this Builder so that you can chain other Builder methods calls.
          */
         public Builder withNameGuessingOptimization(int guessesCount)
@@ -334,6 +433,29 @@ public interface FlatChain extends Chain
             this.nameGuessesCount = guessesCount;
             return this;
         }
+
+        /**
+         * Activates the topology cache of the <code>FlatChain</code> to build.
+         * Each time the chain completes, the ordered names of its 
+         * <code>Chain Records</code> are persisted to the cache file. When 
+         * the chain is opened again, all the records it had are requested in 
+         * parallel as soon as the first record is requested, instead of one 
+         * after the other as their names are learned from the NEXT_LR links.
+         * The chain is still built from the real PREV_LR and NEXT_LR links of
+         * its records: cached records that are not part of the chain any 
+         * more are closed, and new records are requested as usual.
+         * <br>
+         * There is one cache per file, shared by all the chains built with 
+         * the same path. The file is rewritten in the background after each
+         * update.
+         * @param path the path of the topology cache file.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withTopologyCache(Path path)
+        {
+            this.topologyCachePath = path;
+            return this;
+        }
         
         /**
          * Indicates if the <code>FlatChain</code> must be opened synchronously.
@@ -375,6 +497,93 @@ public interface FlatChain extends Chain
             this.autoDispatch = autoDispatch;
             return this;
         }
+
+        /**
+         * Sets the executor that runs the functional interfaces of the 
+         * <code>FlatChain</code>. The <code>FlatChain</code> gets its own 
+         * {@link SerialExecutor} mailbox on top of this executor, so that its
+         * callbacks are run one at a time and in order, and no longer on the
+         * thread that dispatches EMA events.
+         * If <code>withCallbackExecutor</code> is not called, the callbacks
+         * are run by the thread that dispatches EMA events.
+         * @param callbackExecutor the executor that provides the threads of 
+         * the callbacks.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withCallbackExecutor(Executor callbackExecutor)
+        {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Indicates that the functional interfaces of the <code>FlatChain</code>
+         * must be run on virtual threads, in order. This is equivalent to 
+         * <code>withCallbackExecutor(CallbackExecutors.virtualThreads())</code>.
+         * See {@link CallbackExecutors#virtualThreads()} for the JVM requirements.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withVirtualThreadCallbacks()
+        {
+            return withCallbackExecutor(CallbackExecutors.virtualThreads());
+        }
+
+        /**
+         * Sets the ring buffer the <code>FlatChain</code> publishes its 
+         * element additions, changes, removals and errors into, instead of 
+         * calling the corresponding functional interfaces. The events are 
+         * written into the preallocated slots of the ring buffer and handled
+         * by its consumers, each on its own thread and at its own pace. The
+         * <code>OnCompleteFunction</code> is still called as usual.
+         * <br>
+         * <br>
+         * <strong>Note:</strong> The ring buffer accepts a single producer. All 
+         * the chains that share it must have their EMA events dispatched by 
+         * the same thread.
+         * @param eventPipeline the started ring buffer.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withEventPipeline(RingBuffer<ChainEvent> eventPipeline)
+        {
+            this.eventPipeline = eventPipeline;
+            return this;
+        }
+
+        /**
+         * Records the messages received by the <code>Chain Records</code> of 
+         * the <code>FlatChain</code> to build, with their arrival time, so 
+         * that they can be replayed later on (see 
+         * {@link #withMessageReplayer(MessageReplayer)}).
+         * @param messageRecorder the recorder.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withMessageRecorder(MessageRecorder messageRecorder)
+        {
+            this.messageRecorder = messageRecorder;
+            return this;
+        }
+
+        /**
+         * Feeds the <code>Chain Records</code> of the <code>FlatChain</code> 
+         * to build with the messages of a recording instead of an 
+         * OmmConsumer. The chain is decoded from the replayed messages 
+         * exactly as from the messages received from EMA. A 
+         * <code>FlatChain</code> built with a replayer must not be given an 
+         * OmmConsumer or a DispatcherPool, and cannot be opened 
+         * synchronously.
+         * @param messageReplayer the replayer.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withMessageReplayer(MessageReplayer messageReplayer)
+        {
+            this.messageReplayer = messageReplayer;
+            return this;
+        }
         
         /**
          * Sets the function to be called when the chain decodes a new element. 
@@ -15,20 +15,25 @@ package com.refinitiv.platformservices.rt.objects.chain;
 
 import com.refinitiv.ema.access.OmmConsumer;
 import com.refinitiv.platformservices.rt.objects.common.Dispatcher;
-import java.util.Collections;
+import com.refinitiv.platformservices.rt.objects.common.MessageRecorder;
+import com.refinitiv.platformservices.rt.objects.common.MessageReplayer;
+import com.refinitiv.platformservices.rt.objects.common.RingBuffer;
+import com.refinitiv.platformservices.rt.objects.common.SerialExecutor;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListener
 {
-    private static final int WAITING_LOOP_TIMEOUT_IN_MS = 200;
-            
     private final OmmConsumer ommConsumer;
     private final String name;
     private final String serviceName;
     private final boolean withUpdates;
     private final SummaryLinksToSkipByDisplayTemplate summaryLinksToSkipByDisplayTemplate;
     private final int nameGuessesCount;
+    private final ChainTopologyCache topologyCache;
     private final boolean synchronousModeActivated;
     private final boolean autoDispatch;    
     private final OnElementAddedFunction onElementAddedFunction;
@@ -40,24 +45,45 @@ class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListene
     private ChainRecord firstChainRecord;
     private enum State {OPENING, OPENED, CLOSING, CLOSED, IN_ERROR};
     private State state;
-    private final Map<Long, String> elementsByPosition = new TreeMap<>();
-    private static Dispatcher dispatcher;    
+    private CompletableFuture<FlatChain> openFuture;
+    private final ChainElementsIndex elementsByPosition = new ChainElementsIndex();
+    private final Dispatcher dispatcher;    
+    // Runs the callbacks of this chain in order when set, otherwise they run
+    // on the dispatching thread
+    private final Executor callbackExecutor;
+    // Receives the element events instead of the functional interfaces when
+    // set
+    private final RingBuffer<ChainEvent> eventPipeline;
+    private final MessageRecorder messageRecorder;
+    private final MessageReplayer messageReplayer;
     
     public FlatChainImpl(FlatChain.Builder builder)
     {
-        ommConsumer = builder.ommConsumer;
         name = builder.chainName;
+        ommConsumer = builder.dispatcherPool != null 
+                ? builder.dispatcherPool.ommConsumerFor(name) 
+                : builder.ommConsumer;
         serviceName = builder.serviceName;
         withUpdates = builder.withUpdates;
         summaryLinksToSkipByDisplayTemplate = builder.summaryLinksToSkipByDisplayTemplate;
         nameGuessesCount = builder.nameGuessesCount;
+        topologyCache = builder.topologyCachePath != null 
+                ? ChainTopologyCache.forPath(builder.topologyCachePath) 
+                : null;
         synchronousModeActivated = builder.synchronousModeActivated;
-        autoDispatch = builder.autoDispatch;    
+        // Events of pooled OmmConsumers are dispatched by the pool threads
+        autoDispatch = builder.autoDispatch && builder.dispatcherPool == null;    
         onElementAddedFunction = builder.onElementAddedFunction;
         onElementChangedFunction = builder.onElementChangedFunction;
         onElementRemovedFunction = builder.onElementRemovedFunction;
         onCompleteFunction = builder.onCompleteFunction;
         onErrorFunction = builder.onErrorFunction;
+        callbackExecutor = builder.callbackExecutor != null 
+                ? new SerialExecutor(builder.callbackExecutor) 
+                : null;
+        eventPipeline = builder.eventPipeline;
+        messageRecorder = builder.messageRecorder;
+        messageReplayer = builder.messageReplayer;
 
         ChainRecordContext chainRecordContext = this;
         ChainRecordListener chainRecordListener = this;
@@ -65,9 +91,12 @@ class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListene
         
         state = State.CLOSED;
         
-        dispatcher = new Dispatcher.Builder()
-                .withOmmConsumer(ommConsumer)
-                .build();        
+        // Replayed chains have no OmmConsumer to dispatch
+        dispatcher = ommConsumer != null 
+                ? new Dispatcher.Builder()
+                        .withOmmConsumer(ommConsumer)
+                        .build()
+                : null;
     }
 
     @Override
@@ -84,22 +113,31 @@ class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListene
 
     @Override
     public void open()
+    {
+        CompletableFuture<FlatChain> future = openAsync();
+        
+        if(synchronousModeActivated)
+        {
+            waitForCompletion(future);
+        }        
+    }
+
+    @Override
+    public CompletableFuture<FlatChain> openAsync()
     {
         synchronized(this)
         {
             if(state == State.OPENED || state == State.OPENING || state == State.IN_ERROR)
-                return;
+                return openFuture;
 
             state = State.OPENING;
+            openFuture = new CompletableFuture<>();
 
             firstChainRecord = chainRecordFactory.acquire(getName());
             firstChainRecord.open();
+            
+            return openFuture;
         }
-        
-        if(synchronousModeActivated)
-        {
-            waitForCompletion();
-        }        
     }
 
     @Override
@@ -109,6 +147,10 @@ class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListene
             return;
 
         state = State.CLOSING;
+        if(openFuture != null && !openFuture.isDone())
+        {
+            openFuture.cancel(false);
+        }
         elementsByPosition.clear();
         
         firstChainRecord.close();
@@ -142,9 +184,19 @@ class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListene
     @Override
     public synchronized Map<Long, String> getElements()
     {
-        Map<Long, String> deepCopiedElementsToReturn = Collections.unmodifiableMap(elementsByPosition);
-        
-        return deepCopiedElementsToReturn;
+        return elementsByPosition.snapshot().asMap();
+    }
+
+    @Override
+    public synchronized ChainElements getElementsSnapshot()
+    {
+        return elementsByPosition.snapshot();
+    }
+
+    @Override
+    public synchronized String getElementAt(long position)
+    {
+        return elementsByPosition.get(position);
     }
         
     @Override
@@ -153,6 +205,24 @@ class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListene
         return ommConsumer;
     }
 
+    @Override
+    public ChainTopologyCache getTopologyCache()
+    {
+        return topologyCache;
+    }
+
+    @Override
+    public MessageRecorder getMessageRecorder()
+    {
+        return messageRecorder;
+    }
+
+    @Override
+    public MessageReplayer getMessageReplayer()
+    {
+        return messageReplayer;
+    }
+
     @Override
     public boolean getWithUpdates()
     {
@@ -208,7 +278,14 @@ class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListene
             return;
 
         elementsByPosition.put(position, name);
-        onElementAddedFunction.onElementAdded(position, name, this);
+        if(eventPipeline != null)
+        {
+            publishEvent(ChainEvent.Type.ELEMENT_ADDED, position, name, null, null);
+        }
+        else
+        {
+            deliver(() -> onElementAddedFunction.onElementAdded(position, name, this));
+        }
     }
 
     @Override
@@ -218,7 +295,14 @@ class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListene
             return;
 
         elementsByPosition.remove(position);
-        onElementRemovedFunction.onElementRemoved(position, this);
+        if(eventPipeline != null)
+        {
+            publishEvent(ChainEvent.Type.ELEMENT_REMOVED, position, null, null, null);
+        }
+        else
+        {
+            deliver(() -> onElementRemovedFunction.onElementRemoved(position, this));
+        }
     }
 
     @Override
@@ -228,7 +312,14 @@ class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListene
             return;
 
         elementsByPosition.replace(position, newName);
-        onElementChangedFunction.onElementChanged(position, previousName, newName, this);
+        if(eventPipeline != null)
+        {
+            publishEvent(ChainEvent.Type.ELEMENT_CHANGED, position, newName, previousName, null);
+        }
+        else
+        {
+            deliver(() -> onElementChangedFunction.onElementChanged(position, previousName, newName, this));
+        }
     }
 
     @Override
@@ -238,7 +329,8 @@ class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListene
             return;
 
         state = State.OPENED;
-        onCompleteFunction.onComplete(this);
+        chainRecordFactory.onChainCompleted(chainRecord);
+        notifyComplete();
     }
 
     @Override
@@ -250,35 +342,91 @@ class FlatChainImpl implements FlatChain, ChainRecordContext, ChainRecordListene
         State previousState = state;
         state = State.IN_ERROR;
         
-        onErrorFunction.onError(errorMessage, this);
+        if(eventPipeline != null)
+        {
+            publishEvent(ChainEvent.Type.ERROR, -1, null, null, errorMessage);
+        }
+        else
+        {
+            deliver(() -> onErrorFunction.onError(errorMessage, this));
+        }
 
         if(previousState == State.OPENING)
         {
-            onCompleteFunction.onComplete(this);
+            notifyComplete();
         }
     }
     
     /**
-     * Wait for the completion of this MarketPrice either by sleeping 
-     * (autoDispatch==false) or by dispatching events (autoDispatch==false)
+     * Notifies the completion of this FlatChain to the application, then 
+     * completes the future of the open.
+     */
+    private void notifyComplete()
+    {
+        CompletableFuture<FlatChain> future = openFuture;
+        deliver(() -> 
+                {
+                    onCompleteFunction.onComplete(this);
+                    if(future != null)
+                    {
+                        future.complete(this);
+                    }
+                });
+    }
+
+    /**
+     * Publishes an event into the next slot of the event pipeline. Waits if
+     * the slowest consumer of the pipeline is a full ring behind.
+     * @param type the type of the event.
+     * @param position the position of the element.
+     * @param elementName the name of the element.
+     * @param previousName the previous name of a changed element.
+     * @param errorMessage the error message.
      */
-    private void waitForCompletion() 
+    private void publishEvent(ChainEvent.Type type, long position, String elementName, String previousName, String errorMessage)
     {
-        do
+        long sequence = eventPipeline.next();
+        eventPipeline.get(sequence).set(type, this, position, elementName, previousName, errorMessage);
+        eventPipeline.publish(sequence);
+    }
+
+    /**
+     * Runs a callback of the application, on the callback executor if there
+     * is one, otherwise on the current thread.
+     * @param callback the callback to run.
+     */
+    private void deliver(Runnable callback)
+    {
+        if(callbackExecutor != null)
         {
-            if(autoDispatch)
-            {
-                dispatcher.dispatchEventsUntilComplete(this);
-            }
-            else
+            callbackExecutor.execute(callback);
+        }
+        else
+        {
+            callback.run();
+        }
+    }
+
+    /**
+     * Wait for the completion of this FlatChain either by waiting for the 
+     * future of the open (autoDispatch==false) or by dispatching events until
+     * this future is done (autoDispatch==true). Both return as soon as the 
+     * FlatChain completes.
+     * @param future the future returned by {@link #openAsync()}
+     */
+    private void waitForCompletion(CompletableFuture<FlatChain> future) 
+    {
+        if(autoDispatch)
+        {
+            dispatcher.dispatchEventsUntilComplete(future::isDone);
+        }
+        else
+        {
+            try 
             {
-                try 
-                {
-                    Thread.sleep(WAITING_LOOP_TIMEOUT_IN_MS);
-                } 
-                catch (InterruptedException exception) {}
-            }
-        } 
-        while (!isComplete());
+                future.join();
+            } 
+            catch (CancellationException | CompletionException exception) {}
+        }
     }
 }
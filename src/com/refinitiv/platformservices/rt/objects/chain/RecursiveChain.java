@@ -14,8 +14,13 @@
 package com.refinitiv.platformservices.rt.objects.chain;
 
 import com.refinitiv.ema.access.OmmConsumer;
+import com.refinitiv.platformservices.rt.objects.common.CallbackExecutors;
+import com.refinitiv.platformservices.rt.objects.common.DispatcherPool;
+import com.refinitiv.platformservices.rt.objects.common.SerialExecutor;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The interface of a <code>Chain</code> implementation you can use to open 
@@ -83,6 +88,23 @@ import java.util.Map;
  */
 public interface RecursiveChain extends Chain
 {        
+    /**
+     * Opens this <code>RecursiveChain</code> asynchronously, whatever the synchronous
+     * mode set at build time. The returned <code>CompletableFuture</code> is 
+     * completed with this <code>RecursiveChain</code> as soon as it is complete 
+     * (see {@link #isComplete()}), right after the <code>OnCompleteFunction</code> 
+     * is called. It is cancelled if the <code>RecursiveChain</code> is closed before 
+     * it completes. If the <code>RecursiveChain</code> is already opened or being 
+     * opened, the future of this previous open is returned.
+     * <br>
+     * <br>
+     * <strong>Note:</strong> The future is completed by the thread that 
+     * dispatches EMA events. Dependent actions that are not registered with 
+     * an <code>Executor</code> are run by this thread and must not block it.
+     * @return the future of the open.
+     */
+    public abstract CompletableFuture<RecursiveChain> openAsync();
+
     /**
      * Returns the elements of this <code>RecursiveChain</code>. 
      * <code>RecursiveChain</code> elements are returned in a <code>Map</code> 
@@ -105,6 +127,19 @@ public interface RecursiveChain extends Chain
      * their respective positions (keys).
      */
     public abstract Map<List<Long>, List<String>> getElements();
+
+    /**
+     * Returns the elements of this <code>RecursiveChain</code> whose positions
+     * are in a range, in the same form as {@link #getElements()}. As an 
+     * example, the elements of the fourth sub-chain are returned for the 
+     * range [3] to [4].
+     * 
+     * @param fromPosition the position of the first element (inclusive).
+     * @param toPosition the position that ends the range (exclusive).
+     * @return a <code>Map</code> that contains the elements names (values) and 
+     * their respective positions (keys).
+     */
+    public abstract Map<List<Long>, List<String>> getElements(List<Long> fromPosition, List<Long> toPosition);
         
     /**
      * Represents an optional operation that is called when an element is added 
@@ -208,16 +243,20 @@ public interface RecursiveChain extends Chain
     public static class Builder
     {
         OmmConsumer ommConsumer;
+        DispatcherPool dispatcherPool;
         String chainName = "";
         String serviceName = "ELEKTRON";
         SummaryLinksToSkipByDisplayTemplate summaryLinksToSkipByDisplayTemplate;
         int nameGuessesCount;
         int maxDepth = -1;
         boolean synchronousModeActivated;
+        Executor callbackExecutor;
         boolean autoDispatch;        
         OnElementAddedFunction onElementAddedFunction = (position, path, chain) ->{};
         OnCompleteFunction onCompleteFunction = (chain) -> {};
         OnErrorFunction onErrorFunction = (errorMessage, chain) -> {};
+        // Set by the parent chain when it builds a sub-chain
+        RecursiveChainImpl parentChain;
 
         /**
          * Default constructor
@@ -236,9 +275,13 @@ public interface RecursiveChain extends Chain
             {
                 throw new IllegalStateException("The Chain.Builder cannot build a chain without a name");
             }
-            if (ommConsumer == null)
+            if (ommConsumer == null && dispatcherPool == null)
+            {
+                throw new IllegalStateException("The Chain.Builder cannot build a chain without an OmmConsumer or a DispatcherPool.");
+            }
+            if (ommConsumer != null && dispatcherPool != null)
             {
-                throw new IllegalStateException("The Chain.Builder cannot build a chain without an OmmConsumer.");
+                throw new IllegalStateException("The Chain.Builder cannot build a chain with both an OmmConsumer and a DispatcherPool.");
             }
 
             RecursiveChainImpl builtChain = new RecursiveChainImpl(this);
@@ -261,6 +304,29 @@ public interface RecursiveChain extends Chain
             this.ommConsumer = ommConsumer;
             return this;
         }
+
+        /**
+         * Sets the <code>DispatcherPool</code> that provides the EMA OmmConsumer
+         * used by the chain to subscribe to the underlying <code>Chain 
+         * Records</code>. The OmmConsumer is selected by the sharding policy of
+         * the pool, based on the chain name, and its events are dispatched by
+         * the threads of the pool. The sub-chains of the 
+         * <code>RecursiveChain</code> use the same OmmConsumer. Use either this method or 
+         * <code>withOmmConsumer()</code>, not both.
+         * <br>
+         * <br>
+         * <strong>Note:</strong> As events are dispatched by the pool, the 
+         * autoDispatch parameter of the synchronous mode is ignored: the 
+         * <code>open()</code> method just waits for the completion of the 
+         * chain.
+         * @param dispatcherPool the pool of OmmConsumers.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withDispatcherPool(DispatcherPool dispatcherPool)
+        {
+            this.dispatcherPool = dispatcherPool;
+            return this;
+        }
         
         /**
          * Sets the name of the chain.
@@ -379,6 +445,38 @@ public interface RecursiveChain extends Chain
             this.autoDispatch = autoDispatch;
             return this;
         }
+
+        /**
+         * Sets the executor that runs the functional interfaces of the 
+         * <code>RecursiveChain</code>. The <code>RecursiveChain</code> gets its own 
+         * {@link SerialExecutor} mailbox on top of this executor, so that its
+         * callbacks are run one at a time and in order, and no longer on the
+         * thread that dispatches EMA events.
+         * If <code>withCallbackExecutor</code> is not called, the callbacks
+         * are run by the thread that dispatches EMA events.
+         * @param callbackExecutor the executor that provides the threads of 
+         * the callbacks.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withCallbackExecutor(Executor callbackExecutor)
+        {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Indicates that the functional interfaces of the <code>RecursiveChain</code>
+         * must be run on virtual threads, in order. This is equivalent to 
+         * <code>withCallbackExecutor(CallbackExecutors.virtualThreads())</code>.
+         * See {@link CallbackExecutors#virtualThreads()} for the JVM requirements.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withVirtualThreadCallbacks()
+        {
+            return withCallbackExecutor(CallbackExecutors.virtualThreads());
+        }
         
         /**
          * Sets the function to be called when the chain decodes a new element. 
@@ -15,19 +15,22 @@ package com.refinitiv.platformservices.rt.objects.chain;
 
 import com.refinitiv.ema.access.OmmConsumer;
 import com.refinitiv.platformservices.rt.objects.common.Dispatcher;
+import com.refinitiv.platformservices.rt.objects.common.SerialExecutor;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 class RecursiveChainImpl implements RecursiveChain
 {
-    private static final int WAITING_LOOP_TIMEOUT_IN_MS = 200;
-            
     private final OmmConsumer ommConsumer;
     private final String name;
     private final String serviceName;
@@ -41,25 +44,45 @@ class RecursiveChainImpl implements RecursiveChain
     private final OnErrorFunction onErrorFunction;
     private enum State {OPENING, OPENED, CLOSING, CLOSED, IN_ERROR};
     private State state;
+    private CompletableFuture<RecursiveChain> openFuture;
     private final FlatChain currentDepthChain;
     private final Map<RecursiveChain, Long> positionsBySubChain = new HashMap<>();
+    private final Map<Long, RecursiveChain> subChainsByPosition = new HashMap<>();
+    // Flattened elements of the whole tree, maintained as sub-chains report
+    // their elements. Keys are ElementPositions, values unmodifiable lists. 
+    // Guarded by itself rather than by this, as sub-chains update it while 
+    // this chain may be closing them.
+    private final NavigableMap<List<Long>, List<String>> elementsByPosition = new TreeMap<>(ElementPosition.ORDER);
+    // The chain this chain is a sub-chain of. Null for the root chain.
+    private final RecursiveChainImpl parentChain;
     private final boolean maxDepthReached;
     private boolean isComplete;
-    private static Dispatcher dispatcher; 
+    private final Dispatcher dispatcher; 
+    // Runs the callbacks of this chain in order when set, otherwise they run
+    // on the dispatching thread. Sub-chains never have one.
+    private final Executor callbackExecutor;
 
     public RecursiveChainImpl(RecursiveChain.Builder builder)
     {
-        ommConsumer = builder.ommConsumer;
         name = builder.chainName;
+        // Sub-chains are opened with the same OmmConsumer
+        ommConsumer = builder.dispatcherPool != null 
+                ? builder.dispatcherPool.ommConsumerFor(name) 
+                : builder.ommConsumer;
         serviceName = builder.serviceName;
         summaryLinksToSkipByDisplayTemplate = builder.summaryLinksToSkipByDisplayTemplate;
         nameGuessesCount = builder.nameGuessesCount;
         maxDepth = builder.maxDepth;
         synchronousModeActivated = builder.synchronousModeActivated;
-        autoDispatch = builder.autoDispatch;            
+        // Events of pooled OmmConsumers are dispatched by the pool threads
+        autoDispatch = builder.autoDispatch && builder.dispatcherPool == null;            
         onElementAddedFunction = builder.onElementAddedFunction;
         onCompleteFunction = builder.onCompleteFunction;
         onErrorFunction = builder.onErrorFunction;
+        parentChain = builder.parentChain;
+        callbackExecutor = builder.callbackExecutor != null 
+                ? new SerialExecutor(builder.callbackExecutor) 
+                : null;
         
         state = State.CLOSED;
         currentDepthChain = buildFlatChain(name);
@@ -87,29 +110,38 @@ class RecursiveChainImpl implements RecursiveChain
     
     @Override
     public void open()
+    {
+        CompletableFuture<RecursiveChain> future = openAsync();
+        
+        if(synchronousModeActivated)
+        {
+            waitForCompletion(future);
+        }                
+    }
+
+    @Override
+    public CompletableFuture<RecursiveChain> openAsync()
     {
         synchronized(this)
         {
             if(state == State.OPENED || state == State.OPENING || state == State.IN_ERROR)
-                return;
+                return openFuture;
 
             state = State.OPENING;
+            openFuture = new CompletableFuture<>();
 
             if(maxDepthReached)
             {
                 state = State.IN_ERROR;
-                onErrorFunction.onError("MaxDepth reached, sub-chain <" + name + "> will not be opened.", this);
-                onCompleteFunction.onComplete(this);
-                return;
+                notifyError("MaxDepth reached, sub-chain <" + name + "> will not be opened.");
+                notifyComplete();
+                return openFuture;
             }
 
             currentDepthChain.open();
+            
+            return openFuture;
         }
-        
-        if(synchronousModeActivated)
-        {
-            waitForCompletion();
-        }                
     }
 
     @Override
@@ -119,6 +151,10 @@ class RecursiveChainImpl implements RecursiveChain
             return;
 
         state = State.CLOSING;
+        if(openFuture != null && !openFuture.isDone())
+        {
+            openFuture.cancel(false);
+        }
         
         closeSubChains();
         currentDepthChain.close();        
@@ -147,60 +183,24 @@ class RecursiveChainImpl implements RecursiveChain
     }
     
     @Override
-    public synchronized Map<List<Long>, List<String>> getElements()
+    public Map<List<Long>, List<String>> getElements()
     {
-        Comparator<List<Long>> positionComparator = buildElementPositionComparator();
-        Map<List<Long>, List<String>> allElementsByPosition = new TreeMap<>(positionComparator);
-        
-        for (Map.Entry<RecursiveChain, Long> entry : positionsBySubChain.entrySet())    
+        synchronized(elementsByPosition)
         {
-            Long subChainPosition = entry.getValue();
-            RecursiveChain subChain = entry.getKey();
-            
-            if(subChain.isAChain())
-            {
-                for (Map.Entry<List<Long>, List<String>> subChainElementEntry : subChain.getElements().entrySet())
-                {
-                    List<Long> elementPositionInSubChain = subChainElementEntry.getKey();
-                    List<Long> elementPositionInChain = buildElementPositionInChain(elementPositionInSubChain, subChainPosition);
-                    List<String> elementNameInSubChain = subChainElementEntry.getValue();
-                    List<String> elementNameInChain = buildElementNameInChain(elementNameInSubChain, subChain);
-                    allElementsByPosition.put(elementPositionInChain, elementNameInChain);
-                }
-            }
-            else
-            {
-                List<Long> elementPositionInChain = buildElementPositionInChain(subChainPosition);
-                List<String> elementNameSubChain = buildElementNameInChain(subChain);
-                allElementsByPosition.put(elementPositionInChain, elementNameSubChain);
-            }
+            // Copied from a sorted map with the same comparator in linear time
+            return new TreeMap<>(elementsByPosition);
         }
-               
-        return allElementsByPosition;
     }
-        
-    private Comparator<List<Long>> buildElementPositionComparator()
+
+    @Override
+    public Map<List<Long>, List<String>> getElements(List<Long> fromPosition, List<Long> toPosition)
     {
-        return new Comparator<List<Long>>() 
+        synchronized(elementsByPosition)
         {
-            @Override public int compare(List<Long> key1, List<Long> key2) 
-            {
-                Iterator<Long> key1Iterator = key1.iterator();
-                Iterator<Long> key2Iterator = key2.iterator();
-                while(key1Iterator.hasNext() && key2Iterator.hasNext())
-                {
-                    long key1Value = key1Iterator.next();
-                    long key2Value = key2Iterator.next();
-                    
-                    if(key1Value != key2Value)
-                    {
-                        return (int) (key1Value - key2Value);
-                    }
-                }
-                
-                return key1.size() - key1.size();
-            }           
-        };
+            return new TreeMap<>(elementsByPosition.subMap(
+                    ElementPosition.of(fromPosition), true, 
+                    ElementPosition.of(toPosition), false));
+        }
     }
     
     private int computeNextMaxDepth()
@@ -227,6 +227,12 @@ class RecursiveChainImpl implements RecursiveChain
                     .onElementAdded (
                             (position, name, chain) -> onLinkAdded(position, name, chain)
                     )
+                    .onElementChanged(
+                            (position, previousName, newName, chain) -> onLinkChanged(position, newName, chain)
+                    )
+                    .onElementRemoved(
+                            (position, chain) -> onLinkRemoved(position, chain)
+                    )
                     .onComplete(
                             (chain)-> onComplete(chain)
                     )
@@ -240,7 +246,7 @@ class RecursiveChainImpl implements RecursiveChain
     
     private RecursiveChain buildRecursiveChain(String chainName)
     {
-        RecursiveChain subChain = new RecursiveChain.Builder()
+        RecursiveChain.Builder builder = new RecursiveChain.Builder()
                     .withOmmConsumer(ommConsumer)
                     .withChainName(chainName)
                     .withServiceName(serviceName)
@@ -254,34 +260,51 @@ class RecursiveChainImpl implements RecursiveChain
                     )
                     .onError(
                             (errorMessage, chain) -> onSubChainError(errorMessage, chain)
-                    )
-                    .build();
+                    );
+        builder.parentChain = this;
 
-        return subChain;
+        return builder.build();
     }
     
     private void openSubChain(String chainName, long position)
     {
         RecursiveChain subChain = buildRecursiveChain(chainName);
         positionsBySubChain.put(subChain, position);
+        subChainsByPosition.put(position, subChain);
         subChain.open();
     }
 
+    private void closeSubChain(long position)
+    {
+        RecursiveChain subChain = subChainsByPosition.remove(position);
+        if(subChain != null)
+        {
+            positionsBySubChain.remove(subChain);
+            subChain.close();
+        }
+        removeElements(ElementPosition.of(position));
+    }
+
     private void closeSubChains()
     {
         Collection<RecursiveChain> subChains = positionsBySubChain.keySet();
         subChains.forEach((subChain) -> subChain.close());
         positionsBySubChain.clear();
+        subChainsByPosition.clear();
+        synchronized(elementsByPosition)
+        {
+            elementsByPosition.clear();
+        }
     }
         
     private void onLinkAdded(long linkPosition, String linkName, FlatChain chain)
     {
         if(linkName.isEmpty())
         {
-            onElementAddedFunction.onElementAdded(
-                    buildElementPositionInChain(linkPosition),
-                    buildElementNameInChain(linkName), 
-                    this);            
+            List<Long> position = ElementPosition.of(linkPosition);
+            List<String> name = Collections.unmodifiableList(Arrays.asList(this.name, linkName));
+            addElement(position, name);
+            notifyElementAdded(position, name);
         }
         else
         {
@@ -289,6 +312,17 @@ class RecursiveChainImpl implements RecursiveChain
         }
     }
 
+    private void onLinkChanged(long linkPosition, String newLinkName, FlatChain chain)
+    {
+        closeSubChain(linkPosition);
+        onLinkAdded(linkPosition, newLinkName, chain);
+    }
+
+    private void onLinkRemoved(long linkPosition, FlatChain chain)
+    {
+        closeSubChain(linkPosition);
+    }
+
     private void onComplete(FlatChain chain)
     {
         checkIfCompleteAndNotify();
@@ -300,15 +334,36 @@ class RecursiveChainImpl implements RecursiveChain
             return;
 
         state = State.IN_ERROR;
-        onErrorFunction.onError(errorMessage, this);
+        notifyError(errorMessage);
     }
     
     private void onSubLinkAdded(List<Long> linkPositionInSubChain, List<String> linkNameInSubChain, RecursiveChain subChain)
     {
-        onElementAddedFunction.onElementAdded(
-                buildElementPositionInChain(linkPositionInSubChain, subChain),
-                buildElementNameInChain(linkNameInSubChain, subChain), 
-                this);
+        Long subChainPosition = positionsBySubChain.get(subChain);
+        if(subChainPosition == null)
+        {
+            return;
+        }
+        
+        List<Long> position = ElementPosition.of(linkPositionInSubChain).prefixedWith(subChainPosition);
+        List<String> name = prefixedName(subChain.getName(), linkNameInSubChain);
+        addElement(position, name);
+        notifyElementAdded(position, name);
+    }
+
+    /**
+     * Called by a sub-chain when it removed elements from its index.
+     * @param positionInSubChain the position of the removed elements (and of
+     * all the elements below it) in the sub-chain.
+     * @param subChain the sub-chain.
+     */
+    void onSubElementsRemoved(List<Long> positionInSubChain, RecursiveChain subChain)
+    {
+        Long subChainPosition = positionsBySubChain.get(subChain);
+        if(subChainPosition != null)
+        {
+            removeElements(ElementPosition.of(positionInSubChain).prefixedWith(subChainPosition));
+        }
     }
     
     private void onSubChainComplete(RecursiveChain subChain)
@@ -321,17 +376,22 @@ class RecursiveChainImpl implements RecursiveChain
         if(state == State.CLOSED || state == State.CLOSING)
             return;
 
+        Long subChainPosition = positionsBySubChain.get(subChain);
+        if(subChainPosition == null)
+        {
+            return;
+        }
+
         if(!subChain.isAChain())
         {
-            
-            onElementAddedFunction.onElementAdded(
-                    buildElementPositionInChain(subChain), 
-                    buildElementNameInChain(subChain),
-                    this);
+            List<Long> position = ElementPosition.of(subChainPosition);
+            List<String> name = Collections.singletonList(subChain.getName());
+            addElement(position, name);
+            notifyElementAdded(position, name);
         }
         else
         {
-            onErrorFunction.onError(errorMessage, this);
+            notifyError(errorMessage);
         }
     }
 
@@ -364,89 +424,117 @@ class RecursiveChainImpl implements RecursiveChain
         if(isComplete)
         {
             state = State.OPENED;
-            onCompleteFunction.onComplete(this);
+            notifyComplete();
         }
         else
         {
         }
     }    
     
-    private List<Long> buildElementPositionInChain(List<Long> elementPositionInSubChain, RecursiveChain subChain)
+    private void addElement(List<Long> position, List<String> name)
     {
-        LinkedList<Long> elementPositionInChain = new LinkedList<>(elementPositionInSubChain);
-        long subChainPosition = positionsBySubChain.get(subChain);
-        elementPositionInChain.addFirst(subChainPosition);
-        return elementPositionInChain;
-    }    
+        synchronized(elementsByPosition)
+        {
+            elementsByPosition.put(position, name);
+        }
+    }
 
-    private List<Long> buildElementPositionInChain(List<Long> elementPositionInSubChain, long subChainPosition)
+    /**
+     * Removes an element and all the elements below it from the index of this
+     * chain and from the indexes of the parent chains.
+     * @param position the position of the element.
+     */
+    private void removeElements(ElementPosition position)
     {
-        LinkedList<Long> elementPositionInChain = new LinkedList<>(elementPositionInSubChain);
-        elementPositionInChain.addFirst(subChainPosition);        
-        return elementPositionInChain;
-    }    
-    
-    private List<Long> buildElementPositionInChain(RecursiveChain subChain)
+        synchronized(elementsByPosition)
+        {
+            elementsByPosition.subMap(position, true, position.nextSibling(), false).clear();
+        }
+        
+        if(parentChain != null)
+        {
+            parentChain.onSubElementsRemoved(position, this);
+        }
+    }
+
+    private static List<String> prefixedName(String subChainName, List<String> nameInSubChain)
     {
-        LinkedList<Long> elementPositionInChain = new LinkedList<>();
-        long elementPosition = positionsBySubChain.get(subChain);
-        elementPositionInChain.add(elementPosition);
-        return elementPositionInChain;
-    }    
+        String[] name = new String[nameInSubChain.size() + 1];
+        name[0] = subChainName;
+        int depth = 1;
+        for(String nameAtDepth : nameInSubChain)
+        {
+            name[depth++] = nameAtDepth;
+        }
+        
+        return Collections.unmodifiableList(Arrays.asList(name));
+    }
     
-    private List<Long> buildElementPositionInChain(long position)
+    /**
+     * Notifies the completion of this RecursiveChain to the application, then 
+     * completes the future of the open.
+     */
+    private void notifyComplete()
     {
-        LinkedList<Long> elementPositionInChain = new LinkedList<>();
-        elementPositionInChain.add(position);
-        return elementPositionInChain;
-    }    
-    
-    private List<String> buildElementNameInChain(String elementName)
+        CompletableFuture<RecursiveChain> future = openFuture;
+        deliver(() -> 
+                {
+                    onCompleteFunction.onComplete(this);
+                    if(future != null)
+                    {
+                        future.complete(this);
+                    }
+                });
+    }
+
+    private void notifyElementAdded(List<Long> position, List<String> path)
     {
-        LinkedList<String> elementNameInChain = new LinkedList<>();
-        elementNameInChain.add(this.name);
-        elementNameInChain.add(elementName);
-        return elementNameInChain;
-        
+        deliver(() -> onElementAddedFunction.onElementAdded(position, path, this));
     }
 
-    private List<String> buildElementNameInChain(List<String> elementNameInSubChain, RecursiveChain subChain)
+    private void notifyError(String errorMessage)
     {
-        LinkedList<String> elementNameInChain = new LinkedList<>(elementNameInSubChain);        
-        elementNameInChain.addFirst(subChain.getName());
-        return elementNameInChain;
-        
+        deliver(() -> onErrorFunction.onError(errorMessage, this));
     }
 
-    private List<String> buildElementNameInChain(RecursiveChain subChain)
+    /**
+     * Runs a callback of the application, on the callback executor if there
+     * is one, otherwise on the current thread.
+     * @param callback the callback to run.
+     */
+    private void deliver(Runnable callback)
     {
-        LinkedList<String> elementNameInChain = new LinkedList<>();
-        elementNameInChain.add(subChain.getName());
-        return elementNameInChain;        
-    }   
-    
+        if(callbackExecutor != null)
+        {
+            callbackExecutor.execute(callback);
+        }
+        else
+        {
+            callback.run();
+        }
+    }
+
     /**
-     * Wait for the completion of this MarketPrice either by sleeping 
-     * (autoDispatch==false) or by dispatching events (autoDispatch==false)
+     * Wait for the completion of this RecursiveChain either by waiting for the 
+     * future of the open (autoDispatch==false) or by dispatching events until
+     * this future is done (autoDispatch==true). Both return as soon as the 
+     * RecursiveChain completes.
+     * @param future the future returned by {@link #openAsync()}
      */
-    private void waitForCompletion() 
+    private void waitForCompletion(CompletableFuture<RecursiveChain> future) 
     {
-        do
+        if(autoDispatch)
         {
-            if(autoDispatch)
-            {
-                dispatcher.dispatchEventsUntilComplete(this);
-            }
-            else
+            dispatcher.dispatchEventsUntilComplete(future::isDone);
+        }
+        else
+        {
+            try 
             {
-                try 
-                {
-                    Thread.sleep(WAITING_LOOP_TIMEOUT_IN_MS);
-                } 
-                catch (InterruptedException exception) {}
-            }
-        } 
-        while (!isComplete());
+                future.join();
+            } 
+            catch (CancellationException | CompletionException exception) {}
+        }
     }
     
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of the executors used to run application callbacks off the thread
+ * that dispatches EMA events.
+ */
+public final class CallbackExecutors
+{
+    private CallbackExecutors()
+    {
+    }
+
+    /**
+     * Returns the shared executor that runs each task on a new virtual thread.
+     * Virtual threads are cheap enough to let callbacks do blocking I/O (for
+     * example writing to a database) without tuning thread pools. 
+     * <br>
+     * <br>
+     * <strong>Note:</strong> Virtual threads require Java 21 or later. They 
+     * are looked up at runtime so that this library still runs on older 
+     * JVMs, where this method returns a shared cached pool of daemon platform
+     * threads instead (see {@link #areVirtualThreadsSupported()}).
+     * @return the virtual threads executor.
+     */
+    public static Executor virtualThreads()
+    {
+        return VirtualThreadsHolder.EXECUTOR;
+    }
+
+    /**
+     * Indicates if the JVM supports virtual threads.
+     * @return <code>true</code> if {@link #virtualThreads()} returns an 
+     * executor of virtual threads, <code>false</code> if it falls back to
+     * platform threads.
+     */
+    public static boolean areVirtualThreadsSupported()
+    {
+        return VirtualThreadsHolder.SUPPORTED;
+    }
+
+    /**
+     * Holder of the virtual threads executor, created on first use.
+     */
+    private static class VirtualThreadsHolder
+    {
+        private static final ExecutorService VIRTUAL_THREADS_EXECUTOR = newVirtualThreadPerTaskExecutor();
+        private static final boolean SUPPORTED = VIRTUAL_THREADS_EXECUTOR != null;
+        private static final Executor EXECUTOR = SUPPORTED 
+                ? VIRTUAL_THREADS_EXECUTOR 
+                : newDaemonCachedThreadPool();
+
+        private static ExecutorService newVirtualThreadPerTaskExecutor()
+        {
+            try
+            {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            }
+            catch (ReflectiveOperationException | RuntimeException exception)
+            {
+                return null;
+            }
+        }
+
+        private static ExecutorService newDaemonCachedThreadPool()
+        {
+            AtomicInteger threadsCount = new AtomicInteger();
+            return Executors.newCachedThreadPool((runnable) ->
+                    {
+                        Thread thread = new Thread(runnable, "CallbackExecutor-" + threadsCount.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+}
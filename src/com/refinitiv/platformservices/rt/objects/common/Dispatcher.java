@@ -78,6 +78,41 @@ public interface Dispatcher
      * Duration of 10 minutes that can be used as a parameter of {@link #dispatchEventsUntilTimeElapsed(int)}. 
      */
     public static final int TEN_MINUTE = 600;
+
+    /**
+     * The strategies a <code>Dispatcher</code> can use to wait for events.
+     * Strategies that do not block trade a CPU core for a lower and more
+     * predictable latency.
+     */
+    public enum Strategy
+    {
+        /**
+         * Blocks in <code>OmmConsumer.dispatch()</code> until an event is
+         * available or a short timeout expires. Cheap in CPU, but the waking
+         * up of the dispatching thread adds latency. This is the default
+         * strategy.
+         */
+        BLOCKING,
+
+        /**
+         * Polls the <code>OmmConsumer</code> without ever waiting. Gives the
+         * lowest latency but keeps a CPU core fully busy.
+         */
+        BUSY_SPIN,
+
+        /**
+         * Polls the <code>OmmConsumer</code> without waiting and yields the
+         * CPU to other threads after a number of polls without events.
+         */
+        SPIN_THEN_YIELD,
+
+        /**
+         * Polls the <code>OmmConsumer</code> without waiting, then yields and
+         * finally parks the dispatching thread for increasing durations (up to
+         * 1 millisecond) while no event is received.
+         */
+        SPIN_THEN_PARK
+    }
     
     /**
      * Dispatch events until the object given in parameter is complete. 
@@ -116,6 +151,49 @@ public interface Dispatcher
      * this method. This method never returns.
      */
     public void dispatchEventsForever() throws OmmException;
+
+    /**
+     * Returns a snapshot of the statistics collected by this dispatcher.
+     * @return the statistics of this dispatcher.
+     * @throws IllegalStateException if this dispatcher was not built with
+     * {@link Builder#withStatistics()}.
+     */
+    public DispatcherStatistics getStatistics();
+
+    /**
+     * Counts a callback in the statistics of the <code>Dispatcher</code> that
+     * is dispatching events from the current thread, without timing it. Its
+     * duration is part of the busy time but not of the callback time. Prefer
+     * {@link #callbackStarted()} and {@link #callbackEnded()}.
+     */
+    public static void countCallback()
+    {
+        DispatcherStatisticsImpl.countCallback();
+    }
+
+    /**
+     * Counts a callback in the statistics of the <code>Dispatcher</code> that
+     * is dispatching events from the current thread and starts timing it. 
+     * Must be followed by a call to {@link #callbackEnded()}, in a 
+     * <code>finally</code> block. The callbacks of the objects of this 
+     * library already call these methods. Application 
+     * <code>OmmConsumerClient</code>s can call them from their own callbacks
+     * so that their duration counts in the callback time. These methods do nothing
+     * when no <code>Dispatcher</code> built with 
+     * {@link Builder#withStatistics()} is dispatching events.
+     */
+    public static void callbackStarted()
+    {
+        DispatcherStatisticsImpl.callbackStarted();
+    }
+
+    /**
+     * Stops timing the callback started by {@link #callbackStarted()}.
+     */
+    public static void callbackEnded()
+    {
+        DispatcherStatisticsImpl.callbackEnded();
+    }
     
     
     /**
@@ -149,6 +227,9 @@ public interface Dispatcher
     public static class Builder {
 
         OmmConsumer ommConsumer;
+        Strategy strategy = Strategy.BLOCKING;
+        boolean statisticsActivated = false;
+        String statisticsName;
         
         /**
          * Default constructor
@@ -169,6 +250,47 @@ public interface Dispatcher
             this.ommConsumer = ommConsumer;
             return this;
         }
+
+        /**
+         * Sets the strategy used by this dispatcher to wait for events.
+         * If <code>withStrategy</code> is not called, the
+         * {@link Strategy#BLOCKING} strategy is used.
+         * @param strategy the dispatching strategy.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withStrategy(Strategy strategy)
+        {
+            this.strategy = strategy;
+            return this;
+        }
+
+        /**
+         * Activates the collection of statistics by this dispatcher (see
+         * {@link DispatcherStatistics}). The collection of statistics costs
+         * two <code>System.nanoTime()</code> calls per dispatch call.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withStatistics()
+        {
+            this.statisticsActivated = true;
+            return this;
+        }
+
+        /**
+         * Activates the collection of statistics by this dispatcher and
+         * registers them in the platform MBean server as a
+         * {@link DispatcherStatisticsMXBean} named
+         * <code>com.refinitiv.platformservices.rt.objects:type=Dispatcher,name="&lt;name&gt;"</code>.
+         * A previous registration with the same name is replaced.
+         * @param name the name of the statistics in JMX.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withStatistics(String name)
+        {
+            this.statisticsActivated = true;
+            this.statisticsName = name;
+            return this;
+        }
         
         
         /**
@@ -181,6 +303,10 @@ public interface Dispatcher
             {
                 throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice without an OmmConsumer.");
             }
+            if (strategy == null)
+            {
+                throw new IllegalStateException("The Dispatcher.Builder cannot build a Dispatcher without strategy.");
+            }
 
             DispatcherImpl builtDispatcher = new DispatcherImpl(this);
 
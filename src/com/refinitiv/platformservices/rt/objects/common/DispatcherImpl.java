@@ -16,18 +16,41 @@ package com.refinitiv.platformservices.rt.objects.common;
 import com.refinitiv.ema.access.OmmConsumer;
 import com.refinitiv.ema.access.OmmException;
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
 
 /**
  * The implementation class of the <code>Dispatcher</code> interface.
  */
 class DispatcherImpl implements Dispatcher
 {
-    // Value of the timeout used by the event dispatching loops
+    // Value of the timeout used by the event dispatching loops of the BLOCKING strategy
     private static final int DISPATCH_TIMEOUT_IN_MS = 200;
+
+    // Number of polls without events before the SPIN_THEN_YIELD and
+    // SPIN_THEN_PARK strategies start backing off
+    private static final int SPIN_TRIES = 100;
+
+    // Number of yields without events before the SPIN_THEN_PARK strategy
+    // starts parking the dispatching thread
+    private static final int YIELD_TRIES = 100;
+
+    // Bounds of the parking duration of the SPIN_THEN_PARK strategy
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
  
     // The OmmConsumer to dispatch
     private final OmmConsumer ommConsumer;
+
+    // The strategy used to wait for events
+    private final Strategy strategy;
+
+    // The collected statistics, or null if they are not activated
+    private final DispatcherStatisticsImpl statistics;
+
+    // The name of the statistics in JMX, or null if they are not registered
+    private final String statisticsName;
     
     /**
      * Constructor used by the <code>Dispatcher.Builder</code> to build a new 
@@ -39,27 +62,70 @@ class DispatcherImpl implements Dispatcher
     DispatcherImpl(Dispatcher.Builder builder) 
     {
         ommConsumer = builder.ommConsumer;
+        strategy = builder.strategy;
+        statisticsName = builder.statisticsName;
+
+        if(builder.statisticsActivated)
+        {
+            statistics = new DispatcherStatisticsImpl();
+            if(builder.statisticsName != null)
+            {
+                statistics.registerInJmx(builder.statisticsName);
+            }
+        }
+        else
+        {
+            statistics = null;
+        }
     }    
     
     @Override
-    public void dispatchEventsUntilComplete(Completable completable) throws OmmException
+    public DispatcherStatistics getStatistics()
     {
-        do
+        if(statistics == null)
         {
-            ommConsumer.dispatch(DISPATCH_TIMEOUT_IN_MS);
-        } 
-        while (!completable.isComplete());   
+            throw new IllegalStateException("The statistics of this Dispatcher are not activated. Use Dispatcher.Builder.withStatistics() to activate them.");
+        }
+
+        return statistics.snapshot();
+    }
+
+    /**
+     * Registers the statistics of this dispatcher in JMX again, after 
+     * {@link #unregisterStatisticsFromJmx()}. Does nothing if the statistics
+     * are not named.
+     */
+    void registerStatisticsInJmx()
+    {
+        if(statistics != null && statisticsName != null)
+        {
+            statistics.registerInJmx(statisticsName);
+        }
+    }
+
+    /**
+     * Removes the statistics of this dispatcher from JMX, if they were 
+     * registered.
+     */
+    void unregisterStatisticsFromJmx()
+    {
+        if(statistics != null && statisticsName != null)
+        {
+            statistics.unregisterFromJmx(statisticsName);
+        }
+    }
+
+    @Override
+    public void dispatchEventsUntilComplete(Completable completable) throws OmmException
+    {
+        dispatchEventsUntil(completable::isComplete);
     }
 
     @Override
     public void dispatchEventsUntilTimeElapsed(int durationInSeconds) throws OmmException
     {          
-        LocalDateTime endTime = LocalDateTime.now().plusSeconds(durationInSeconds);
-        do
-        {
-            ommConsumer.dispatch(DISPATCH_TIMEOUT_IN_MS);
-        } 
-        while(LocalDateTime.now().isBefore(endTime));                  
+        long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationInSeconds);
+        dispatchEventsUntil(() -> System.nanoTime() - endTime >= 0);
     }
 
     @Override
@@ -68,11 +134,7 @@ class DispatcherImpl implements Dispatcher
         try
         {        
             // Dispatch events until characters are available
-            do
-            {
-                ommConsumer.dispatch(DISPATCH_TIMEOUT_IN_MS);
-            } 
-            while (System.in.available() <= 0);
+            dispatchEventsUntil(DispatcherImpl::isKeyPressed);
 
             // Read and discard all available characters
             do
@@ -89,10 +151,144 @@ class DispatcherImpl implements Dispatcher
     @Override
     public void dispatchEventsForever() throws OmmException
     {
+        dispatchEventsUntil(() -> false);
+    }
+
+    /**
+     * Dispatches events with the strategy of this dispatcher until the
+     * condition given in parameter is true. The condition is checked after
+     * each dispatch.
+     * @param condition the condition that stops the dispatching.
+     */
+    private void dispatchEventsUntil(BooleanSupplier condition) throws OmmException
+    {
+        if(statistics != null)
+        {
+            dispatchEventsWithStatisticsUntil(condition);
+            return;
+        }
+
+        if(strategy == Strategy.BLOCKING)
+        {
+            do
+            {
+                ommConsumer.dispatch(DISPATCH_TIMEOUT_IN_MS);
+            } 
+            while (!condition.getAsBoolean());
+            return;
+        }
+
+        int idleCount = 0;
+        long parkNanos = MIN_PARK_NANOS;
         do
         {
-            ommConsumer.dispatch(DISPATCH_TIMEOUT_IN_MS);
+            if(ommConsumer.dispatch(OmmConsumer.DispatchTimeout.NO_WAIT) == OmmConsumer.DispatchReturn.DISPATCHED)
+            {
+                idleCount = 0;
+                parkNanos = MIN_PARK_NANOS;
+            }
+            else if(strategy != Strategy.BUSY_SPIN)
+            {
+                if(idleCount < SPIN_TRIES + YIELD_TRIES)
+                {
+                    ++idleCount;
+                }
+                parkNanos = backOff(idleCount, parkNanos);
+            }
         } 
-        while (true);    
+        while (!condition.getAsBoolean());
+    }
+
+    /**
+     * Same as {@link #dispatchEventsUntil(BooleanSupplier)}, but records the
+     * statistics of each dispatch call.
+     * @param condition the condition that stops the dispatching.
+     */
+    private void dispatchEventsWithStatisticsUntil(BooleanSupplier condition) throws OmmException
+    {
+        long timeout = strategy == Strategy.BLOCKING ? DISPATCH_TIMEOUT_IN_MS : OmmConsumer.DispatchTimeout.NO_WAIT;
+        DispatcherStatisticsImpl.CallbackClock callbackClock = DispatcherStatisticsImpl.loopStarted();
+        try
+        {
+            int idleCount = 0;
+            long parkNanos = MIN_PARK_NANOS;
+            long previousEndTime = System.nanoTime();
+            do
+            {
+                long callbacksBefore = callbackClock.count;
+                long callbackTimeBefore = callbackClock.callbackTimeInNanos;
+                long startTime = System.nanoTime();
+                boolean dispatched = ommConsumer.dispatch(timeout) == OmmConsumer.DispatchReturn.DISPATCHED;
+                long endTime = System.nanoTime();
+                statistics.recordDispatch(
+                        dispatched, 
+                        callbackClock.count - callbacksBefore, 
+                        callbackClock.callbackTimeInNanos - callbackTimeBefore, 
+                        endTime - startTime,
+                        startTime - previousEndTime);
+                previousEndTime = endTime;
+
+                if(dispatched)
+                {
+                    idleCount = 0;
+                    parkNanos = MIN_PARK_NANOS;
+                }
+                else if(strategy == Strategy.SPIN_THEN_YIELD || strategy == Strategy.SPIN_THEN_PARK)
+                {
+                    if(idleCount < SPIN_TRIES + YIELD_TRIES)
+                    {
+                        ++idleCount;
+                    }
+                    parkNanos = backOff(idleCount, parkNanos);
+                }
+            } 
+            while (!condition.getAsBoolean());
+        }
+        finally
+        {
+            DispatcherStatisticsImpl.loopEnded();
+        }
+    }
+
+    /**
+     * Backs off after a number of polls without events, according to the
+     * strategy of this dispatcher: keeps spinning for SPIN_TRIES polls, then
+     * yields, then parks the thread (SPIN_THEN_PARK only).
+     * @param idleCount the number of polls without events.
+     * @param parkNanos the current parking duration.
+     * @return the next parking duration.
+     */
+    private long backOff(int idleCount, long parkNanos)
+    {
+        if(idleCount <= SPIN_TRIES)
+        {
+            return parkNanos;
+        }
+
+        if(strategy == Strategy.SPIN_THEN_YIELD || idleCount < SPIN_TRIES + YIELD_TRIES)
+        {
+            Thread.yield();
+            return parkNanos;
+        }
+
+        LockSupport.parkNanos(parkNanos);
+        return Math.min(parkNanos << 1, MAX_PARK_NANOS);
+    }
+
+    /**
+     * Indicates if characters are available in the console.
+     * @return <code>true</code> if characters are available or if the console
+     * cannot be read.
+     */
+    private static boolean isKeyPressed()
+    {
+        try
+        {
+            return System.in.available() > 0;
+        }
+        catch (IOException exception)
+        {
+            return true;
+        }
     }
 }
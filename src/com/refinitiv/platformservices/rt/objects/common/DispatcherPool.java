@@ -0,0 +1,291 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import com.refinitiv.ema.access.OmmConsumer;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The interface of a pool of <code>OmmConsumer</code>s, each dispatched by
+ * its own thread. Objects built with a <code>DispatcherPool</code> (see for
+ * example <code>MarketPrice.Builder.withDispatcherPool()</code>) are assigned
+ * to one of the <code>OmmConsumer</code>s of the pool by a
+ * {@link ShardingPolicy}, so that the decoding of messages and the
+ * application callbacks are spread over several threads (and cores).
+ * <br>
+ * The following code snippet builds a pool of 4 <code>OmmConsumer</code>s,
+ * starts it and opens a <code>MarketPrice</code> with it:
+ * <br>
+ * <br>
+ * <pre>
+ *    DispatcherPool thePool = new DispatcherPool.Builder()
+ *                  .withOmmConsumerFactory(
+ *                      () -&gt; EmaFactory.createOmmConsumer(
+ *                                  EmaFactory.createOmmConsumerConfig()
+ *                                      .operationModel(OperationModel.USER_DISPATCH)))
+ *                  .withSize(4)
+ *                  .build();
+ *
+ *    thePool.start();
+ *
+ *    MarketPrice theMarketPrice = new MarketPrice.Builder()
+ *                  .withDispatcherPool(thePool)
+ *                  .withName("EUR=")
+ *                  .build();
+ *    theMarketPrice.open();
+ *      .
+ *      .
+ *      .
+ *    thePool.stop();
+ * </pre>
+ * <br>
+ * <strong>Note:</strong> The <code>OmmConsumer</code>s of the pool must use
+ * the USER_DISPATCH EMA operation model. The <code>OmmConsumer</code>s 
+ * created by the factory of the pool are owned by the pool and uninitialized
+ * when the pool is stopped. The <code>OmmConsumer</code>s given one by one 
+ * are left to the application.
+ */
+public interface DispatcherPool
+{
+    /**
+     * Returns the number of <code>OmmConsumer</code>s (and dispatching
+     * threads) of the pool.
+     * @return the size of the pool.
+     */
+    public int size();
+
+    /**
+     * Returns the <code>OmmConsumer</code> assigned to an item by the
+     * {@link ShardingPolicy} of the pool. The same <code>OmmConsumer</code>
+     * is always returned for a given name.
+     * @param name the name of the item (instrument or chain).
+     * @return the <code>OmmConsumer</code> the item must be opened with.
+     */
+    public OmmConsumer ommConsumerFor(String name);
+
+    /**
+     * Starts the dispatching threads of the pool. This method has no effect
+     * if the pool is already started.
+     * @throws IllegalStateException if the pool was stopped and had 
+     * uninitialized the <code>OmmConsumer</code>s created by its factory.
+     */
+    public void start();
+
+    /**
+     * Stops the dispatching threads of the pool, waits for their termination
+     * and uninitializes the <code>OmmConsumer</code>s created by the factory
+     * of the pool. The <code>OmmConsumer</code>s given one by one are not 
+     * uninitialized and the pool can be started again. The statistics of the
+     * pool registered in JMX (see {@link Builder#withStatistics(String)}) are
+     * unregistered, and registered again if the pool is restarted. This 
+     * method has no effect if the pool is already stopped.
+     */
+    public void stop();
+
+    /**
+     * Indicates if the dispatching threads of the pool are running.
+     * @return <code>true</code> if the pool is started.
+     */
+    public boolean isStarted();
+
+    /**
+     * Returns a snapshot of the statistics collected by the dispatching
+     * threads of the pool, in the order of the <code>OmmConsumer</code>s.
+     * @return the statistics of each dispatching thread.
+     * @throws IllegalStateException if the pool was not built with
+     * {@link Builder#withStatistics()}.
+     */
+    public List<DispatcherStatistics> getStatistics();
+
+    /**
+     * Represents the policy used to assign items to the <code>OmmConsumer</code>s
+     * of a <code>DispatcherPool</code>.
+     */
+    @FunctionalInterface
+    public interface ShardingPolicy
+    {
+        /**
+         * Shards items by the hash code of their name. This is the default
+         * policy.
+         */
+        public static final ShardingPolicy HASH_OF_NAME =
+                (name, shardsCount) -> (name.hashCode() & Integer.MAX_VALUE) % shardsCount;
+
+        /**
+         * Returns the index of the <code>OmmConsumer</code> an item must be
+         * assigned to.
+         * @param name the name of the item.
+         * @param shardsCount the number of <code>OmmConsumer</code>s of the pool.
+         * @return an index between 0 (inclusive) and <code>shardsCount</code>
+         * (exclusive). The same index must always be returned for a given name.
+         */
+        int shardOf(String name, int shardsCount);
+    }
+
+    /**
+     * Used to build <code>DispatcherPool</code> objects.
+     * <code>DispatcherPool</code>s are immutable objects. This means that you
+     * can't directly change their fields once they are built (there is no
+     * setter).
+     * <br>
+     * <br>
+     * <strong>Note:</strong> The <code>OmmConsumer</code>s of the pool are
+     * either given one by one (see {@link #withOmmConsumer(OmmConsumer)}) or
+     * created by a factory (see {@link #withOmmConsumerFactory(Supplier)} and
+     * {@link #withSize(int)}).
+     */
+    public static class Builder {
+
+        List<OmmConsumer> ommConsumers = new LinkedList<>();
+        Supplier<OmmConsumer> ommConsumerFactory;
+        int size = Runtime.getRuntime().availableProcessors();
+        ShardingPolicy shardingPolicy = ShardingPolicy.HASH_OF_NAME;
+        Dispatcher.Strategy dispatchStrategy = Dispatcher.Strategy.BLOCKING;
+        boolean statisticsActivated = false;
+        String statisticsName;
+
+        /**
+         * Default constructor
+         */
+        public Builder()
+        {
+        }
+
+        /**
+         * Adds an <code>OmmConsumer</code> to the pool.
+         * This OmmConsumer must have been properly initialized and configured
+         * with the USER_DISPATCH operational model.
+         * @param ommConsumer the OmmConsumer to add.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withOmmConsumer(OmmConsumer ommConsumer)
+        {
+            this.ommConsumers.add(ommConsumer);
+            return this;
+        }
+
+        /**
+         * Sets the factory used to create the <code>OmmConsumer</code>s of
+         * the pool. The factory is called {@link #withSize(int)} times when
+         * the pool is built. The created OmmConsumers must be configured with
+         * the USER_DISPATCH operational model.
+         * @param ommConsumerFactory the factory.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withOmmConsumerFactory(Supplier<OmmConsumer> ommConsumerFactory)
+        {
+            this.ommConsumerFactory = ommConsumerFactory;
+            return this;
+        }
+
+        /**
+         * Sets the number of <code>OmmConsumer</code>s created by the factory.
+         * If <code>withSize</code> is not called, the number of available
+         * processors is used.
+         * @param size the number of OmmConsumers to create.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withSize(int size)
+        {
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * Sets the policy used to assign items to the <code>OmmConsumer</code>s
+         * of the pool. If <code>withShardingPolicy</code> is not called,
+         * {@link ShardingPolicy#HASH_OF_NAME} is used.
+         * @param shardingPolicy the sharding policy.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withShardingPolicy(ShardingPolicy shardingPolicy)
+        {
+            this.shardingPolicy = shardingPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the strategy used by the dispatching threads of the pool to
+         * wait for events. If <code>withDispatchStrategy</code> is not called,
+         * {@link Dispatcher.Strategy#BLOCKING} is used.
+         * @param dispatchStrategy the dispatching strategy.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withDispatchStrategy(Dispatcher.Strategy dispatchStrategy)
+        {
+            this.dispatchStrategy = dispatchStrategy;
+            return this;
+        }
+
+        /**
+         * Activates the collection of statistics by the dispatching threads
+         * of the pool (see {@link Dispatcher.Builder#withStatistics()}).
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withStatistics()
+        {
+            this.statisticsActivated = true;
+            return this;
+        }
+
+        /**
+         * Activates the collection of statistics by the dispatching threads
+         * of the pool and registers them in JMX (see
+         * {@link Dispatcher.Builder#withStatistics(String)}). The statistics
+         * of the i<sup>th</sup> thread are named "&lt;name&gt;-i".
+         * @param name the name of the pool in JMX.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withStatistics(String name)
+        {
+            this.statisticsActivated = true;
+            this.statisticsName = name;
+            return this;
+        }
+
+        /**
+         * Builds the <code>DispatcherPool</code> object
+         * @return the built DispatcherPool
+         */
+        public DispatcherPool build()
+        {
+            if (ommConsumers.isEmpty() && ommConsumerFactory == null)
+            {
+                throw new IllegalStateException("The DispatcherPool.Builder cannot build a DispatcherPool without OmmConsumers or OmmConsumer factory.");
+            }
+            if (!ommConsumers.isEmpty() && ommConsumerFactory != null)
+            {
+                throw new IllegalStateException("The DispatcherPool.Builder cannot build a DispatcherPool with both OmmConsumers and an OmmConsumer factory.");
+            }
+            if (ommConsumerFactory != null && size <= 0)
+            {
+                throw new IllegalStateException("The DispatcherPool.Builder cannot build a DispatcherPool with a size lower than 1.");
+            }
+            if (shardingPolicy == null)
+            {
+                throw new IllegalStateException("The DispatcherPool.Builder cannot build a DispatcherPool without sharding policy.");
+            }
+            if (dispatchStrategy == null)
+            {
+                throw new IllegalStateException("The DispatcherPool.Builder cannot build a DispatcherPool without dispatch strategy.");
+            }
+
+            DispatcherPoolImpl builtDispatcherPool = new DispatcherPoolImpl(this);
+
+            return builtDispatcherPool;
+        }
+    }
+}
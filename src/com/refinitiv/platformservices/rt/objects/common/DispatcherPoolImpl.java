@@ -0,0 +1,228 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import com.refinitiv.ema.access.OmmConsumer;
+import com.refinitiv.ema.access.OmmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The implementation class of the <code>DispatcherPool</code> interface.
+ */
+class DispatcherPoolImpl implements DispatcherPool
+{
+    private static final Logger LOGGER = Logger.getLogger(DispatcherPoolImpl.class.getName());
+
+    // The OmmConsumers of the pool and their respective Dispatchers
+    private final OmmConsumer[] ommConsumers;
+    // True when the OmmConsumers were created by the factory of the pool. 
+    // Only these are uninitialized when the pool is stopped.
+    private final boolean ommConsumersOwned;
+    private final Dispatcher[] dispatchers;
+    private final ShardingPolicy shardingPolicy;
+    private final boolean statisticsActivated;
+
+    private final List<Thread> dispatchingThreads = new ArrayList<>();
+    private volatile boolean started;
+    // True once the pool uninitialized its own OmmConsumers. It cannot be 
+    // restarted anymore.
+    private boolean ommConsumersUninitialized;
+    // True when stop() removed the statistics of the dispatchers from JMX
+    private boolean statisticsUnregistered;
+
+    /**
+     * Constructor used by the <code>DispatcherPool.Builder</code> to build a new
+     * <code>DispatcherPool</code> object.
+     * @param builder the <code>Builder</code> that contains all the parameters
+     * required to build the class. This is this builder that instantiated this
+     * object by calling this constructor.
+     */
+    DispatcherPoolImpl(DispatcherPool.Builder builder)
+    {
+        ommConsumersOwned = builder.ommConsumerFactory != null;
+        if(ommConsumersOwned)
+        {
+            ommConsumers = new OmmConsumer[builder.size];
+            for(int index = 0; index < ommConsumers.length; ++index)
+            {
+                ommConsumers[index] = builder.ommConsumerFactory.get();
+            }
+        }
+        else
+        {
+            ommConsumers = builder.ommConsumers.toArray(new OmmConsumer[0]);
+        }
+
+        dispatchers = new Dispatcher[ommConsumers.length];
+        for(int index = 0; index < ommConsumers.length; ++index)
+        {
+            Dispatcher.Builder dispatcherBuilder = new Dispatcher.Builder()
+                    .withOmmConsumer(ommConsumers[index])
+                    .withStrategy(builder.dispatchStrategy);
+            if(builder.statisticsName != null)
+            {
+                dispatcherBuilder.withStatistics(builder.statisticsName + "-" + index);
+            }
+            else if(builder.statisticsActivated)
+            {
+                dispatcherBuilder.withStatistics();
+            }
+            dispatchers[index] = dispatcherBuilder.build();
+        }
+        statisticsActivated = builder.statisticsActivated;
+
+        shardingPolicy = builder.shardingPolicy;
+    }
+
+    @Override
+    public int size()
+    {
+        return ommConsumers.length;
+    }
+
+    @Override
+    public OmmConsumer ommConsumerFor(String name)
+    {
+        int shard = shardingPolicy.shardOf(name, ommConsumers.length);
+        if(shard < 0 || shard >= ommConsumers.length)
+        {
+            throw new IllegalStateException("The sharding policy of the DispatcherPool returned an invalid index (" + shard + ") for <" + name + ">.");
+        }
+
+        return ommConsumers[shard];
+    }
+
+    @Override
+    public synchronized void start()
+    {
+        if(started)
+            return;
+
+        if(ommConsumersUninitialized)
+        {
+            throw new IllegalStateException("This DispatcherPool cannot be restarted, as the OmmConsumers it created were uninitialized when it was stopped.");
+        }
+
+        if(statisticsUnregistered)
+        {
+            for(Dispatcher dispatcher : dispatchers)
+            {
+                ((DispatcherImpl) dispatcher).registerStatisticsInJmx();
+            }
+            statisticsUnregistered = false;
+        }
+
+        started = true;
+        for(int index = 0; index < dispatchers.length; ++index)
+        {
+            Dispatcher dispatcher = dispatchers[index];
+            Thread dispatchingThread = new Thread(
+                    () -> dispatchWhileStarted(dispatcher),
+                    "DispatcherPool-" + index);
+            dispatchingThread.setDaemon(true);
+            dispatchingThreads.add(dispatchingThread);
+            dispatchingThread.start();
+        }
+    }
+
+    @Override
+    public synchronized void stop()
+    {
+        if(!started)
+            return;
+
+        started = false;
+        boolean interrupted = false;
+        for(Thread dispatchingThread : dispatchingThreads)
+        {
+            try
+            {
+                dispatchingThread.join();
+            }
+            catch (InterruptedException exception)
+            {
+                interrupted = true;
+            }
+        }
+        dispatchingThreads.clear();
+
+        // OmmConsumers given to the builder belong to the application
+        if(ommConsumersOwned)
+        {
+            for(OmmConsumer ommConsumer : ommConsumers)
+            {
+                ommConsumer.uninitialize();
+            }
+            ommConsumersUninitialized = true;
+        }
+
+        // Does not leak the MXBeans of a stopped pool in the MBean server
+        for(Dispatcher dispatcher : dispatchers)
+        {
+            ((DispatcherImpl) dispatcher).unregisterStatisticsFromJmx();
+        }
+        statisticsUnregistered = true;
+
+        if(interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isStarted()
+    {
+        return started;
+    }
+
+    @Override
+    public List<DispatcherStatistics> getStatistics()
+    {
+        if(!statisticsActivated)
+        {
+            throw new IllegalStateException("The statistics of this DispatcherPool are not activated. Use DispatcherPool.Builder.withStatistics() to activate them.");
+        }
+
+        List<DispatcherStatistics> statistics = new ArrayList<>(dispatchers.length);
+        for(Dispatcher dispatcher : dispatchers)
+        {
+            statistics.add(dispatcher.getStatistics());
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Body of the dispatching threads. Dispatches the events of an
+     * <code>OmmConsumer</code> until the pool is stopped.
+     * @param dispatcher the dispatcher of the OmmConsumer.
+     */
+    private void dispatchWhileStarted(Dispatcher dispatcher)
+    {
+        while(started)
+        {
+            try
+            {
+                dispatcher.dispatchEventsUntilComplete(() -> !started);
+            }
+            catch (OmmException exception)
+            {
+                LOGGER.log(Level.SEVERE, "DispatcherPool: exception while dispatching events", exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+/**
+ * The interface of the statistics collected by a <code>Dispatcher</code>
+ * built with {@link Dispatcher.Builder#withStatistics()}. These statistics
+ * help to detect a saturated dispatching thread before the EMA event queue
+ * backs up, and to size the <code>DispatcherPool</code>s.
+ * <br>
+ * <br>
+ * A dispatch cycle is a call to <code>OmmConsumer.dispatch()</code> that
+ * dispatched at least one event. Its duration is the duration of the whole
+ * call, as measured by the dispatching loop, so it includes the decoding of 
+ * the events and all the callbacks, timed or not. The time spent in the 
+ * dispatch cycles is the busy time. The rest of the time spent in the 
+ * dispatching loops (dispatch calls that found no event, backoff of the 
+ * dispatching strategy) is the idle time. With the <code>BLOCKING</code> 
+ * strategy, the wait for the first event of a cycle is part of the cycle.
+ * <br>
+ * <br>
+ * <strong>Note:</strong> The callback count and the callback time only 
+ * cover the instrumented callbacks, that is the callbacks of the objects of
+ * this library and the callbacks that call {@link Dispatcher#callbackStarted()}
+ * and {@link Dispatcher#callbackEnded()}. Callbacks that call 
+ * {@link Dispatcher#countCallback()} are counted but not timed. Other 
+ * callbacks are neither counted nor timed, but their duration is part of 
+ * the busy time.
+ */
+public interface DispatcherStatistics
+{
+    /**
+     * Returns the number of calls to <code>OmmConsumer.dispatch()</code>.
+     * @return the number of dispatch calls.
+     */
+    public long getDispatchCount();
+
+    /**
+     * Returns the number of dispatch cycles, that is the number of calls to
+     * <code>OmmConsumer.dispatch()</code> that dispatched events.
+     * @return the number of dispatch cycles.
+     */
+    public long getDispatchCycleCount();
+
+    /**
+     * Returns the number of instrumented callbacks that ran during the 
+     * dispatch calls.
+     * @return the number of instrumented callbacks.
+     */
+    public long getCallbackCount();
+
+    /**
+     * Returns the mean number of instrumented callbacks per dispatch cycle. 
+     * Only the dispatch cycles that ran at least one instrumented callback 
+     * are taken into account, so that the cycles of non-instrumented clients
+     * do not lower the mean.
+     * @return the mean number of instrumented callbacks per dispatch cycle.
+     */
+    public double getCallbacksPerDispatchCycle();
+
+    /**
+     * Returns the time spent in the timed callbacks. This time is part of the
+     * busy time.
+     * @return the callback time in nanoseconds.
+     */
+    public long getCallbackTimeInNanos();
+
+    /**
+     * Returns the time spent in the dispatch cycles.
+     * @return the busy time in nanoseconds.
+     */
+    public long getBusyTimeInNanos();
+
+    /**
+     * Returns the time spent in the dispatching loops out of the dispatch 
+     * cycles, that is waiting for events.
+     * @return the idle time in nanoseconds.
+     */
+    public long getIdleTimeInNanos();
+
+    /**
+     * Returns the ratio of the idle time to the total time spent in the
+     * dispatching loops. A value close to 0 means that the dispatching thread
+     * is saturated.
+     * @return the idle ratio, between 0 and 1.
+     */
+    public double getIdleRatio();
+
+    /**
+     * Returns the median duration of the dispatch cycles.
+     * @return the median duration in nanoseconds.
+     */
+    public long getDispatchCycleMedianInNanos();
+
+    /**
+     * Returns the 99th percentile of the duration of the dispatch cycles.
+     * @return the 99th percentile in nanoseconds.
+     */
+    public long getDispatchCycle99thPercentileInNanos();
+
+    /**
+     * Returns the 99.9th percentile of the duration of the dispatch cycles.
+     * @return the 99.9th percentile in nanoseconds.
+     */
+    public long getDispatchCycle999thPercentileInNanos();
+
+    /**
+     * Returns the duration of the longest dispatch cycle.
+     * @return the longest duration in nanoseconds.
+     */
+    public long getDispatchCycleMaxInNanos();
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * The implementation class of the <code>DispatcherStatisticsMXBean</code>
+ * interface. Collects the statistics of a <code>Dispatcher</code> and
+ * exposes their live values.
+ */
+class DispatcherStatisticsImpl implements DispatcherStatisticsMXBean
+{
+    // Domain of the ObjectNames used to register the statistics in JMX
+    private static final String JMX_DOMAIN = "com.refinitiv.platformservices.rt.objects";
+
+    // Number and duration of the callbacks that ran on each thread. Read by
+    // the dispatching loops before and after each dispatch call.
+    private static final ThreadLocal<CallbackClock> CALLBACK_CLOCKS = ThreadLocal.withInitial(CallbackClock::new);
+
+    // Number of dispatching loops that record statistics. The callbacks skip
+    // the lookup of their clock when it is 0, that is in most applications.
+    private static final AtomicInteger ACTIVE_LOOPS_COUNT = new AtomicInteger();
+
+    private final LongAdder dispatchCount = new LongAdder();
+    private final LongAdder callbackCount = new LongAdder();
+    private final LongAdder instrumentedCycleCount = new LongAdder();
+    private final LongAdder callbackTimeInNanos = new LongAdder();
+    private final LongAdder busyTimeInNanos = new LongAdder();
+    private final LongAdder idleTimeInNanos = new LongAdder();
+    private final LatencyHistogram dispatchCycleDurations = new LatencyHistogram();
+
+    /**
+     * Counts a callback that runs on the current thread, without timing it.
+     */
+    static void countCallback()
+    {
+        if(ACTIVE_LOOPS_COUNT.get() == 0)
+            return;
+
+        ++CALLBACK_CLOCKS.get().count;
+    }
+
+    /**
+     * Counts a callback that starts on the current thread and starts timing
+     * it. Nested callbacks are timed as part of the outermost one.
+     */
+    static void callbackStarted()
+    {
+        if(ACTIVE_LOOPS_COUNT.get() == 0)
+            return;
+
+        CallbackClock clock = CALLBACK_CLOCKS.get();
+        ++clock.count;
+        if(clock.depth++ == 0)
+        {
+            clock.startTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Stops timing the callback that ends on the current thread.
+     */
+    static void callbackEnded()
+    {
+        if(ACTIVE_LOOPS_COUNT.get() == 0)
+            return;
+
+        CallbackClock clock = CALLBACK_CLOCKS.get();
+        // Ignores the end of a callback that started before the clock was reset
+        if(clock.depth > 0 && --clock.depth == 0)
+        {
+            clock.callbackTimeInNanos += System.nanoTime() - clock.startTime;
+        }
+    }
+
+    /**
+     * Starts a dispatching loop that records statistics and returns the 
+     * callback clock of the current thread, reset. The dispatching loops get
+     * it once and read it around each dispatch call. Must be followed by a
+     * call to {@link #loopEnded()}.
+     * @return the callback clock of the current thread.
+     */
+    static CallbackClock loopStarted()
+    {
+        ACTIVE_LOOPS_COUNT.incrementAndGet();
+        CallbackClock clock = CALLBACK_CLOCKS.get();
+        clock.depth = 0;
+        
+        return clock;
+    }
+
+    /**
+     * Ends a dispatching loop started by {@link #loopStarted()}.
+     */
+    static void loopEnded()
+    {
+        ACTIVE_LOOPS_COUNT.decrementAndGet();
+    }
+
+    /**
+     * Records a call to <code>OmmConsumer.dispatch()</code>.
+     * @param dispatched <code>true</code> if events were dispatched.
+     * @param callbacks the number of instrumented callbacks that ran during
+     * the call.
+     * @param callbackTimeInNanos the time spent in the timed callbacks 
+     * during the call.
+     * @param callDurationInNanos the duration of the whole call.
+     * @param loopTimeInNanos the time spent in the dispatching loop between
+     * the end of the previous call and the start of this one.
+     */
+    void recordDispatch(boolean dispatched, long callbacks, long callbackTimeInNanos, 
+                        long callDurationInNanos, long loopTimeInNanos)
+    {
+        dispatchCount.increment();
+        idleTimeInNanos.add(loopTimeInNanos);
+        if(dispatched)
+        {
+            if(callbacks > 0)
+            {
+                callbackCount.add(callbacks);
+                instrumentedCycleCount.increment();
+            }
+            this.callbackTimeInNanos.add(callbackTimeInNanos);
+            busyTimeInNanos.add(callDurationInNanos);
+            dispatchCycleDurations.record(callDurationInNanos);
+        }
+        else
+        {
+            idleTimeInNanos.add(callDurationInNanos);
+        }
+    }
+
+    /**
+     * Registers these statistics in the platform MBean server. A previous
+     * registration with the same name is replaced.
+     * @param name the name of the statistics.
+     */
+    void registerInJmx(String name)
+    {
+        try
+        {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectNameOf(name);
+            if(mBeanServer.isRegistered(objectName))
+            {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(this, objectName);
+        }
+        catch (JMException exception)
+        {
+            throw new IllegalStateException("The statistics of the Dispatcher <" + name + "> cannot be registered in JMX.", exception);
+        }
+    }
+
+    /**
+     * Removes these statistics from the platform MBean server. Does nothing
+     * if nothing is registered with this name anymore.
+     * @param name the name of the statistics.
+     */
+    void unregisterFromJmx(String name)
+    {
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectNameOf(name));
+        }
+        catch (InstanceNotFoundException exception)
+        {
+            // Already unregistered
+        }
+        catch (JMException exception)
+        {
+            throw new IllegalStateException("The statistics of the Dispatcher <" + name + "> cannot be unregistered from JMX.", exception);
+        }
+    }
+
+    private static ObjectName objectNameOf(String name) throws MalformedObjectNameException
+    {
+        return new ObjectName(JMX_DOMAIN + ":type=Dispatcher,name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * Returns an immutable copy of the current values of these statistics.
+     * @return the snapshot.
+     */
+    DispatcherStatistics snapshot()
+    {
+        return new Snapshot(this);
+    }
+
+    @Override
+    public long getDispatchCount()
+    {
+        return dispatchCount.sum();
+    }
+
+    @Override
+    public long getDispatchCycleCount()
+    {
+        return dispatchCycleDurations.getCount();
+    }
+
+    @Override
+    public long getCallbackCount()
+    {
+        return callbackCount.sum();
+    }
+
+    @Override
+    public double getCallbacksPerDispatchCycle()
+    {
+        long cycleCount = instrumentedCycleCount.sum();
+        return cycleCount == 0 ? 0 : (double) getCallbackCount() / cycleCount;
+    }
+
+    @Override
+    public long getCallbackTimeInNanos()
+    {
+        return callbackTimeInNanos.sum();
+    }
+
+    @Override
+    public long getBusyTimeInNanos()
+    {
+        return busyTimeInNanos.sum();
+    }
+
+    @Override
+    public long getIdleTimeInNanos()
+    {
+        return idleTimeInNanos.sum();
+    }
+
+    @Override
+    public double getIdleRatio()
+    {
+        long idleTime = getIdleTimeInNanos();
+        long totalTime = idleTime + getBusyTimeInNanos();
+        return totalTime == 0 ? 1 : (double) idleTime / totalTime;
+    }
+
+    @Override
+    public long getDispatchCycleMedianInNanos()
+    {
+        return dispatchCycleDurations.getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getDispatchCycle99thPercentileInNanos()
+    {
+        return dispatchCycleDurations.getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getDispatchCycle999thPercentileInNanos()
+    {
+        return dispatchCycleDurations.getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getDispatchCycleMaxInNanos()
+    {
+        return dispatchCycleDurations.getMax();
+    }
+
+    @Override
+    public void reset()
+    {
+        dispatchCount.reset();
+        callbackCount.reset();
+        instrumentedCycleCount.reset();
+        callbackTimeInNanos.reset();
+        busyTimeInNanos.reset();
+        idleTimeInNanos.reset();
+        dispatchCycleDurations.reset();
+    }
+
+    /**
+     * The number of callbacks that ran on a thread and the time they took.
+     * Only accessed by this thread.
+     */
+    static class CallbackClock
+    {
+        long count;
+        long callbackTimeInNanos;
+        int depth;
+        long startTime;
+    }
+
+    /**
+     * Immutable copy of the values of a <code>DispatcherStatisticsImpl</code>.
+     */
+    private static class Snapshot implements DispatcherStatistics
+    {
+        private final long dispatchCount;
+        private final long dispatchCycleCount;
+        private final long callbackCount;
+        private final double callbacksPerDispatchCycle;
+        private final long callbackTimeInNanos;
+        private final long busyTimeInNanos;
+        private final long idleTimeInNanos;
+        private final double idleRatio;
+        private final long dispatchCycleMedianInNanos;
+        private final long dispatchCycle99thPercentileInNanos;
+        private final long dispatchCycle999thPercentileInNanos;
+        private final long dispatchCycleMaxInNanos;
+
+        Snapshot(DispatcherStatistics statistics)
+        {
+            dispatchCount = statistics.getDispatchCount();
+            dispatchCycleCount = statistics.getDispatchCycleCount();
+            callbackCount = statistics.getCallbackCount();
+            callbacksPerDispatchCycle = statistics.getCallbacksPerDispatchCycle();
+            callbackTimeInNanos = statistics.getCallbackTimeInNanos();
+            busyTimeInNanos = statistics.getBusyTimeInNanos();
+            idleTimeInNanos = statistics.getIdleTimeInNanos();
+            idleRatio = statistics.getIdleRatio();
+            dispatchCycleMedianInNanos = statistics.getDispatchCycleMedianInNanos();
+            dispatchCycle99thPercentileInNanos = statistics.getDispatchCycle99thPercentileInNanos();
+            dispatchCycle999thPercentileInNanos = statistics.getDispatchCycle999thPercentileInNanos();
+            dispatchCycleMaxInNanos = statistics.getDispatchCycleMaxInNanos();
+        }
+
+        @Override
+        public long getDispatchCount()
+        {
+            return dispatchCount;
+        }
+
+        @Override
+        public long getDispatchCycleCount()
+        {
+            return dispatchCycleCount;
+        }
+
+        @Override
+        public long getCallbackCount()
+        {
+            return callbackCount;
+        }
+
+        @Override
+        public double getCallbacksPerDispatchCycle()
+        {
+            return callbacksPerDispatchCycle;
+        }
+
+        @Override
+        public long getCallbackTimeInNanos()
+        {
+            return callbackTimeInNanos;
+        }
+
+        @Override
+        public long getBusyTimeInNanos()
+        {
+            return busyTimeInNanos;
+        }
+
+        @Override
+        public long getIdleTimeInNanos()
+        {
+            return idleTimeInNanos;
+        }
+
+        @Override
+        public double getIdleRatio()
+        {
+            return idleRatio;
+        }
+
+        @Override
+        public long getDispatchCycleMedianInNanos()
+        {
+            return dispatchCycleMedianInNanos;
+        }
+
+        @Override
+        public long getDispatchCycle99thPercentileInNanos()
+        {
+            return dispatchCycle99thPercentileInNanos;
+        }
+
+        @Override
+        public long getDispatchCycle999thPercentileInNanos()
+        {
+            return dispatchCycle999thPercentileInNanos;
+        }
+
+        @Override
+        public long getDispatchCycleMaxInNanos()
+        {
+            return dispatchCycleMaxInNanos;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "DispatcherStatistics[dispatches=" + dispatchCount
+                    + ", cycles=" + dispatchCycleCount
+                    + ", callbacks=" + callbackCount
+                    + ", callbacksPerCycle=" + String.format("%.2f", callbacksPerDispatchCycle)
+                    + ", callbackTime=" + callbackTimeInNanos
+                    + "ns, idleRatio=" + String.format("%.3f", idleRatio)
+                    + ", cycleMedian=" + dispatchCycleMedianInNanos
+                    + "ns, cycle99th=" + dispatchCycle99thPercentileInNanos
+                    + "ns, cycle999th=" + dispatchCycle999thPercentileInNanos
+                    + "ns, cycleMax=" + dispatchCycleMaxInNanos + "ns]";
+        }
+    }
+}
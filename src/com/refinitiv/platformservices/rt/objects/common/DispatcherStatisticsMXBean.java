@@ -0,0 +1,28 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+/**
+ * The JMX management interface of the statistics of a <code>Dispatcher</code>
+ * built with {@link Dispatcher.Builder#withStatistics(String)}. The
+ * attributes are the ones of {@link DispatcherStatistics} and reflect the
+ * live values of the <code>Dispatcher</code>.
+ */
+public interface DispatcherStatisticsMXBean extends DispatcherStatistics
+{
+    /**
+     * Clears the statistics collected so far.
+     */
+    public void reset();
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+/**
+ * Interfaces of the reactive streams published by the objects of this 
+ * library (see for example <code>MarketPrice.asPublisher()</code>). They 
+ * follow the Reactive Streams specification and have the same methods as the
+ * <code>java.util.concurrent.Flow</code> interfaces of Java 9, that are not
+ * available on Java 8. On Java 9 and later, a <code>Flow.Subscriber</code> of
+ * the JDK can be adapted with a simple delegating class.
+ */
+public final class Flow 
+{
+    private Flow()
+    {
+    }
+
+    /**
+     * A producer of items received by one or more <code>Subscriber</code>s.
+     * @param <T> the type of the published items.
+     */
+    @FunctionalInterface
+    public static interface Publisher<T>
+    {
+        /**
+         * Adds a <code>Subscriber</code>. The <code>Subscriber</code> 
+         * receives a <code>Subscription</code> through its 
+         * {@link Subscriber#onSubscribe(Subscription)} method, and no item 
+         * until it requests some.
+         * @param subscriber the subscriber.
+         */
+        public void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * A receiver of items.
+     * @param <T> the type of the received items.
+     */
+    public static interface Subscriber<T>
+    {
+        /**
+         * Called before any other method, with the subscription used to 
+         * request items.
+         * @param subscription the subscription.
+         */
+        public void onSubscribe(Subscription subscription);
+
+        /**
+         * Called with the next item. Never called more times than requested.
+         * @param item the item.
+         */
+        public void onNext(T item);
+
+        /**
+         * Called when the subscription fails. No other method is called after.
+         * @param throwable the cause of the failure.
+         */
+        public void onError(Throwable throwable);
+
+        /**
+         * Called when no more item will be published. No other method is 
+         * called after.
+         */
+        public void onComplete();
+    }
+
+    /**
+     * The link between a <code>Publisher</code> and a <code>Subscriber</code>,
+     * used by the <code>Subscriber</code> to signal its demand.
+     */
+    public static interface Subscription
+    {
+        /**
+         * Adds <code>n</code> items to the demand of the <code>Subscriber</code>.
+         * @param n the number of additional items, greater than 0.
+         */
+        public void request(long n);
+
+        /**
+         * Stops the delivery of items. Items may still be delivered for a 
+         * short time after this call.
+         */
+        public void cancel();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size histogram of durations expressed in nanoseconds. Values are
+ * recorded in logarithmic buckets split in 16 linear sub-buckets, so that the
+ * returned percentiles are accurate to about 6% whatever the magnitude of the
+ * recorded durations. Recording a value does not allocate and can be done
+ * concurrently from several threads.
+ */
+public final class LatencyHistogram
+{
+    // Number of bits of the linear sub-buckets of each power of 2
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration. Negative durations are recorded as 0.
+     * @param durationInNanos the duration in nanoseconds.
+     */
+    public void record(long durationInNanos)
+    {
+        long value = Math.max(durationInNanos, 0);
+
+        counts.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long currentMax = max.get();
+        while(value > currentMax && !max.compareAndSet(currentMax, value))
+        {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     * @return the number of recorded durations.
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * Returns the sum of the recorded durations.
+     * @return the sum in nanoseconds.
+     */
+    public long getSum()
+    {
+        return sum.get();
+    }
+
+    /**
+     * Returns the longest recorded duration.
+     * @return the longest duration in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded durations.
+     * @return the mean in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean()
+    {
+        long recordedCount = count.get();
+        return recordedCount == 0 ? 0 : (double) sum.get() / recordedCount;
+    }
+
+    /**
+     * Returns the duration below which the given percentage of the recorded
+     * durations fall.
+     * @param percentile the percentile, between 0 and 100.
+     * @return the duration in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        long recordedCount = 0;
+        for(int index = 0; index < BUCKET_COUNT; ++index)
+        {
+            recordedCount += counts.get(index);
+        }
+        if(recordedCount == 0)
+        {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * recordedCount));
+        long cumulatedCount = 0;
+        for(int index = 0; index < BUCKET_COUNT; ++index)
+        {
+            cumulatedCount += counts.get(index);
+            if(cumulatedCount >= rank)
+            {
+                return Math.min(highestValueOf(index), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    /**
+     * Clears all the recorded durations.
+     */
+    public void reset()
+    {
+        for(int index = 0; index < BUCKET_COUNT; ++index)
+        {
+            counts.set(index, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    private static int indexOf(long value)
+    {
+        if(value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long highestValueOf(int index)
+    {
+        if(index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long highestValue = ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+        return highestValue < 0 ? Long.MAX_VALUE : highestValue;
+    }
+}
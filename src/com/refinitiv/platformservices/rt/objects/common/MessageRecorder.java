@@ -0,0 +1,145 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import com.refinitiv.ema.access.Msg;
+import java.nio.file.Path;
+
+/**
+ * The interface of a recorder that appends the messages received by 
+ * <code>MarketPrice</code>s and chains to a binary file, together with their 
+ * arrival time in nanoseconds. The recorded file can then be fed back into 
+ * the same objects by a {@link MessageReplayer}, for example to reproduce a 
+ * market session offline or to benchmark an application with real market 
+ * data. Objects record their messages when they are built with a recorder 
+ * (see for example <code>MarketPrice.Builder.withMessageRecorder()</code>).
+ * <br>
+ * The following code snippet records the messages of a 
+ * <code>MarketPrice</code>:
+ * <br>
+ * <br>
+ * <pre>
+ *    MessageRecorder theRecorder = new MessageRecorder.Builder()
+ *                  .withFile(Paths.get("session.rec"))
+ *                  .build();
+ *
+ *    MarketPrice theMarketPrice = new MarketPrice.Builder()
+ *                  .withOmmConsumer(theOmmConsumer)
+ *                  .withName("EUR=")
+ *                  .withMessageRecorder(theRecorder)
+ *                  .build();
+ *    theMarketPrice.open();
+ *      .
+ *      .
+ *      .
+ *    theMarketPrice.close();
+ *    theRecorder.close();
+ * </pre>
+ * <br>
+ * <strong>Note:</strong> EMA does not expose the wire encoding of the 
+ * messages. The recorder stores the decoded content of the messages: the 
+ * message type, the item and service names, the domain type, the stream id, 
+ * the state, the completion flag and the fields of the field list payload. 
+ * Payloads of other types are not recorded. Messages are appended to the 
+ * file by batches. They are guaranteed to be on disk once {@link #flush()} or 
+ * {@link #close()} returned.
+ */
+public interface MessageRecorder
+{
+    /**
+     * Records a message. The arrival time of the message is the time of this 
+     * call. This method is thread safe.
+     * @param serviceName the name of the service of the item.
+     * @param name the name of the item.
+     * @param message the received <code>RefreshMsg</code>, 
+     * <code>UpdateMsg</code> or <code>StatusMsg</code>. Other messages are 
+     * ignored.
+     */
+    public void record(String serviceName, String name, Msg message);
+
+    /**
+     * Writes the buffered messages to the file.
+     */
+    public void flush();
+
+    /**
+     * Writes the buffered messages to the file and closes it. Messages 
+     * recorded after this call are ignored.
+     */
+    public void close();
+
+    /**
+     * Used to build <code>MessageRecorder</code> objects.
+     * <br>
+     * <br>
+     * <strong>Note:</strong> The file is the only mandatory parameter (see 
+     * {@link #withFile(Path)}).
+     */
+    public static class Builder
+    {
+        Path path;
+        int bufferSize = 1024 * 1024;
+
+        /**
+         * Default constructor
+         */
+        public Builder()
+        {
+        }
+
+        /**
+         * Sets the file the messages are appended to. The file is created if 
+         * it does not exist.
+         * @param path the path of the file.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withFile(Path path)
+        {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Sets the size of the buffer that holds the messages before they 
+         * are written to the file. If <code>withBufferSize</code> is not 
+         * called, a 1 MiB buffer is used.
+         * @param bufferSize the size of the buffer in bytes.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withBufferSize(int bufferSize)
+        {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Builds the <code>MessageRecorder</code> object and opens its file.
+         * @return the built MessageRecorder
+         * @throws java.io.UncheckedIOException if the file cannot be opened.
+         */
+        public MessageRecorder build()
+        {
+            if (path == null)
+            {
+                throw new IllegalStateException("The MessageRecorder.Builder cannot build a MessageRecorder without a file.");
+            }
+            if (bufferSize <= 0)
+            {
+                throw new IllegalStateException("The MessageRecorder.Builder cannot build a MessageRecorder with a buffer size lower than 1.");
+            }
+
+            return new MessageRecorderImpl(this);
+        }
+    }
+}
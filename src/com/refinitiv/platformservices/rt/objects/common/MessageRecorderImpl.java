@@ -0,0 +1,414 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import com.refinitiv.ema.access.Data;
+import com.refinitiv.ema.access.DataType.DataTypes;
+import com.refinitiv.ema.access.FieldEntry;
+import com.refinitiv.ema.access.FieldList;
+import com.refinitiv.ema.access.Msg;
+import com.refinitiv.ema.access.OmmDate;
+import com.refinitiv.ema.access.OmmDateTime;
+import com.refinitiv.ema.access.OmmDouble;
+import com.refinitiv.ema.access.OmmEnum;
+import com.refinitiv.ema.access.OmmFloat;
+import com.refinitiv.ema.access.OmmInt;
+import com.refinitiv.ema.access.OmmReal;
+import com.refinitiv.ema.access.OmmState;
+import com.refinitiv.ema.access.OmmTime;
+import com.refinitiv.ema.access.OmmUInt;
+import com.refinitiv.ema.access.RefreshMsg;
+import com.refinitiv.ema.access.StatusMsg;
+import com.refinitiv.ema.access.UpdateMsg;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The implementation class of the <code>MessageRecorder</code> interface.
+ * Messages are encoded in a buffer (see {@link RecordingFormat}) that is 
+ * written to the file when it is full, when the recorder is flushed and when 
+ * it is closed.
+ */
+class MessageRecorderImpl implements MessageRecorder
+{
+    private static final Logger LOGGER = Logger.getLogger(MessageRecorderImpl.class.getName());
+
+    private final Path path;
+    private final FileChannel channel;
+    // Used to convert System.nanoTime() to nanoseconds since the epoch, so 
+    // that the messages of several sessions appended to the same file keep 
+    // ordered timestamps
+    private final long epochTimeOriginInNs;
+    private final long nanoTimeOrigin;
+    // Guarded by this
+    private ByteBuffer buffer;
+    private boolean closed;
+
+    /**
+     * Constructor used by the <code>MessageRecorder.Builder</code> to build a new
+     * <code>MessageRecorder</code> object.
+     * @param builder the <code>Builder</code> that contains all the parameters
+     * required to build the class. This is this builder that instantiated this
+     * object by calling this constructor.
+     */
+    MessageRecorderImpl(MessageRecorder.Builder builder)
+    {
+        path = builder.path;
+        buffer = ByteBuffer.allocateDirect(builder.bufferSize);
+        epochTimeOriginInNs = System.currentTimeMillis() * 1_000_000L;
+        nanoTimeOrigin = System.nanoTime();
+
+        try
+        {
+            Path directory = path.toAbsolutePath().getParent();
+            if(directory != null)
+            {
+                Files.createDirectories(directory);
+            }
+            channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            if(channel.size() == 0)
+            {
+                buffer.putInt(RecordingFormat.MAGIC);
+                buffer.putInt(RecordingFormat.VERSION);
+            }
+        }
+        catch(IOException exception)
+        {
+            throw new UncheckedIOException("The recording file <" + path + "> cannot be opened.", exception);
+        }
+    }
+
+    @Override
+    public void record(String serviceName, String name, Msg message)
+    {
+        long arrivalTimeInNs = epochTimeOriginInNs + (System.nanoTime() - nanoTimeOrigin);
+
+        byte type;
+        if(message instanceof RefreshMsg)
+        {
+            type = RecordingFormat.REFRESH_TYPE;
+        }
+        else if(message instanceof UpdateMsg)
+        {
+            type = RecordingFormat.UPDATE_TYPE;
+        }
+        else if(message instanceof StatusMsg)
+        {
+            type = RecordingFormat.STATUS_TYPE;
+        }
+        else
+        {
+            return;
+        }
+
+        synchronized(this)
+        {
+            if(closed)
+            {
+                return;
+            }
+
+            int recordPosition = buffer.position();
+            while(true)
+            {
+                try
+                {
+                    writeRecord(type, arrivalTimeInNs, serviceName, name, message);
+                    break;
+                }
+                catch(BufferOverflowException exception)
+                {
+                    buffer.position(recordPosition);
+                    if(recordPosition > 0)
+                    {
+                        // Makes room by writing the previous records
+                        writeBuffer();
+                        recordPosition = 0;
+                    }
+                    else
+                    {
+                        grow();
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void flush()
+    {
+        if(closed)
+        {
+            return;
+        }
+
+        writeBuffer();
+        try
+        {
+            channel.force(false);
+        }
+        catch(IOException exception)
+        {
+            LOGGER.log(Level.WARNING, "The recording file <" + path + "> cannot be flushed", exception);
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if(closed)
+        {
+            return;
+        }
+
+        writeBuffer();
+        closed = true;
+        try
+        {
+            channel.close();
+        }
+        catch(IOException exception)
+        {
+            LOGGER.log(Level.WARNING, "The recording file <" + path + "> cannot be closed", exception);
+        }
+    }
+
+    /**
+     * Encodes a message at the position of the buffer.
+     * @throws BufferOverflowException if the buffer is too small.
+     */
+    private void writeRecord(byte type, long arrivalTimeInNs, String serviceName, String name, Msg message)
+    {
+        int recordPosition = buffer.position();
+        buffer.putInt(0);
+        buffer.putLong(arrivalTimeInNs);
+        buffer.put(type);
+        RecordingFormat.putText(buffer, serviceName);
+        RecordingFormat.putText(buffer, name);
+        buffer.putShort((short) message.domainType());
+        buffer.putInt(message.streamId());
+
+        OmmState state = null;
+        int flags = 0;
+        if(message instanceof RefreshMsg)
+        {
+            RefreshMsg refreshMsg = (RefreshMsg) message;
+            state = refreshMsg.state();
+            if(refreshMsg.complete())
+            {
+                flags |= RecordingFormat.COMPLETE_FLAG;
+            }
+        }
+        else if(message instanceof StatusMsg && ((StatusMsg) message).hasState())
+        {
+            state = ((StatusMsg) message).state();
+        }
+        if(state != null)
+        {
+            flags |= RecordingFormat.STATE_FLAG;
+        }
+        boolean hasFieldList = message.payload().dataType() == DataTypes.FIELD_LIST;
+        if(hasFieldList)
+        {
+            flags |= RecordingFormat.FIELD_LIST_FLAG;
+        }
+        buffer.put((byte) flags);
+
+        if(state != null)
+        {
+            buffer.put((byte) state.streamState());
+            buffer.put((byte) state.dataState());
+            buffer.putShort((short) state.statusCode());
+            RecordingFormat.putText(buffer, state.statusText());
+        }
+
+        if(hasFieldList)
+        {
+            writeFieldList(message.payload().fieldList());
+        }
+
+        buffer.putInt(recordPosition, buffer.position() - recordPosition);
+    }
+
+    private void writeFieldList(FieldList fieldList)
+    {
+        int fieldsCountPosition = buffer.position();
+        buffer.putInt(0);
+
+        int fieldsCount = 0;
+        for(FieldEntry fieldEntry : fieldList)
+        {
+            Data value = fieldEntry.load();
+            int dataType = value.dataType();
+            if(!isRecorded(dataType))
+            {
+                continue;
+            }
+
+            buffer.putShort((short) fieldEntry.fieldId());
+            buffer.put((byte) dataType);
+            if(value.code() == Data.DataCode.BLANK)
+            {
+                buffer.put((byte) 1);
+            }
+            else
+            {
+                buffer.put((byte) 0);
+                writeValue(dataType, value);
+            }
+            ++fieldsCount;
+        }
+
+        buffer.putInt(fieldsCountPosition, fieldsCount);
+    }
+
+    private void writeValue(int dataType, Data value)
+    {
+        switch(dataType)
+        {
+            case DataTypes.REAL:
+                {
+                    OmmReal real = (OmmReal) value;
+                    buffer.putLong(real.mantissa());
+                    buffer.put((byte) real.magnitudeType());
+                }
+                break;
+            case DataTypes.INT:
+                buffer.putLong(((OmmInt) value).intValue());
+                break;
+            case DataTypes.UINT:
+                buffer.putLong(((OmmUInt) value).longValue());
+                break;
+            case DataTypes.FLOAT:
+                buffer.putFloat(((OmmFloat) value).floatValue());
+                break;
+            case DataTypes.DOUBLE:
+                buffer.putDouble(((OmmDouble) value).doubleValue());
+                break;
+            case DataTypes.ENUM:
+                buffer.putShort((short) ((OmmEnum) value).enumValue());
+                break;
+            case DataTypes.DATE:
+                {
+                    OmmDate date = (OmmDate) value;
+                    writeDate(date.year(), date.month(), date.day());
+                }
+                break;
+            case DataTypes.TIME:
+                {
+                    OmmTime time = (OmmTime) value;
+                    writeTime(time.hour(), time.minute(), time.second(),
+                            time.millisecond(), time.microsecond(), time.nanosecond());
+                }
+                break;
+            case DataTypes.DATETIME:
+                {
+                    OmmDateTime dateTime = (OmmDateTime) value;
+                    writeDate(dateTime.year(), dateTime.month(), dateTime.day());
+                    writeTime(dateTime.hour(), dateTime.minute(), dateTime.second(),
+                            dateTime.millisecond(), dateTime.microsecond(), dateTime.nanosecond());
+                }
+                break;
+            default:
+                // ASCII and RMTES
+                RecordingFormat.putText(buffer, value.toString());
+                break;
+        }
+    }
+
+    private void writeDate(int year, int month, int day)
+    {
+        buffer.putShort((short) year);
+        buffer.put((byte) month);
+        buffer.put((byte) day);
+    }
+
+    private void writeTime(int hour, int minute, int second,
+                           int millisecond, int microsecond, int nanosecond)
+    {
+        buffer.put((byte) hour);
+        buffer.put((byte) minute);
+        buffer.put((byte) second);
+        buffer.putShort((short) millisecond);
+        buffer.putShort((short) microsecond);
+        buffer.putShort((short) nanosecond);
+    }
+
+    /**
+     * Indicates if fields of a type are recorded. Fields of other types are
+     * skipped.
+     */
+    private static boolean isRecorded(int dataType)
+    {
+        switch(dataType)
+        {
+            case DataTypes.REAL:
+            case DataTypes.INT:
+            case DataTypes.UINT:
+            case DataTypes.FLOAT:
+            case DataTypes.DOUBLE:
+            case DataTypes.ENUM:
+            case DataTypes.DATE:
+            case DataTypes.TIME:
+            case DataTypes.DATETIME:
+            case DataTypes.ASCII:
+            case DataTypes.RMTES:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Writes the content of the buffer to the file and clears the buffer. 
+     * Errors are logged with <code>java.util.logging</code> and the content
+     * is dropped, so that the dispatching threads are never interrupted by the
+     * recording.
+     */
+    private void writeBuffer()
+    {
+        buffer.flip();
+        try
+        {
+            while(buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+        }
+        catch(IOException exception)
+        {
+            LOGGER.log(Level.WARNING, "The recording file <" + path + "> cannot be written", exception);
+        }
+        buffer.clear();
+    }
+
+    private void grow()
+    {
+        ByteBuffer previousBuffer = buffer;
+        buffer = ByteBuffer.allocateDirect(previousBuffer.capacity() * 2);
+        previousBuffer.flip();
+        buffer.put(previousBuffer);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import com.refinitiv.ema.rdm.DataDictionary;
+import java.nio.file.Path;
+
+/**
+ * The interface of a replayer that feeds the messages recorded by a 
+ * {@link MessageRecorder} back into <code>MarketPrice</code>s and chains, 
+ * without any OmmConsumer. Objects built with a replayer (see for example 
+ * <code>MarketPrice.Builder.withMessageReplayer()</code>) register with it 
+ * when they are opened and receive the recorded messages of their item 
+ * through the same processing as the messages received from EMA. Messages of 
+ * items that are not registered are skipped.
+ * <br>
+ * Messages are replayed at the recorded speed, at an accelerated speed (see 
+ * {@link Builder#withSpeed(double)}) or as fast as possible (see 
+ * {@link Builder#withMaxSpeed()}).
+ * <br>
+ * The following code snippet replays a recording into a 
+ * <code>MarketPrice</code>, ten times faster than it was recorded:
+ * <br>
+ * <br>
+ * <pre>
+ *    MessageReplayer theReplayer = new MessageReplayer.Builder()
+ *                  .withFile(Paths.get("session.rec"))
+ *                  .withDataDictionary(theDataDictionary)
+ *                  .withSpeed(10)
+ *                  .build();
+ *
+ *    MarketPrice theMarketPrice = new MarketPrice.Builder()
+ *                  .withName("EUR=")
+ *                  .withMessageReplayer(theReplayer)
+ *                  .onUpdate((marketPrice, fields) -&gt; System.out.println(fields))
+ *                  .build();
+ *    theMarketPrice.open();
+ *
+ *    theReplayer.replay();
+ * </pre>
+ * <br>
+ * <strong>Note:</strong> RMTES fields are replayed as ASCII fields. Payloads
+ * that were not field lists are replayed without fields.
+ */
+public interface MessageReplayer
+{
+    /**
+     * Registers a client that receives the recorded messages of an item.
+     * @param serviceName the name of the service of the item.
+     * @param name the name of the item.
+     * @param client the client.
+     */
+    public void registerClient(String serviceName, String name, Client client);
+
+    /**
+     * Unregisters a client. The client does not receive messages after this
+     * call returned, unless it is registered again.
+     * @param serviceName the name of the service of the item.
+     * @param name the name of the item.
+     * @param client the client.
+     */
+    public void unregisterClient(String serviceName, String name, Client client);
+
+    /**
+     * Replays the recording file from its beginning. The messages are 
+     * delivered to the registered clients by the calling thread, which
+     * returns when the end of the file is reached. Replays can be repeated.
+     * @return the number of messages delivered to the clients.
+     * @throws java.io.UncheckedIOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a recording file 
+     * or is malformed.
+     */
+    public long replay();
+
+    /**
+     * Returns the dictionary used to describe the replayed fields.
+     * @return the data dictionary.
+     */
+    public DataDictionary getDataDictionary();
+
+    /**
+     * Receives the recorded messages of the items it registered for.
+     */
+    @FunctionalInterface
+    public interface Client
+    {
+        /**
+         * Called by the replaying thread for each recorded message of the 
+         * item.
+         * @param message the message. Overwritten after this call returned.
+         */
+        void onRecordedMessage(RecordedMessage message);
+    }
+
+    /**
+     * Used to build <code>MessageReplayer</code> objects.
+     * <br>
+     * <br>
+     * <strong>Note:</strong> The file and the data dictionary are the two 
+     * mandatory parameters that must be set for every 
+     * <code>MessageReplayer</code> (see {@link #withFile(Path)} and 
+     * {@link #withDataDictionary(DataDictionary)}).
+     */
+    public static class Builder
+    {
+        Path path;
+        DataDictionary dataDictionary;
+        double speed = 1.0;
+
+        /**
+         * Default constructor
+         */
+        public Builder()
+        {
+        }
+
+        /**
+         * Sets the recording file to replay.
+         * @param path the path of the file.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withFile(Path path)
+        {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Sets the dictionary that describes the replayed fields. It is used
+         * by the objects fed by the replayer to name the fields and to 
+         * convert enumerated values to their display strings.
+         * @param dataDictionary the data dictionary.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withDataDictionary(DataDictionary dataDictionary)
+        {
+            this.dataDictionary = dataDictionary;
+            return this;
+        }
+
+        /**
+         * Sets the speed of the replay, relatively to the recorded speed. 
+         * If neither <code>withSpeed</code> nor {@link #withMaxSpeed()} is 
+         * called, messages are replayed at the recorded speed.
+         * @param speed the speed factor. 1 replays at the recorded speed, 2 
+         * twice as fast, 0.5 half as fast.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withSpeed(double speed)
+        {
+            this.speed = speed;
+            return this;
+        }
+
+        /**
+         * Replays the messages as fast as possible, without waiting between 
+         * them.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withMaxSpeed()
+        {
+            this.speed = Double.POSITIVE_INFINITY;
+            return this;
+        }
+
+        /**
+         * Builds the <code>MessageReplayer</code> object
+         * @return the built MessageReplayer
+         */
+        public MessageReplayer build()
+        {
+            if (path == null)
+            {
+                throw new IllegalStateException("The MessageReplayer.Builder cannot build a MessageReplayer without a file.");
+            }
+            if (dataDictionary == null)
+            {
+                throw new IllegalStateException("The MessageReplayer.Builder cannot build a MessageReplayer without a data dictionary.");
+            }
+            if (!(speed > 0))
+            {
+                throw new IllegalStateException("The MessageReplayer.Builder cannot build a MessageReplayer with a speed lower than or equal to 0.");
+            }
+
+            return new MessageReplayerImpl(this);
+        }
+    }
+}
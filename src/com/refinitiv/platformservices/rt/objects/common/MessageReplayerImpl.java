@@ -0,0 +1,311 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import com.refinitiv.ema.access.Data;
+import com.refinitiv.ema.access.DataType.DataTypes;
+import com.refinitiv.ema.access.OmmState;
+import com.refinitiv.ema.rdm.DataDictionary;
+import com.refinitiv.ema.rdm.DictionaryEntry;
+import com.refinitiv.platformservices.rt.objects.data.DataFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The implementation class of the <code>MessageReplayer</code> interface.
+ * The file is read by chunks in a buffer that grows to the size of the 
+ * largest message, and the messages are decoded into a single reused 
+ * {@link RecordedMessage}. Messages of items without registered clients are 
+ * skipped without decoding their fields.
+ */
+class MessageReplayerImpl implements MessageReplayer
+{
+    private static final int READ_BUFFER_CAPACITY = 4 * 1024 * 1024;
+    // Length, arrival time and type of a message
+    private static final int MIN_RECORD_LENGTH = Integer.BYTES + Long.BYTES + 1;
+
+    private final Path path;
+    private final DataDictionary dataDictionary;
+    private final double speed;
+    // Registered clients, keyed by service name and item name
+    private final ConcurrentHashMap<String, List<Client>> clientsByItem = new ConcurrentHashMap<>();
+    // Guarded by this
+    private ByteBuffer buffer;
+    private final RecordedMessage message = new RecordedMessage();
+
+    /**
+     * Constructor used by the <code>MessageReplayer.Builder</code> to build a new
+     * <code>MessageReplayer</code> object.
+     * @param builder the <code>Builder</code> that contains all the parameters
+     * required to build the class. This is this builder that instantiated this
+     * object by calling this constructor.
+     */
+    MessageReplayerImpl(MessageReplayer.Builder builder)
+    {
+        path = builder.path;
+        dataDictionary = builder.dataDictionary;
+        speed = builder.speed;
+    }
+
+    @Override
+    public void registerClient(String serviceName, String name, Client client)
+    {
+        clientsByItem.computeIfAbsent(keyOf(serviceName, name), (key) -> new CopyOnWriteArrayList<>())
+                .add(client);
+    }
+
+    @Override
+    public void unregisterClient(String serviceName, String name, Client client)
+    {
+        clientsByItem.computeIfPresent(keyOf(serviceName, name), 
+                (key, clients) -> {
+                    clients.remove(client);
+                    return clients.isEmpty() ? null : clients;
+                });
+    }
+
+    @Override
+    public DataDictionary getDataDictionary()
+    {
+        return dataDictionary;
+    }
+
+    @Override
+    public synchronized long replay()
+    {
+        buffer = ByteBuffer.allocate(READ_BUFFER_CAPACITY);
+        buffer.limit(0);
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            if(!ensureAvailable(channel, RecordingFormat.HEADER_LENGTH)
+                    || buffer.getInt() != RecordingFormat.MAGIC
+                    || buffer.getInt() != RecordingFormat.VERSION)
+            {
+                throw new IllegalArgumentException("The file <" + path + "> is not a recording file.");
+            }
+
+            long deliveredMessagesCount = 0;
+            long firstArrivalTimeInNs = 0;
+            long replayStartTimeInNs = 0;
+            boolean firstMessage = true;
+            while(ensureAvailable(channel, Integer.BYTES))
+            {
+                int recordPosition = buffer.position();
+                int recordLength = buffer.getInt(recordPosition);
+                if(recordLength < MIN_RECORD_LENGTH)
+                {
+                    throw new IllegalArgumentException("Malformed message in the recording file <" + path + ">.");
+                }
+                if(!ensureAvailable(channel, recordLength))
+                {
+                    // The last message was truncated by the end of the recording
+                    break;
+                }
+                recordPosition = buffer.position();
+                int recordEnd = recordPosition + recordLength;
+
+                buffer.position(recordPosition + Integer.BYTES);
+                long arrivalTimeInNs = buffer.getLong();
+                if(firstMessage)
+                {
+                    firstMessage = false;
+                    firstArrivalTimeInNs = arrivalTimeInNs;
+                    replayStartTimeInNs = System.nanoTime();
+                }
+
+                List<Client> clients = readMessage(arrivalTimeInNs);
+                if(clients != null)
+                {
+                    waitForReplayTime(replayStartTimeInNs + (long) ((arrivalTimeInNs - firstArrivalTimeInNs) / speed));
+                    for(Client client : clients)
+                    {
+                        client.onRecordedMessage(message);
+                    }
+                    ++deliveredMessagesCount;
+                }
+                buffer.position(recordEnd);
+            }
+
+            return deliveredMessagesCount;
+        }
+        catch(IOException exception)
+        {
+            throw new UncheckedIOException("The recording file <" + path + "> cannot be read.", exception);
+        }
+        finally
+        {
+            buffer = null;
+        }
+    }
+
+    /**
+     * Decodes the message at the position of the buffer (after its arrival 
+     * time) into the reused <code>RecordedMessage</code>.
+     * @return the clients of the item of the message or null if there is 
+     * none. The fields of the message are not decoded in this case.
+     */
+    private List<Client> readMessage(long arrivalTimeInNs)
+    {
+        RecordedMessage.Type type;
+        switch(buffer.get())
+        {
+            case RecordingFormat.REFRESH_TYPE:
+                type = RecordedMessage.Type.REFRESH;
+                break;
+            case RecordingFormat.UPDATE_TYPE:
+                type = RecordedMessage.Type.UPDATE;
+                break;
+            case RecordingFormat.STATUS_TYPE:
+                type = RecordedMessage.Type.STATUS;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown message type in the recording file <" + path + ">.");
+        }
+
+        String serviceName = RecordingFormat.getText(buffer);
+        String name = RecordingFormat.getText(buffer);
+        List<Client> clients = clientsByItem.get(keyOf(serviceName, name));
+        if(clients == null)
+        {
+            return null;
+        }
+
+        int domainType = buffer.getShort() & 0xFFFF;
+        int streamId = buffer.getInt();
+        int flags = buffer.get();
+        OmmState state = null;
+        if((flags & RecordingFormat.STATE_FLAG) != 0)
+        {
+            int streamState = buffer.get();
+            int dataState = buffer.get();
+            int statusCode = buffer.getShort() & 0xFFFF;
+            String statusText = RecordingFormat.getText(buffer);
+            state = DataFactory.createState(streamState, dataState, statusCode, statusText);
+        }
+        boolean hasFieldList = (flags & RecordingFormat.FIELD_LIST_FLAG) != 0;
+        message.set(type, arrivalTimeInNs, serviceName, name, domainType, streamId, 
+                state, (flags & RecordingFormat.COMPLETE_FLAG) != 0, hasFieldList);
+
+        if(hasFieldList)
+        {
+            int fieldsCount = buffer.getInt();
+            for(int index = 0; index < fieldsCount; ++index)
+            {
+                int fieldId = buffer.getShort();
+                int dataType = buffer.get();
+                boolean blank = buffer.get() != 0;
+                message.addField(fieldId, blank 
+                        ? DataFactory.createBlank(dataType) 
+                        : readValue(fieldId, dataType));
+            }
+        }
+
+        return clients;
+    }
+
+    private Data readValue(int fieldId, int dataType)
+    {
+        switch(dataType)
+        {
+            case DataTypes.REAL:
+                {
+                    long mantissa = buffer.getLong();
+                    return DataFactory.createReal(mantissa, buffer.get());
+                }
+            case DataTypes.INT:
+                return DataFactory.createInt(buffer.getLong());
+            case DataTypes.UINT:
+                return DataFactory.createUInt(buffer.getLong());
+            case DataTypes.FLOAT:
+                return DataFactory.createFloat(buffer.getFloat());
+            case DataTypes.DOUBLE:
+                return DataFactory.createDouble(buffer.getDouble());
+            case DataTypes.ENUM:
+                {
+                    int enumValue = buffer.getShort() & 0xFFFF;
+                    DictionaryEntry dictionaryEntry = dataDictionary.hasEntry(fieldId) 
+                            ? dataDictionary.entry(fieldId) 
+                            : null;
+                    return DataFactory.createEnum(enumValue, dictionaryEntry);
+                }
+            case DataTypes.DATE:
+                return DataFactory.createDate(buffer.getShort(), buffer.get(), buffer.get());
+            case DataTypes.TIME:
+                return DataFactory.createTime(buffer.get(), buffer.get(), buffer.get(), 
+                        buffer.getShort(), buffer.getShort(), buffer.getShort());
+            case DataTypes.DATETIME:
+                return DataFactory.createDateTime(buffer.getShort(), buffer.get(), buffer.get(), 
+                        buffer.get(), buffer.get(), buffer.get(), 
+                        buffer.getShort(), buffer.getShort(), buffer.getShort());
+            case DataTypes.ASCII:
+            case DataTypes.RMTES:
+                return DataFactory.createAscii(RecordingFormat.getText(buffer));
+            default:
+                throw new IllegalArgumentException("Unknown data type " + dataType + " in the recording file <" + path + ">.");
+        }
+    }
+
+    /**
+     * Ensures that a number of bytes can be read from the buffer, reading
+     * the file and growing the buffer if needed.
+     * @return <code>false</code> if the end of the file was reached before.
+     */
+    private boolean ensureAvailable(FileChannel channel, int length) throws IOException
+    {
+        if(buffer.remaining() >= length)
+        {
+            return true;
+        }
+
+        if(buffer.capacity() < length)
+        {
+            ByteBuffer previousBuffer = buffer;
+            buffer = ByteBuffer.allocate(Math.max(length, previousBuffer.capacity() * 2));
+            buffer.put(previousBuffer);
+        }
+        else
+        {
+            buffer.compact();
+        }
+        while(buffer.position() < length && channel.read(buffer) >= 0)
+        {
+        }
+        buffer.flip();
+
+        return buffer.remaining() >= length;
+    }
+
+    private static void waitForReplayTime(long replayTimeInNs)
+    {
+        long delayInNs;
+        while((delayInNs = replayTimeInNs - System.nanoTime()) > 0)
+        {
+            LockSupport.parkNanos(delayInNs);
+        }
+    }
+
+    private static String keyOf(String serviceName, String name)
+    {
+        return serviceName + "/" + name;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import com.refinitiv.ema.access.Data;
+import com.refinitiv.ema.access.OmmState;
+import java.util.Arrays;
+
+/**
+ * A message read from a recording file and delivered by a 
+ * {@link MessageReplayer} to its clients (see 
+ * {@link MessageReplayer.Client#onRecordedMessage(RecordedMessage)}).
+ * <code>RecordedMessage</code>s are reused by the replayer and overwritten by
+ * each new message. Clients must copy the values they want to keep.
+ */
+public final class RecordedMessage
+{
+    /**
+     * The types of the recorded messages.
+     */
+    public enum Type
+    {
+        /**
+         * A <code>RefreshMsg</code>.
+         */
+        REFRESH,
+
+        /**
+         * An <code>UpdateMsg</code>.
+         */
+        UPDATE,
+
+        /**
+         * A <code>StatusMsg</code>.
+         */
+        STATUS
+    }
+
+    private Type type;
+    private long arrivalTimeInNs;
+    private String serviceName;
+    private String name;
+    private int domainType;
+    private int streamId;
+    private OmmState state;
+    private boolean complete;
+    private boolean hasFieldList;
+    private int fieldsCount;
+    private int[] fieldIds = new int[64];
+    private Data[] fieldValues = new Data[64];
+
+    RecordedMessage()
+    {
+    }
+
+    /**
+     * Overwrites this message, without its fields.
+     */
+    void set(Type type, long arrivalTimeInNs, String serviceName, String name, 
+             int domainType, int streamId, OmmState state, boolean complete, boolean hasFieldList)
+    {
+        this.type = type;
+        this.arrivalTimeInNs = arrivalTimeInNs;
+        this.serviceName = serviceName;
+        this.name = name;
+        this.domainType = domainType;
+        this.streamId = streamId;
+        this.state = state;
+        this.complete = complete;
+        this.hasFieldList = hasFieldList;
+        Arrays.fill(fieldValues, 0, fieldsCount, null);
+        fieldsCount = 0;
+    }
+
+    /**
+     * Adds a field to this message.
+     */
+    void addField(int fieldId, Data value)
+    {
+        if(fieldsCount == fieldIds.length)
+        {
+            fieldIds = Arrays.copyOf(fieldIds, fieldsCount * 2);
+            fieldValues = Arrays.copyOf(fieldValues, fieldsCount * 2);
+        }
+        fieldIds[fieldsCount] = fieldId;
+        fieldValues[fieldsCount] = value;
+        ++fieldsCount;
+    }
+
+    /**
+     * Returns the type of this message.
+     * @return the type.
+     */
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * Returns the time the message was received by the recorded object.
+     * @return the arrival time in nanoseconds since the epoch.
+     */
+    public long getArrivalTimeInNs()
+    {
+        return arrivalTimeInNs;
+    }
+
+    /**
+     * Returns the name of the service of the item.
+     * @return the service name.
+     */
+    public String getServiceName()
+    {
+        return serviceName;
+    }
+
+    /**
+     * Returns the name of the item.
+     * @return the item name.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the domain type of the message.
+     * @return the domain type (see <code>EmaRdm</code>).
+     */
+    public int getDomainType()
+    {
+        return domainType;
+    }
+
+    /**
+     * Returns the stream id of the message, as it was recorded.
+     * @return the stream id.
+     */
+    public int getStreamId()
+    {
+        return streamId;
+    }
+
+    /**
+     * Returns the state of the message.
+     * @return the state. Null for {@link Type#UPDATE} messages and for 
+     * {@link Type#STATUS} messages without a state.
+     */
+    public OmmState getState()
+    {
+        return state;
+    }
+
+    /**
+     * Indicates if a refresh message completes the image.
+     * @return <code>true</code> for complete {@link Type#REFRESH} messages.
+     */
+    public boolean isComplete()
+    {
+        return complete;
+    }
+
+    /**
+     * Indicates if the payload of the message was a field list.
+     * @return <code>true</code> if the message has a field list.
+     */
+    public boolean hasFieldList()
+    {
+        return hasFieldList;
+    }
+
+    /**
+     * Returns the number of fields of the message.
+     * @return the number of fields.
+     */
+    public int getFieldsCount()
+    {
+        return fieldsCount;
+    }
+
+    /**
+     * Returns the field id of a field of the message.
+     * @param index the index of the field, in the order of the field list.
+     * @return the field id.
+     */
+    public int getFieldId(int index)
+    {
+        checkIndex(index);
+        return fieldIds[index];
+    }
+
+    /**
+     * Returns the value of a field of the message. RMTES values are 
+     * returned as <code>OmmAscii</code>s.
+     * @param index the index of the field, in the order of the field list.
+     * @return the value.
+     */
+    public Data getFieldValue(int index)
+    {
+        checkIndex(index);
+        return fieldValues[index];
+    }
+
+    private void checkIndex(int index)
+    {
+        if(index < 0 || index >= fieldsCount)
+        {
+            throw new IndexOutOfBoundsException("Field index " + index + " is out of [0, " + fieldsCount + "[.");
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return type + " " + serviceName + "/" + name;
+    }
+}
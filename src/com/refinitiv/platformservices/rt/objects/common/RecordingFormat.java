@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and helpers of the binary format of the files written by the
+ * {@link MessageRecorder} and read by the {@link MessageReplayer}.
+ * <br>
+ * A file starts with an 8 bytes header (magic number and version) followed
+ * by the recorded messages, appended in their order of arrival. All values
+ * are big-endian. Each message is encoded as:
+ * <ul>
+ * <li>the length of the message (int), this int included</li>
+ * <li>the arrival time in nanoseconds since the epoch (long)</li>
+ * <li>the type of the message (byte, see the <code>*_TYPE</code> constants)</li>
+ * <li>the service name and the item name (texts)</li>
+ * <li>the domain type (short) and the stream id (int)</li>
+ * <li>flags (byte, see the <code>*_FLAG</code> constants)</li>
+ * <li>if the message has a state: the stream state (byte), the data state
+ * (byte), the status code (short) and the status text (text)</li>
+ * <li>if the message has a field list: the fields count (int) followed by
+ * the fields. A field is encoded as its field id (short), its data type
+ * (byte), a blank indicator (byte) and, if it is not blank, its value.</li>
+ * </ul>
+ * Texts are encoded as their UTF-8 length (unsigned short) followed by their
+ * UTF-8 bytes.
+ */
+class RecordingFormat
+{
+    static final int MAGIC = 0x454D4152;
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = 8;
+
+    static final byte REFRESH_TYPE = 1;
+    static final byte UPDATE_TYPE = 2;
+    static final byte STATUS_TYPE = 3;
+
+    static final int STATE_FLAG = 0x01;
+    static final int COMPLETE_FLAG = 0x02;
+    static final int FIELD_LIST_FLAG = 0x04;
+
+    static final int MAX_TEXT_LENGTH = 0xFFFF;
+
+    private RecordingFormat()
+    {
+    }
+
+    /**
+     * Writes a text at the position of a buffer. Texts longer than 
+     * {@link #MAX_TEXT_LENGTH} UTF-8 bytes are truncated.
+     * @param buffer the target buffer.
+     * @param text the text to write. Null is written as an empty text.
+     */
+    static void putText(ByteBuffer buffer, String text)
+    {
+        byte[] bytes = text == null 
+                ? new byte[0] 
+                : text.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_TEXT_LENGTH);
+        buffer.putShort((short) length);
+        buffer.put(bytes, 0, length);
+    }
+
+    /**
+     * Reads a text at the position of a buffer.
+     * @param buffer the source buffer.
+     * @return the text.
+     */
+    static String getText(ByteBuffer buffer)
+    {
+        int length = buffer.getShort() & MAX_TEXT_LENGTH;
+        String text = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        
+        return text;
+    }
+}
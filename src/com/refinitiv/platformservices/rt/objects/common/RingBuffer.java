@@ -0,0 +1,284 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The interface of a preallocated ring buffer that carries events from a
+ * single producer (typically the thread that dispatches EMA events) to
+ * several consumers. Each consumer is an {@link EventHandler} run by its own
+ * thread, that reads all the events in sequence at its own pace. Event slots
+ * are created once, when the ring buffer is built, and reused: publishing an
+ * event does not allocate.
+ * <br>
+ * <br>
+ * Events are published in three steps:
+ * <pre>
+ *    long sequence = ringBuffer.next();      // claims the next slot
+ *    MyEvent event = ringBuffer.get(sequence);
+ *    event.set(...);                         // fills the slot
+ *    ringBuffer.publish(sequence);           // makes it visible to consumers
+ * </pre>
+ * When the slowest consumer is a full ring behind, {@link #next()} waits for
+ * it, so that consumers are never overrun.
+ * <br>
+ * <br>
+ * <strong>Note:</strong> Only one thread at a time may publish events. The
+ * ring buffer must be started (see {@link #start()}) before events are
+ * published.
+ * @param <E> the type of the events.
+ */
+public interface RingBuffer<E>
+{
+    /**
+     * Returns the number of slots of the ring buffer.
+     * @return the capacity.
+     */
+    public int getCapacity();
+
+    /**
+     * Claims the next slot of the ring buffer, waiting for the slowest
+     * consumer if the ring buffer is full. Once the ring buffer is stopped,
+     * this method never waits: the events published until the next 
+     * {@link #start()} are dropped.
+     * @return the sequence of the claimed slot.
+     */
+    public long next();
+
+    /**
+     * Returns the event of a slot.
+     * @param sequence the sequence of the slot.
+     * @return the event.
+     */
+    public E get(long sequence);
+
+    /**
+     * Publishes the event of a claimed slot to the consumers.
+     * @param sequence the sequence returned by {@link #next()}.
+     */
+    public void publish(long sequence);
+
+    /**
+     * Returns the number of published events that the slowest consumer did
+     * not handle yet.
+     * @return the backlog of the slowest consumer.
+     */
+    public long getBacklog();
+
+    /**
+     * Starts the consumer threads. This method has no effect if the ring
+     * buffer is already started.
+     */
+    public void start();
+
+    /**
+     * Stops the consumer threads and waits for their termination. Events
+     * that are not handled yet, and the events published until the ring 
+     * buffer is started again, are dropped. This method has no effect if the
+     * ring buffer is already stopped.
+     */
+    public void stop();
+
+    /**
+     * Represents a consumer of the events of a <code>RingBuffer</code>.
+     * @param <E> the type of the events.
+     */
+    @FunctionalInterface
+    public interface EventHandler<E>
+    {
+        /**
+         * Called for each published event, in sequence.
+         * @param event the event. It must not be kept after the call as its
+         * slot is reused.
+         * @param sequence the sequence of the event.
+         * @param endOfBatch <code>true</code> if this is the last event
+         * available to this consumer. Consumers can use it to flush their
+         * own batches (database writes, UI refreshes...).
+         * Runtime exceptions thrown by this method are logged with 
+         * <code>java.util.logging</code> and the consumer moves on to the 
+         * next event.
+         */
+        void onEvent(E event, long sequence, boolean endOfBatch);
+    }
+
+    /**
+     * The strategies used by consumers to wait for new events.
+     */
+    public enum WaitStrategy
+    {
+        /**
+         * Spins on the sequence of the producer. Lowest latency, burns a
+         * core per consumer.
+         */
+        BUSY_SPIN,
+
+        /**
+         * Spins, then yields the CPU to other threads.
+         */
+        YIELDING,
+
+        /**
+         * Spins, yields, then parks the consumer thread for short durations.
+         * A good compromise between latency and CPU usage.
+         */
+        SLEEPING,
+
+        /**
+         * Blocks the consumer thread until the producer signals new events.
+         * Cheapest in CPU, but the producer pays a signal per event. This is
+         * the default strategy.
+         */
+        BLOCKING
+    }
+
+    /**
+     * Used to build <code>RingBuffer</code> objects.
+     * <code>RingBuffer</code>s are immutable objects. This means that you
+     * can't directly change their fields once they are built (there is no
+     * setter).
+     * <br>
+     * The following code snippet builds a <code>RingBuffer</code> of
+     * <code>MarketPriceEvent</code>s with two consumers, and uses it as the
+     * event pipeline of a <code>MarketPrice</code>:
+     * <br>
+     * <br>
+     * <pre>
+     *    RingBuffer&lt;MarketPriceEvent&gt; thePipeline = new RingBuffer.Builder&lt;MarketPriceEvent&gt;()
+     *                  .withEventFactory(MarketPriceEvent::new)
+     *                  .withCapacity(4096)
+     *                  .withEventHandler((event, sequence, endOfBatch) -&gt; price(event))
+     *                  .withEventHandler((event, sequence, endOfBatch) -&gt; persist(event, endOfBatch))
+     *                  .build();
+     *    thePipeline.start();
+     *
+     *    MarketPrice theMarketPrice = new MarketPrice.Builder()
+     *                  .withOmmConsumer(ommConsumer)
+     *                  .withName("EUR=")
+     *                  .withEventPipeline(thePipeline)
+     *                  .build();
+     * </pre>
+     * @param <E> the type of the events.
+     */
+    public static class Builder<E> {
+
+        Supplier<E> eventFactory;
+        int capacity = 1024;
+        List<EventHandler<? super E>> eventHandlers = new LinkedList<>();
+        WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+        String name = "RingBuffer";
+
+        /**
+         * Default constructor
+         */
+        public Builder()
+        {
+        }
+
+        /**
+         * Sets the factory used to preallocate the events of the slots.
+         * @param eventFactory the event factory.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder<E> withEventFactory(Supplier<E> eventFactory)
+        {
+            this.eventFactory = eventFactory;
+            return this;
+        }
+
+        /**
+         * Sets the number of slots of the ring buffer. It must be a power of 2.
+         * If <code>withCapacity</code> is not called, 1024 slots are used.
+         * @param capacity the number of slots.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder<E> withCapacity(int capacity)
+        {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Adds a consumer of the events. Each consumer is run by its own
+         * thread and receives all the events.
+         * @param eventHandler the consumer.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder<E> withEventHandler(EventHandler<? super E> eventHandler)
+        {
+            this.eventHandlers.add(eventHandler);
+            return this;
+        }
+
+        /**
+         * Sets the strategy used by the consumers to wait for new events.
+         * If <code>withWaitStrategy</code> is not called,
+         * {@link WaitStrategy#BLOCKING} is used.
+         * @param waitStrategy the wait strategy.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder<E> withWaitStrategy(WaitStrategy waitStrategy)
+        {
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        /**
+         * Sets the name of the ring buffer. The consumer threads are named
+         * "&lt;name&gt;-i". If <code>withName</code> is not called,
+         * "RingBuffer" is used.
+         * @param name the name of the ring buffer.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder<E> withName(String name)
+        {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Builds the <code>RingBuffer</code> object
+         * @return the built RingBuffer
+         */
+        public RingBuffer<E> build()
+        {
+            if (eventFactory == null)
+            {
+                throw new IllegalStateException("The RingBuffer.Builder cannot build a RingBuffer without event factory.");
+            }
+            if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+            {
+                throw new IllegalStateException("The RingBuffer.Builder cannot build a RingBuffer with a capacity that is not a power of 2.");
+            }
+            if (eventHandlers.isEmpty())
+            {
+                throw new IllegalStateException("The RingBuffer.Builder cannot build a RingBuffer without event handler.");
+            }
+            if (waitStrategy == null)
+            {
+                throw new IllegalStateException("The RingBuffer.Builder cannot build a RingBuffer without wait strategy.");
+            }
+            if (name == null)
+            {
+                throw new IllegalStateException("The RingBuffer.Builder cannot build a RingBuffer without name.");
+            }
+
+            RingBufferImpl<E> builtRingBuffer = new RingBufferImpl<>(this);
+
+            return builtRingBuffer;
+        }
+    }
+}
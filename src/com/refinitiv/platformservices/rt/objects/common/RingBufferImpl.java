@@ -0,0 +1,350 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The implementation class of the <code>RingBuffer</code> interface.
+ * @param <E> the type of the events.
+ */
+class RingBufferImpl<E> implements RingBuffer<E>
+{
+    private static final Logger LOGGER = Logger.getLogger(RingBufferImpl.class.getName());
+
+    // Sequence value before the first event
+    private static final long INITIAL_SEQUENCE = -1;
+
+    // Number of spins and yields of the YIELDING and SLEEPING strategies
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    // Maximum time a BLOCKING consumer waits before checking if it is stopped
+    private static final long BLOCKING_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Object[] entries;
+    private final int indexMask;
+    private final String name;
+    private final WaitStrategy waitStrategy;
+    private final List<EventHandler<? super E>> eventHandlers;
+
+    // Sequence of the last published event, written by the producer only
+    private final AtomicLong cursor = new AtomicLong(INITIAL_SEQUENCE);
+    // Sequence of the last event handled by each consumer
+    private final AtomicLong[] consumerSequences;
+
+    // Producer side state, only accessed by the publishing thread
+    private long nextSequence = INITIAL_SEQUENCE;
+    private long cachedMinimumConsumerSequence = INITIAL_SEQUENCE;
+
+    // Used by the BLOCKING strategy
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition eventsAvailable = lock.newCondition();
+
+    private final List<Thread> consumerThreads = new ArrayList<>();
+    private volatile boolean started;
+    // Set by stop(). The producer does not wait for stopped consumers.
+    private volatile boolean stopped;
+
+    /**
+     * Constructor used by the <code>RingBuffer.Builder</code> to build a new
+     * <code>RingBuffer</code> object.
+     * @param builder the <code>Builder</code> that contains all the parameters
+     * required to build the class. This is this builder that instantiated this
+     * object by calling this constructor.
+     */
+    RingBufferImpl(RingBuffer.Builder<E> builder)
+    {
+        entries = new Object[builder.capacity];
+        for(int index = 0; index < entries.length; ++index)
+        {
+            entries[index] = builder.eventFactory.get();
+        }
+        indexMask = builder.capacity - 1;
+        name = builder.name;
+        waitStrategy = builder.waitStrategy;
+        eventHandlers = new ArrayList<>(builder.eventHandlers);
+
+        consumerSequences = new AtomicLong[eventHandlers.size()];
+        for(int index = 0; index < consumerSequences.length; ++index)
+        {
+            consumerSequences[index] = new AtomicLong(INITIAL_SEQUENCE);
+        }
+    }
+
+    @Override
+    public int getCapacity()
+    {
+        return entries.length;
+    }
+
+    @Override
+    public long next()
+    {
+        long claimedSequence = nextSequence + 1;
+        long wrapPoint = claimedSequence - entries.length;
+
+        if(wrapPoint > cachedMinimumConsumerSequence)
+        {
+            long minimumConsumerSequence;
+            while(wrapPoint > (minimumConsumerSequence = minimumConsumerSequence()))
+            {
+                if(stopped)
+                {
+                    // Nobody reads the slot any more: the event is dropped
+                    nextSequence = claimedSequence;
+                    return claimedSequence;
+                }
+                LockSupport.parkNanos(1);
+            }
+            cachedMinimumConsumerSequence = minimumConsumerSequence;
+        }
+
+        nextSequence = claimedSequence;
+        return claimedSequence;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(long sequence)
+    {
+        return (E) entries[(int) sequence & indexMask];
+    }
+
+    @Override
+    public void publish(long sequence)
+    {
+        cursor.lazySet(sequence);
+
+        if(waitStrategy == WaitStrategy.BLOCKING)
+        {
+            lock.lock();
+            try
+            {
+                eventsAvailable.signalAll();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public long getBacklog()
+    {
+        // Consumers stopped by an error are not counted
+        return Math.max(0, cursor.get() - minimumConsumerSequence());
+    }
+
+    @Override
+    public synchronized void start()
+    {
+        if(started)
+            return;
+
+        if(stopped)
+        {
+            // Events published while stopped are dropped
+            long lastSequence = cursor.get();
+            for(AtomicLong consumerSequence : consumerSequences)
+            {
+                consumerSequence.set(lastSequence);
+            }
+            stopped = false;
+        }
+        started = true;
+        for(int index = 0; index < eventHandlers.size(); ++index)
+        {
+            EventHandler<? super E> eventHandler = eventHandlers.get(index);
+            AtomicLong consumerSequence = consumerSequences[index];
+            Thread consumerThread = new Thread(
+                    () -> consumeWhileStarted(eventHandler, consumerSequence),
+                    name + "-" + index);
+            consumerThread.setDaemon(true);
+            consumerThreads.add(consumerThread);
+            consumerThread.start();
+        }
+    }
+
+    @Override
+    public synchronized void stop()
+    {
+        if(!started)
+            return;
+
+        started = false;
+        boolean interrupted = false;
+        for(Thread consumerThread : consumerThreads)
+        {
+            try
+            {
+                consumerThread.join();
+            }
+            catch (InterruptedException exception)
+            {
+                interrupted = true;
+            }
+        }
+        consumerThreads.clear();
+
+        // Releases a producer that may wait for stopped consumers
+        stopped = true;
+        long lastSequence = cursor.get();
+        for(AtomicLong consumerSequence : consumerSequences)
+        {
+            consumerSequence.set(lastSequence);
+        }
+
+        if(interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long minimumConsumerSequence()
+    {
+        long minimum = Long.MAX_VALUE;
+        for(AtomicLong consumerSequence : consumerSequences)
+        {
+            minimum = Math.min(minimum, consumerSequence.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * Body of the consumer threads. Handles the published events in sequence
+     * until the ring buffer is stopped. A consumer ended by an 
+     * <code>Error</code> no longer holds the producer back: its sequence 
+     * covers the event that failed, then it is detached until the next 
+     * {@link #start()}.
+     * @param eventHandler the consumer.
+     * @param consumerSequence the sequence of the last event handled by the
+     * consumer.
+     */
+    private void consumeWhileStarted(EventHandler<? super E> eventHandler, AtomicLong consumerSequence)
+    {
+        long handledSequence = consumerSequence.get();
+        boolean endedByError = true;
+        try
+        {
+            while(started)
+            {
+                long availableSequence = waitFor(handledSequence + 1);
+                long previousHandledSequence = handledSequence;
+                try
+                {
+                    for(long sequence = handledSequence + 1; sequence <= availableSequence; ++sequence)
+                    {
+                        handledSequence = sequence;
+                        try
+                        {
+                            eventHandler.onEvent(get(sequence), sequence, sequence == availableSequence);
+                        }
+                        catch (RuntimeException exception)
+                        {
+                            LOGGER.log(Level.SEVERE, name + ": exception thrown by an event handler for the event " + sequence, exception);
+                        }
+                    }
+                }
+                finally
+                {
+                    if(handledSequence > previousHandledSequence)
+                    {
+                        consumerSequence.lazySet(handledSequence);
+                    }
+                }
+            }
+            endedByError = false;
+        }
+        finally
+        {
+            if(endedByError)
+            {
+                LOGGER.severe(name + ": event handler stopped by an error at the event " + handledSequence);
+                consumerSequence.set(Long.MAX_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Waits until the event of the given sequence is published, or until the
+     * ring buffer is stopped.
+     * @param sequence the sequence to wait for.
+     * @return the sequence of the last published event. It is lower than
+     * <code>sequence</code> if the ring buffer is stopped.
+     */
+    private long waitFor(long sequence)
+    {
+        long availableSequence;
+        int tries = 0;
+        while((availableSequence = cursor.get()) < sequence && started)
+        {
+            switch(waitStrategy)
+            {
+                case BUSY_SPIN:
+                    break;
+
+                case YIELDING:
+                    if(++tries > SPIN_TRIES)
+                    {
+                        Thread.yield();
+                    }
+                    break;
+
+                case SLEEPING:
+                    if(++tries > SPIN_TRIES + YIELD_TRIES)
+                    {
+                        LockSupport.parkNanos(SLEEP_NANOS);
+                    }
+                    else if(tries > SPIN_TRIES)
+                    {
+                        Thread.yield();
+                    }
+                    break;
+
+                case BLOCKING:
+                    lock.lock();
+                    try
+                    {
+                        if(cursor.get() < sequence)
+                        {
+                            eventsAvailable.awaitNanos(BLOCKING_TIMEOUT_NANOS);
+                        }
+                    }
+                    catch (InterruptedException exception)
+                    {
+                        Thread.currentThread().interrupt();
+                        return cursor.get();
+                    }
+                    finally
+                    {
+                        lock.unlock();
+                    }
+                    break;
+            }
+        }
+
+        return availableSequence;
+    }
+}
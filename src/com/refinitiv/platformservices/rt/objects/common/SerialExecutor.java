@@ -0,0 +1,130 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A lightweight mailbox that runs the tasks submitted to it one at a time and
+ * in submission order, using the threads of an underlying 
+ * <code>Executor</code>. A <code>SerialExecutor</code> never holds a thread 
+ * while its mailbox is empty, so that a large number of them (typically one
+ * per instrument or per chain) can share the same underlying executor, for
+ * example the virtual threads executor returned by 
+ * {@link CallbackExecutors#virtualThreads()}.
+ * <br>
+ * <br>
+ * <strong>Note:</strong> Exceptions thrown by the tasks are logged with 
+ * <code>java.util.logging</code> and do not prevent the next tasks from 
+ * running. Errors are propagated to the underlying executor once the next
+ * tasks are handed over to it.
+ */
+public final class SerialExecutor implements Executor
+{
+    private static final Logger LOGGER = Logger.getLogger(SerialExecutor.class.getName());
+
+    // Maximum number of tasks run before the mailbox gives its thread back
+    // to the underlying executor, so that busy mailboxes do not starve the
+    // others when the executor has a limited number of threads.
+    private static final int MAX_TASKS_PER_RUN = 64;
+
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingTasksCount = new AtomicInteger();
+
+    /**
+     * Creates a <code>SerialExecutor</code> that runs its tasks on the given
+     * executor.
+     * @param executor the executor that provides the threads.
+     * @throws NullPointerException if the executor is null.
+     */
+    public SerialExecutor(Executor executor)
+    {
+        this.executor = Objects.requireNonNull(executor, "A SerialExecutor cannot be created without an Executor.");
+    }
+
+    /**
+     * Queues a task in this mailbox.
+     * @param task the task to run.
+     * @throws java.util.concurrent.RejectedExecutionException if the 
+     * underlying executor rejects the mailbox. The task is then removed from
+     * the mailbox.
+     */
+    @Override
+    public void execute(Runnable task)
+    {
+        tasks.add(task);
+        if(pendingTasksCount.getAndIncrement() == 0)
+        {
+            try
+            {
+                executor.execute(this::runPendingTasks);
+            }
+            catch (RuntimeException | Error exception)
+            {
+                tasks.remove(task);
+                pendingTasksCount.decrementAndGet();
+                throw exception;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tasks submitted to this mailbox that did not
+     * complete yet.
+     * @return the number of pending tasks.
+     */
+    public int getQueueDepth()
+    {
+        return pendingTasksCount.get();
+    }
+
+    private void runPendingTasks()
+    {
+        boolean moreTasks = true;
+        try
+        {
+            for(int count = 0; moreTasks && count < MAX_TASKS_PER_RUN; ++count)
+            {
+                Runnable task = tasks.poll();
+                try
+                {
+                    task.run();
+                }
+                catch (RuntimeException exception)
+                {
+                    LOGGER.log(Level.SEVERE, "SerialExecutor: exception thrown by a task", exception);
+                }
+                finally
+                {
+                    moreTasks = pendingTasksCount.decrementAndGet() != 0;
+                }
+            }
+        }
+        finally
+        {
+            // Also reached when a task throws an Error, so that the mailbox
+            // is never left with pending tasks and no thread to run them
+            if(moreTasks)
+            {
+                executor.execute(this::runPendingTasks);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+/**
+ * The interface of an executor that runs tasks on a fixed number of stripes.
+ * Each stripe is a single thread with its own queue. Tasks submitted with the
+ * same key always run on the same stripe, so that they are executed one at a
+ * time and in submission order, while tasks of different keys run in 
+ * parallel on the other stripes.
+ * <br>
+ * <br>
+ * <code>StripedExecutor</code>s are typically used to move application 
+ * callbacks off the thread that dispatches EMA events (see for example
+ * <code>MarketPrice.Builder.withCallbackExecutor()</code>) while keeping the
+ * events of each instrument in order.
+ * <br>
+ * <br>
+ * <strong>Note:</strong> The threads of a <code>StripedExecutor</code> are 
+ * daemon threads. They are stopped by {@link #shutdown()}.
+ */
+public interface StripedExecutor 
+{
+    /**
+     * Submits a task to the stripe of the given key.
+     * @param key the key that selects the stripe, typically an instrument name.
+     * @param task the task to run.
+     * @throws java.util.concurrent.RejectedExecutionException if the executor 
+     * is shut down.
+     */
+    public void execute(Object key, Runnable task);
+
+    /**
+     * Returns the number of stripes (and threads) of this executor.
+     * @return the number of stripes.
+     */
+    public int getStripeCount();
+
+    /**
+     * Returns the stripe the tasks of a key are submitted to.
+     * @param key the key.
+     * @return the index of the stripe, between 0 (inclusive) and 
+     * {@link #getStripeCount()} (exclusive).
+     */
+    public int stripeOf(Object key);
+
+    /**
+     * Returns the number of tasks waiting in the queue of a stripe. A queue
+     * that keeps growing means that the tasks of this stripe are slower than
+     * the rate of the events that trigger them.
+     * @param stripe the index of the stripe.
+     * @return the number of waiting tasks.
+     */
+    public int getQueueDepth(int stripe);
+
+    /**
+     * Stops accepting new tasks. Tasks already submitted are still executed.
+     */
+    public void shutdown();
+
+    /**
+     * Used to build <code>StripedExecutor</code> objects.
+     * <code>StripedExecutor</code>s are immutable objects. This means that you
+     * can't directly change their fields once they are built (there is no 
+     * setter).
+     * <br>
+     * The following code snippet builds a <code>StripedExecutor</code> with 
+     * 4 stripes and uses it to run the callbacks of a <code>MarketPrice</code>:
+     * <br>
+     * <br>
+     * <pre>
+     *    StripedExecutor theExecutor = new StripedExecutor.Builder()
+     *                  .withStripes(4)
+     *                  .build();
+     * 
+     *    MarketPrice theMarketPrice = new MarketPrice.Builder()
+     *                  .withOmmConsumer(ommConsumer)
+     *                  .withName("EUR=")
+     *                  .withCallbackExecutor(theExecutor)
+     *                  .onUpdate((marketPrice, update) -&gt; ...)
+     *                  .build();
+     * </pre>
+     */
+    public static class Builder {
+
+        int stripes = Runtime.getRuntime().availableProcessors();
+        String name = "StripedExecutor";
+
+        /**
+         * Default constructor
+         */
+        public Builder() 
+        {            
+        }
+
+        /**
+         * Sets the number of stripes (and threads) of the executor.
+         * If <code>withStripes</code> is not called, the number of available
+         * processors is used.
+         * @param stripes the number of stripes.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withStripes(int stripes) 
+        {
+            this.stripes = stripes;
+            return this;
+        }
+
+        /**
+         * Sets the name of the executor. The threads of the stripes are named 
+         * "&lt;name&gt;-i". If <code>withName</code> is not called, 
+         * "StripedExecutor" is used.
+         * @param name the name of the executor.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withName(String name) 
+        {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Builds the <code>StripedExecutor</code> object
+         * @return the built StripedExecutor
+         */
+        public StripedExecutor build() 
+        {
+            if (stripes <= 0)
+            {
+                throw new IllegalStateException("The StripedExecutor.Builder cannot build a StripedExecutor with less than 1 stripe.");
+            }
+            if (name == null)
+            {
+                throw new IllegalStateException("The StripedExecutor.Builder cannot build a StripedExecutor without name.");
+            }
+
+            StripedExecutorImpl builtStripedExecutor = new StripedExecutorImpl(this);
+
+            return builtStripedExecutor;
+        }        
+    }    
+}
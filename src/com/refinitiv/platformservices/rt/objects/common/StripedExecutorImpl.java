@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The implementation class of the <code>StripedExecutor</code> interface.
+ * Each stripe is a single threaded <code>ThreadPoolExecutor</code>.
+ */
+class StripedExecutorImpl implements StripedExecutor
+{
+    private final ThreadPoolExecutor[] stripes;
+
+    /**
+     * Constructor used by the <code>StripedExecutor.Builder</code> to build a new 
+     * <code>StripedExecutor</code> object. 
+     * @param builder the <code>Builder</code> that contains all the parameters
+     * required to build the class. This is this builder that instantiated this 
+     * object by calling this constructor.
+     */    
+    StripedExecutorImpl(StripedExecutor.Builder builder)
+    {
+        stripes = new ThreadPoolExecutor[builder.stripes];
+        for(int index = 0; index < stripes.length; ++index)
+        {
+            String threadName = builder.name + "-" + index;
+            stripes[index] = new ThreadPoolExecutor(
+                    1, 1, 
+                    0, TimeUnit.MILLISECONDS, 
+                    new LinkedBlockingQueue<>(),
+                    (runnable) -> 
+                    {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    @Override
+    public void execute(Object key, Runnable task)
+    {
+        stripes[stripeOf(key)].execute(task);
+    }
+
+    @Override
+    public int getStripeCount()
+    {
+        return stripes.length;
+    }
+
+    @Override
+    public int stripeOf(Object key)
+    {
+        int hash = key.hashCode();
+        // Spreads the high bits of the hash, as HashMap does
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % stripes.length;
+    }
+
+    @Override
+    public int getQueueDepth(int stripe)
+    {
+        return stripes[stripe].getQueue().size();
+    }
+
+    @Override
+    public void shutdown()
+    {
+        for(ThreadPoolExecutor stripe : stripes)
+        {
+            stripe.shutdown();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.data;
+
+import com.refinitiv.ema.access.Data;
+import com.refinitiv.ema.access.DataType.DataTypes;
+import com.refinitiv.ema.access.OmmReal.MagnitudeType;
+import com.refinitiv.ema.access.OmmState;
+import com.refinitiv.ema.rdm.DictionaryEntry;
+
+/**
+ * Factory of in-memory <code>Data</code> values built from their primitive
+ * components rather than cloned from EMA messages. Used to rebuild
+ * <code>Field</code>s from persisted images (see the warm start of
+ * <code>MarketPrice</code>s) and to replay recorded messages (see
+ * <code>MessageReplayer</code>). The returned values can be passed to
+ * {@link Field.Builder#withValue(Data)}.
+ */
+public final class DataFactory
+{
+    private DataFactory()
+    {
+    }
+
+    /**
+     * Creates an <code>OmmReal</code>.
+     * @param mantissa the mantissa.
+     * @param magnitudeType the magnitude type (<code>OmmReal.MagnitudeType</code>).
+     * @return the created value.
+     */
+    public static Data createReal(long mantissa, int magnitudeType)
+    {
+        return new OmmRealImpl(mantissa, magnitudeType);
+    }
+
+    /**
+     * Creates an <code>OmmInt</code>.
+     * @param value the value.
+     * @return the created value.
+     */
+    public static Data createInt(long value)
+    {
+        return new OmmIntImpl(value);
+    }
+
+    /**
+     * Creates an <code>OmmUInt</code>.
+     * @param value the unsigned value, stored in the bits of a long.
+     * @return the created value.
+     */
+    public static Data createUInt(long value)
+    {
+        return new OmmUIntImpl(value);
+    }
+
+    /**
+     * Creates an <code>OmmFloat</code>.
+     * @param value the value.
+     * @return the created value.
+     */
+    public static Data createFloat(float value)
+    {
+        return new OmmFloatImpl(value);
+    }
+
+    /**
+     * Creates an <code>OmmDouble</code>.
+     * @param value the value.
+     * @return the created value.
+     */
+    public static Data createDouble(double value)
+    {
+        return new OmmDoubleImpl(value);
+    }
+
+    /**
+     * Creates an <code>OmmEnum</code>.
+     * @param value the enumerated value.
+     * @param dictionaryEntry the description of the field, used to convert
+     * the value to its display string. May be null.
+     * @return the created value.
+     */
+    public static Data createEnum(int value, DictionaryEntry dictionaryEntry)
+    {
+        return new OmmEnumImpl(value, dictionaryEntry);
+    }
+
+    /**
+     * Creates an <code>OmmDate</code>.
+     * @param year the year.
+     * @param month the month (1 to 12).
+     * @param day the day.
+     * @return the created value.
+     */
+    public static Data createDate(int year, int month, int day)
+    {
+        return new OmmDateImpl(year, month, day);
+    }
+
+    /**
+     * Creates an <code>OmmTime</code>.
+     * @param hour the hour.
+     * @param minute the minute.
+     * @param second the second.
+     * @param millisecond the millisecond.
+     * @param microsecond the microsecond.
+     * @param nanosecond the nanosecond.
+     * @return the created value.
+     */
+    public static Data createTime(int hour, int minute, int second,
+                                  int millisecond, int microsecond, int nanosecond)
+    {
+        return new OmmTimeImpl(hour, minute, second, millisecond, microsecond, nanosecond);
+    }
+
+    /**
+     * Creates an <code>OmmDateTime</code>.
+     * @param year the year.
+     * @param month the month (1 to 12).
+     * @param day the day.
+     * @param hour the hour.
+     * @param minute the minute.
+     * @param second the second.
+     * @param millisecond the millisecond.
+     * @param microsecond the microsecond.
+     * @param nanosecond the nanosecond.
+     * @return the created value.
+     */
+    public static Data createDateTime(int year, int month, int day,
+                                      int hour, int minute, int second,
+                                      int millisecond, int microsecond, int nanosecond)
+    {
+        return new OmmDateTimeImpl(year, month, day, hour, minute, second,
+                millisecond, microsecond, nanosecond);
+    }
+
+    /**
+     * Creates an <code>OmmAscii</code>.
+     * @param value the value.
+     * @return the created value.
+     */
+    public static Data createAscii(String value)
+    {
+        return new OmmAsciiImpl(value);
+    }
+
+    /**
+     * Creates a blank value.
+     * @param dataType the type of the value (<code>DataType.DataTypes</code>). 
+     * Types that have no in-memory implementation are created as blank 
+     * <code>OmmAscii</code>s.
+     * @return the created value.
+     */
+    public static Data createBlank(int dataType)
+    {
+        DataImpl blankValue;
+        switch(dataType)
+        {
+            case DataTypes.REAL:
+                blankValue = new OmmRealImpl(0, MagnitudeType.EXPONENT_0);
+                break;
+            case DataTypes.INT:
+                blankValue = new OmmIntImpl(0);
+                break;
+            case DataTypes.UINT:
+                blankValue = new OmmUIntImpl(0);
+                break;
+            case DataTypes.FLOAT:
+                blankValue = new OmmFloatImpl(0);
+                break;
+            case DataTypes.DOUBLE:
+                blankValue = new OmmDoubleImpl(0);
+                break;
+            case DataTypes.ENUM:
+                blankValue = new OmmEnumImpl(0, null);
+                break;
+            case DataTypes.DATE:
+                blankValue = new OmmDateImpl(0, 0, 0);
+                break;
+            case DataTypes.TIME:
+                blankValue = new OmmTimeImpl(0, 0, 0, 0, 0, 0);
+                break;
+            case DataTypes.DATETIME:
+                blankValue = new OmmDateTimeImpl(0, 0, 0, 0, 0, 0, 0, 0, 0);
+                break;
+            default:
+                blankValue = new OmmAsciiImpl("");
+                break;
+        }
+        blankValue.code = Data.DataCode.BLANK;
+        
+        return blankValue;
+    }
+
+    /**
+     * Creates an <code>OmmState</code>.
+     * @param streamState the stream state (<code>OmmState.StreamState</code>).
+     * @param dataState the data state (<code>OmmState.DataState</code>).
+     * @param statusCode the status code (<code>OmmState.StatusCode</code>).
+     * @param statusText the status text.
+     * @return the created state.
+     */
+    public static OmmState createState(int streamState, int dataState, int statusCode, String statusText)
+    {
+        return new OmmStateImpl(streamState, dataState, statusCode, statusText);
+    }
+}
@@ -14,6 +14,7 @@
 package com.refinitiv.platformservices.rt.objects.data;
 
 import com.refinitiv.ema.access.Data;
+import com.refinitiv.ema.rdm.DictionaryEntry;
 import java.nio.ByteBuffer;
 
 /**
@@ -27,6 +28,11 @@ import java.nio.ByteBuffer;
  * Received OmmData is cloned to an in-memory implementation of the different
  * OMM data types.
  * 
+ * String representations are computed on first use and kept in volatile 
+ * fields, so that a value shared between threads is formatted at most a few 
+ * times and is never seen half-built. Other derived values are recomputed 
+ * from the wire components on each call.
+ * 
  */
 abstract class DataImpl implements Data
 {
@@ -35,7 +41,7 @@ abstract class DataImpl implements Data
     protected final static String BLANK_STRING          = "(blank data)";
     protected final static String DEFAULTCODE_STRING    = "Unknown DataCode value ";
 
-    protected final int code;
+    protected int code;
 
     public DataImpl()
     {
@@ -67,6 +73,20 @@ abstract class DataImpl implements Data
         }
     }
 
+    /**
+     * Overwrites this in-memory value with the given <code>Data</code> of the
+     * same type, without allocating a new object. Implementations that cannot 
+     * be overwritten (or that would need to allocate to do so) return false.
+     * @param data the <code>Data</code> to copy.
+     * @param dictionaryEntry the <code>DictionaryEntry</code> of the field that
+     * holds the value. Used for the conversion of enumerated fields to string.
+     * @return true if the value was overwritten, false otherwise.
+     */
+    boolean overwrite(Data data, DictionaryEntry dictionaryEntry)
+    {
+        return false;
+    }
+
     @Override
     public ByteBuffer asHex() 
     {
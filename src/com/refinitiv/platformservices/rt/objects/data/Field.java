@@ -71,6 +71,25 @@ public interface Field
      */    
     public Field applyPartialUpdate(Data fieldValue);
     
+    /**
+     * Overwrites the value of the <code>Field</code> with the given value, 
+     * without allocating a new <code>Field</code> nor a new value.
+     * <br>
+     * <br>
+     * <strong>Note:</strong> This method only succeeds if the current value 
+     * and <code>fieldValue</code> have the same type and if this type can be 
+     * overwritten (REAL, INT, UINT, ENUM, DATE, TIME and DATETIME). Otherwise, the 
+     * <code>Field</code> is left unchanged. As <code>Field</code> objects 
+     * are generally immutable, this method must only be used by objects that
+     * own the <code>Field</code>, like a <code>MarketPrice</code> built with 
+     * in-place updates.
+     * @param fieldValue the new value of the <code>Field</code>. See the 
+     * <code>Data</code> class in the EMA reference guide for more details about 
+     * this type.
+     * @return true if the value was overwritten, false otherwise.
+     */    
+    public boolean applyInPlaceUpdate(Data fieldValue);
+    
     
     /**
      * Used to build <code>Field</code> objects. <code>Fields</code>s are
@@ -82,6 +101,7 @@ public interface Field
         int id;
         Data value;
         DataDictionary dataDictionary;
+        FieldDictionary fieldDictionary;
                 
         /**
          * Default constructor
@@ -125,6 +145,18 @@ public interface Field
             return this;
         }
 
+        /**
+         * Sets the shared field descriptions used to describe the 
+         * <code>Field</code> to build. When set, this <code>FieldDictionary</code> 
+         * is used instead of the <code>DataDictionary</code>.
+         * @param fieldDictionary the shared field descriptions.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withFieldDictionary(FieldDictionary fieldDictionary) 
+        {
+            this.fieldDictionary = fieldDictionary;
+            return this;
+        }
         
         /**
          * Builds the <code>Field</code> object
@@ -136,9 +168,9 @@ public interface Field
             {
                 throw new IllegalStateException("The Field.Builder cannot build a Field with no value");
             }
-            if (dataDictionary == null)
+            if (dataDictionary == null && fieldDictionary == null)
             {
-                throw new IllegalStateException("The Field.Builder cannot build a Field with no DataDictionary.");
+                throw new IllegalStateException("The Field.Builder cannot build a Field with no DataDictionary or FieldDictionary.");
             }
 
             FieldImpl builtField = new FieldImpl(this);
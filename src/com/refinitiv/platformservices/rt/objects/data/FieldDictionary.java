@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.data;
+
+import com.refinitiv.ema.rdm.DataDictionary;
+import com.refinitiv.ema.rdm.DictionaryEntry;
+
+/**
+ * The interface of an immutable table of field descriptions, indexed by field
+ * Id. A <code>FieldDictionary</code> is built once per version of the EMA
+ * <code>DataDictionary</code> it describes and is shared by all the
+ * <code>Field</code> objects of the process. This avoids allocating and
+ * copying a new <code>DictionaryEntry</code> for each field of each message.
+ * <br>
+ * <br>
+ * <code>FieldDictionary</code> objects are retrieved using the {@link #of}
+ * method:
+ * <br>
+ * <br>
+ * <pre>
+ *    DataDictionary dataDictionary = ...;
+ *    FieldDictionary fieldDictionary = FieldDictionary.of(dataDictionary);
+ *    DictionaryEntry bidDescription = fieldDictionary.entry(22);
+ * </pre>
+ * <strong>Note:</strong> <code>DictionaryEntry</code> objects returned by a
+ * <code>FieldDictionary</code> are shared and must not be modified.
+ */
+public interface FieldDictionary
+{
+    /**
+     * Returns the shared description of a field.
+     * @param fieldId the field Id.
+     * @return the field description or null if the field Id is unknown. See
+     * the <code>DictionaryEntry</code> class in the EMA reference guide for
+     * more details about the returned type.
+     */
+    public DictionaryEntry entry(int fieldId);
+
+    /**
+     * Indicates if the dictionary describes a field.
+     * @param fieldId the field Id.
+     * @return true if the field Id is known, false otherwise.
+     */
+    public boolean hasEntry(int fieldId);
+
+    /**
+     * Returns the EMA <code>DataDictionary</code> this
+     * <code>FieldDictionary</code> was built from.
+     * @return the EMA data dictionary. See the <code>DataDictionary</code>
+     * class in the EMA reference guide for more details about this type.
+     */
+    public DataDictionary dataDictionary();
+
+    /**
+     * Returns the <code>FieldDictionary</code> that describes the fields of an
+     * EMA <code>DataDictionary</code>. The <code>FieldDictionary</code> is
+     * built the first time a <code>DataDictionary</code> is met and is then
+     * reused for this <code>DataDictionary</code> and for the other 
+     * <code>DataDictionary</code> objects of the same version whose entries
+     * are identical.
+     * @param dataDictionary the EMA data dictionary.
+     * @return the shared <code>FieldDictionary</code>.
+     */
+    public static FieldDictionary of(DataDictionary dataDictionary)
+    {
+        return FieldDictionaryImpl.of(dataDictionary);
+    }
+}
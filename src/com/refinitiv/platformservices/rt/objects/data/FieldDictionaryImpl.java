@@ -0,0 +1,200 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.data;
+
+import com.refinitiv.ema.access.EmaFactory;
+import com.refinitiv.ema.rdm.DataDictionary;
+import com.refinitiv.ema.rdm.DictionaryEntry;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *
+ * Implementation of the <code>FieldDictionary</code> interface. Descriptions
+ * are stored in a dense array indexed by <code>fieldId - minFieldId</code>.
+ * <br>
+ * Tables are shared by <code>DataDictionary</code> instance. EMA may return 
+ * a new <code>DataDictionary</code> object for each message, so a table 
+ * built for another instance with the same version header is also shared, 
+ * but only once all its entries were checked against the new instance. 
+ * Two dictionaries that only share their version header get their own 
+ * tables.
+ */
+class FieldDictionaryImpl implements FieldDictionary {
+
+    // FieldDictionaries already built, by DataDictionary instance. 
+    // DataDictionary does not override equals(), and the values are weak so 
+    // that they do not keep their key alive.
+    private static final Map<DataDictionary, WeakReference<FieldDictionaryImpl>> fieldDictionariesByInstance = 
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    // First FieldDictionary built for each dictionary version
+    private static final Map<String, FieldDictionaryImpl> fieldDictionariesByVersion = new ConcurrentHashMap<>();
+
+    // Last FieldDictionary returned. Most processes use a single dictionary,
+    // so this avoids building the version key for each lookup.
+    private static volatile FieldDictionaryImpl lastUsedFieldDictionary;
+
+    private final DataDictionary dataDictionary;
+    private final int minFieldId;
+    private final DictionaryEntry[] entries;
+
+    /**
+     * Constructor that builds the description table of a
+     * <code>DataDictionary</code>.
+     * @param dataDictionary the EMA data dictionary.
+     */
+    private FieldDictionaryImpl(DataDictionary dataDictionary)
+    {
+        this.dataDictionary = dataDictionary;
+        minFieldId = dataDictionary.minFid();
+
+        int maxFieldId = dataDictionary.maxFid();
+        entries = new DictionaryEntry[Math.max(0, maxFieldId - minFieldId + 1)];
+        for(int fieldId = minFieldId; fieldId <= maxFieldId; ++fieldId)
+        {
+            if(dataDictionary.hasEntry(fieldId))
+            {
+                DictionaryEntry entry = EmaFactory.createDictionaryEntry();
+                dataDictionary.entry(fieldId, entry);
+                entries[fieldId - minFieldId] = entry;
+            }
+        }
+    }
+
+    /**
+     * Returns the shared <code>FieldDictionary</code> of a
+     * <code>DataDictionary</code>, building it if required.
+     * @param dataDictionary the EMA data dictionary.
+     * @return the <code>FieldDictionary</code>.
+     */
+    static FieldDictionaryImpl of(DataDictionary dataDictionary)
+    {
+        FieldDictionaryImpl lastUsed = lastUsedFieldDictionary;
+        if(lastUsed != null && lastUsed.dataDictionary == dataDictionary)
+        {
+            return lastUsed;
+        }
+
+        WeakReference<FieldDictionaryImpl> reference = fieldDictionariesByInstance.get(dataDictionary);
+        FieldDictionaryImpl fieldDictionary = reference == null ? null : reference.get();
+        if(fieldDictionary == null)
+        {
+            String version = versionOf(dataDictionary);
+            FieldDictionaryImpl sameVersion = fieldDictionariesByVersion.get(version);
+            if(sameVersion != null && sameVersion.describes(dataDictionary))
+            {
+                fieldDictionary = sameVersion;
+            }
+            else
+            {
+                fieldDictionary = new FieldDictionaryImpl(dataDictionary);
+                fieldDictionariesByVersion.putIfAbsent(version, fieldDictionary);
+            }
+            fieldDictionariesByInstance.put(dataDictionary, new WeakReference<>(fieldDictionary));
+        }
+
+        lastUsedFieldDictionary = fieldDictionary;
+
+        return fieldDictionary;
+    }
+
+    /**
+     * Checks that this table describes the fields of a dictionary exactly 
+     * like the dictionary itself.
+     * @param otherDataDictionary the EMA data dictionary.
+     * @return true if the entries of the dictionary match the ones of this
+     * table.
+     */
+    private boolean describes(DataDictionary otherDataDictionary)
+    {
+        if(otherDataDictionary.minFid() != minFieldId
+                || otherDataDictionary.maxFid() - minFieldId + 1 != entries.length)
+        {
+            return false;
+        }
+
+        DictionaryEntry otherEntry = EmaFactory.createDictionaryEntry();
+        for(int index = 0; index < entries.length; ++index)
+        {
+            int fieldId = minFieldId + index;
+            DictionaryEntry entry = entries[index];
+            if(entry == null || !otherDataDictionary.hasEntry(fieldId))
+            {
+                if(entry != null || otherDataDictionary.hasEntry(fieldId))
+                {
+                    return false;
+                }
+                continue;
+            }
+
+            otherDataDictionary.entry(fieldId, otherEntry);
+            if(!Objects.equals(entry.acronym(), otherEntry.acronym())
+                    || !Objects.equals(entry.ddeAcronym(), otherEntry.ddeAcronym())
+                    || entry.rwfType() != otherEntry.rwfType()
+                    || entry.rwfLength() != otherEntry.rwfLength()
+                    || entry.fieldType() != otherEntry.fieldType()
+                    || entry.length() != otherEntry.length()
+                    || entry.enumLength() != otherEntry.enumLength()
+                    || entry.rippleToField() != otherEntry.rippleToField())
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public DictionaryEntry entry(int fieldId)
+    {
+        int index = fieldId - minFieldId;
+        if(index < 0 || index >= entries.length)
+        {
+            return null;
+        }
+
+        return entries[index];
+    }
+
+    @Override
+    public boolean hasEntry(int fieldId)
+    {
+        return entry(fieldId) != null;
+    }
+
+    @Override
+    public DataDictionary dataDictionary()
+    {
+        return dataDictionary;
+    }
+
+    /**
+     * Builds the key that identifies the version of a dictionary
+     * @param dataDictionary the EMA data dictionary.
+     * @return the version key.
+     */
+    private static String versionOf(DataDictionary dataDictionary)
+    {
+        return dataDictionary.infoDictionaryId()
+                + "/" + dataDictionary.fieldVersion()
+                + "/" + dataDictionary.enumDisplayTemplateVersion()
+                + "/" + dataDictionary.minFid()
+                + "/" + dataDictionary.maxFid();
+    }
+}
@@ -17,7 +17,6 @@ import com.refinitiv.ema.access.Data;
 import com.refinitiv.ema.access.DataType;
 import com.refinitiv.ema.access.OmmRmtes;
 import com.refinitiv.ema.access.RmtesBuffer;
-import com.refinitiv.ema.rdm.DataDictionary;
 import com.refinitiv.ema.rdm.DictionaryEntry;
 
 /**
@@ -27,9 +26,9 @@ import com.refinitiv.ema.rdm.DictionaryEntry;
 class FieldImpl implements Field {
 
     private final int  id;
-    private final Data value;
-    private final DataDictionary dataDictionary;
-    private DictionaryEntry entry;
+    private Data value;
+    private final FieldDictionary fieldDictionary;
+    private final DictionaryEntry entry;
    
     /**
      * Constructor used by the <code>Field.Builder</code> to build a new 
@@ -41,20 +40,21 @@ class FieldImpl implements Field {
     public FieldImpl(Field.Builder builder) 
     {
         id = builder.id;
-        dataDictionary = builder.dataDictionary;
         /**
-        * Remove sychronize block and add the DictionayEntry as a new member in the class
+        * The DictionaryEntry is shared by all the fields with the same Id
+        * instead of being allocated and copied for each field
         */
-        entry = EmaFactory.createDictionaryEntry();
+        fieldDictionary = builder.fieldDictionary != null 
+                ? builder.fieldDictionary 
+                : FieldDictionary.of(builder.dataDictionary);
+        entry = fieldDictionary.entry(id);
        
-        if (dataDictionary.hasEntry(id))
+        if (entry != null)
         {
-        	dataDictionary.entry(id, entry);
         	value = Utils.clone(builder.value, entry);        
         }else
         {
         	System.err.println("Unable to find the entry for this FID: "+id);
-        	entry = null;
         	value = null;
         }
     }
@@ -63,9 +63,6 @@ class FieldImpl implements Field {
     @Override
     public DictionaryEntry description() 
     {
-      /**
-       * Remove sychronize block and add the DictionayEntry as a new member in the class
-      */
        return entry;
     }
 
@@ -76,6 +73,19 @@ class FieldImpl implements Field {
         return value;
     }
 
+    @Override
+    public boolean applyInPlaceUpdate(Data fieldValue) 
+    {
+        if(value instanceof DataImpl
+                &&
+           value.dataType() == fieldValue.dataType())
+        {
+            return ((DataImpl)value).overwrite(fieldValue, entry);
+        }
+        
+        return false;
+    }
+
     @Override
     public Field applyPartialUpdate(Data fieldValue) 
     {
@@ -94,7 +104,7 @@ class FieldImpl implements Field {
             return new Field.Builder()
                     .withId(id)
                     .withValue(fieldValue)
-                    .withDataDictionary(dataDictionary)
+                    .withFieldDictionary(fieldDictionary)
                     .build();
         }
     }
@@ -34,6 +34,15 @@ class OmmAsciiImpl extends DataImpl implements OmmAscii
         this.value = ommAscii.ascii();
     }
 
+    /**
+     * Builds an ASCII string from its value
+     * @param value the value.
+     */
+    OmmAsciiImpl(String value)
+    {
+        this.value = value;
+    }
+
     @Override
     public int dataType()
     {
@@ -13,8 +13,10 @@
  */
 package com.refinitiv.platformservices.rt.objects.data;
 
+import com.refinitiv.ema.access.Data;
 import com.refinitiv.ema.access.DataType;
 import com.refinitiv.ema.access.OmmDate;
+import com.refinitiv.ema.rdm.DictionaryEntry;
 
 /**
  * 
@@ -22,10 +24,12 @@ import com.refinitiv.ema.access.OmmDate;
  */
 class OmmDateImpl extends DataImpl implements OmmDate
 {
-    private final int year;
-    private final int month;
-    private final int day;
-    private final String valueAsString;
+    private int year;
+    private int month;
+    private int day;
+    
+    // Derived representation, computed on demand
+    private volatile String valueAsString;
 		
     /**
      * Copy the given <code>OmmDate</code>
@@ -34,16 +38,47 @@ class OmmDateImpl extends DataImpl implements OmmDate
     public OmmDateImpl(OmmDate ommDate)
     {
         super(ommDate);
+        copy(ommDate);
+    }
+
+    /**
+     * Builds a date from its components
+     * @param year the year.
+     * @param month the month.
+     * @param day the day.
+     */
+    OmmDateImpl(int year, int month, int day)
+    {
+        this.year = year;
+        this.month = month;
+        this.day = day;
+    }
+
+    @Override
+    boolean overwrite(Data data, DictionaryEntry dictionaryEntry)
+    {
+        copy((OmmDate)data);
+        return true;
+    }
+
+    /**
+     * Copy the wire components of the given <code>OmmDate</code> and reset 
+     * the derived representation.
+     * @param ommDate the <code>OmmDate</code> to copy.
+     */
+    private void copy(OmmDate ommDate)
+    {
+        this.code = ommDate.code();
         this.year = ommDate.year();
         this.month = ommDate.month();
         this.day = ommDate.day();
-        this.valueAsString = ommDate.toString();
+        this.valueAsString = null;
     }
     
     @Override
     public int dataType()
     {
-        return DataType.DataTypes.DATETIME;
+        return DataType.DataTypes.DATE;
     }
 
     @Override
@@ -67,6 +102,15 @@ class OmmDateImpl extends DataImpl implements OmmDate
     @Override
     public String toString()
     {
+        String valueAsString = this.valueAsString;
+        if(valueAsString == null)
+        {
+            if (DataCode.BLANK == code)
+                valueAsString = BLANK_STRING;
+            else
+                valueAsString = Utils.formatDate(year, month, day);
+            this.valueAsString = valueAsString;
+        }
         return valueAsString;
     }
-}
\ No newline at end of file
+}
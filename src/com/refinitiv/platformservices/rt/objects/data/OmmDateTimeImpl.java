@@ -13,8 +13,10 @@
  */
 package com.refinitiv.platformservices.rt.objects.data;
 
+import com.refinitiv.ema.access.Data;
 import com.refinitiv.ema.access.DataType;
 import com.refinitiv.ema.access.OmmDateTime;
+import com.refinitiv.ema.rdm.DictionaryEntry;
 
 /**
  * 
@@ -22,16 +24,18 @@ import com.refinitiv.ema.access.OmmDateTime;
  */
 class OmmDateTimeImpl extends DataImpl implements OmmDateTime
 {
-    private final int year;
-    private final int month;
-    private final int day;
-    private final int hour;
-    private final int minute;
-    private final int second;
-    private final int millisecond;
-    private final int microsecond;
-    private final int nanosecond;
-    private final String valueAsString;
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int minute;
+    private int second;
+    private int millisecond;
+    private int microsecond;
+    private int nanosecond;
+    
+    // Derived representation, computed on demand
+    private volatile String valueAsString;
 		
     /**
      * Copy the given <code>OmmDateTime</code>
@@ -40,6 +44,50 @@ class OmmDateTimeImpl extends DataImpl implements OmmDateTime
     public OmmDateTimeImpl(OmmDateTime ommDateTime)
     {
         super(ommDateTime);
+        copy(ommDateTime);
+    }
+
+    /**
+     * Builds a date time from its components
+     * @param year the year.
+     * @param month the month.
+     * @param day the day.
+     * @param hour the hour.
+     * @param minute the minute.
+     * @param second the second.
+     * @param millisecond the millisecond.
+     * @param microsecond the microsecond.
+     * @param nanosecond the nanosecond.
+     */
+    OmmDateTimeImpl(int year, int month, int day, int hour, int minute, int second, 
+                    int millisecond, int microsecond, int nanosecond)
+    {
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.hour = hour;
+        this.minute = minute;
+        this.second = second;
+        this.millisecond = millisecond;
+        this.microsecond = microsecond;
+        this.nanosecond = nanosecond;
+    }
+
+    @Override
+    boolean overwrite(Data data, DictionaryEntry dictionaryEntry)
+    {
+        copy((OmmDateTime)data);
+        return true;
+    }
+
+    /**
+     * Copy the wire components of the given <code>OmmDateTime</code> and 
+     * reset the derived representation.
+     * @param ommDateTime the <code>OmmDateTime</code> to copy.
+     */
+    private void copy(OmmDateTime ommDateTime)
+    {
+        this.code = ommDateTime.code();
         this.year = ommDateTime.year();
         this.month = ommDateTime.month();
         this.day = ommDateTime.day();
@@ -49,7 +97,7 @@ class OmmDateTimeImpl extends DataImpl implements OmmDateTime
         this.millisecond = ommDateTime.millisecond();
         this.microsecond = ommDateTime.microsecond();
         this.nanosecond = ommDateTime.nanosecond();
-        this.valueAsString = ommDateTime.toString();
+        this.valueAsString = null;
     }
     
     @Override
@@ -115,6 +163,17 @@ class OmmDateTimeImpl extends DataImpl implements OmmDateTime
     @Override
     public String toString()
     {
+        String valueAsString = this.valueAsString;
+        if(valueAsString == null)
+        {
+            if (DataCode.BLANK == code)
+                valueAsString = BLANK_STRING;
+            else
+                valueAsString = Utils.formatDate(year, month, day) + " " 
+                        + Utils.formatTime(hour, minute, second, 
+                                        millisecond, microsecond, nanosecond);
+            this.valueAsString = valueAsString;
+        }
         return valueAsString;
     }
-}
\ No newline at end of file
+}
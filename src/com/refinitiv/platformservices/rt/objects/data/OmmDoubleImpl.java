@@ -33,6 +33,15 @@ class OmmDoubleImpl extends DataImpl implements OmmDouble
         super(ommDouble);
         this.value = ommDouble.doubleValue();
     }
+
+    /**
+     * Builds a double from its value
+     * @param value the value.
+     */
+    OmmDoubleImpl(double value)
+    {
+        this.value = value;
+    }
             
     @Override
     public int dataType()
@@ -13,8 +13,10 @@
  */
 package com.refinitiv.platformservices.rt.objects.data;
 
+import com.refinitiv.ema.access.Data;
 import com.refinitiv.ema.access.DataType;
 import com.refinitiv.ema.access.OmmEnum;
+import com.refinitiv.ema.rdm.DictionaryEntry;
 
 /**
  * 
@@ -22,8 +24,11 @@ import com.refinitiv.ema.access.OmmEnum;
  */
 class OmmEnumImpl extends DataImpl implements OmmEnum
 {
-    private final int value;
-    private final String valueAsString;
+    private int value;
+    private DictionaryEntry dictionaryEntry;
+    
+    // Derived representation, computed on demand
+    private volatile String valueAsString;
     
     /**
      * Copy the given <code>OmmEnum</code>
@@ -31,16 +36,53 @@ class OmmEnumImpl extends DataImpl implements OmmEnum
      */
     public OmmEnumImpl(OmmEnum ommEnum)
     {
-        super(ommEnum);
-        this.value = ommEnum.enumValue();
-        this.valueAsString = ommEnum.toString();        
+        this(ommEnum, null);
     }
     
-    public OmmEnumImpl(OmmEnum ommEnum, String valueAsString)
+    /**
+     * Copy the given <code>OmmEnum</code>
+     * @param ommEnum the <code>OmmEnum</code> to copy.
+     * @param dictionaryEntry the <code>DictionaryEntry</code> used to convert
+     * the enumerated value to its display string.
+     */
+    public OmmEnumImpl(OmmEnum ommEnum, DictionaryEntry dictionaryEntry)
     {
         super(ommEnum);
+        copy(ommEnum, dictionaryEntry);
+    }
+
+    /**
+     * Builds an enumerated value from its code
+     * @param value the enumerated value.
+     * @param dictionaryEntry the <code>DictionaryEntry</code> used to convert
+     * the enumerated value to its display string.
+     */
+    OmmEnumImpl(int value, DictionaryEntry dictionaryEntry)
+    {
+        this.value = value;
+        this.dictionaryEntry = dictionaryEntry;
+    }
+
+    @Override
+    boolean overwrite(Data data, DictionaryEntry dictionaryEntry)
+    {
+        copy((OmmEnum)data, dictionaryEntry);
+        return true;
+    }
+
+    /**
+     * Copy the wire components of the given <code>OmmEnum</code> and reset 
+     * the derived representation.
+     * @param ommEnum the <code>OmmEnum</code> to copy.
+     * @param dictionaryEntry the <code>DictionaryEntry</code> used to convert
+     * the enumerated value to its display string.
+     */
+    private void copy(OmmEnum ommEnum, DictionaryEntry dictionaryEntry)
+    {
+        this.code = ommEnum.code();
         this.value = ommEnum.enumValue();
-        this.valueAsString = valueAsString;
+        this.dictionaryEntry = dictionaryEntry;
+        this.valueAsString = null;
     }
 
     @Override
@@ -58,6 +100,17 @@ class OmmEnumImpl extends DataImpl implements OmmEnum
     @Override
     public String toString()
     {
+        String valueAsString = this.valueAsString;
+        if(valueAsString == null)
+        {
+            if (DataCode.BLANK == code)
+                valueAsString = BLANK_STRING;
+            else if (dictionaryEntry != null && dictionaryEntry.hasEnumType(value))
+                valueAsString = dictionaryEntry.enumType(value).display();
+            else
+                valueAsString = Integer.toString(value);
+            this.valueAsString = valueAsString;
+        }
         return valueAsString;
     }
-}
\ No newline at end of file
+}
@@ -33,6 +33,15 @@ class OmmFloatImpl extends DataImpl implements OmmFloat
         super(ommFloat);
         this.value = ommFloat.floatValue();
     }
+
+    /**
+     * Builds a float from its value
+     * @param value the value.
+     */
+    OmmFloatImpl(float value)
+    {
+        this.value = value;
+    }
     
     @Override
     public int dataType()
@@ -13,8 +13,10 @@
  */
 package com.refinitiv.platformservices.rt.objects.data;
 
+import com.refinitiv.ema.access.Data;
 import com.refinitiv.ema.access.DataType;
 import com.refinitiv.ema.access.OmmInt;
+import com.refinitiv.ema.rdm.DictionaryEntry;
 
 /**
  * 
@@ -22,7 +24,7 @@ import com.refinitiv.ema.access.OmmInt;
  */
 class OmmIntImpl extends DataImpl implements OmmInt
 {
-    private final long value;
+    private long value;
 
    /**
      * Copy the given <code>OmmInt</code>
@@ -34,6 +36,24 @@ class OmmIntImpl extends DataImpl implements OmmInt
         value = ommInt.intValue();
     }
 
+    /**
+     * Builds an integer from its value
+     * @param value the value.
+     */
+    OmmIntImpl(long value)
+    {
+        this.value = value;
+    }
+
+    @Override
+    boolean overwrite(Data data, DictionaryEntry dictionaryEntry)
+    {
+        OmmInt ommInt = (OmmInt)data;
+        code = ommInt.code();
+        value = ommInt.intValue();
+        return true;
+    }
+
     @Override
     public int dataType()
     {
@@ -13,8 +13,12 @@
  */
 package com.refinitiv.platformservices.rt.objects.data;
 
+import com.refinitiv.ema.access.Data;
 import com.refinitiv.ema.access.DataType;
 import com.refinitiv.ema.access.OmmReal;
+import com.refinitiv.ema.access.OmmReal.MagnitudeType;
+import com.refinitiv.ema.rdm.DictionaryEntry;
+import java.math.BigDecimal;
 
 /**
  * 
@@ -22,11 +26,20 @@ import com.refinitiv.ema.access.OmmReal;
  */
 class OmmRealImpl extends DataImpl implements OmmReal
 {
-    private final int magnitudeType;
-    private final String magnitudeTypeAsString;
-    private final long mantissa;
-    private final double valueAsDouble;
-    private final String valueAsString;
+    private static final String INFINITY_STRING = "Inf";
+    private static final String NEG_INFINITY_STRING = "-Inf";
+    private static final String NAN_STRING = "NaN";
+    private static final double[] POWERS_OF_10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 
+        1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14
+    };
+
+    private int magnitudeType;
+    private String magnitudeTypeAsString;
+    private long mantissa;
+    
+    // Derived representation, computed on demand
+    private volatile String valueAsString;
     
    /**
      * Copy the given <code>OmmReal</code>
@@ -35,11 +48,40 @@ class OmmRealImpl extends DataImpl implements OmmReal
     public OmmRealImpl(OmmReal ommReal)
     {
         super(ommReal);
+        copy(ommReal);
+    }
+
+    /**
+     * Builds a real from its wire components
+     * @param mantissa the mantissa.
+     * @param magnitudeType the magnitude type (hint).
+     */
+    OmmRealImpl(long mantissa, int magnitudeType)
+    {
+        this.mantissa = mantissa;
+        this.magnitudeType = magnitudeType;
+        this.magnitudeTypeAsString = magnitudeTypeToString(magnitudeType);
+    }
+
+    @Override
+    boolean overwrite(Data data, DictionaryEntry dictionaryEntry)
+    {
+        copy((OmmReal)data);
+        return true;
+    }
+
+    /**
+     * Copy the wire components of the given <code>OmmReal</code> and reset 
+     * the derived representations.
+     * @param ommReal the <code>OmmReal</code> to copy.
+     */
+    private void copy(OmmReal ommReal)
+    {
+        this.code = ommReal.code();
         this.magnitudeType = ommReal.magnitudeType();
         this.magnitudeTypeAsString = ommReal.magnitudeTypeAsString();
         this.mantissa = ommReal.mantissa();
-        this.valueAsDouble = ommReal.asDouble();
-        this.valueAsString = ommReal.toString();
+        this.valueAsString = null;
     }
 
     @Override
@@ -69,12 +111,119 @@ class OmmRealImpl extends DataImpl implements OmmReal
     @Override
     public double asDouble()
     {
-        return valueAsDouble;
+        return computeDouble();
     }
 
     @Override
     public String toString()
     {
+        String valueAsString = this.valueAsString;
+        if(valueAsString == null)
+        {
+            valueAsString = format();
+            this.valueAsString = valueAsString;
+        }
         return valueAsString;
     }
-}
\ No newline at end of file
+
+    /**
+     * Computes the double value from the mantissa and the magnitude type.
+     * @return the double value.
+     */
+    private double computeDouble()
+    {
+        if (DataCode.BLANK == code)
+        {
+            return 0.0;
+        }
+
+        switch(magnitudeType)
+        {
+            case MagnitudeType.INFINITY:
+                return Double.POSITIVE_INFINITY;
+            case MagnitudeType.NEG_INFINITY:
+                return Double.NEGATIVE_INFINITY;
+            case MagnitudeType.NOT_A_NUMBER:
+                return Double.NaN;
+            default:
+                if(magnitudeType < MagnitudeType.EXPONENT_0)
+                {
+                    return mantissa / POWERS_OF_10[MagnitudeType.EXPONENT_0 - magnitudeType];
+                }
+                if(magnitudeType <= MagnitudeType.EXPONENT_POS_7)
+                {
+                    return mantissa * POWERS_OF_10[magnitudeType - MagnitudeType.EXPONENT_0];
+                }
+                if(magnitudeType <= MagnitudeType.DIVISOR_256)
+                {
+                    return mantissa / (double)(1 << (magnitudeType - MagnitudeType.DIVISOR_1));
+                }
+                return mantissa;
+        }
+    }
+
+    /**
+     * Returns the name of a magnitude type.
+     * @param magnitudeType the magnitude type.
+     * @return the name of the magnitude type.
+     */
+    private static String magnitudeTypeToString(int magnitudeType)
+    {
+        switch(magnitudeType)
+        {
+            case MagnitudeType.INFINITY:
+                return INFINITY_STRING;
+            case MagnitudeType.NEG_INFINITY:
+                return NEG_INFINITY_STRING;
+            case MagnitudeType.NOT_A_NUMBER:
+                return NAN_STRING;
+            default:
+                if(magnitudeType < MagnitudeType.EXPONENT_0)
+                {
+                    return "ExponentNeg" + (MagnitudeType.EXPONENT_0 - magnitudeType);
+                }
+                if(magnitudeType == MagnitudeType.EXPONENT_0)
+                {
+                    return "Exponent0";
+                }
+                if(magnitudeType <= MagnitudeType.EXPONENT_POS_7)
+                {
+                    return "ExponentPos" + (magnitudeType - MagnitudeType.EXPONENT_0);
+                }
+                if(magnitudeType <= MagnitudeType.DIVISOR_256)
+                {
+                    return "Divisor" + (1 << (magnitudeType - MagnitudeType.DIVISOR_1));
+                }
+                return "Unknown MagnitudeType value " + magnitudeType;
+        }
+    }
+
+    /**
+     * Formats the value from the mantissa and the magnitude type.
+     * @return the formatted value.
+     */
+    private String format()
+    {
+        if (DataCode.BLANK == code)
+        {
+            return BLANK_STRING;
+        }
+
+        switch(magnitudeType)
+        {
+            case MagnitudeType.INFINITY:
+                return INFINITY_STRING;
+            case MagnitudeType.NEG_INFINITY:
+                return NEG_INFINITY_STRING;
+            case MagnitudeType.NOT_A_NUMBER:
+                return NAN_STRING;
+            default:
+                if(magnitudeType <= MagnitudeType.EXPONENT_POS_7)
+                {
+                    int scale = MagnitudeType.EXPONENT_0 - magnitudeType;
+                    return BigDecimal.valueOf(mantissa, scale).toPlainString();
+                }
+                return Double.toString(asDouble());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.data;
+
+import com.refinitiv.ema.access.DataType;
+import com.refinitiv.ema.access.OmmState;
+
+/**
+ *
+ * In-memory implementation of the <code>OmmState</code> interface.
+ */
+class OmmStateImpl extends DataImpl implements OmmState
+{
+    private final int streamState;
+    private final int dataState;
+    private final int statusCode;
+    private final String statusText;
+
+    /**
+     * Builds a state from its components
+     * @param streamState the stream state (<code>OmmState.StreamState</code>).
+     * @param dataState the data state (<code>OmmState.DataState</code>).
+     * @param statusCode the status code (<code>OmmState.StatusCode</code>).
+     * @param statusText the status text.
+     */
+    OmmStateImpl(int streamState, int dataState, int statusCode, String statusText)
+    {
+        this.streamState = streamState;
+        this.dataState = dataState;
+        this.statusCode = statusCode;
+        this.statusText = statusText;
+    }
+
+    @Override
+    public int dataType()
+    {
+        return DataType.DataTypes.STATE;
+    }
+
+    @Override
+    public int streamState()
+    {
+        return streamState;
+    }
+
+    @Override
+    public int dataState()
+    {
+        return dataState;
+    }
+
+    @Override
+    public int statusCode()
+    {
+        return statusCode;
+    }
+
+    @Override
+    public String statusText()
+    {
+        return statusText;
+    }
+
+    @Override
+    public String streamStateAsString()
+    {
+        switch (streamState)
+        {
+            case StreamState.OPEN:
+                return "Open";
+            case StreamState.NON_STREAMING:
+                return "Non Streaming";
+            case StreamState.CLOSED_RECOVER:
+                return "Closed, Recoverable";
+            case StreamState.CLOSED:
+                return "Closed";
+            case StreamState.CLOSED_REDIRECTED:
+                return "Closed, Redirected";
+            default:
+                return "Unknown StreamState value " + streamState;
+        }
+    }
+
+    @Override
+    public String dataStateAsString()
+    {
+        switch (dataState)
+        {
+            case DataState.NO_CHANGE:
+                return "No Change";
+            case DataState.OK:
+                return "Ok";
+            case DataState.SUSPECT:
+                return "Suspect";
+            default:
+                return "Unknown DataState value " + dataState;
+        }
+    }
+
+    @Override
+    public String statusCodeAsString()
+    {
+        return statusCode == StatusCode.NONE
+                ? "None"
+                : "StatusCode " + statusCode;
+    }
+
+    @Override
+    public String toString()
+    {
+        return streamStateAsString() + " / " + dataStateAsString() + " / "
+                + statusCodeAsString() + " / '" + statusText + "'";
+    }
+}
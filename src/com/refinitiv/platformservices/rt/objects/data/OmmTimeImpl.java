@@ -13,8 +13,10 @@
  */
 package com.refinitiv.platformservices.rt.objects.data;
 
+import com.refinitiv.ema.access.Data;
 import com.refinitiv.ema.access.DataType;
 import com.refinitiv.ema.access.OmmTime;
+import com.refinitiv.ema.rdm.DictionaryEntry;
 
 /**
  * 
@@ -22,13 +24,15 @@ import com.refinitiv.ema.access.OmmTime;
  */
 class OmmTimeImpl extends DataImpl implements OmmTime
 {
-    private final int hour;
-    private final int minute;
-    private final int second;
-    private final int millisecond;
-    private final int microsecond;
-    private final int nanosecond;
-    private final String valueAsString;
+    private int hour;
+    private int minute;
+    private int second;
+    private int millisecond;
+    private int microsecond;
+    private int nanosecond;
+    
+    // Derived representation, computed on demand
+    private volatile String valueAsString;
 
     /**
      * Copy the given <code>OmmTime</code>
@@ -37,13 +41,51 @@ class OmmTimeImpl extends DataImpl implements OmmTime
     public OmmTimeImpl(OmmTime ommTime)
     {
         super(ommTime);
+        copy(ommTime);
+    }
+
+    /**
+     * Builds a time from its components
+     * @param hour the hour.
+     * @param minute the minute.
+     * @param second the second.
+     * @param millisecond the millisecond.
+     * @param microsecond the microsecond.
+     * @param nanosecond the nanosecond.
+     */
+    OmmTimeImpl(int hour, int minute, int second, 
+                int millisecond, int microsecond, int nanosecond)
+    {
+        this.hour = hour;
+        this.minute = minute;
+        this.second = second;
+        this.millisecond = millisecond;
+        this.microsecond = microsecond;
+        this.nanosecond = nanosecond;
+    }
+
+    @Override
+    boolean overwrite(Data data, DictionaryEntry dictionaryEntry)
+    {
+        copy((OmmTime)data);
+        return true;
+    }
+
+    /**
+     * Copy the wire components of the given <code>OmmTime</code> and reset 
+     * the derived representation.
+     * @param ommTime the <code>OmmTime</code> to copy.
+     */
+    private void copy(OmmTime ommTime)
+    {
+        this.code = ommTime.code();
         this.hour = ommTime.hour();
         this.minute = ommTime.minute();
         this.second = ommTime.second();
         this.millisecond = ommTime.millisecond();
         this.microsecond = ommTime.microsecond();
         this.nanosecond = ommTime.nanosecond();
-        this.valueAsString = ommTime.toString();
+        this.valueAsString = null;
     }
 
     @Override
@@ -91,6 +133,16 @@ class OmmTimeImpl extends DataImpl implements OmmTime
     @Override
     public String toString()
     {
+        String valueAsString = this.valueAsString;
+        if(valueAsString == null)
+        {
+            if (DataCode.BLANK == code)
+                valueAsString = BLANK_STRING;
+            else
+                valueAsString = Utils.formatTime(hour, minute, second, 
+                                        millisecond, microsecond, nanosecond);
+            this.valueAsString = valueAsString;
+        }
         return valueAsString;
     }
-}
\ No newline at end of file
+}
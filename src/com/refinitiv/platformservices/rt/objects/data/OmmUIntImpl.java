@@ -13,8 +13,10 @@
  */
 package com.refinitiv.platformservices.rt.objects.data;
 
+import com.refinitiv.ema.access.Data;
 import com.refinitiv.ema.access.DataType;
 import com.refinitiv.ema.access.OmmUInt;
+import com.refinitiv.ema.rdm.DictionaryEntry;
 import java.math.BigInteger;
 
 /**
@@ -23,8 +25,14 @@ import java.math.BigInteger;
  */
 class OmmUIntImpl extends DataImpl implements OmmUInt
 {
-    private final BigInteger value;
-    private final String valueAsString;
+    private static final BigInteger TWO_POW_64 = BigInteger.ONE.shiftLeft(64);
+
+    // The unsigned value, stored in the bits of a long
+    private long value;
+    
+    // Derived representations, computed on demand
+    private volatile BigInteger valueAsBigInteger;
+    private volatile String valueAsString;
 	
     /**
      * Copy the given <code>OmmUInt</code>
@@ -33,8 +41,36 @@ class OmmUIntImpl extends DataImpl implements OmmUInt
     public OmmUIntImpl(OmmUInt ommUInt)
     {
         super(ommUInt);
-        this.value = ommUInt.bigIntegerValue();
-        this.valueAsString = ommUInt.toString();
+        copy(ommUInt);
+    }
+
+    /**
+     * Builds an unsigned integer from its value
+     * @param value the unsigned value, stored in the bits of a long.
+     */
+    OmmUIntImpl(long value)
+    {
+        this.value = value;
+    }
+
+    @Override
+    boolean overwrite(Data data, DictionaryEntry dictionaryEntry)
+    {
+        copy((OmmUInt)data);
+        return true;
+    }
+
+    /**
+     * Copy the wire value of the given <code>OmmUInt</code> and reset the 
+     * derived representations.
+     * @param ommUInt the <code>OmmUInt</code> to copy.
+     */
+    private void copy(OmmUInt ommUInt)
+    {
+        this.code = ommUInt.code();
+        this.value = ommUInt.longValue();
+        this.valueAsBigInteger = null;
+        this.valueAsString = null;
     }
 
     @Override
@@ -46,18 +82,35 @@ class OmmUIntImpl extends DataImpl implements OmmUInt
     @Override
     public long longValue()
     {
-        return value.longValue();
+        return value;
     }
 
     @Override
     public BigInteger bigIntegerValue()
     {
-        return value;
+        BigInteger valueAsBigInteger = this.valueAsBigInteger;
+        if(valueAsBigInteger == null)
+        {
+            valueAsBigInteger = value >= 0 
+                    ? BigInteger.valueOf(value) 
+                    : BigInteger.valueOf(value).add(TWO_POW_64);
+            this.valueAsBigInteger = valueAsBigInteger;
+        }
+        return valueAsBigInteger;
     }
 
     @Override
     public String toString()
     {
+        String valueAsString = this.valueAsString;
+        if(valueAsString == null)
+        {
+            if (DataCode.BLANK == code)
+                valueAsString = BLANK_STRING;
+            else
+                valueAsString = Long.toUnsignedString(value);
+            this.valueAsString = valueAsString;
+        }
         return valueAsString;
     }
 
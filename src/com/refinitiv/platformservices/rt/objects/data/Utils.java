@@ -17,15 +17,17 @@ import com.refinitiv.ema.access.Data;
 import com.refinitiv.ema.access.DataType.DataTypes;
 import com.refinitiv.ema.access.OmmAscii;
 import com.refinitiv.ema.access.OmmDate;
+import com.refinitiv.ema.access.OmmDateTime;
+import com.refinitiv.ema.access.OmmDouble;
 import com.refinitiv.ema.access.OmmEnum;
 import com.refinitiv.ema.access.OmmError;
+import com.refinitiv.ema.access.OmmFloat;
 import com.refinitiv.ema.access.OmmInt;
 import com.refinitiv.ema.access.OmmReal;
 import com.refinitiv.ema.access.OmmRmtes;
 import com.refinitiv.ema.access.OmmTime;
 import com.refinitiv.ema.access.OmmUInt;
 import com.refinitiv.ema.rdm.DictionaryEntry;
-import com.refinitiv.ema.rdm.EnumType;
 
 /**
  * 
@@ -40,6 +42,11 @@ import com.refinitiv.ema.rdm.EnumType;
  * 
  */
 class Utils {
+
+    private static final String[] MONTHS = {
+        "JAN", "FEB", "MAR", "APR", "MAY", "JUN", 
+        "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"
+    };
  
     /**
      * Clone an OmmData into an OmmData in-memory implementation
@@ -73,28 +80,29 @@ class Utils {
             case DataTypes.TIME:
                 clonedValue = new OmmTimeImpl((OmmTime)originalValue);
                 break;
+            case DataTypes.DATETIME:
+                clonedValue = new OmmDateTimeImpl((OmmDateTime)originalValue);
+                break;
             case DataTypes.INT:
                 clonedValue = new OmmIntImpl((OmmInt)originalValue);
                 break;
             case DataTypes.UINT:
                 clonedValue = new OmmUIntImpl((OmmUInt)originalValue);
                 break;
+            case DataTypes.FLOAT:
+                clonedValue = new OmmFloatImpl((OmmFloat)originalValue);
+                break;
+            case DataTypes.DOUBLE:
+                clonedValue = new OmmDoubleImpl((OmmDouble)originalValue);
+                break;
             case DataTypes.ASCII:
                 clonedValue = new OmmAsciiImpl((OmmAscii)originalValue);
                 break;
             case DataTypes.ENUM:
                 {
+                    // The display value is resolved on demand
                     OmmEnum originalOmmEnum = (OmmEnum)originalValue;
-                    if(dictionaryEntry != null)
-                    {
-                        EnumType enumType = dictionaryEntry.enumType(originalOmmEnum.enumValue());
-                        String enumValueAsString = enumType.display();
-                        clonedValue = new OmmEnumImpl(originalOmmEnum, enumValueAsString);
-                    }
-                    else
-                    {
-                        clonedValue = new OmmEnumImpl(originalOmmEnum);
-                    }
+                    clonedValue = new OmmEnumImpl(originalOmmEnum, dictionaryEntry);
                 }
                 break;
             case DataTypes.RMTES:
@@ -111,4 +119,37 @@ class Utils {
         return clonedValue; 
     }
     
+    /**
+     * Formats a date the way EMA does ("DD MMM YYYY")
+     * @param year the year.
+     * @param month the month (1 to 12).
+     * @param day the day.
+     * @return the formatted date.
+     */
+    static String formatDate(int year, int month, int day) 
+    {
+        String monthAsString = month >= 1 && month <= MONTHS.length 
+                ? MONTHS[month - 1] 
+                : Integer.toString(month);
+        
+        return String.format("%02d %s %4d", day, monthAsString, year);
+    }
+    
+    /**
+     * Formats a time the way EMA does ("HH:MM:SS:mmm:uuu:nnn")
+     * @param hour the hour.
+     * @param minute the minute.
+     * @param second the second.
+     * @param millisecond the millisecond.
+     * @param microsecond the microsecond.
+     * @param nanosecond the nanosecond.
+     * @return the formatted time.
+     */
+    static String formatTime(int hour, int minute, int second, 
+                             int millisecond, int microsecond, int nanosecond) 
+    {
+        return String.format("%02d:%02d:%02d:%03d:%03d:%03d", 
+                hour, minute, second, millisecond, microsecond, nanosecond);
+    }
+    
 }
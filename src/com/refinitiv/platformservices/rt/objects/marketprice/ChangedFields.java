@@ -0,0 +1,56 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+/**
+ * The set of fields changed by an update of a <code>MarketPrice</code>. It 
+ * is delivered with each update to the {@link MarketPrice.OnChangedFieldsFunction}
+ * and lets applications test if a field changed without iterating the 
+ * updated fields. Membership tests are constant time: the set is a bitset 
+ * indexed by the slots of the fields in the image of the 
+ * <code>MarketPrice</code>.
+ * <br>
+ * <br>
+ * <strong>Note:</strong> Slots are reallocated when a new image is 
+ * received. A <code>ChangedFields</code> received before an image contains
+ * no field once this image is applied.
+ */
+public interface ChangedFields
+{
+    /**
+     * Indicates if the field identified by <code>fieldId</code> changed.
+     * @param fieldId the field Id.
+     * @return true if the field changed.
+     */
+    boolean contains(int fieldId);
+
+    /**
+     * Indicates if the field identified by <code>fieldName</code> changed.
+     * @param fieldName the field name (acronym).
+     * @return true if the field changed.
+     */
+    boolean contains(String fieldName);
+
+    /**
+     * Returns the number of changed fields.
+     * @return the number of changed fields.
+     */
+    int size();
+
+    /**
+     * Indicates if no field changed.
+     * @return true if no field changed.
+     */
+    boolean isEmpty();
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import java.util.Arrays;
+
+/**
+ * The implementation class of the <code>ChangedFields</code> interface. 
+ * The bitset is filled by the thread that applies updates, then only read.
+ */
+class ChangedFieldsImpl implements ChangedFields
+{
+    private final MarketPriceImpl marketPrice;
+    // Generation of the image the slots belong to
+    private long imageGeneration;
+    private long[] slots = new long[1];
+    private int size;
+
+    ChangedFieldsImpl(MarketPriceImpl marketPrice, long imageGeneration)
+    {
+        this.marketPrice = marketPrice;
+        this.imageGeneration = imageGeneration;
+    }
+
+    /**
+     * Empties the set so that it can be reused for the next update.
+     * @param imageGeneration the generation of the current image.
+     */
+    void reset(long imageGeneration)
+    {
+        this.imageGeneration = imageGeneration;
+        Arrays.fill(slots, 0L);
+        size = 0;
+    }
+
+    /**
+     * Adds a changed slot to the set.
+     * @param slot the slot of the changed field. <code>FieldStore.NO_SLOT</code>
+     * is ignored.
+     */
+    void add(int slot)
+    {
+        if(slot == FieldStore.NO_SLOT)
+        {
+            return;
+        }
+
+        int word = slot >>> 6;
+        if(word >= slots.length)
+        {
+            slots = Arrays.copyOf(slots, Math.max(word + 1, slots.length * 2));
+        }
+
+        long bit = 1L << slot;
+        if((slots[word] & bit) == 0)
+        {
+            slots[word] |= bit;
+            ++size;
+        }
+    }
+
+    /**
+     * Indicates if at least one of the slots of a mask changed.
+     * @param mask the bitset of slots.
+     * @return true if the intersection is not empty.
+     */
+    boolean intersects(long[] mask)
+    {
+        int words = Math.min(slots.length, mask.length);
+        for(int word = 0; word < words; ++word)
+        {
+            if((slots[word] & mask[word]) != 0)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(int fieldId)
+    {
+        return containsSlot(marketPrice.slotOf(fieldId, imageGeneration));
+    }
+
+    @Override
+    public boolean contains(String fieldName)
+    {
+        return containsSlot(marketPrice.slotOf(fieldName, imageGeneration));
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    private boolean containsSlot(int slot)
+    {
+        if(slot == FieldStore.NO_SLOT)
+        {
+            return false;
+        }
+
+        int word = slot >>> 6;
+        return word < slots.length && (slots[word] & (1L << slot)) != 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ChangedFields[size=" + size + "]";
+    }
+}
@@ -0,0 +1,736 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.platformservices.rt.objects.data.Field;
+import com.refinitiv.ema.access.Data;
+import com.refinitiv.ema.access.DataType.DataTypes;
+import com.refinitiv.ema.access.OmmDate;
+import com.refinitiv.ema.access.OmmDateTime;
+import com.refinitiv.ema.access.OmmDouble;
+import com.refinitiv.ema.access.OmmEnum;
+import com.refinitiv.ema.access.OmmFloat;
+import com.refinitiv.ema.access.OmmInt;
+import com.refinitiv.ema.access.OmmReal;
+import com.refinitiv.ema.access.OmmTime;
+import com.refinitiv.ema.access.OmmUInt;
+import com.refinitiv.ema.rdm.DictionaryEntry;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The image store of a <code>MarketPrice</code>.
+ * <br>
+ * Each cached <code>Field</code> lives in a slot of a dense array. Slots are
+ * allocated in arrival order and never move until the store is cleared. Two
+ * open-addressing tables resolve field Ids and field names (acronyms) to the
+ * same slot, so that an update costs a single probe sequence and no boxing,
+ * whatever the number of fields of the image.
+ * <br>
+ * The primitive values of the fields (numbers, enumeration codes, dates and
+ * times) are also decoded into columns when the fields are stored, so that
+ * typed reads are plain array accesses, without casts nor allocations.
+ * <br>
+ * <br>
+ * <strong>Note:</strong> This class is not synchronized. Reading the store
+ * never modifies it, so that readers can use optimistic reads as long as
+ * they validate the result and tolerate runtime exceptions caused by
+ * concurrent writes.
+ */
+class FieldStore
+{
+    private static final int INITIAL_SLOTS_COUNT = 32;
+    static final int NO_SLOT = -1;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+    static final int NO_DATA_TYPE = -1;
+    static final long NANOS_PER_SECOND = 1_000_000_000L;
+    static final long NANOS_PER_DAY = 86_400L * NANOS_PER_SECOND;
+
+    private Field[] fields;
+    private int[] fieldIds;
+    private String[] acronyms;
+    private int size;
+
+    // Primitive columns, indexed by slot. dataTypes holds NO_DATA_TYPE for
+    // blank values. longValues holds the mantissa of reals, the value of 
+    // integers and enumerations, the epoch nanoseconds of dates and date 
+    // times and the nanoseconds of the day of times.
+    private int[] dataTypes;
+    private long[] longValues;
+    private double[] doubleValues;
+    private int[] hints;
+
+    // Open-addressing tables that contain slot numbers (or NO_SLOT). Their
+    // length is a power of 2 that is always at least twice the slots count.
+    private int[] slotsById;
+    private int[] slotsByName;
+    private int mask;
+
+    // Bitset of the slots updated since the last drain (used for conflation)
+    private long[] updatedSlots;
+    private int updatedSlotsCount;
+
+    // Slots sorted by field Id. Maintained when slots are allocated so that
+    // reading the store never modifies it.
+    private int[] slotsSortedById;
+
+    private final SortedValues values = new SortedValues();
+
+    FieldStore()
+    {
+        allocate(INITIAL_SLOTS_COUNT);
+    }
+
+    /**
+     * Returns the number of fields in the store.
+     * @return the number of fields.
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the slot that holds the field identified by <code>fieldId</code>.
+     * @param fieldId the field Id.
+     * @return the slot or -1 if the field is not in the store.
+     */
+    int slotOf(int fieldId)
+    {
+        int[] table = slotsById;
+        int index = hash(fieldId) & mask;
+
+        int slot;
+        while((slot = table[index]) != NO_SLOT)
+        {
+            if(fieldIds[slot] == fieldId)
+            {
+                return slot;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return NO_SLOT;
+    }
+
+    /**
+     * Returns the slot that holds the field identified by <code>fieldName</code>.
+     * @param fieldName the field name (acronym).
+     * @return the slot or -1 if the field is not in the store.
+     */
+    int slotOf(String fieldName)
+    {
+        if(fieldName == null)
+        {
+            return NO_SLOT;
+        }
+
+        int[] table = slotsByName;
+        int index = hash(fieldName.hashCode()) & mask;
+
+        int slot;
+        while((slot = table[index]) != NO_SLOT)
+        {
+            if(fieldName.equals(acronyms[slot]))
+            {
+                return slot;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return NO_SLOT;
+    }
+
+    /**
+     * Returns the field held by a slot.
+     * @param slot the slot.
+     * @return the field.
+     */
+    Field fieldAt(int slot)
+    {
+        return fields[slot];
+    }
+
+    /**
+     * Returns the slot of the field of a given rank, fields being sorted by 
+     * field Id.
+     * @param rank the rank of the field, from 0 to <code>size() - 1</code>.
+     * @return the slot.
+     */
+    int slotAt(int rank)
+    {
+        return slotsSortedById[rank];
+    }
+
+    /**
+     * Returns the Id of the field held by a slot.
+     * @param slot the slot.
+     * @return the field Id.
+     */
+    int fieldIdAt(int slot)
+    {
+        return fieldIds[slot];
+    }
+
+    /**
+     * Returns the data type of the value held by a slot.
+     * @param slot the slot.
+     * @return the data type (<code>DataType.DataTypes</code>) or -1 if the 
+     * value is blank.
+     */
+    int dataTypeAt(int slot)
+    {
+        return dataTypes[slot];
+    }
+
+    /**
+     * Returns the long column of a slot (see {@link #longOf(int)}, 
+     * {@link #mantissaOf(int)} and {@link #epochNanosOf(int)}).
+     * @param slot the slot.
+     * @return the long value.
+     */
+    long longValueAt(int slot)
+    {
+        return longValues[slot];
+    }
+
+    /**
+     * Returns the double column of a slot (see {@link #doubleOf(int)}).
+     * @param slot the slot.
+     * @return the double value.
+     */
+    double doubleValueAt(int slot)
+    {
+        return doubleValues[slot];
+    }
+
+    /**
+     * Returns the hint column of a slot (see {@link #hintOf(int)}).
+     * @param slot the slot.
+     * @return the hint.
+     */
+    int hintAt(int slot)
+    {
+        return hints[slot];
+    }
+
+    /**
+     * Returns the field identified by <code>fieldId</code>.
+     * @param fieldId the field Id.
+     * @return the field or null if it is not in the store.
+     */
+    Field get(int fieldId)
+    {
+        int slot = slotOf(fieldId);
+
+        return slot == NO_SLOT ? null : fields[slot];
+    }
+
+    /**
+     * Returns the field identified by <code>fieldName</code>.
+     * @param fieldName the field name (acronym).
+     * @return the field or null if it is not in the store.
+     */
+    Field get(String fieldName)
+    {
+        int slot = slotOf(fieldName);
+
+        return slot == NO_SLOT ? null : fields[slot];
+    }
+
+    /**
+     * Puts a field in the store. The field replaces the field that has the
+     * same Id, if any. Fields without description (fields unknown to the
+     * dictionary) are ignored.
+     * @param field the field to put.
+     * @return the slot that holds the field or -1 if the field was ignored.
+     */
+    int put(Field field)
+    {
+        DictionaryEntry description = field.description();
+        if(description == null)
+        {
+            return NO_SLOT;
+        }
+
+        int fieldId = description.fid();
+        int slot = slotOf(fieldId);
+        if(slot != NO_SLOT)
+        {
+            fields[slot] = field;
+            decodeColumns(slot);
+            return slot;
+        }
+
+        if(size == fields.length)
+        {
+            grow();
+        }
+
+        slot = size++;
+        fields[slot] = field;
+        fieldIds[slot] = fieldId;
+        acronyms[slot] = description.acronym();
+        decodeColumns(slot);
+        index(slot);
+        insertSorted(slot);
+
+        return slot;
+    }
+
+    /**
+     * Decodes again the primitive columns of a slot whose field was updated 
+     * in place.
+     * @param slot the updated slot.
+     */
+    void refresh(int slot)
+    {
+        decodeColumns(slot);
+    }
+
+    /**
+     * Returns the value of a numeric field (real, integer, float or double)
+     * as a double.
+     * @param fieldId the field Id.
+     * @return the value or <code>Double.NaN</code> if the field is not in 
+     * the store, blank or not numeric.
+     */
+    double doubleOf(int fieldId)
+    {
+        int slot = slotOf(fieldId);
+        return slot == NO_SLOT ? Double.NaN : doubleValues[slot];
+    }
+
+    /**
+     * Returns the value of an integer or enumeration field.
+     * @param fieldId the field Id.
+     * @return the value or <code>MarketPrice.NO_LONG_VALUE</code> if the field
+     * is not in the store, blank or of another type.
+     */
+    long longOf(int fieldId)
+    {
+        int slot = slotOf(fieldId);
+        if(slot == NO_SLOT)
+        {
+            return MarketPrice.NO_LONG_VALUE;
+        }
+        switch(dataTypes[slot])
+        {
+            case DataTypes.INT:
+            case DataTypes.UINT:
+            case DataTypes.ENUM:
+                return longValues[slot];
+            default:
+                return MarketPrice.NO_LONG_VALUE;
+        }
+    }
+
+    /**
+     * Returns the mantissa of a real field.
+     * @param fieldId the field Id.
+     * @return the mantissa or <code>MarketPrice.NO_LONG_VALUE</code> if the 
+     * field is not in the store, blank or not a real.
+     */
+    long mantissaOf(int fieldId)
+    {
+        int slot = slotOf(fieldId);
+        return slot != NO_SLOT && dataTypes[slot] == DataTypes.REAL 
+                ? longValues[slot] 
+                : MarketPrice.NO_LONG_VALUE;
+    }
+
+    /**
+     * Returns the hint (magnitude type) of a real field.
+     * @param fieldId the field Id.
+     * @return the hint or <code>MarketPrice.NO_INT_VALUE</code> if the field 
+     * is not in the store, blank or not a real.
+     */
+    long hintOf(int fieldId)
+    {
+        int slot = slotOf(fieldId);
+        return slot != NO_SLOT && dataTypes[slot] == DataTypes.REAL 
+                ? hints[slot] 
+                : MarketPrice.NO_INT_VALUE;
+    }
+
+    /**
+     * Returns the value of a date, time or date time field in nanoseconds.
+     * Dates and date times are returned in nanoseconds since the epoch 
+     * (1970-01-01T00:00:00 UTC), times in nanoseconds since midnight.
+     * @param fieldId the field Id.
+     * @return the nanoseconds or <code>MarketPrice.NO_LONG_VALUE</code> if 
+     * the field is not in the store, blank or of another type.
+     */
+    long epochNanosOf(int fieldId)
+    {
+        int slot = slotOf(fieldId);
+        if(slot == NO_SLOT)
+        {
+            return MarketPrice.NO_LONG_VALUE;
+        }
+        switch(dataTypes[slot])
+        {
+            case DataTypes.DATE:
+            case DataTypes.TIME:
+            case DataTypes.DATETIME:
+                return longValues[slot];
+            default:
+                return MarketPrice.NO_LONG_VALUE;
+        }
+    }
+
+    /**
+     * Returns the code of an enumeration field.
+     * @param fieldId the field Id.
+     * @return the code or <code>MarketPrice.NO_INT_VALUE</code> if the field 
+     * is not in the store, blank or not an enumeration.
+     */
+    long enumCodeOf(int fieldId)
+    {
+        int slot = slotOf(fieldId);
+        return slot != NO_SLOT && dataTypes[slot] == DataTypes.ENUM 
+                ? longValues[slot] 
+                : MarketPrice.NO_INT_VALUE;
+    }
+
+    /**
+     * Removes all the fields of the store. The allocated capacity is kept.
+     */
+    void clear()
+    {
+        if(size == 0)
+        {
+            return;
+        }
+
+        Arrays.fill(fields, 0, size, null);
+        Arrays.fill(acronyms, 0, size, null);
+        Arrays.fill(slotsById, NO_SLOT);
+        Arrays.fill(slotsByName, NO_SLOT);
+        Arrays.fill(updatedSlots, 0L);
+        updatedSlotsCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Marks a slot as updated. Updated slots are collected by 
+     * {@link #drainUpdatedFieldsTo(Collection, ChangedFieldsImpl)}.
+     * @param slot the updated slot.
+     */
+    void markUpdated(int slot)
+    {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        if((updatedSlots[word] & bit) == 0)
+        {
+            updatedSlots[word] |= bit;
+            ++updatedSlotsCount;
+        }
+    }
+
+    /**
+     * Indicates if slots were updated since the last drain.
+     * @return true if at least one slot was updated.
+     */
+    boolean hasUpdatedSlots()
+    {
+        return updatedSlotsCount != 0;
+    }
+
+    /**
+     * Adds the fields of the updated slots to a collection, in slot order, 
+     * and resets the updated slots.
+     * @param updatedFields the collection that receives the updated fields.
+     * @param changedFields the set that receives the updated slots.
+     */
+    void drainUpdatedFieldsTo(Collection<Field> updatedFields, ChangedFieldsImpl changedFields)
+    {
+        for(int word = 0; word < updatedSlots.length && updatedSlotsCount != 0; ++word)
+        {
+            long bits = updatedSlots[word];
+            while(bits != 0)
+            {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                updatedFields.add(fields[slot]);
+                changedFields.add(slot);
+                bits &= bits - 1;
+                --updatedSlotsCount;
+            }
+            updatedSlots[word] = 0L;
+        }
+    }
+
+    /**
+     * Returns a live view of the fields of the store sorted by field Id.
+     * @return the fields of the store.
+     */
+    Collection<Field> values()
+    {
+        return values;
+    }
+
+    private void allocate(int slotsCount)
+    {
+        fields = new Field[slotsCount];
+        fieldIds = new int[slotsCount];
+        acronyms = new String[slotsCount];
+        dataTypes = new int[slotsCount];
+        longValues = new long[slotsCount];
+        doubleValues = new double[slotsCount];
+        hints = new int[slotsCount];
+        slotsSortedById = new int[slotsCount];
+        long[] previousUpdatedSlots = updatedSlots;
+        updatedSlots = new long[(slotsCount + 63) >>> 6];
+        if(previousUpdatedSlots != null)
+        {
+            System.arraycopy(previousUpdatedSlots, 0, updatedSlots, 0, previousUpdatedSlots.length);
+        }
+
+        int tableLength = Integer.highestOneBit(slotsCount - 1) << 2;
+        slotsById = new int[tableLength];
+        slotsByName = new int[tableLength];
+        Arrays.fill(slotsById, NO_SLOT);
+        Arrays.fill(slotsByName, NO_SLOT);
+        mask = tableLength - 1;
+    }
+
+    private void grow()
+    {
+        Field[] previousFields = fields;
+        int[] previousFieldIds = fieldIds;
+        String[] previousAcronyms = acronyms;
+        int[] previousDataTypes = dataTypes;
+        long[] previousLongValues = longValues;
+        double[] previousDoubleValues = doubleValues;
+        int[] previousHints = hints;
+        int[] previousSlotsSortedById = slotsSortedById;
+
+        allocate(previousFields.length * 2);
+        System.arraycopy(previousFields, 0, fields, 0, size);
+        System.arraycopy(previousFieldIds, 0, fieldIds, 0, size);
+        System.arraycopy(previousAcronyms, 0, acronyms, 0, size);
+        System.arraycopy(previousDataTypes, 0, dataTypes, 0, size);
+        System.arraycopy(previousLongValues, 0, longValues, 0, size);
+        System.arraycopy(previousDoubleValues, 0, doubleValues, 0, size);
+        System.arraycopy(previousHints, 0, hints, 0, size);
+        System.arraycopy(previousSlotsSortedById, 0, slotsSortedById, 0, size);
+
+        for(int slot = 0; slot < size; ++slot)
+        {
+            index(slot);
+        }
+    }
+
+    /**
+     * Decodes the value of the field of a slot into the primitive columns.
+     * @param slot the slot.
+     */
+    private void decodeColumns(int slot)
+    {
+        Data value = fields[slot].value();
+        int dataType = value == null || value.code() == Data.DataCode.BLANK 
+                ? NO_DATA_TYPE 
+                : value.dataType();
+        long longValue = MarketPrice.NO_LONG_VALUE;
+        double doubleValue = Double.NaN;
+        int hint = MarketPrice.NO_INT_VALUE;
+
+        switch(dataType)
+        {
+            case DataTypes.REAL:
+                {
+                    OmmReal real = (OmmReal)value;
+                    longValue = real.mantissa();
+                    hint = real.magnitudeType();
+                    doubleValue = real.asDouble();
+                }
+                break;
+            case DataTypes.INT:
+                longValue = ((OmmInt)value).intValue();
+                doubleValue = longValue;
+                break;
+            case DataTypes.UINT:
+                longValue = ((OmmUInt)value).longValue();
+                doubleValue = longValue;
+                break;
+            case DataTypes.FLOAT:
+                doubleValue = ((OmmFloat)value).floatValue();
+                break;
+            case DataTypes.DOUBLE:
+                doubleValue = ((OmmDouble)value).doubleValue();
+                break;
+            case DataTypes.ENUM:
+                longValue = ((OmmEnum)value).enumValue();
+                break;
+            case DataTypes.DATE:
+                {
+                    OmmDate date = (OmmDate)value;
+                    longValue = epochDay(date.year(), date.month(), date.day()) * NANOS_PER_DAY;
+                }
+                break;
+            case DataTypes.TIME:
+                {
+                    OmmTime time = (OmmTime)value;
+                    longValue = nanosOfDay(time.hour(), time.minute(), time.second(), 
+                            time.millisecond(), time.microsecond(), time.nanosecond());
+                }
+                break;
+            case DataTypes.DATETIME:
+                {
+                    OmmDateTime dateTime = (OmmDateTime)value;
+                    longValue = epochDay(dateTime.year(), dateTime.month(), dateTime.day()) * NANOS_PER_DAY
+                            + nanosOfDay(dateTime.hour(), dateTime.minute(), dateTime.second(), 
+                                    dateTime.millisecond(), dateTime.microsecond(), dateTime.nanosecond());
+                }
+                break;
+            default:
+                break;
+        }
+
+        dataTypes[slot] = dataType;
+        longValues[slot] = longValue;
+        doubleValues[slot] = doubleValue;
+        hints[slot] = hint;
+    }
+
+    /**
+     * Returns the number of days between the epoch (1970-01-01) and a date of
+     * the proleptic Gregorian calendar, without allocating a 
+     * <code>LocalDate</code>.
+     * @param year the year.
+     * @param month the month (1 to 12).
+     * @param day the day of the month.
+     * @return the epoch day.
+     */
+    private static long epochDay(int year, int month, int day)
+    {
+        // Years start in March so that the leap day is the last day
+        long shiftedYear = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(shiftedYear, 400);
+        long yearOfEra = shiftedYear - era * 400;
+        long dayOfYear = (153 * ((month + 9) % 12) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Returns the number of nanoseconds since midnight of a time.
+     * @param hour the hour.
+     * @param minute the minute.
+     * @param second the second.
+     * @param millisecond the millisecond.
+     * @param microsecond the microsecond.
+     * @param nanosecond the nanosecond.
+     * @return the nanoseconds of the day.
+     */
+    private static long nanosOfDay(int hour, int minute, int second, 
+                                   int millisecond, int microsecond, int nanosecond)
+    {
+        return ((hour * 60L + minute) * 60L + second) * NANOS_PER_SECOND 
+                + millisecond * 1_000_000L + microsecond * 1_000L + nanosecond;
+    }
+
+    private void index(int slot)
+    {
+        int index = hash(fieldIds[slot]) & mask;
+        while(slotsById[index] != NO_SLOT)
+        {
+            index = (index + 1) & mask;
+        }
+        slotsById[index] = slot;
+
+        String acronym = acronyms[slot];
+        if(acronym != null)
+        {
+            index = hash(acronym.hashCode()) & mask;
+            while(slotsByName[index] != NO_SLOT)
+            {
+                index = (index + 1) & mask;
+            }
+            slotsByName[index] = slot;
+        }
+    }
+
+    private void insertSorted(int slot)
+    {
+        int fieldId = fieldIds[slot];
+        int low = 0;
+        int high = slot - 1;
+        while(low <= high)
+        {
+            int middle = (low + high) >>> 1;
+            if(fieldIds[slotsSortedById[middle]] < fieldId)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        System.arraycopy(slotsSortedById, low, slotsSortedById, low + 1, slot - low);
+        slotsSortedById[low] = slot;
+    }
+
+    private static int hash(int key)
+    {
+        int hash = key * GOLDEN_RATIO;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Live view of the store fields sorted by field Id.
+     */
+    private class SortedValues extends AbstractCollection<Field>
+    {
+        @Override
+        public Iterator<Field> iterator()
+        {
+            final int[] slots = slotsSortedById;
+            final int count = size;
+
+            return new Iterator<Field>()
+            {
+                private int position = 0;
+
+                @Override
+                public boolean hasNext()
+                {
+                    return position < count;
+                }
+
+                @Override
+                public Field next()
+                {
+                    if(!hasNext())
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    return fields[slots[position++]];
+                }
+            };
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.platformservices.rt.objects.data.Field;
+
+/**
+ * The interface of the items published by {@link MarketPrice#asPublisher()}.
+ * A <code>FieldUpdate</code> holds the latest value of a field of a 
+ * <code>MarketPrice</code>.
+ */
+public interface FieldUpdate
+{
+    /**
+     * Returns the <code>MarketPrice</code> the field belongs to.
+     * @return the <code>MarketPrice</code>.
+     */
+    MarketPrice getMarketPrice();
+
+    /**
+     * Returns the updated field, with its latest value.
+     * @return the field.
+     */
+    Field getField();
+}
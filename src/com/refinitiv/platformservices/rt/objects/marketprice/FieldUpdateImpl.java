@@ -0,0 +1,49 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.platformservices.rt.objects.data.Field;
+
+/**
+ * The implementation class of the <code>FieldUpdate</code> interface.
+ */
+class FieldUpdateImpl implements FieldUpdate
+{
+    private final MarketPrice marketPrice;
+    private final Field field;
+
+    FieldUpdateImpl(MarketPrice marketPrice, Field field)
+    {
+        this.marketPrice = marketPrice;
+        this.field = field;
+    }
+
+    @Override
+    public MarketPrice getMarketPrice()
+    {
+        return marketPrice;
+    }
+
+    @Override
+    public Field getField()
+    {
+        return field;
+    }
+
+    @Override
+    public String toString()
+    {
+        return marketPrice.getName() + ": " + field;
+    }
+}
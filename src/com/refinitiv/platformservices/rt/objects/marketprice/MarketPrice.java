@@ -16,9 +16,22 @@ package com.refinitiv.platformservices.rt.objects.marketprice;
 import com.refinitiv.platformservices.rt.objects.data.Field;
 import com.refinitiv.ema.access.OmmConsumer;
 import com.refinitiv.ema.access.OmmState;
+import com.refinitiv.ema.rdm.DataDictionary;
 import com.refinitiv.platformservices.rt.objects.common.Completable;
+import com.refinitiv.platformservices.rt.objects.common.DispatcherPool;
+import com.refinitiv.platformservices.rt.objects.common.Flow;
+import com.refinitiv.platformservices.rt.objects.common.MessageRecorder;
+import com.refinitiv.platformservices.rt.objects.common.MessageReplayer;
+import com.refinitiv.platformservices.rt.objects.common.RingBuffer;
+import com.refinitiv.platformservices.rt.objects.common.CallbackExecutors;
+import com.refinitiv.platformservices.rt.objects.common.SerialExecutor;
+import com.refinitiv.platformservices.rt.objects.common.StripedExecutor;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The interface of a <code>MarketPrice</code> implementation that you can use
@@ -53,6 +66,20 @@ import java.util.LinkedList;
  */
 public interface MarketPrice extends Completable
 {
+    /**
+     * Value returned by the primitive <code>long</code> accessors (see 
+     * {@link #getLong(int)}) when the field is not in the image, blank or 
+     * not of the expected type.
+     */
+    long NO_LONG_VALUE = Long.MIN_VALUE;
+
+    /**
+     * Value returned by the primitive <code>int</code> accessors (see 
+     * {@link #getHint(int)}) when the field is not in the image, blank or 
+     * not of the expected type.
+     */
+    int NO_INT_VALUE = Integer.MIN_VALUE;
+
     /**
      * Returns the name of this <code>MarketPrice</code>. This is the name used 
      * to identify the instrument on the real-time platform.
@@ -74,6 +101,23 @@ public interface MarketPrice extends Completable
      * no effect if the <code>MarketPrice</code> is already opened. 
      */
     void open();
+
+    /**
+     * Opens this <code>MarketPrice</code> asynchronously, whatever the synchronous
+     * mode set at build time. The returned <code>CompletableFuture</code> is 
+     * completed with this <code>MarketPrice</code> as soon as it is complete 
+     * (see {@link #isComplete()}), right after the <code>OnCompleteFunction</code> 
+     * is called. It is cancelled if the <code>MarketPrice</code> is closed before 
+     * it completes. If the <code>MarketPrice</code> is already opened or being 
+     * opened, the future of this previous open is returned.
+     * <br>
+     * <br>
+     * <strong>Note:</strong> The future is completed by the thread that 
+     * dispatches EMA events. Dependent actions that are not registered with 
+     * an <code>Executor</code> are run by this thread and must not block it.
+     * @return the future of the open.
+     */
+    CompletableFuture<MarketPrice> openAsync();
     
     /**
      * Closes this <code>MarketPrice</code> and unsubscribes to the instrument 
@@ -88,6 +132,10 @@ public interface MarketPrice extends Completable
      * this <code>MarketPrice</code>. This image (all fields) is automatically kept 
      * updated if the <code>MarketPrice</code> was open in streaming mode and if 
      * the events of the underlying <code>OmmConsumer</code> are properly dispatched.
+     * The returned collection is a consistent snapshot of the image, sorted by 
+     * field Id. It can be safely iterated from any thread but it does not 
+     * reflect updates received after the call. Reading the image never blocks
+     * the thread that dispatches EMA events.
      * @see MarketPrice.Builder#withUpdates(boolean)
      * @return the collection of <code>Fields</code> that compose the image of this 
      * <code>MarketPrice</code>. It may return an empty collection is the <code>MarketPrice</code>
@@ -96,6 +144,17 @@ public interface MarketPrice extends Completable
      */    
     Collection<Field> getFields();
 
+    /**
+     * Indicates if the image of this <code>MarketPrice</code> is the stale 
+     * image restored from a warm start file (see 
+     * {@link MarketPrice.Builder#withWarmStart(Path)}). The stale image is 
+     * exposed by the field accessors from the time the <code>MarketPrice</code> 
+     * is opened until its first Refresh message is received.
+     * @return <code>true</code> if the image is stale, <code>false</code> 
+     * otherwise.
+     */
+    boolean isImageStale();
+
     /**
      * Returns the <code>Field</code> identified by <code>fieldName</code> from 
      * the cached image of this <code>MarketPrice</code>. 
@@ -113,6 +172,71 @@ public interface MarketPrice extends Completable
      * if the <code>Field</code> doesn't exist.
      */    
     Field getField(int fieldId);
+
+    /**
+     * Returns the value of a numeric field (real, integer, float or double) 
+     * of the cached image as a <code>double</code>. Primitive accessors read
+     * the values decoded in the image store when the fields are received: 
+     * they neither allocate nor go through the <code>Field</code> and 
+     * <code>Data</code> objects, and never block the thread that dispatches
+     * EMA events.
+     * @param fieldId Id of the field.
+     * @return the value or <code>Double.NaN</code> if the field doesn't 
+     * exist, is blank or is not numeric.
+     */
+    double getDouble(int fieldId);
+
+    /**
+     * Returns the value of an integer (signed or unsigned) or enumeration 
+     * field of the cached image. See {@link #getDouble(int)} for more 
+     * details about primitive accessors.
+     * @param fieldId Id of the field.
+     * @return the value or {@link #NO_LONG_VALUE} if the field doesn't exist,
+     * is blank or is of another type.
+     */
+    long getLong(int fieldId);
+
+    /**
+     * Returns the mantissa of a real field of the cached image. Together 
+     * with the hint (see {@link #getHint(int)}), it gives the exact value of
+     * the field, without floating point rounding. See {@link #getDouble(int)} 
+     * for more details about primitive accessors.
+     * @param fieldId Id of the field.
+     * @return the mantissa or {@link #NO_LONG_VALUE} if the field doesn't 
+     * exist, is blank or is not a real.
+     */
+    long getMantissa(int fieldId);
+
+    /**
+     * Returns the hint (the <code>OmmReal.MagnitudeType</code>) of a real 
+     * field of the cached image. See {@link #getDouble(int)} for more details
+     * about primitive accessors.
+     * @param fieldId Id of the field.
+     * @return the hint or {@link #NO_INT_VALUE} if the field doesn't exist, 
+     * is blank or is not a real.
+     */
+    int getHint(int fieldId);
+
+    /**
+     * Returns the value of a date, time or date time field of the cached 
+     * image in nanoseconds. Dates and date times are returned in nanoseconds
+     * since the epoch (1970-01-01T00:00:00 UTC), times in nanoseconds since
+     * midnight. See {@link #getDouble(int)} for more details about primitive
+     * accessors.
+     * @param fieldId Id of the field.
+     * @return the nanoseconds or {@link #NO_LONG_VALUE} if the field doesn't
+     * exist, is blank or is of another type.
+     */
+    long getEpochNanos(int fieldId);
+
+    /**
+     * Returns the code of an enumeration field of the cached image. See 
+     * {@link #getDouble(int)} for more details about primitive accessors.
+     * @param fieldId Id of the field.
+     * @return the code or {@link #NO_INT_VALUE} if the field doesn't exist, 
+     * is blank or is not an enumeration.
+     */
+    int getEnumCode(int fieldId);
     
     /**
      * Returns the <code>OmmState</code> received from the platform for this
@@ -129,6 +253,35 @@ public interface MarketPrice extends Completable
      * @return the Id of the item stream or -1 if the stream is not opened yet.
      */    
     int getStreamId();
+
+    /**
+     * Returns the update latency statistics of this <code>MarketPrice</code>.
+     * @return the update latency statistics of this item.
+     * @throws IllegalStateException if this <code>MarketPrice</code> was not
+     * built with {@link Builder#withItemUpdateLatencyStatistics()}.
+     */
+    UpdateLatencyStatistics getUpdateLatencyStatistics();
+
+    /**
+     * Returns a publisher of the field updates of this <code>MarketPrice</code>.
+     * Each subscriber first receives the fields of the cached image, if any,
+     * then the fields of the images and updates received from the platform.
+     * The publisher honours the demand of each subscriber: while the demand
+     * of a subscriber is exhausted, its pending updates are conflated by 
+     * field Id, so that slow subscribers receive the latest value of each
+     * field without unbounded queueing. Subscribers receive 
+     * <code>onComplete</code> when the <code>MarketPrice</code> is closed.
+     * <br>
+     * <br>
+     * <strong>Note:</strong> Items are delivered either by the thread that 
+     * dispatches EMA events or by the thread that calls 
+     * <code>Subscription.request()</code>. Subscribers must not block them.
+     * @return the publisher of the field updates.
+     * @throws IllegalStateException if this <code>MarketPrice</code> was 
+     * built with {@link Builder#withInPlaceUpdates()}, as its fields are 
+     * mutable.
+     */
+    Flow.Publisher<FieldUpdate> asPublisher();
  
     /**
      * Represents an optional operation that is called when the <code>MarketPrice</code> 
@@ -191,6 +344,28 @@ public interface MarketPrice extends Completable
         void onUpdate(MarketPrice marketPrice, Collection<Field> update);
     }
 
+    /**
+     * Represents an optional operation that is called when a <code>MarketPrice</code>  
+     * receives an update message, with the set of the fields changed by the 
+     * update. This operation is optionally set when the <code>MarketPrice</code> 
+     * is created. 
+     * See the {@link Builder#onChangedFields(com.refinitiv.platformservices.rt.objects.marketprice.MarketPrice.OnChangedFieldsFunction) }
+     * for more details.
+     */
+    @FunctionalInterface
+    interface OnChangedFieldsFunction
+    {
+
+        /**
+         * Called when a <code>MarketPrice</code> receives an update (updated 
+         * fields only), right after the <code>OnUpdateFunction</code>.
+         * @param marketPrice the MarketPrice.
+         * @param update the received update.
+         * @param changedFields the set of the fields changed by the update.
+         */
+        void onChangedFields(MarketPrice marketPrice, Collection<Field> update, ChangedFields changedFields);
+    }
+
     /**
      * Represents an optional operation that is called when a <code>MarketPrice</code>  
      * receives a Status message that transports a new State of the <code>MarketPrice</code>. 
@@ -213,10 +388,22 @@ public interface MarketPrice extends Completable
     public static class Builder {
 
         OmmConsumer ommConsumer;
+        DispatcherPool dispatcherPool;
         String name = "";
         String serviceName = "ELEKTRON_DD";
         boolean withUpdates = true;
         boolean partialUpdatesManagementActivated = false;
+        boolean inPlaceUpdatesActivated = false;
+        Duration conflationInterval = Duration.ZERO;
+        boolean updateLatencyStatisticsActivated = false;
+        boolean itemUpdateLatencyStatisticsActivated = false;
+        StripedExecutor callbackExecutor;
+        Executor serialCallbackExecutor;
+        RingBuffer<MarketPriceEvent> eventPipeline;
+        Path warmStartPath;
+        DataDictionary warmStartDataDictionary;
+        MessageRecorder messageRecorder;
+        MessageReplayer messageReplayer;
         boolean synchronousModeActivated;
         boolean autoDispatch;
         LinkedList<Integer> fieldIds = new LinkedList<>();
@@ -225,6 +412,9 @@ public interface MarketPrice extends Completable
         OnImageFunction onImageFunction = (marketPrice, image, state) -> {};
         OnUpdateFunction onUpdateFunction = (marketPrice, update) -> {};
         OnStateFunction onStateFunction = (marketPrice, state) -> {};
+        OnChangedFieldsFunction onChangedFieldsFunction = (marketPrice, update, changedFields) -> {};
+        LinkedList<Integer> fieldIdsOfInterest = new LinkedList<>();
+        LinkedList<String> fieldNamesOfInterest = new LinkedList<>();
         
         /**
          * Default constructor
@@ -249,6 +439,28 @@ public interface MarketPrice extends Completable
             return this;
         }
 
+        /**
+         * Sets the <code>DispatcherPool</code> that provides the EMA OmmConsumer
+         * used by the <code>MarketPrice</code> to subscribe. The OmmConsumer is selected by the 
+         * sharding policy of the pool and its events are dispatched by the 
+         * threads of the pool. Use either this method or 
+         * <code>withOmmConsumer()</code>, not both.
+         * <br>
+         * <br>
+         * <strong>Note:</strong> As events are dispatched by the pool, the 
+         * autoDispatch parameter of the synchronous mode is ignored: the 
+         * <code>open()</code> method just waits for the completion of the 
+         * <code>MarketPrice</code>.
+         * @param dispatcherPool the pool of OmmConsumers.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withDispatcherPool(DispatcherPool dispatcherPool)
+        {
+            this.dispatcherPool = dispatcherPool;
+            return this;
+        }
+
         /**
          * Sets the name of the market price level 1 instrument to 
          * subscribe to.
@@ -320,6 +532,292 @@ public interface MarketPrice extends Completable
             return this;        
         }
         
+        /**
+         * Indicates that the <code>MarketPrice</code> must apply updates in place.
+         * In this mode, the cached <code>Field</code> of an updated field is 
+         * overwritten instead of being replaced by a new <code>Field</code>, 
+         * so that no object is allocated per update in steady state (REAL, INT,
+         * UINT, ENUM, DATE, TIME and DATETIME fields). 
+         * <br>
+         * <br>
+         * <strong>Note:</strong> In this mode, <code>Field</code> objects and 
+         * their values are mutable. The collection given to the 
+         * {@link OnUpdateFunction} is reused and is only valid for the duration
+         * of the call. Values that must be kept beyond the callback must be 
+         * copied by the application. The cached fields are only overwritten 
+         * under the write lock of the image, and the accessors 
+         * ({@link MarketPrice#getField(int)}, {@link MarketPrice#getFields()}...)
+         * return copies, so that application threads never see a 
+         * <code>Field</code> change after they got it. For the same reason,
+         * the {@link OnImageFunction} receives copies of the cached fields.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withInPlaceUpdates()
+        {
+            return withInPlaceUpdates(true);
+        }
+        
+        /**
+         * Indicates if the <code>MarketPrice</code> must apply updates in place.
+         * See {@link #withInPlaceUpdates()} for more details.
+         * If <code>withInPlaceUpdates</code> is not called, the default
+         * value (<code>false</code>) is used.
+         * @param inPlaceUpdatesActivated whether or not you want to activate 
+         * in-place updates.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withInPlaceUpdates(boolean inPlaceUpdatesActivated)
+        {
+            this.inPlaceUpdatesActivated = inPlaceUpdatesActivated;
+            return this;
+        }
+        
+        /**
+         * Indicates that the <code>MarketPrice</code> must conflate updates.
+         * In this mode, successive updates are merged in the cached image and 
+         * the {@link OnUpdateFunction} is called at most once per 
+         * <code>interval</code>, with the latest value of each field that 
+         * changed since the previous call. 
+         * If <code>withConflation</code> is not called, updates are not 
+         * conflated.
+         * <br>
+         * <br>
+         * <strong>Note:</strong> Conflated updates are collected by a timer 
+         * thread shared by all <code>MarketPrice</code>s and handed over to 
+         * the callback executor (see {@link #withCallbackExecutor(Executor)}).
+         * If no callback executor is set, all the callbacks of the 
+         * <code>MarketPrice</code> (images, updates, states and completion) 
+         * are run one at a time and in order, but not by the thread that 
+         * dispatches EMA events: each conflated <code>MarketPrice</code> has 
+         * its own {@link SerialExecutor} over a pool of daemon threads (one 
+         * per available processor) shared by the conflated 
+         * <code>MarketPrice</code>s. Consecutive callbacks of the same 
+         * <code>MarketPrice</code> may run on different threads of the pool,
+         * and a slow callback only delays its own <code>MarketPrice</code>.
+         * Callbacks must not rely on thread-local state, nor block the pool
+         * for long. For the same reason, this mode cannot be 
+         * combined with {@link #withInPlaceUpdates()}. Images (refresh 
+         * messages) are never conflated.
+         * @param interval the minimum interval between two updates. A zero 
+         * interval deactivates conflation.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withConflation(Duration interval)
+        {
+            this.conflationInterval = interval;
+            return this;
+        }
+
+        /**
+         * Indicates that the <code>MarketPrice</code> must record the latency
+         * of the updates it processes in the statistics of its service.
+         * See {@link UpdateLatencyStatistics} for more details.
+         * If <code>withUpdateLatencyStatistics</code> is not called, no 
+         * latency is recorded.
+         * <br>
+         * <br>
+         * <strong>Note:</strong> Recording the latencies costs four 
+         * <code>System.nanoTime()</code> calls per update. They cannot be 
+         * recorded with an event pipeline (see 
+         * {@link #withEventPipeline(RingBuffer)}), as the application 
+         * handles the updates outside of the <code>MarketPrice</code>.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withUpdateLatencyStatistics()
+        {
+            this.updateLatencyStatisticsActivated = true;
+            return this;
+        }
+
+        /**
+         * Indicates that the <code>MarketPrice</code> must record the latency
+         * of the updates it processes in the statistics of its service and 
+         * in its own statistics (see {@link MarketPrice#getUpdateLatencyStatistics()}).
+         * See {@link UpdateLatencyStatistics} for more details.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withItemUpdateLatencyStatistics()
+        {
+            this.updateLatencyStatisticsActivated = true;
+            this.itemUpdateLatencyStatisticsActivated = true;
+            return this;
+        }
+
+        /**
+         * Sets the executor that runs the functional interfaces of the 
+         * <code>MarketPrice</code> (<code>OnCompleteFunction</code>, 
+         * <code>OnImageFunction</code>, <code>OnUpdateFunction</code> and 
+         * <code>OnStateFunction</code>). The callbacks of the 
+         * <code>MarketPrice</code> are run one at a time and in order, on the
+         * stripe of its name, and no longer on the thread that dispatches 
+         * EMA events. This way a slow callback does not delay the other 
+         * instruments of the same <code>OmmConsumer</code>.
+         * If <code>withCallbackExecutor</code> is not called, the callbacks
+         * are run by the thread that dispatches EMA events.
+         * <br>
+         * <br>
+         * <strong>Note:</strong> This mode cannot be combined with 
+         * {@link #withInPlaceUpdates()}, as in-place updated fields cannot be 
+         * handed over to another thread. When update latencies are recorded
+         * (see {@link #withUpdateLatencyStatistics()}), the callback latency 
+         * is measured on the executor thread and the total latency includes 
+         * the time spent in the executor queue.
+         * @param callbackExecutor the executor of the callbacks.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withCallbackExecutor(StripedExecutor callbackExecutor)
+        {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Sets the executor that runs the functional interfaces of the 
+         * <code>MarketPrice</code>. The <code>MarketPrice</code> gets its own
+         * {@link SerialExecutor} mailbox on top of this executor, so that its
+         * callbacks are run one at a time and in order, but not necessarily 
+         * always by the same thread. 
+         * See {@link #withCallbackExecutor(StripedExecutor)} for more details.
+         * @param callbackExecutor the executor that provides the threads of 
+         * the callbacks.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withCallbackExecutor(Executor callbackExecutor)
+        {
+            this.serialCallbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Indicates that the functional interfaces of the <code>MarketPrice</code>
+         * must be run on virtual threads, in order. Callbacks can then do 
+         * blocking I/O without delaying the thread that dispatches EMA events.
+         * This is equivalent to 
+         * <code>withCallbackExecutor(CallbackExecutors.virtualThreads())</code>.
+         * See {@link CallbackExecutors#virtualThreads()} for the JVM requirements.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withVirtualThreadCallbacks()
+        {
+            return withCallbackExecutor(CallbackExecutors.virtualThreads());
+        }
+
+        /**
+         * Sets the ring buffer the <code>MarketPrice</code> publishes its 
+         * images, updates and states into, instead of calling the 
+         * <code>OnImageFunction</code>, <code>OnUpdateFunction</code> and 
+         * <code>OnStateFunction</code>. The events are written into the 
+         * preallocated slots of the ring buffer and handled by its consumers,
+         * each on its own thread and at its own pace, so that the thread that
+         * dispatches EMA events never runs application code for data events.
+         * The <code>OnCompleteFunction</code> is still called as usual.
+         * Several <code>MarketPrice</code>s can share the same ring buffer.
+         * <br>
+         * <br>
+         * <strong>Note:</strong> The ring buffer accepts a single producer. All 
+         * the <code>MarketPrice</code>s that share it must have their EMA 
+         * events dispatched by the same thread. For the same reason, this 
+         * mode cannot be combined with conflation (conflated updates are 
+         * published by the conflation timer thread), nor with in-place 
+         * updates, a callback executor or update latency statistics.
+         * @param eventPipeline the started ring buffer.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withEventPipeline(RingBuffer<MarketPriceEvent> eventPipeline)
+        {
+            this.eventPipeline = eventPipeline;
+            return this;
+        }
+
+        /**
+         * Activates the warm start of the <code>MarketPrice</code> to build. 
+         * Its image is persisted every 10 seconds and when the JVM shuts down 
+         * into a memory-mapped file shared by all the <code>MarketPrice</code>s 
+         * that use the same path. After a restart, the last persisted image 
+         * is exposed as soon as the <code>MarketPrice</code> is opened, flagged 
+         * stale (see {@link MarketPrice#isImageStale()}), until the first 
+         * Refresh message replaces it. The functional interfaces are only 
+         * called for the real Refresh message.
+         * <br>
+         * The primitive accessors (see {@link MarketPrice#getDouble(int)}) 
+         * read the stale image directly from the mapped file, without copies.
+         * As <code>Field</code>s require a dictionary, the stale image is only 
+         * exposed as <code>Field</code>s if the dictionary is given (see 
+         * {@link #withWarmStart(Path, DataDictionary)}).
+         * <br>
+         * <br>
+         * <strong>Note:</strong> Blank fields are not persisted, and RMTES 
+         * strings are restored as ASCII strings.
+         * @param path the path of the warm start file.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withWarmStart(Path path)
+        {
+            this.warmStartPath = path;
+            return this;
+        }
+
+        /**
+         * Activates the warm start of the <code>MarketPrice</code> to build 
+         * (see {@link #withWarmStart(Path)}) and sets the dictionary used to 
+         * expose the stale image as <code>Field</code>s.
+         * @param path the path of the warm start file.
+         * @param dataDictionary the dictionary used to describe the fields of 
+         * the stale image. See the <code>DataDictionary</code> class in the 
+         * EMA reference guide for more details about this type.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withWarmStart(Path path, DataDictionary dataDictionary)
+        {
+            this.warmStartPath = path;
+            this.warmStartDataDictionary = dataDictionary;
+            return this;
+        }
+
+        /**
+         * Records the messages received by the <code>MarketPrice</code> to 
+         * build, with their arrival time, so that they can be replayed later 
+         * on (see {@link #withMessageReplayer(MessageReplayer)}). Several 
+         * <code>MarketPrice</code>s can share the same recorder.
+         * @param messageRecorder the recorder.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withMessageRecorder(MessageRecorder messageRecorder)
+        {
+            this.messageRecorder = messageRecorder;
+            return this;
+        }
+
+        /**
+         * Feeds the <code>MarketPrice</code> to build with the messages of a 
+         * recording instead of an OmmConsumer. When opened, the 
+         * <code>MarketPrice</code> registers with the replayer and processes 
+         * the replayed messages of its item exactly as the messages 
+         * received from EMA. A <code>MarketPrice</code> built with a replayer
+         * must not be given an OmmConsumer or a DispatcherPool, and cannot be
+         * opened synchronously. Views are ignored.
+         * @param messageReplayer the replayer.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withMessageReplayer(MessageReplayer messageReplayer)
+        {
+            this.messageReplayer = messageReplayer;
+            return this;
+        }
+        
         /**
          * Indicates if the <code>MarketPrice</code> must be opened synchronously.
          * If <code>withSynchronousMode</code> is not called, the <code>MarketPrice</code>
@@ -437,6 +935,51 @@ public interface MarketPrice extends Completable
             return this;
         }
         
+        /**
+         * Indicates that the application is interested in the changes of 
+         * this field. Once at least one field of interest is set, updates 
+         * that change none of the fields of interest are filtered out before
+         * the <code>OnUpdateFunction</code> and the 
+         * <code>OnChangedFieldsFunction</code> are called. The cached image 
+         * is updated as usual. You can chain method calls to specify several
+         * fields like this:
+         * <br>
+         * <br>
+         * <pre>
+         *    MarketPrice theMarketPrice = new MarketPrice.Builder()
+         *                                          .withFieldOfInterest(22)
+         *                                          .withFieldOfInterest(25)
+         *                                                .
+         *                                                .
+         *                                                .
+         *                                          .build();
+         * </pre>
+         * <br>
+         * Unlike {@link #withField(int)}, fields of interest do not change 
+         * the subscription and can be mixed with field names. 
+         * @param fieldId the Id of a field of interest.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withFieldOfInterest(int fieldId)
+        {
+            fieldIdsOfInterest.add(fieldId);
+            return this;
+        }
+        
+        /**
+         * Indicates that the application is interested in the changes of 
+         * this field. See {@link #withFieldOfInterest(int)} for more details.
+         * @param fieldName the name of a field of interest.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withFieldOfInterest(String fieldName)
+        {
+            fieldNamesOfInterest.add(fieldName);
+            return this;
+        }
+        
         /**
          * Sets the function to be called when the market price is complete.
          * Usage example with a lambda expression:
@@ -552,6 +1095,40 @@ public interface MarketPrice extends Completable
             return this;
         }        
         
+        /**
+         * Sets the function to be called when the market price receives an 
+         * update, with the set of the changed fields. Testing if a field 
+         * changed costs a constant time, whatever the size of the update.
+         * Usage example with a lambda expression:
+         * <br>
+         * <br>
+         * <pre>
+         *    MarketPrice theMarketPrice = new MarketPrice.Builder()
+         *        .onChangedFields(
+         *            (marketPrice, update, changedFields) -&gt; 
+         *            {
+         *                if(changedFields.contains(&quot;BID&quot;) || changedFields.contains(&quot;ASK&quot;))
+         *                    reprice(marketPrice);
+         *            }
+         *        )
+         *                        .
+         *                        .
+         *                        .
+         * </pre>
+         * <br>
+         * When in-place updates or conflation are activated, the 
+         * <code>ChangedFields</code> is reused and is only valid for the 
+         * duration of the call.
+         * @param function function to be called when the market price receives
+         * an update.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onChangedFields(OnChangedFieldsFunction function)
+        {
+            this.onChangedFieldsFunction = function;
+            return this;
+        }        
+        
         /**
          * Builds the <code>MarketPrice</code> object
          * @return the built MarketPrice
@@ -562,14 +1139,54 @@ public interface MarketPrice extends Completable
             {
                 throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice with no name");
             }
-            if (ommConsumer == null)
+            if (ommConsumer == null && dispatcherPool == null && messageReplayer == null)
+            {
+                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice without an OmmConsumer or a DispatcherPool.");
+            }
+            if (messageReplayer != null && (ommConsumer != null || dispatcherPool != null))
+            {
+                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice with both a MessageReplayer and an OmmConsumer or a DispatcherPool.");
+            }
+            if (messageReplayer != null && synchronousModeActivated)
+            {
+                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice that is opened synchronously with a MessageReplayer.");
+            }
+            if (ommConsumer != null && dispatcherPool != null)
             {
-                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice without an OmmConsumer.");
+                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice with both an OmmConsumer and a DispatcherPool.");
             }
             if(!fieldIds.isEmpty() && !fieldNames.isEmpty())
             {
                 throw new IllegalStateException("The MarketPrice.Builder cannot build this MarketPrice. Views cannot be defined with a mix of field ids and field names.");
             }
+            if (conflationInterval == null || conflationInterval.isNegative())
+            {
+                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice with a null or negative conflation interval.");
+            }
+            if (callbackExecutor != null && serialCallbackExecutor != null)
+            {
+                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice with two callback executors.");
+            }
+            if ((callbackExecutor != null || serialCallbackExecutor != null) && inPlaceUpdatesActivated)
+            {
+                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice with both in-place updates and a callback executor.");
+            }
+            if (!conflationInterval.isZero() && inPlaceUpdatesActivated)
+            {
+                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice with both in-place updates and conflation.");
+            }
+            if (eventPipeline != null && (callbackExecutor != null || serialCallbackExecutor != null))
+            {
+                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice with both an event pipeline and a callback executor.");
+            }
+            if (eventPipeline != null && (inPlaceUpdatesActivated || !conflationInterval.isZero()))
+            {
+                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice with an event pipeline and in-place updates or conflation.");
+            }
+            if (eventPipeline != null && updateLatencyStatisticsActivated)
+            {
+                throw new IllegalStateException("The MarketPrice.Builder cannot build a MarketPrice with both an event pipeline and update latency statistics.");
+            }
 
             MarketPriceImpl builtMarketPrice = new MarketPriceImpl(this);
 
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.ema.access.OmmState;
+import com.refinitiv.platformservices.rt.objects.data.Field;
+import java.util.Collection;
+
+/**
+ * An event published by a <code>MarketPrice</code> into its event pipeline
+ * (see {@link MarketPrice.Builder#withEventPipeline(com.refinitiv.platformservices.rt.objects.common.RingBuffer)}).
+ * <code>MarketPriceEvent</code>s are the reusable slots of a
+ * <code>RingBuffer</code>: they are created once by the event factory of the
+ * ring buffer (<code>MarketPriceEvent::new</code>) and overwritten by each
+ * new event. Consumers must copy the values they want to keep.
+ */
+public final class MarketPriceEvent
+{
+    /**
+     * The types of <code>MarketPriceEvent</code>s. They match the functional
+     * interfaces of the <code>MarketPrice</code>.
+     */
+    public enum Type
+    {
+        /**
+         * An image was received (see {@link MarketPrice.OnImageFunction}).
+         */
+        IMAGE,
+
+        /**
+         * An update was received (see {@link MarketPrice.OnUpdateFunction}).
+         */
+        UPDATE,
+
+        /**
+         * A state was received (see {@link MarketPrice.OnStateFunction}).
+         */
+        STATE
+    }
+
+    private Type type;
+    private MarketPrice marketPrice;
+    private Collection<Field> fields;
+    private ChangedFields changedFields;
+    private OmmState state;
+
+    /**
+     * Creates an empty event. Used as the event factory of the ring buffer.
+     */
+    public MarketPriceEvent()
+    {
+    }
+
+    /**
+     * Overwrites this event.
+     * @param type the type of the event.
+     * @param marketPrice the <code>MarketPrice</code> that publishes it.
+     * @param fields the fields of the image or of the update.
+     * @param changedFields the fields changed by the update.
+     * @param state the received state.
+     */
+    void set(Type type, MarketPrice marketPrice, Collection<Field> fields, ChangedFields changedFields, OmmState state)
+    {
+        this.type = type;
+        this.marketPrice = marketPrice;
+        this.fields = fields;
+        this.changedFields = changedFields;
+        this.state = state;
+    }
+
+    /**
+     * Returns the type of this event.
+     * @return the type.
+     */
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * Returns the <code>MarketPrice</code> that published this event.
+     * @return the <code>MarketPrice</code>.
+     */
+    public MarketPrice getMarketPrice()
+    {
+        return marketPrice;
+    }
+
+    /**
+     * Returns the fields of the image or of the update.
+     * @return the fields. Null for {@link Type#STATE} events.
+     */
+    public Collection<Field> getFields()
+    {
+        return fields;
+    }
+
+    /**
+     * Returns the set of the fields changed by the update.
+     * @return the changed fields. Null for {@link Type#IMAGE} and 
+     * {@link Type#STATE} events.
+     */
+    public ChangedFields getChangedFields()
+    {
+        return changedFields;
+    }
+
+    /**
+     * Returns the state received with the image or the new state.
+     * @return the state. Null for {@link Type#UPDATE} events.
+     */
+    public OmmState getState()
+    {
+        return state;
+    }
+
+    @Override
+    public String toString()
+    {
+        return type + " " + (marketPrice == null ? "" : marketPrice.getName());
+    }
+}
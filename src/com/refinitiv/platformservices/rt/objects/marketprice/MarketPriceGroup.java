@@ -0,0 +1,695 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.ema.access.OmmConsumer;
+import com.refinitiv.ema.rdm.DataDictionary;
+import com.refinitiv.platformservices.rt.objects.common.Completable;
+import com.refinitiv.platformservices.rt.objects.common.DispatcherPool;
+import com.refinitiv.platformservices.rt.objects.common.MessageRecorder;
+import com.refinitiv.platformservices.rt.objects.common.CallbackExecutors;
+import com.refinitiv.platformservices.rt.objects.common.StripedExecutor;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The interface of a <code>MarketPriceGroup</code> implementation that you can
+ * use to open a large number of level 1 instruments with a few EMA batch
+ * requests instead of one request per instrument. <code>MarketPriceGroup</code>s
+ * must be built using a <code>MarketPriceGroup.Builder</code>.
+ * Each instrument of the group is still exposed as an individual
+ * {@link MarketPrice} that invokes its own <code>onImage</code>,
+ * <code>onUpdate</code> and <code>onState</code> functions.
+ * As an example, the code snippet below creates and opens a group of three
+ * currency quotes published on the ELEKTRON_DD service:
+ * <br>
+ * <br>
+ * <pre>
+ *    OmmConsumer ommConsumer = ...;
+ *      .
+ *      .
+ *      .
+ *      MarketPriceGroup theGroup = new MarketPriceGroup.Builder()
+ *           .withOmmConsumer(ommConsumer)
+ *           .withName("EUR=")
+ *           .withName("JPY=")
+ *           .withName("GBP=")
+ *           .withServiceName("ELEKTRON_DD")
+ *           .onBatchComplete(
+ *               (group, batch) -&gt;
+ *                   println(batch.size() + " instruments completed")
+ *           )
+ *           .build();
+ *
+ *      theGroup.open();
+ * </pre>
+ * <br>
+ * <strong>Note that this implementation of <code>MarketPriceGroup</code> is synchronized</strong>.
+ * It can be used indifferently with the <code>API_DISPATCH</code> and
+ * <code>USER_DISPATCH</code> <code>OmmConsumer</code> operation models.
+ */
+public interface MarketPriceGroup extends Completable
+{
+    /**
+     * Returns the name of the service the instruments of this group are
+     * published on.
+     * @return the service name used to subscribe to the instruments.
+     */
+    String getServiceName();
+
+    /**
+     * Opens all the <code>MarketPrice</code>s of this group. The instruments
+     * are requested with EMA batch requests of at most
+     * {@link Builder#withBatchSize(int)} instruments each. This method has
+     * no effect on <code>MarketPrice</code>s that are already opened.
+     */
+    void open();
+
+    /**
+     * Opens this <code>MarketPriceGroup</code> asynchronously, whatever the synchronous
+     * mode set at build time. The returned <code>CompletableFuture</code> is 
+     * completed with this <code>MarketPriceGroup</code> as soon as it is complete 
+     * (see {@link #isComplete()}), right after the <code>OnCompleteFunction</code> 
+     * is called. It is cancelled if the <code>MarketPriceGroup</code> is closed before 
+     * it completes. If the <code>MarketPriceGroup</code> is already opened or being 
+     * opened, the future of this previous open is returned.
+     * <br>
+     * <br>
+     * <strong>Note:</strong> The future is completed by the thread that 
+     * dispatches EMA events. Dependent actions that are not registered with 
+     * an <code>Executor</code> are run by this thread and must not block it.
+     * @return the future of the open.
+     */
+    CompletableFuture<MarketPriceGroup> openAsync();
+
+    /**
+     * Closes all the <code>MarketPrice</code>s of this group. This  method has
+     * no effect on <code>MarketPrice</code>s that are already closed.
+     */
+    void close();
+
+    /**
+     * Returns the <code>MarketPrice</code>s of this group, in the order their
+     * names were given to the {@link Builder}.
+     * @return the <code>MarketPrice</code>s of this group.
+     */
+    Collection<MarketPrice> getMarketPrices();
+
+    /**
+     * Returns the <code>MarketPrice</code> of this group identified by <code>name</code>.
+     * @param name the name of the instrument.
+     * @return the <code>MarketPrice</code> or null if the group doesn't contain
+     * this instrument.
+     */
+    MarketPrice getMarketPrice(String name);
+
+    /**
+     * Represents an optional operation that is called when all the
+     * <code>MarketPrice</code>s of a group are complete. This operation is
+     * optionally set when the <code>MarketPriceGroup</code> is created.
+     * See the {@link Builder#onComplete(com.refinitiv.platformservices.rt.objects.marketprice.MarketPriceGroup.OnCompleteFunction) }
+     * for more details.
+     */
+    @FunctionalInterface
+    interface OnCompleteFunction
+    {
+        /**
+         * Called when all the <code>MarketPrice</code>s of a group are complete.
+         * @param group the completed group.
+         */
+        void onComplete(MarketPriceGroup group);
+    }
+
+    /**
+     * Represents an optional operation that is called when all the
+     * <code>MarketPrice</code>s of a batch request are complete. This
+     * operation is optionally set when the <code>MarketPriceGroup</code> is
+     * created. See the {@link Builder#onBatchComplete(com.refinitiv.platformservices.rt.objects.marketprice.MarketPriceGroup.OnBatchCompleteFunction) }
+     * for more details.
+     */
+    @FunctionalInterface
+    interface OnBatchCompleteFunction
+    {
+        /**
+         * Called when all the <code>MarketPrice</code>s of a batch request
+         * are complete.
+         * @param group the group the batch belongs to.
+         * @param batch the <code>MarketPrice</code>s of the completed batch.
+         */
+        void onBatchComplete(MarketPriceGroup group, Collection<MarketPrice> batch);
+    }
+
+    /**
+     * Used to build <code>MarketPriceGroup</code> objects. The parameters
+     * that apply to each instrument (updates, view, functions...) have the same
+     * meaning as their {@link MarketPrice.Builder} counterparts.
+     * <br>
+     * <br>
+     * <strong>Note:</strong> The OmmConsumer and at least one instrument name
+     * are mandatory parameters that must be set before {@link #build()} is called.
+     */
+    public static class Builder
+    {
+        /**
+         * Default number of instruments requested by a single batch request.
+         */
+        public static final int DEFAULT_BATCH_SIZE = 1000;
+
+        OmmConsumer ommConsumer;
+        DispatcherPool dispatcherPool;
+        LinkedHashSet<String> names = new LinkedHashSet<>();
+        String serviceName = "ELEKTRON_DD";
+        int batchSize = DEFAULT_BATCH_SIZE;
+        boolean withUpdates = true;
+        boolean partialUpdatesManagementActivated = false;
+        boolean inPlaceUpdatesActivated = false;
+        Duration conflationInterval = Duration.ZERO;
+        boolean updateLatencyStatisticsActivated = false;
+        boolean itemUpdateLatencyStatisticsActivated = false;
+        StripedExecutor callbackExecutor;
+        Executor serialCallbackExecutor;
+        boolean synchronousModeActivated;
+        boolean autoDispatch;
+        LinkedList<Integer> fieldIds = new LinkedList<>();
+        LinkedList<String> fieldNames = new LinkedList<>();
+        OnCompleteFunction onCompleteFunction = (group) -> {};
+        OnBatchCompleteFunction onBatchCompleteFunction = (group, batch) -> {};
+        MarketPrice.OnCompleteFunction onItemCompleteFunction = (marketPrice) -> {};
+        MarketPrice.OnImageFunction onImageFunction = (marketPrice, image, state) -> {};
+        MarketPrice.OnUpdateFunction onUpdateFunction = (marketPrice, update) -> {};
+        MarketPrice.OnStateFunction onStateFunction = (marketPrice, state) -> {};
+        MarketPrice.OnChangedFieldsFunction onChangedFieldsFunction = (marketPrice, update, changedFields) -> {};
+        LinkedList<Integer> fieldIdsOfInterest = new LinkedList<>();
+        LinkedList<String> fieldNamesOfInterest = new LinkedList<>();
+        Path warmStartPath;
+        DataDictionary warmStartDataDictionary;
+        MessageRecorder messageRecorder;
+
+        /**
+         * Default constructor
+         */
+        public Builder()
+        {
+        }
+
+        /**
+         * Sets the EMA OmmConsumer used by the group to send its batch requests.
+         * This <code>OmmConsumer</code> must have been properly initialized and
+         * connected to a Refinitiv real-time platform.
+         * @param ommConsumer the OmmConsumer used to subscribe.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withOmmConsumer(OmmConsumer ommConsumer)
+        {
+            this.ommConsumer = ommConsumer;
+            return this;
+        }
+
+        /**
+         * Sets the <code>DispatcherPool</code> that provides the EMA OmmConsumers
+         * used by the <code>MarketPrice</code>s of the group to subscribe. The 
+         * OmmConsumer of each <code>MarketPrice</code> is selected by the 
+         * sharding policy of the pool and one batch request is sent per 
+         * OmmConsumer. Events are dispatched by the threads of the pool. 
+         * Use either this method or <code>withOmmConsumer()</code>, not both.
+         * <br>
+         * <br>
+         * <strong>Note:</strong> As events are dispatched by the pool, the 
+         * autoDispatch parameter of the synchronous mode is ignored: the 
+         * <code>open()</code> method just waits for the completion of the 
+         * <code>MarketPrice</code>s of the group.
+         * @param dispatcherPool the pool of OmmConsumers.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withDispatcherPool(DispatcherPool dispatcherPool)
+        {
+            this.dispatcherPool = dispatcherPool;
+            return this;
+        }
+
+        /**
+         * Adds the name of a market price level 1 instrument to the group.
+         * Duplicate names are ignored.
+         * @param name the name of the instrument.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withName(String name)
+        {
+            this.names.add(name);
+            return this;
+        }
+
+        /**
+         * Adds the names of several market price level 1 instruments to the
+         * group. Duplicate names are ignored.
+         * @param names the names of the instruments.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withNames(Collection<String> names)
+        {
+            this.names.addAll(names);
+            return this;
+        }
+
+        /**
+         * Sets the name of the service the instruments are published on.
+         * If the service name is not set the default "ELEKTRON_DD" service name
+         * is used.
+         * @param serviceName the name of the service the instruments are published on.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withServiceName(String serviceName)
+        {
+            this.serviceName = serviceName;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of instruments requested by a single EMA
+         * batch request. If <code>withBatchSize</code> is not called, the
+         * default value ({@link #DEFAULT_BATCH_SIZE}) is used.
+         * @param batchSize the maximum number of instruments per batch request.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withBatchSize(int batchSize)
+        {
+            if(batchSize < 1)
+            {
+                batchSize = 1;
+            }
+
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Indicates you are interested in market price updates or not.
+         * See {@link MarketPrice.Builder#withUpdates(boolean)} for more details.
+         * @param withUpdates whether or not you are interested in market price
+         * changes.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withUpdates(boolean withUpdates)
+        {
+            this.withUpdates = withUpdates;
+            return this;
+        }
+
+        /**
+         * Indicates if the <code>MarketPrice</code>s of the group have to manage
+         * partial updates.
+         * See {@link MarketPrice.Builder#withPartialUpdatesManagement(boolean)}
+         * for more details.
+         * @param partialUpdatesManagementActivated whether or not you want to
+         * activate partial updates management.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withPartialUpdatesManagement(boolean partialUpdatesManagementActivated)
+        {
+            this.partialUpdatesManagementActivated = partialUpdatesManagementActivated;
+            return this;
+        }
+
+        /**
+         * Indicates that the <code>MarketPrice</code>s of the group must apply
+         * updates in place.
+         * See {@link MarketPrice.Builder#withInPlaceUpdates()} for more details.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withInPlaceUpdates()
+        {
+            this.inPlaceUpdatesActivated = true;
+            return this;
+        }
+
+        /**
+         * Indicates that the <code>MarketPrice</code>s of the group must 
+         * conflate updates.
+         * See {@link MarketPrice.Builder#withConflation(Duration)} for more details.
+         * @param interval the minimum interval between two updates of a 
+         * <code>MarketPrice</code>.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withConflation(Duration interval)
+        {
+            this.conflationInterval = interval;
+            return this;
+        }
+
+        /**
+         * Indicates that the <code>MarketPrice</code>s of the group must 
+         * record the latency of their updates in the statistics of their
+         * service.
+         * See {@link MarketPrice.Builder#withUpdateLatencyStatistics()} for more details.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withUpdateLatencyStatistics()
+        {
+            this.updateLatencyStatisticsActivated = true;
+            return this;
+        }
+
+        /**
+         * Indicates that the <code>MarketPrice</code>s of the group must 
+         * record the latency of their updates in the statistics of their
+         * service and in their own statistics.
+         * See {@link MarketPrice.Builder#withItemUpdateLatencyStatistics()} for more details.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withItemUpdateLatencyStatistics()
+        {
+            this.updateLatencyStatisticsActivated = true;
+            this.itemUpdateLatencyStatisticsActivated = true;
+            return this;
+        }
+
+        /**
+         * Sets the executor that runs the functional interfaces of the 
+         * <code>MarketPrice</code>s of the group. The callbacks of each 
+         * <code>MarketPrice</code> are run in order on the stripe of its name.
+         * See {@link MarketPrice.Builder#withCallbackExecutor(StripedExecutor)} for more details.
+         * @param callbackExecutor the executor of the callbacks.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withCallbackExecutor(StripedExecutor callbackExecutor)
+        {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Sets the executor that runs the functional interfaces of the 
+         * <code>MarketPrice</code>s of the group. Each <code>MarketPrice</code> 
+         * gets its own mailbox on top of this executor.
+         * See {@link MarketPrice.Builder#withCallbackExecutor(Executor)} for more details.
+         * @param callbackExecutor the executor that provides the threads of 
+         * the callbacks.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withCallbackExecutor(Executor callbackExecutor)
+        {
+            this.serialCallbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Indicates that the functional interfaces of the <code>MarketPrice</code>s
+         * of the group must be run on virtual threads, in order for each 
+         * <code>MarketPrice</code>.
+         * See {@link MarketPrice.Builder#withVirtualThreadCallbacks()} for more details.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withVirtualThreadCallbacks()
+        {
+            return withCallbackExecutor(CallbackExecutors.virtualThreads());
+        }
+
+        /**
+         * Indicates if the <code>MarketPriceGroup</code> must be opened synchronously.
+         * The {@link #open()} method will not dispatch events but just wait
+         * until all the instruments are complete before returning control to
+         * the calling thread.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withSynchronousMode()
+        {
+            boolean autoDispatch = false;
+            return withSynchronousMode(autoDispatch);
+        }
+
+        /**
+         * Indicates if the <code>MarketPriceGroup</code> must be opened synchronously.
+         * @param autoDispatch indicates if the group will have to dispatch EMA
+         * events when the {@link #open()} method is called (see the
+         * USER_DISPATCH EMA operation model) or if these events will be
+         * dispatched by another thread.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withSynchronousMode(boolean autoDispatch)
+        {
+            this.synchronousModeActivated = true;
+            this.autoDispatch = autoDispatch;
+            return this;
+        }
+
+        /**
+         * Indicates that the instruments must be subscribed using a view that
+         * contains this field Id.
+         * See {@link MarketPrice.Builder#withField(int)} for more details.
+         * @param fieldId the Id of a field to include to the view.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withField(int fieldId)
+        {
+            fieldIds.add(fieldId);
+            return this;
+        }
+
+        /**
+         * Indicates that the instruments must be subscribed using a view that
+         * contains this field name.
+         * See {@link MarketPrice.Builder#withField(String)} for more details.
+         * @param fieldName the name of a field to include to the view.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withField(String fieldName)
+        {
+            fieldNames.add(fieldName);
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when all the instruments of the group
+         * are complete.
+         * @param function function to be called when the group is complete.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onComplete(OnCompleteFunction function)
+        {
+            this.onCompleteFunction = function;
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when all the instruments of a batch
+         * request are complete.
+         * @param function function to be called when a batch is complete.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onBatchComplete(OnBatchCompleteFunction function)
+        {
+            this.onBatchCompleteFunction = function;
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when an instrument of the group is
+         * complete.
+         * @param function function to be called when an instrument is complete.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onItemComplete(MarketPrice.OnCompleteFunction function)
+        {
+            this.onItemCompleteFunction = function;
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when an instrument of the group
+         * receives a new image (all fields).
+         * @param function function to be called when an instrument receives
+         * a new image.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onImage(MarketPrice.OnImageFunction function)
+        {
+            this.onImageFunction = function;
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when an instrument of the group
+         * receives an update (updated fields only).
+         * @param function function to be called when an instrument receives
+         * an update.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onUpdate(MarketPrice.OnUpdateFunction function)
+        {
+            this.onUpdateFunction = function;
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when an instrument of the group
+         * receives a new state (Status).
+         * @param function function to be called when an instrument receives
+         * a new state.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onState(MarketPrice.OnStateFunction function)
+        {
+            this.onStateFunction = function;
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when an instrument of the group
+         * receives an update, with the set of the changed fields.
+         * See {@link MarketPrice.Builder#onChangedFields(MarketPrice.OnChangedFieldsFunction)}
+         * for more details.
+         * @param function function to be called when an instrument receives
+         * an update.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onChangedFields(MarketPrice.OnChangedFieldsFunction function)
+        {
+            this.onChangedFieldsFunction = function;
+            return this;
+        }
+
+        /**
+         * Indicates that the application is interested in the changes of 
+         * this field for all the instruments of the group.
+         * See {@link MarketPrice.Builder#withFieldOfInterest(int)} for more details.
+         * @param fieldId the Id of a field of interest.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withFieldOfInterest(int fieldId)
+        {
+            fieldIdsOfInterest.add(fieldId);
+            return this;
+        }
+
+        /**
+         * Indicates that the application is interested in the changes of 
+         * this field for all the instruments of the group.
+         * See {@link MarketPrice.Builder#withFieldOfInterest(int)} for more details.
+         * @param fieldName the name of a field of interest.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withFieldOfInterest(String fieldName)
+        {
+            fieldNamesOfInterest.add(fieldName);
+            return this;
+        }
+
+        /**
+         * Activates the warm start of all the instruments of the group. 
+         * See {@link MarketPrice.Builder#withWarmStart(Path)} for more details.
+         * @param path the path of the warm start file.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withWarmStart(Path path)
+        {
+            this.warmStartPath = path;
+            return this;
+        }
+
+        /**
+         * Activates the warm start of all the instruments of the group and 
+         * sets the dictionary used to expose their stale images as fields. 
+         * See {@link MarketPrice.Builder#withWarmStart(Path, DataDictionary)} 
+         * for more details.
+         * @param path the path of the warm start file.
+         * @param dataDictionary the dictionary used to describe the fields of 
+         * the stale images.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withWarmStart(Path path, DataDictionary dataDictionary)
+        {
+            this.warmStartPath = path;
+            this.warmStartDataDictionary = dataDictionary;
+            return this;
+        }
+
+        /**
+         * Records the messages received by all the instruments of the group. 
+         * See {@link MarketPrice.Builder#withMessageRecorder(MessageRecorder)} 
+         * for more details. The recorded instruments can be replayed 
+         * individually, as groups are opened through their OmmConsumers.
+         * @param messageRecorder the recorder.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder withMessageRecorder(MessageRecorder messageRecorder)
+        {
+            this.messageRecorder = messageRecorder;
+            return this;
+        }
+
+        /**
+         * Builds the <code>MarketPriceGroup</code> object
+         * @return the built MarketPriceGroup
+         */
+        public MarketPriceGroup build()
+        {
+            if (names.isEmpty())
+            {
+                throw new IllegalStateException("The MarketPriceGroup.Builder cannot build a MarketPriceGroup with no names");
+            }
+            if (ommConsumer == null && dispatcherPool == null)
+            {
+                throw new IllegalStateException("The MarketPriceGroup.Builder cannot build a MarketPriceGroup without an OmmConsumer or a DispatcherPool.");
+            }
+            if (ommConsumer != null && dispatcherPool != null)
+            {
+                throw new IllegalStateException("The MarketPriceGroup.Builder cannot build a MarketPriceGroup with both an OmmConsumer and a DispatcherPool.");
+            }
+            if(!fieldIds.isEmpty() && !fieldNames.isEmpty())
+            {
+                throw new IllegalStateException("The MarketPriceGroup.Builder cannot build this MarketPriceGroup. Views cannot be defined with a mix of field ids and field names.");
+            }
+            if (conflationInterval == null || conflationInterval.isNegative())
+            {
+                throw new IllegalStateException("The MarketPriceGroup.Builder cannot build a MarketPriceGroup with a null or negative conflation interval.");
+            }
+            if (callbackExecutor != null && serialCallbackExecutor != null)
+            {
+                throw new IllegalStateException("The MarketPriceGroup.Builder cannot build a MarketPriceGroup with two callback executors.");
+            }
+            if ((callbackExecutor != null || serialCallbackExecutor != null) && inPlaceUpdatesActivated)
+            {
+                throw new IllegalStateException("The MarketPriceGroup.Builder cannot build a MarketPriceGroup with both in-place updates and a callback executor.");
+            }
+
+            MarketPriceGroupImpl builtGroup = new MarketPriceGroupImpl(this);
+
+            return builtGroup;
+        }
+    }
+}
@@ -0,0 +1,551 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.ema.access.AckMsg;
+import com.refinitiv.ema.access.ElementList;
+import com.refinitiv.ema.access.EmaFactory;
+import com.refinitiv.ema.access.GenericMsg;
+import com.refinitiv.ema.access.Msg;
+import com.refinitiv.ema.access.OmmArray;
+import com.refinitiv.ema.access.OmmConsumer;
+import com.refinitiv.ema.access.OmmConsumerClient;
+import com.refinitiv.ema.access.OmmConsumerEvent;
+import com.refinitiv.ema.access.RefreshMsg;
+import com.refinitiv.ema.access.ReqMsg;
+import com.refinitiv.ema.access.StatusMsg;
+import com.refinitiv.ema.access.UpdateMsg;
+import com.refinitiv.ema.rdm.EmaRdm;
+import com.refinitiv.platformservices.rt.objects.common.Dispatcher;
+import com.refinitiv.platformservices.rt.objects.common.DispatcherPool;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The implementation class of the <code>MarketPriceGroup</code> interface.
+ * It splits the instruments of the group into EMA batch requests (requests
+ * with an <code>:ItemList</code> payload) and routes the messages of the item
+ * streams opened by EMA to the corresponding <code>MarketPrice</code>s.
+ */
+class MarketPriceGroupImpl implements MarketPriceGroup, OmmConsumerClient
+{
+
+    private final OmmConsumer ommConsumer;
+    private final DispatcherPool dispatcherPool;
+    private final String serviceName;
+    private final int batchSize;
+    private final boolean withUpdates;
+    private final boolean synchronousModeActivated;
+    private final boolean autoDispatch;
+    private final LinkedList<Integer> fieldIds;
+    private final LinkedList<String> fieldNames;
+    private final OnCompleteFunction onCompleteFunction;
+    private final OnBatchCompleteFunction onBatchCompleteFunction;
+    private final MarketPrice.OnCompleteFunction onItemCompleteFunction;
+
+    private enum State {OPENING, OPENED, CLOSED};
+    // The completion of the group is tracked without the lock of the group:
+    // instruments complete on the dispatching thread while they hold their
+    // own lock, and the group holds its lock when it opens or closes them.
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private volatile CompletableFuture<MarketPriceGroup> openFuture;
+    private final Map<String, MarketPriceImpl> marketPricesByName = new LinkedHashMap<>();
+    private final Map<String, Batch> batchesByName = new ConcurrentHashMap<>();
+    // Batches sent since the last open. Guarded by this.
+    private final List<Batch> openedBatches = new ArrayList<>();
+    private final AtomicInteger incompleteBatchesCount = new AtomicInteger();
+    private final Dispatcher dispatcher;
+
+    /**
+     * Constructor used by the <code>MarketPriceGroup.Builder</code> to build a new
+     * <code>MarketPriceGroup</code> object.
+     * @param builder the <code>Builder</code> that contains all the parameters
+     * required to build the class. This is this builder that instantiated this
+     * object by calling this constructor.
+     */
+    MarketPriceGroupImpl(MarketPriceGroup.Builder builder)
+    {
+        ommConsumer = builder.ommConsumer;
+        dispatcherPool = builder.dispatcherPool;
+        serviceName = builder.serviceName;
+        batchSize = builder.batchSize;
+        withUpdates = builder.withUpdates;
+        synchronousModeActivated = builder.synchronousModeActivated;
+        // Events of pooled OmmConsumers are dispatched by the pool threads
+        autoDispatch = builder.autoDispatch && builder.dispatcherPool == null;
+        fieldIds = builder.fieldIds;
+        fieldNames = builder.fieldNames;
+        onCompleteFunction = builder.onCompleteFunction;
+        onBatchCompleteFunction = builder.onBatchCompleteFunction;
+        onItemCompleteFunction = builder.onItemCompleteFunction;
+
+        for(String name : builder.names)
+        {
+            MarketPrice.Builder marketPriceBuilder = new MarketPrice.Builder()
+                    .withOmmConsumer(ommConsumerFor(name))
+                    .withName(name)
+                    .withServiceName(serviceName)
+                    .withUpdates(withUpdates)
+                    .withPartialUpdatesManagement(builder.partialUpdatesManagementActivated)
+                    .withInPlaceUpdates(builder.inPlaceUpdatesActivated)
+                    .withConflation(builder.conflationInterval)
+                    .withCallbackExecutor(builder.callbackExecutor)
+                    .onComplete(
+                            (completedMarketPrice) -> onItemComplete(completedMarketPrice)
+                    )
+                    .onImage(builder.onImageFunction)
+                    .onUpdate(builder.onUpdateFunction)
+                    .onState(builder.onStateFunction)
+                    .onChangedFields(builder.onChangedFieldsFunction);
+            builder.fieldIdsOfInterest.forEach(marketPriceBuilder::withFieldOfInterest);
+            builder.fieldNamesOfInterest.forEach(marketPriceBuilder::withFieldOfInterest);
+            if(builder.serialCallbackExecutor != null)
+            {
+                marketPriceBuilder.withCallbackExecutor(builder.serialCallbackExecutor);
+            }
+            if(builder.warmStartPath != null)
+            {
+                marketPriceBuilder.withWarmStart(builder.warmStartPath, builder.warmStartDataDictionary);
+            }
+            if(builder.messageRecorder != null)
+            {
+                marketPriceBuilder.withMessageRecorder(builder.messageRecorder);
+            }
+            if(builder.itemUpdateLatencyStatisticsActivated)
+            {
+                marketPriceBuilder.withItemUpdateLatencyStatistics();
+            }
+            else if(builder.updateLatencyStatisticsActivated)
+            {
+                marketPriceBuilder.withUpdateLatencyStatistics();
+            }
+
+            MarketPriceImpl marketPrice = (MarketPriceImpl) marketPriceBuilder.build();
+            marketPricesByName.put(name, marketPrice);
+        }
+
+        dispatcher = ommConsumer == null ? null : new Dispatcher.Builder()
+                .withOmmConsumer(ommConsumer)
+                .build();
+    }
+
+    @Override
+    public String getServiceName()
+    {
+        return serviceName;
+    }
+
+    @Override
+    public void open()
+    {
+        CompletableFuture<MarketPriceGroup> future = openAsync();
+
+        if(synchronousModeActivated)
+        {
+            waitForCompletion(future);
+        }
+    }
+
+    @Override
+    public CompletableFuture<MarketPriceGroup> openAsync()
+    {
+        synchronized(this)
+        {
+            if(state.get() == State.OPENED || state.get() == State.OPENING)
+                return openFuture;
+
+            openFuture = new CompletableFuture<>();
+            // Counts the open itself as an incomplete batch, so that the 
+            // group cannot complete before all its batches are sent
+            incompleteBatchesCount.set(1);
+            state.set(State.OPENING);
+
+            // Batches are built per OmmConsumer (a single one if the group 
+            // does not use a DispatcherPool)
+            Map<OmmConsumer, List<MarketPriceImpl>> marketPricesToOpenByOmmConsumer = new LinkedHashMap<>();
+            for(MarketPriceImpl marketPrice : marketPricesByName.values())
+            {
+                if(!marketPrice.openInBatch())
+                    continue;
+
+                OmmConsumer marketPriceOmmConsumer = ommConsumerFor(marketPrice.getName());
+                List<MarketPriceImpl> marketPricesToOpen = marketPricesToOpenByOmmConsumer.computeIfAbsent(
+                        marketPriceOmmConsumer, 
+                        (consumer) -> new ArrayList<>(batchSize));
+                
+                marketPricesToOpen.add(marketPrice);
+                if(marketPricesToOpen.size() == batchSize)
+                {
+                    sendBatchRequestFor(marketPriceOmmConsumer, marketPricesToOpen);
+                    marketPricesToOpenByOmmConsumer.remove(marketPriceOmmConsumer);
+                }
+            }
+
+            marketPricesToOpenByOmmConsumer.forEach(
+                    (marketPriceOmmConsumer, marketPricesToOpen) -> 
+                            sendBatchRequestFor(marketPriceOmmConsumer, marketPricesToOpen)
+            );
+
+            incompleteBatchesCount.decrementAndGet();
+            checkIfCompleteAndNotify();
+
+            return openFuture;
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if(state.get() == State.CLOSED)
+            return;
+
+        state.set(State.CLOSED);
+        if(openFuture != null && !openFuture.isDone())
+        {
+            openFuture.cancel(false);
+        }
+        // Stops routing the messages of the batches, so that the late item 
+        // streams of this open are never bound to the reopened MarketPrices
+        openedBatches.forEach((batch) -> batch.closed = true);
+        marketPricesByName.values().forEach(
+                (marketPrice) -> marketPrice.close()
+        );
+        // Closes the item streams that are not bound to their MarketPrice yet
+        openedBatches.forEach(Batch::close);
+        openedBatches.clear();
+        batchesByName.clear();
+        incompleteBatchesCount.set(0);
+    }
+
+    @Override
+    public boolean isComplete()
+    {
+        return state.get() == State.OPENED;
+    }
+
+    @Override
+    public Collection<MarketPrice> getMarketPrices()
+    {
+        return Collections.unmodifiableCollection(marketPricesByName.values());
+    }
+
+    @Override
+    public MarketPrice getMarketPrice(String name)
+    {
+        return marketPricesByName.get(name);
+    }
+
+    @Override
+    public void onRefreshMsg(RefreshMsg refreshMsg, OmmConsumerEvent consumerEvent)
+    {
+        MarketPriceImpl marketPrice = getMarketPriceFor(refreshMsg, consumerEvent);
+        if(marketPrice != null)
+        {
+            marketPrice.onRefreshMsg(refreshMsg, consumerEvent);
+        }
+    }
+
+    @Override
+    public void onUpdateMsg(UpdateMsg updateMsg, OmmConsumerEvent consumerEvent)
+    {
+        MarketPriceImpl marketPrice = getMarketPriceFor(updateMsg, consumerEvent);
+        if(marketPrice != null)
+        {
+            marketPrice.onUpdateMsg(updateMsg, consumerEvent);
+        }
+    }
+
+    @Override
+    public void onStatusMsg(StatusMsg statusMsg, OmmConsumerEvent consumerEvent)
+    {
+        MarketPriceImpl marketPrice = getMarketPriceFor(statusMsg, consumerEvent);
+        if(marketPrice != null)
+        {
+            marketPrice.onStatusMsg(statusMsg, consumerEvent);
+        }
+    }
+
+    @Override
+    public void onGenericMsg(GenericMsg genericMsg, OmmConsumerEvent consumerEvent) {}
+
+    @Override
+    public void onAckMsg(AckMsg ackMsg, OmmConsumerEvent consumerEvent) {}
+
+    @Override
+    public void onAllMsg(Msg msg, OmmConsumerEvent consumerEvent) {}
+
+    /**
+     * Returns the <code>OmmConsumer</code> used to open a <code>MarketPrice</code>
+     * of the group.
+     * @param name the name of the <code>MarketPrice</code>
+     * @return the OmmConsumer of the group or the one assigned by the pool.
+     */
+    private OmmConsumer ommConsumerFor(String name)
+    {
+        if(dispatcherPool != null)
+        {
+            return dispatcherPool.ommConsumerFor(name);
+        }
+        
+        return ommConsumer;
+    }
+
+    /**
+     * Sends a batch request for the given <code>MarketPrice</code>s.
+     * @param batchOmmConsumer the OmmConsumer used to send the batch request
+     * @param marketPricesToOpen the <code>MarketPrice</code>s of the batch
+     */
+    private void sendBatchRequestFor(OmmConsumer batchOmmConsumer, List<MarketPriceImpl> marketPricesToOpen)
+    {
+        Batch batch = new Batch(batchOmmConsumer, marketPricesToOpen);
+        incompleteBatchesCount.incrementAndGet();
+        openedBatches.add(batch);
+
+        for(MarketPriceImpl marketPrice : marketPricesToOpen)
+        {
+            batchesByName.put(marketPrice.getName(), batch);
+        }
+
+        ReqMsg requestMessage = EmaFactory.createReqMsg()
+                                                .serviceName(serviceName)
+                                                .interestAfterRefresh(withUpdates)
+                                                .payload(buildBatchPayloadFor(marketPricesToOpen));
+
+        batch.handle = batchOmmConsumer.registerClient(requestMessage, this, batch);
+    }
+
+    /**
+     * Build the EMA ElementList that contains the <code>:ItemList</code> of a
+     * batch request and the optional View of the group.
+     * @param marketPrices the <code>MarketPrice</code>s of the batch
+     * @return the payload of the batch request
+     */
+    private ElementList buildBatchPayloadFor(List<MarketPriceImpl> marketPrices)
+    {
+        ElementList payload = EmaFactory.createElementList();
+        OmmArray itemList = EmaFactory.createOmmArray();
+
+        for(MarketPriceImpl marketPrice : marketPrices)
+        {
+            itemList.add(EmaFactory.createOmmArrayEntry().ascii(marketPrice.getName()));
+        }
+
+        payload.add(EmaFactory.createElementEntry().array(EmaRdm.ENAME_BATCH_ITEM_LIST, itemList));
+        MarketPriceImpl.addEmaViewTo(payload, fieldIds, fieldNames);
+
+        return payload;
+    }
+
+    /**
+     * Returns the <code>MarketPrice</code> a message received from EMA must
+     * be routed to. EMA gives the closure of the batch request (the 
+     * <code>Batch</code>) with the messages of all the item streams it opened.
+     * Within a batch, item streams are identified by their handle. The first
+     * message of each item stream carries the name of the item. This name is
+     * used to bind the item stream handle to its <code>MarketPrice</code>.
+     * <br>
+     * This method is not synchronized on the group, so that items opened 
+     * with different OmmConsumers are processed concurrently. The state of 
+     * a <code>Batch</code> is only modified by the thread that dispatches the
+     * OmmConsumer of this batch.
+     * <br>
+     * The item streams of a closed batch that were not bound yet when it 
+     * closed are unregistered when their first late message arrives.
+     * @param message the received message
+     * @param consumerEvent the event that comes with the message
+     * @return the <code>MarketPrice</code> or null if the message doesn't
+     * belong to any opened <code>MarketPrice</code> of this group (e.g. the
+     * status of the batch stream itself).
+     */
+    private MarketPriceImpl getMarketPriceFor(Msg message, OmmConsumerEvent consumerEvent)
+    {
+        if(!(consumerEvent.closure() instanceof Batch))
+            return null;
+
+        Batch batch = (Batch) consumerEvent.closure();
+        long handle = consumerEvent.handle();
+        if(batch.closed)
+        {
+            if(handle != batch.handle)
+            {
+                batch.ommConsumer.unregister(handle);
+            }
+            return null;
+        }
+        if(state.get() == State.CLOSED)
+            return null;
+
+        MarketPriceImpl marketPrice = batch.marketPricesByHandle.get(handle);
+
+        if(marketPrice == null && message.hasName())
+        {
+            marketPrice = batch.marketPricesByName.get(message.name());
+            if(marketPrice != null)
+            {
+                batch.marketPricesByHandle.put(handle, marketPrice);
+                marketPrice.bindToStream(handle);
+            }
+            else
+            {
+                marketPrice = null;
+            }
+        }
+
+        return marketPrice;
+    }
+
+    /**
+     * Called by each <code>MarketPrice</code> of the group when it completes.
+     * Called by the dispatching thread while it holds the lock of the 
+     * <code>MarketPrice</code>, so it must not take the lock of the group.
+     * @param marketPrice the completed <code>MarketPrice</code>
+     */
+    private void onItemComplete(MarketPrice marketPrice)
+    {
+        onItemCompleteFunction.onComplete(marketPrice);
+
+        Batch batch = batchesByName.get(marketPrice.getName());
+        if(batch == null || batch.closed || !batch.complete(marketPrice))
+            return;
+
+        incompleteBatchesCount.decrementAndGet();
+        onBatchCompleteFunction.onBatchComplete(this, batch.getMarketPrices());
+
+        checkIfCompleteAndNotify();
+    }
+
+    private void checkIfCompleteAndNotify()
+    {
+        if(incompleteBatchesCount.get() > 0 
+                || !state.compareAndSet(State.OPENING, State.OPENED))
+            return;
+
+        notifyComplete();
+    }
+
+    /**
+     * Notifies the completion of this MarketPriceGroup to the application, then 
+     * completes the future of the open.
+     */
+    private void notifyComplete()
+    {
+        CompletableFuture<MarketPriceGroup> future = openFuture;
+        onCompleteFunction.onComplete(this);
+        if(future != null)
+        {
+            future.complete(this);
+        }
+    }
+
+    /**
+     * Wait for the completion of this MarketPriceGroup either by waiting for the 
+     * future of the open (autoDispatch==false) or by dispatching events until
+     * this future is done (autoDispatch==true). Both return as soon as the 
+     * MarketPriceGroup completes.
+     * @param future the future returned by {@link #openAsync()}
+     */
+    private void waitForCompletion(CompletableFuture<MarketPriceGroup> future) 
+    {
+        if(autoDispatch)
+        {
+            dispatcher.dispatchEventsUntilComplete(future::isDone);
+        }
+        else
+        {
+            try 
+            {
+                future.join();
+            } 
+            catch (CancellationException | CompletionException exception) {}
+        }
+    }
+
+    /**
+     * The <code>MarketPrice</code>s requested by a single batch request and
+     * the ones that are not complete yet.
+     */
+    private static class Batch
+    {
+        private final OmmConsumer ommConsumer;
+        private final List<MarketPrice> marketPrices;
+        private final Set<MarketPrice> incompleteMarketPrices;
+        private final AtomicInteger incompleteMarketPricesCount;
+        private final Map<String, MarketPriceImpl> marketPricesByName = new HashMap<>();
+        private final Map<Long, MarketPriceImpl> marketPricesByHandle = new ConcurrentHashMap<>();
+        // Handle of the batch request, set once it is sent
+        private long handle;
+        // Set when the group is closed. Messages of closed batches are ignored.
+        private volatile boolean closed;
+
+        private Batch(OmmConsumer ommConsumer, List<MarketPriceImpl> marketPrices)
+        {
+            this.ommConsumer = ommConsumer;
+            this.marketPrices = Collections.unmodifiableList(new ArrayList<MarketPrice>(marketPrices));
+            this.incompleteMarketPrices = ConcurrentHashMap.newKeySet();
+            this.incompleteMarketPrices.addAll(marketPrices);
+            this.incompleteMarketPricesCount = new AtomicInteger(marketPrices.size());
+            marketPrices.forEach(
+                    (marketPrice) -> marketPricesByName.put(marketPrice.getName(), marketPrice)
+            );
+        }
+
+        private Collection<MarketPrice> getMarketPrices()
+        {
+            return marketPrices;
+        }
+
+        /**
+         * Marks a <code>MarketPrice</code> of the batch as complete.
+         * @param marketPrice the completed <code>MarketPrice</code>
+         * @return <code>true</code> if this completion completes the batch.
+         */
+        private boolean complete(MarketPrice marketPrice)
+        {
+            return incompleteMarketPrices.remove(marketPrice)
+                    && incompleteMarketPricesCount.decrementAndGet() == 0;
+        }
+
+        /**
+         * Closes the batch request and the item streams bound so far. A 
+         * <code>MarketPrice</code> that closed while its stream was being 
+         * bound may not have unregistered it, so every known handle is 
+         * unregistered (unregistering a closed handle has no effect). Item 
+         * streams that did not receive a message yet are unregistered when
+         * their first message arrives (see <code>getMarketPriceFor</code>).
+         */
+        private void close()
+        {
+            closed = true;
+            for(Long itemHandle : marketPricesByHandle.keySet())
+            {
+                ommConsumer.unregister(itemHandle);
+            }
+            marketPricesByHandle.clear();
+            ommConsumer.unregister(handle);
+        }
+    }
+}
@@ -14,6 +14,7 @@
 package com.refinitiv.platformservices.rt.objects.marketprice;
 
 import com.refinitiv.platformservices.rt.objects.data.Field;
+import com.refinitiv.platformservices.rt.objects.data.FieldDictionary;
 import com.refinitiv.ema.access.AckMsg;
 import com.refinitiv.ema.access.Data;
 import com.refinitiv.ema.access.ElementList;
@@ -36,27 +37,51 @@ import com.refinitiv.ema.rdm.DataDictionary;
 import com.refinitiv.ema.rdm.DictionaryUtility;
 import com.refinitiv.ema.rdm.EmaRdm;
 import com.refinitiv.platformservices.rt.objects.common.Dispatcher;
+import com.refinitiv.platformservices.rt.objects.common.Flow;
+import com.refinitiv.platformservices.rt.objects.common.MessageRecorder;
+import com.refinitiv.platformservices.rt.objects.common.MessageReplayer;
+import com.refinitiv.platformservices.rt.objects.common.RecordedMessage;
+import com.refinitiv.platformservices.rt.objects.common.RingBuffer;
+import com.refinitiv.platformservices.rt.objects.common.SerialExecutor;
+import com.refinitiv.platformservices.rt.objects.common.StripedExecutor;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * The implementation class of the <code>MarketPrice</code> interface.
  * It implements the level 1 instruments subscription logic, the image cache 
  * management, the partial updates management...
  */
-class MarketPriceImpl implements MarketPrice, OmmConsumerClient
+class MarketPriceImpl implements MarketPrice, OmmConsumerClient, MessageReplayer.Client
 {
-    private static final int WAITING_LOOP_TIMEOUT_IN_MS = 200;
     private static final int UNSET_STREAMID = -1;
+    private static final long UNSET_HANDLE = 0;
     
     private final OmmConsumer ommConsumer;
     private final String name;
     private final String serviceName;
     private final boolean withUpdates;
     private final boolean partialUpdatesManagementActivated;
+    private final boolean inPlaceUpdatesActivated;
+    private final boolean conflationActivated;
+    private final long conflationIntervalInNs;
     private final boolean synchronousModeActivated;
     private final boolean autoDispatch;
     private final LinkedList<Integer> fieldIds;
@@ -65,15 +90,70 @@ class MarketPriceImpl implements MarketPrice, OmmConsumerClient
     private final OnImageFunction onImageFunction;
     private final OnUpdateFunction onUpdateFunction;
     private final OnStateFunction onStateFunction;
+    private final OnChangedFieldsFunction onChangedFieldsFunction;
+    // Updates that change none of these fields are not delivered. All 
+    // updates are delivered when both lists are empty.
+    private final LinkedList<Integer> fieldIdsOfInterest;
+    private final LinkedList<String> fieldNamesOfInterest;
+    // Runs the callbacks of this MarketPrice in order when set, otherwise 
+    // they run on the dispatching thread. Always set for conflated 
+    // MarketPrices, so that the conflation timer never runs application code.
+    private final Executor callbackExecutor;
+    // Receives the images, updates and states instead of the functional 
+    // interfaces when set
+    private final RingBuffer<MarketPriceEvent> eventPipeline;
+    // Subscriptions of the Flow.Subscribers of asPublisher()
+    private final CopyOnWriteArrayList<MarketPriceSubscription> fieldUpdateSubscriptions = new CopyOnWriteArrayList<>();
+    private final Flow.Publisher<FieldUpdate> fieldUpdatePublisher = this::subscribe;
     
     private enum State {OPENING, OPENED, CLOSED};
-    private State state;
+    private volatile State state;
     private int streamId = -1;
-    private long subscriptionHandle;
-    private OmmState ommState;
-    private final Map<Integer, Field> fieldsById = new TreeMap<>();    
-    private final Map<String, Field> fieldsByName = new TreeMap<>();  
-    private static Dispatcher dispatcher; 
+    private long subscriptionHandle = UNSET_HANDLE;
+    private volatile OmmState ommState;
+    private CompletableFuture<MarketPrice> openFuture;
+    private final FieldStore cachedImage = new FieldStore();
+    // Guards the cachedImage. Written by the dispatching thread, read 
+    // optimistically by application threads.
+    private final StampedLock cachedImageLock = new StampedLock();
+    // Incremented each time the slots of the cachedImage are reallocated
+    private long imageGeneration;
+    // Changed fields of in-place updates, reused as their callbacks run on 
+    // the dispatching thread
+    private final ChangedFieldsImpl reusedChangedFields = new ChangedFieldsImpl(this, 0);
+    // Slots of the fields of interest in the cachedImage, resolved again 
+    // when the image generation or size changes
+    private long[] slotsOfInterest = new long[0];
+    private long slotsOfInterestImageGeneration = -1;
+    private int slotsOfInterestImageSize = -1;
+    private final DictionaryUtility dictionaryUtility = EmaFactory.createDictionaryUtility();
+    private FieldDictionary fieldDictionary;
+    private final ArrayList<Field> updatedFields = new ArrayList<>();
+    private final Collection<Field> unmodifiableUpdatedFields = Collections.unmodifiableList(updatedFields);
+    private long lastConflatedUpdateTimeInNs;
+    // Arrival time of the oldest update merged since the last conflated 
+    // update, if the update latencies are recorded
+    private long conflatedArrivalTime;
+    private ScheduledFuture<?> conflatedUpdateFuture;
+    private final Dispatcher dispatcher; 
+    // File the image is persisted to and stale image restored from it, 
+    // exposed until the first refresh. Null when the warm start is not 
+    // activated.
+    private final WarmStartFile warmStartFile;
+    private final FieldDictionary warmStartFieldDictionary;
+    private volatile WarmStartImage warmStartImage;
+    // Update latency statistics of the service and of this item. Null when
+    // they are not activated.
+    private final UpdateLatencyStatisticsImpl serviceUpdateLatencies;
+    private final UpdateLatencyStatisticsImpl itemUpdateLatencies;
+    // Records the received messages when set
+    private final MessageRecorder messageRecorder;
+    // Feeds recorded messages to this MarketPrice instead of the OmmConsumer
+    // when set
+    private final MessageReplayer messageReplayer;
+    // Reused to iterate over the fields of received and replayed messages
+    private final EmaFieldCursor emaFieldCursor = new EmaFieldCursor();
+    private final RecordedFieldCursor recordedFieldCursor = new RecordedFieldCursor();
     
     // Clone message to store OmmState
     private StatusMsg clonedStatusMsg;
@@ -88,25 +168,72 @@ class MarketPriceImpl implements MarketPrice, OmmConsumerClient
      */
     MarketPriceImpl(MarketPrice.Builder builder) 
     {
-        ommConsumer = builder.ommConsumer;
         name = builder.name;
+        ommConsumer = builder.dispatcherPool != null 
+                ? builder.dispatcherPool.ommConsumerFor(name) 
+                : builder.ommConsumer;
         serviceName = builder.serviceName;
         withUpdates = builder.withUpdates;
         partialUpdatesManagementActivated = builder.partialUpdatesManagementActivated;
+        inPlaceUpdatesActivated = builder.inPlaceUpdatesActivated;
+        conflationActivated = !builder.conflationInterval.isZero();
+        conflationIntervalInNs = builder.conflationInterval.toNanos();
+        lastConflatedUpdateTimeInNs = System.nanoTime() - conflationIntervalInNs;
         synchronousModeActivated = builder.synchronousModeActivated;
-        autoDispatch = builder.autoDispatch;
+        // Events of pooled OmmConsumers are dispatched by the pool threads
+        autoDispatch = builder.autoDispatch && builder.dispatcherPool == null;
         fieldIds = builder.fieldIds;
         fieldNames = builder.fieldNames;
         onCompleteFunction = builder.onCompleteFunction;
         onImageFunction = builder.onImageFunction;
         onUpdateFunction = builder.onUpdateFunction;
         onStateFunction = builder.onStateFunction;
+        onChangedFieldsFunction = builder.onChangedFieldsFunction;
+        fieldIdsOfInterest = builder.fieldIdsOfInterest;
+        fieldNamesOfInterest = builder.fieldNamesOfInterest;
+        if(builder.callbackExecutor != null)
+        {
+            StripedExecutor stripedExecutor = builder.callbackExecutor;
+            callbackExecutor = (task) -> stripedExecutor.execute(name, task);
+        }
+        else if(builder.serialCallbackExecutor != null)
+        {
+            callbackExecutor = new SerialExecutor(builder.serialCallbackExecutor);
+        }
+        else if(conflationActivated)
+        {
+            // One mailbox per MarketPrice keeps its callbacks in order while
+            // the MarketPrices share the threads of the pool
+            callbackExecutor = new SerialExecutor(ConflatedCallbacksPool.INSTANCE);
+        }
+        else
+        {
+            callbackExecutor = null;
+        }
+        eventPipeline = builder.eventPipeline;
+        warmStartFile = builder.warmStartPath != null 
+                ? WarmStartFile.forPath(builder.warmStartPath) 
+                : null;
+        warmStartFieldDictionary = builder.warmStartDataDictionary != null 
+                ? FieldDictionary.of(builder.warmStartDataDictionary) 
+                : null;
+        serviceUpdateLatencies = builder.updateLatencyStatisticsActivated 
+                ? UpdateLatencyStatisticsImpl.forService(serviceName) 
+                : null;
+        itemUpdateLatencies = builder.itemUpdateLatencyStatisticsActivated 
+                ? new UpdateLatencyStatisticsImpl() 
+                : null;
+        messageRecorder = builder.messageRecorder;
+        messageReplayer = builder.messageReplayer;
         
         state = State.CLOSED;
         
-        dispatcher = new Dispatcher.Builder()
-                .withOmmConsumer(ommConsumer)
-                .build();        
+        // Replayed MarketPrices have no OmmConsumer to dispatch
+        dispatcher = ommConsumer != null 
+                ? new Dispatcher.Builder()
+                        .withOmmConsumer(ommConsumer)
+                        .build()
+                : null;
     }
 
     @Override
@@ -123,13 +250,32 @@ class MarketPriceImpl implements MarketPrice, OmmConsumerClient
 
     @Override
     public void open() 
+    {
+        CompletableFuture<MarketPrice> future = openAsync();
+  
+        if(synchronousModeActivated)
+        {
+            waitForCompletion(future);
+        }
+    }
+
+    @Override
+    public CompletableFuture<MarketPrice> openAsync() 
     {
         synchronized(this)
         {
             if(state == State.OPENED || state == State.OPENING)
-                return;
+                return openFuture;
 
             state = State.OPENING;
+            openFuture = new CompletableFuture<>();
+            startWarmStart();
+
+            if(messageReplayer != null)
+            {
+                messageReplayer.registerClient(serviceName, name, this);
+                return openFuture;
+            }
 
             ReqMsg requestMessage = EmaFactory.createReqMsg()
                                                     .name(name)
@@ -143,11 +289,8 @@ class MarketPriceImpl implements MarketPrice, OmmConsumerClient
             }
 
             subscriptionHandle = ommConsumer.registerClient(requestMessage, this);
-        }
-  
-        if(synchronousModeActivated)
-        {
-            waitForCompletion();
+
+            return openFuture;
         }
     }
 
@@ -157,306 +300,1591 @@ class MarketPriceImpl implements MarketPrice, OmmConsumerClient
         if(state == State.CLOSED)
             return;
         
-        ommConsumer.unregister(subscriptionHandle);
+        if(subscriptionHandle != UNSET_HANDLE)
+        {
+            ommConsumer.unregister(subscriptionHandle);
+            subscriptionHandle = UNSET_HANDLE;
+        }
+        if(messageReplayer != null)
+        {
+            messageReplayer.unregisterClient(serviceName, name, this);
+        }
+        if(conflatedUpdateFuture != null)
+        {
+            conflatedUpdateFuture.cancel(false);
+            conflatedUpdateFuture = null;
+        }
+        if(openFuture != null && !openFuture.isDone())
+        {
+            openFuture.cancel(false);
+        }
         state = State.CLOSED;
         streamId = -1;
+        if(warmStartFile != null)
+        {
+            warmStartFile.unregister(this);
+            warmStartImage = null;
+        }
         clearCachedImage();
         ommState = null;
+        for(MarketPriceSubscription subscription : fieldUpdateSubscriptions)
+        {
+            subscription.complete();
+        }
+        fieldUpdateSubscriptions.clear();
     }
 
     @Override
-    public synchronized boolean isComplete() 
+    public Flow.Publisher<FieldUpdate> asPublisher()
     {
-        return state == State.OPENED;
+        if(inPlaceUpdatesActivated)
+        {
+            throw new IllegalStateException("The field updates of <" + name + "> cannot be published, as its fields are updated in place.");
+        }
+
+        return fieldUpdatePublisher;
     }
-    
-    @Override
-    public synchronized Collection<Field> getFields() 
+
+    /**
+     * Subscribes a <code>Flow.Subscriber</code> to the field updates of this
+     * <code>MarketPrice</code>. The subscription starts with the fields of
+     * the cached image, if any.
+     * @param subscriber the subscriber.
+     */
+    private synchronized void subscribe(Flow.Subscriber<? super FieldUpdate> subscriber)
     {
-        Collection<Field> deepCopiedFieldsToReturn = Collections.unmodifiableCollection(fieldsById.values());
-        
-        return deepCopiedFieldsToReturn;        
+        if(subscriber == null)
+        {
+            throw new NullPointerException("The subscriber of <" + name + "> cannot be null.");
+        }
+
+        MarketPriceSubscription subscription = new MarketPriceSubscription(this, subscriber);
+        for(Field field : getFields())
+        {
+            subscription.offer(field);
+        }
+        fieldUpdateSubscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
     }
 
-    @Override
-    public synchronized Field getField(String fieldName)
+    /**
+     * Removes a cancelled or terminated subscription.
+     * @param subscription the subscription to remove.
+     */
+    void unsubscribe(MarketPriceSubscription subscription)
     {
-        return fieldsByName.get(fieldName);
+        fieldUpdateSubscriptions.remove(subscription);
     }
-    
-    @Override
-    public synchronized Field getField(int fieldId)
+
+    /**
+     * Offers a new field value to the subscriptions of the field updates.
+     * @param field the new field value.
+     */
+    private void publishFieldUpdate(Field field)
     {
-        return fieldsById.get(fieldId);
+        for(MarketPriceSubscription subscription : fieldUpdateSubscriptions)
+        {
+            subscription.offer(field);
+        }
     }
-    
+
     @Override
-    public synchronized OmmState getState() 
+    public boolean isComplete() 
     {
-        return ommState;
+        return state == State.OPENED;
     }
     
     @Override
-    public int getStreamId()
+    public Collection<Field> getFields() 
     {
-        return streamId;
-    }
-        
-    @Override
-    public synchronized void onRefreshMsg(RefreshMsg refreshMsg, OmmConsumerEvent consumerEvent) 
-    {   
-        if(streamId == UNSET_STREAMID)
+        WarmStartImage staleImage = warmStartImage;
+        if(staleImage != null)
         {
-            streamId = refreshMsg.streamId();
+            FieldDictionary dictionary = staleImageDictionary();
+            return dictionary == null 
+                    ? Collections.emptyList() 
+                    : Collections.unmodifiableList(staleImage.toFields(dictionary));
         }
-        
-        clonedRefreshMsg = EmaFactory.createRefreshMsg(refreshMsg);        
-        ommState = clonedRefreshMsg.state();        
-        
-        if(refreshMsg.domainType() == EmaRdm.MMT_MARKET_PRICE)
+
+        long stamp = cachedImageLock.tryOptimisticRead();
+        List<Field> snapshot = null;
+        try
         {
-            Collection<Field> image = extractFieldsFrom(refreshMsg.payload().fieldList());            
-            applyImage(image);
-            onImageFunction.onImage(this, image, ommState);
+            snapshot = snapshotOfCachedImage();
+        }
+        catch(RuntimeException exception)
+        {
+            // Inconsistent read caused by a concurrent write. Retried below.
         }
         
-        if(state == State.OPENING)
+        if(snapshot == null || !cachedImageLock.validate(stamp))
         {
-            state = State.OPENED;
-            onCompleteFunction.onComplete(this);
+            stamp = cachedImageLock.readLock();
+            try
+            {
+                snapshot = snapshotOfCachedImage();
+            }
+            finally
+            {
+                cachedImageLock.unlockRead(stamp);
+            }
         }
+        
+        return Collections.unmodifiableList(snapshot);        
     }
 
-    @Override
-    public synchronized void onUpdateMsg(UpdateMsg updateMsg, OmmConsumerEvent consumerEvent) 
+    /**
+     * Copies the fields of the cached image. Must be called with the lock of
+     * the cached image held, or in an optimistic read validated afterwards.
+     * @return the copied fields.
+     */
+    private List<Field> snapshotOfCachedImage()
     {
-        if(streamId == UNSET_STREAMID)
+        List<Field> snapshot = new ArrayList<>(cachedImage.values());
+        if(inPlaceUpdatesActivated)
         {
-            streamId = updateMsg.streamId();
+            snapshot.replaceAll(this::detached);
         }
         
-        if(updateMsg.domainType() == EmaRdm.MMT_MARKET_PRICE)
-        {
-            Collection<Field> update = extractFieldsFrom(updateMsg.payload().fieldList());            
-            applyUpdate(update);
-            onUpdateFunction.onUpdate(this, Collections.unmodifiableCollection(update));
-        }
+        return snapshot;
     }
 
-    @Override
-    public synchronized void onStatusMsg(StatusMsg statusMsg, OmmConsumerEvent consumerEvent) 
+    /**
+     * Returns a field of the cached image that the application can keep. 
+     * When in-place updates are activated, the cached fields are overwritten
+     * by the next updates and a copy is returned instead. Must be called with
+     * the lock of the cached image held, or in an optimistic read validated 
+     * afterwards.
+     * @param cachedField the field of the cached image, or null.
+     * @return the field, its copy, or null.
+     */
+    private Field detached(Field cachedField)
     {
-        if(streamId == UNSET_STREAMID)
+        // Fields without a dictionary entry have no value to overwrite
+        if(!inPlaceUpdatesActivated || cachedField == null || cachedField.description() == null)
         {
-            streamId = statusMsg.streamId();
+            return cachedField;
         }
         
-        if(statusMsg.hasState()) 
-        {
-        	clonedStatusMsg = EmaFactory.createStatusMsg(statusMsg);
-            ommState = clonedStatusMsg.state();
-            onStateFunction.onState(this, ommState);
-        
-	        if((ommState.streamState() == StreamState.CLOSED ||
-	            ommState.streamState() == StreamState.CLOSED_RECOVER ||
-	            ommState.streamState() == StreamState.CLOSED_REDIRECTED)
-	                && state == State.OPENING)
-	        {
-	            state = State.OPENED;
-	            onCompleteFunction.onComplete(this);
-	        }
-        }
+        return new Field.Builder()
+                .withId(cachedField.description().fid())
+                .withValue(cachedField.value())
+                .withFieldDictionary(fieldDictionary)
+                .build();
     }
 
-    @Override
-    public synchronized void onGenericMsg(GenericMsg genericMsg, OmmConsumerEvent consumerEvent) {}
-
-    @Override
-    public synchronized void onAckMsg(AckMsg ackMsg, OmmConsumerEvent consumerEvent) {}
-
-    @Override
-    public synchronized void onAllMsg(Msg msg, OmmConsumerEvent consumerEvent) {
-    }      
-    
-    
     /**
-     * Build the EMA ElementList that describes the View used by this MarketPrice.<br>
-     * This ElementList will be used to specify the view in the EMA RequestMsg.
-     * @return the ElementList that describes the View
+     * Returns copies of cached fields that the application can keep. Only
+     * called by the thread that dispatches EMA events, that is the only one
+     * that overwrites the cached fields.
+     * @param cachedFields the fields of the cached image.
+     * @return the copied fields.
      */
-    private ElementList buildEmaView() 
+    private Collection<Field> detachedCopyOf(Collection<Field> cachedFields)
     {
-        if(fieldIds.isEmpty() && fieldNames.isEmpty())
+        List<Field> copy = new ArrayList<>(cachedFields.size());
+        for(Field cachedField : cachedFields)
         {
-            return null;
+            copy.add(detached(cachedField));
         }
         
-        if(!fieldIds.isEmpty())
+        return copy;
+    }
+
+    @Override
+    public Field getField(String fieldName)
+    {
+        WarmStartImage staleImage = warmStartImage;
+        if(staleImage != null)
         {
-            return buildEmaViewBasedOnFieldIds() ;
+            FieldDictionary dictionary = staleImageDictionary();
+            return dictionary == null ? null : staleImage.fieldOf(fieldName, dictionary);
         }
-        else
+
+        long stamp = cachedImageLock.tryOptimisticRead();
+        Field field = null;
+        try
         {
-            return buildEmaViewBasedOnFieldNames();
+            field = detached(cachedImage.get(fieldName));
+        }
+        catch(RuntimeException exception)
+        {
+            stamp = 0;
         }
-    }    
-    
-    /**
-     * Build an EMA View based on field Ids.
-     * @return the ElementList that describes the View
-     */
-    private ElementList buildEmaViewBasedOnFieldIds() 
-    {
-        ElementList view = EmaFactory.createElementList();
-        OmmArray array = EmaFactory.createOmmArray();
         
-        for(Integer fieldId : fieldIds)
+        if(!cachedImageLock.validate(stamp))
         {
-            array.add(EmaFactory.createOmmArrayEntry().intValue(fieldId));
+            stamp = cachedImageLock.readLock();
+            try
+            {
+                field = detached(cachedImage.get(fieldName));
+            }
+            finally
+            {
+                cachedImageLock.unlockRead(stamp);
+            }
         }
-
-        view.add(EmaFactory.createElementEntry().uintValue(EmaRdm.ENAME_VIEW_TYPE, 1));        
-        view.add(EmaFactory.createElementEntry().array(EmaRdm.ENAME_VIEW_DATA, array));
         
-        return view;
+        return field;
     }
-
-    /**
-     * Build an EMA View is based on field names.
-     * @return the ElementList that describes the View
-     */    
-    private ElementList buildEmaViewBasedOnFieldNames() 
+    
+    @Override
+    public Field getField(int fieldId)
     {
-        ElementList view = EmaFactory.createElementList();
-        OmmArray array = EmaFactory.createOmmArray();
-        
-        for(String fieldName : fieldNames)
+        WarmStartImage staleImage = warmStartImage;
+        if(staleImage != null)
         {
-            array.add(EmaFactory.createOmmArrayEntry().ascii(fieldName));
+            FieldDictionary dictionary = staleImageDictionary();
+            return dictionary == null ? null : staleImage.fieldOf(fieldId, dictionary);
         }
 
-        view.add(EmaFactory.createElementEntry().uintValue(EmaRdm.ENAME_VIEW_TYPE, 2));
-        view.add(EmaFactory.createElementEntry().array(EmaRdm.ENAME_VIEW_DATA, array));
+        long stamp = cachedImageLock.tryOptimisticRead();
+        Field field = null;
+        try
+        {
+            field = detached(cachedImage.get(fieldId));
+        }
+        catch(RuntimeException exception)
+        {
+            stamp = 0;
+        }
         
-        return view;        
-    }
-    
-    /**
-     * Wait for the completion of this MarketPrice either by sleeping 
-     * (autoDispatch==false) or by dispatching events (autoDispatch==false)
-     */
-    private void waitForCompletion() 
-    {
-        do
+        if(!cachedImageLock.validate(stamp))
         {
-            if(autoDispatch)
+            stamp = cachedImageLock.readLock();
+            try
             {
-                dispatcher.dispatchEventsUntilComplete(this);
+                field = detached(cachedImage.get(fieldId));
             }
-            else
+            finally
             {
-                try 
-                {
-                    Thread.sleep(WAITING_LOOP_TIMEOUT_IN_MS);
-                } 
-                catch (InterruptedException exception) {}
+                cachedImageLock.unlockRead(stamp);
             }
-        } 
-        while (!isComplete());
-    }
-
-    
-    /**
-     * Returns the EMA DataDictionary used by the FieldList
-     * @param fieldList the field list that refers to the dictionary
-     * @return the EMA <code>DataDictionary</code>
-     */
-    private static DataDictionary getDictionaryFrom(FieldList fieldList) 
-    {
-        DictionaryUtility dictionaryUtility = EmaFactory.createDictionaryUtility();
-        DataDictionary dataDictionary = dictionaryUtility.dataDictionary(fieldList);
+        }
         
-        return dataDictionary;
-    }       
+        return field;
+    }
     
-    /**
-     * Extract a collection of <code>Fields</code> from and EMA <code>FieldList</code>.
-     * @param emaFieldList the EMA <code>FieldList</code>.
-     * @return the collection of <code>Fields</code>.
-     */
-    private Collection<Field> extractFieldsFrom(FieldList emaFieldList) 
+    @Override
+    public double getDouble(int fieldId)
     {
-        LinkedList<Field> fields = new LinkedList<>();
-        DataDictionary dataDictionary = getDictionaryFrom(emaFieldList);
+        WarmStartImage staleImage = warmStartImage;
+        if(staleImage != null)
+        {
+            return staleImage.doubleOf(fieldId);
+        }
+
+        long stamp = cachedImageLock.tryOptimisticRead();
+        double value = Double.NaN;
+        try
+        {
+            value = cachedImage.doubleOf(fieldId);
+        }
+        catch(RuntimeException exception)
+        {
+            stamp = 0;
+        }
         
-        for (FieldEntry emaFieldEntry : emaFieldList) 
+        if(!cachedImageLock.validate(stamp))
         {
-            int fieldId = emaFieldEntry.fieldId();
-            Data fieldValue = emaFieldEntry.load();
-            Field newField = null;
-                               
-            if(partialUpdatesManagementActivated)
+            stamp = cachedImageLock.readLock();
+            try
             {
-                // Retrieve the cached Field
-                Field cachedField = fieldsById.get(fieldId);
-                
-                // If found, apply the partial update
-                if(cachedField != null)
-                {
-                    newField = cachedField.applyPartialUpdate(fieldValue);
-                }
+                value = cachedImage.doubleOf(fieldId);
             }
-            
-            // If partial updates management is not activated 
-            //      or
-            // If the field was not cached yet
-            if(newField == null)
+            finally
             {
-                newField = 
-                        new Field.Builder()
-                                .withId(fieldId)
-                                .withValue(fieldValue)
-                                .withDataDictionary(dataDictionary)
-                                .build();
+                cachedImageLock.unlockRead(stamp);
             }
-            
-            fields.add(newField);
         }
         
-        return fields;
+        return value;
     }
-    
 
-    /**
-     * Apply a given image to the cached image of this <code>MarketPrice</code>.
-     * @param image the image to apply
-     */
-    private void applyImage(Collection<Field> image) 
+    @Override
+    public long getLong(int fieldId)
     {
-        clearCachedImage();
-        applyUpdate(image);
+        WarmStartImage staleImage = warmStartImage;
+        return staleImage != null 
+                ? staleImage.longOf(fieldId) 
+                : readPrimitive(fieldId, FieldStore::longOf);
     }
 
-    /**
-     * Clear the cached image
-     */
-    private void clearCachedImage() 
+    @Override
+    public long getMantissa(int fieldId)
     {
-        fieldsById.clear();
-        fieldsByName.clear();        
+        WarmStartImage staleImage = warmStartImage;
+        return staleImage != null 
+                ? staleImage.mantissaOf(fieldId) 
+                : readPrimitive(fieldId, FieldStore::mantissaOf);
     }
-    
-    /**
-     * Apply a given update to the cached image of this <code>MarketPrice</code>.
-     * @param update the update to apply
-     */   
-    private void applyUpdate(Collection<Field> update) 
+
+    @Override
+    public int getHint(int fieldId)
     {
-        for(Field updatedField: update)
-        {                        
-            fieldsById.put(updatedField.description().fid(), updatedField);
-            fieldsByName.put(updatedField.description().acronym(), updatedField);        
-        }        
+        WarmStartImage staleImage = warmStartImage;
+        return (int) (staleImage != null 
+                ? staleImage.hintOf(fieldId) 
+                : readPrimitive(fieldId, FieldStore::hintOf));
+    }
+
+    @Override
+    public long getEpochNanos(int fieldId)
+    {
+        WarmStartImage staleImage = warmStartImage;
+        return staleImage != null 
+                ? staleImage.epochNanosOf(fieldId) 
+                : readPrimitive(fieldId, FieldStore::epochNanosOf);
+    }
+
+    @Override
+    public int getEnumCode(int fieldId)
+    {
+        WarmStartImage staleImage = warmStartImage;
+        return (int) (staleImage != null 
+                ? staleImage.enumCodeOf(fieldId) 
+                : readPrimitive(fieldId, FieldStore::enumCodeOf));
+    }
+
+    @Override
+    public boolean isImageStale()
+    {
+        return warmStartImage != null;
+    }
+
+    @Override
+    public OmmState getState() 
+    {
+        return ommState;
+    }
+    
+    @Override
+    public int getStreamId()
+    {
+        return streamId;
+    }
+
+    @Override
+    public UpdateLatencyStatistics getUpdateLatencyStatistics()
+    {
+        if(itemUpdateLatencies == null)
+        {
+            throw new IllegalStateException("The update latency statistics of <" + name + "> are not activated. Use MarketPrice.Builder.withItemUpdateLatencyStatistics() to activate them.");
+        }
+
+        return itemUpdateLatencies;
+    }
+        
+    @Override
+    public synchronized void onRefreshMsg(RefreshMsg refreshMsg, OmmConsumerEvent consumerEvent) 
+    {   
+        Dispatcher.callbackStarted();
+        try
+        {
+            if(messageRecorder != null)
+            {
+                messageRecorder.record(serviceName, name, refreshMsg);
+            }
+        
+            clonedRefreshMsg = EmaFactory.createRefreshMsg(refreshMsg);        
+            processRefresh(refreshMsg.streamId(), 
+                    refreshMsg.domainType(), 
+                    clonedRefreshMsg.state(), 
+                    emaFieldCursor.reset(refreshMsg));
+        }
+        finally
+        {
+            Dispatcher.callbackEnded();
+        }
+    }
+
+    @Override
+    public synchronized void onUpdateMsg(UpdateMsg updateMsg, OmmConsumerEvent consumerEvent) 
+    {
+        long arrivalTime = nanoTimeIfLatenciesRecorded();
+        Dispatcher.callbackStarted();
+        try
+        {
+            if(messageRecorder != null)
+            {
+                messageRecorder.record(serviceName, name, updateMsg);
+            }
+        
+            processUpdate(arrivalTime, 
+                    updateMsg.streamId(), 
+                    updateMsg.domainType(), 
+                    emaFieldCursor.reset(updateMsg));
+        }
+        finally
+        {
+            Dispatcher.callbackEnded();
+        }
+    }
+
+    @Override
+    public synchronized void onStatusMsg(StatusMsg statusMsg, OmmConsumerEvent consumerEvent) 
+    {
+        Dispatcher.callbackStarted();
+        try
+        {
+            if(messageRecorder != null)
+            {
+                messageRecorder.record(serviceName, name, statusMsg);
+            }
+        
+            OmmState newState = null;
+            if(statusMsg.hasState()) 
+            {
+                clonedStatusMsg = EmaFactory.createStatusMsg(statusMsg);
+                newState = clonedStatusMsg.state();
+            }
+            processStatus(statusMsg.streamId(), newState);
+        }
+        finally
+        {
+            Dispatcher.callbackEnded();
+        }
+    }
+
+    @Override
+    public synchronized void onGenericMsg(GenericMsg genericMsg, OmmConsumerEvent consumerEvent) {}
+
+    @Override
+    public synchronized void onAckMsg(AckMsg ackMsg, OmmConsumerEvent consumerEvent) {}
+
+    @Override
+    public synchronized void onAllMsg(Msg msg, OmmConsumerEvent consumerEvent) {
+    }      
+
+    @Override
+    public synchronized void onRecordedMessage(RecordedMessage message)
+    {
+        // The replaying thread may still deliver a message after close()
+        if(state == State.CLOSED)
+        {
+            return;
+        }
+
+        switch(message.getType())
+        {
+            case REFRESH:
+                processRefresh(message.getStreamId(), 
+                        message.getDomainType(), 
+                        message.getState(), 
+                        recordedFieldCursor.reset(message));
+                break;
+            case UPDATE:
+                processUpdate(nanoTimeIfLatenciesRecorded(), 
+                        message.getStreamId(), 
+                        message.getDomainType(), 
+                        recordedFieldCursor.reset(message));
+                break;
+            case STATUS:
+                processStatus(message.getStreamId(), message.getState());
+                break;
+        }
+    }
+
+    /**
+     * Processes a refresh message received from EMA or replayed.
+     * @param messageStreamId the stream id of the message.
+     * @param domainType the domain type of the message.
+     * @param refreshState the state of the refresh. Must not be modified 
+     * afterwards.
+     * @param fields the fields of the message.
+     */
+    private void processRefresh(int messageStreamId, int domainType, OmmState refreshState, FieldCursor fields) 
+    {
+        if(streamId == UNSET_STREAMID)
+        {
+            streamId = messageStreamId;
+        }
+        
+        ommState = refreshState;        
+        
+        if(domainType == EmaRdm.MMT_MARKET_PRICE)
+        {
+            fieldDictionary = FieldDictionary.of(fields.dataDictionary());
+            Collection<Field> image = extractFieldsFrom(fields);            
+            applyImage(image);
+            warmStartImage = null;
+            // The fields of the image are now cached and may be overwritten
+            // by the next updates
+            if(inPlaceUpdatesActivated)
+            {
+                image = detachedCopyOf(image);
+            }
+            invokeOnImage(image, ommState);
+        }
+        
+        if(state == State.OPENING)
+        {
+            state = State.OPENED;
+            notifyComplete();
+        }
+    }
+
+    /**
+     * Processes an update message received from EMA or replayed.
+     * @param arrivalTime the time the update arrived, if the update 
+     * latencies are recorded.
+     * @param messageStreamId the stream id of the message.
+     * @param domainType the domain type of the message.
+     * @param fields the fields of the message.
+     */
+    private void processUpdate(long arrivalTime, int messageStreamId, int domainType, FieldCursor fields) 
+    {
+        if(streamId == UNSET_STREAMID)
+        {
+            streamId = messageStreamId;
+        }
+        
+        if(domainType == EmaRdm.MMT_MARKET_PRICE && conflationActivated)
+        {
+            if(!cachedImage.hasUpdatedSlots())
+            {
+                conflatedArrivalTime = arrivalTime;
+            }
+            boolean conflated = true;
+            applyUpdateFrom(fields, conflated);
+            recordDecodeLatency(arrivalTime);
+            scheduleConflatedUpdate();
+        }
+        else if(domainType == EmaRdm.MMT_MARKET_PRICE && inPlaceUpdatesActivated)
+        {
+            boolean conflated = false;
+            applyUpdateFrom(fields, conflated);
+            recordDecodeLatency(arrivalTime);
+            if(isOfInterest(reusedChangedFields))
+            {
+                callUpdateFunctions(arrivalTime, unmodifiableUpdatedFields, reusedChangedFields);
+            }
+        }
+        else if(domainType == EmaRdm.MMT_MARKET_PRICE)
+        {
+            Collection<Field> update = extractFieldsFrom(fields);            
+            ChangedFieldsImpl changedFields = applyUpdate(update);
+            recordDecodeLatency(arrivalTime);
+            if(isOfInterest(changedFields))
+            {
+                invokeOnUpdate(arrivalTime, Collections.unmodifiableCollection(update), changedFields);
+            }
+        }
+    }
+
+    /**
+     * Returns the current <code>System.nanoTime()</code> if the update 
+     * latencies are recorded, 0 otherwise.
+     * @return the current time in nanoseconds or 0.
+     */
+    private long nanoTimeIfLatenciesRecorded()
+    {
+        return serviceUpdateLatencies != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the callback and total latencies of an update whose callback 
+     * just returned.
+     * @param arrivalTime the time the update arrived.
+     * @param callbackStartTime the time the callback was called.
+     * @param callbackEndTime the time the callback returned.
+     */
+    private void recordCallbackLatencies(long arrivalTime, long callbackStartTime, long callbackEndTime)
+    {
+        serviceUpdateLatencies.recordCallback(arrivalTime, callbackStartTime, callbackEndTime);
+        if(itemUpdateLatencies != null)
+        {
+            itemUpdateLatencies.recordCallback(arrivalTime, callbackStartTime, callbackEndTime);
+        }
+    }
+
+    /**
+     * Records the decode latency of an update that was just applied to the 
+     * cached image.
+     * @param arrivalTime the time the update arrived.
+     */
+    private void recordDecodeLatency(long arrivalTime)
+    {
+        if(serviceUpdateLatencies == null)
+            return;
+
+        long decodedTime = System.nanoTime();
+        serviceUpdateLatencies.recordDecode(arrivalTime, decodedTime);
+        if(itemUpdateLatencies != null)
+        {
+            itemUpdateLatencies.recordDecode(arrivalTime, decodedTime);
+        }
+    }
+
+    /**
+     * Processes a status message received from EMA or replayed.
+     * @param messageStreamId the stream id of the message.
+     * @param newState the state of the message or null if it has none. Must 
+     * not be modified afterwards.
+     */
+    private void processStatus(int messageStreamId, OmmState newState) 
+    {
+        if(streamId == UNSET_STREAMID)
+        {
+            streamId = messageStreamId;
+        }
+        
+        if(newState != null) 
+        {
+            ommState = newState;
+            invokeOnState(ommState);
+        
+	        if((ommState.streamState() == StreamState.CLOSED ||
+	            ommState.streamState() == StreamState.CLOSED_RECOVER ||
+	            ommState.streamState() == StreamState.CLOSED_REDIRECTED)
+	                && state == State.OPENING)
+	        {
+	            state = State.OPENED;
+	            notifyComplete();
+	        }
+        }
+    }
+    
+    
+    /**
+     * Prepares this <code>MarketPrice</code> for being opened as part of a 
+     * batch request sent by a <code>MarketPriceGroup</code>. The item stream 
+     * handle is not known yet at this stage. It is bound later on, when the 
+     * first message of the item is received (see {@link #bindToStream(long)}).
+     * @return <code>true</code> if the <code>MarketPrice</code> must be part 
+     * of the batch request, <code>false</code> if it is already opened.
+     */
+    synchronized boolean openInBatch()
+    {
+        if(state == State.OPENED || state == State.OPENING)
+            return false;
+
+        state = State.OPENING;
+        openFuture = new CompletableFuture<>();
+        subscriptionHandle = UNSET_HANDLE;
+        startWarmStart();
+        
+        return true;
+    }
+    
+    /**
+     * Binds this <code>MarketPrice</code> to the item stream EMA opened for it
+     * on behalf of a batch request. 
+     * @param handle the handle of the item stream.
+     */
+    synchronized void bindToStream(long handle)
+    {
+        subscriptionHandle = handle;
+    }
+    
+    /**
+     * Build the EMA ElementList that describes the View used by this MarketPrice.<br>
+     * This ElementList will be used to specify the view in the EMA RequestMsg.
+     * @return the ElementList that describes the View
+     */
+    private ElementList buildEmaView() 
+    {
+        if(fieldIds.isEmpty() && fieldNames.isEmpty())
+        {
+            return null;
+        }
+        
+        ElementList view = EmaFactory.createElementList();
+        addEmaViewTo(view, fieldIds, fieldNames);
+        
+        return view;
+    }    
+    
+    /**
+     * Adds the EMA element entries that describe a View to the given 
+     * ElementList. Nothing is added if no field is given.
+     * @param elementList the ElementList to add the View to
+     * @param fieldIds the field Ids of the View
+     * @param fieldNames the field names of the View (used if no field Id is given)
+     */
+    static void addEmaViewTo(ElementList elementList, List<Integer> fieldIds, List<String> fieldNames) 
+    {
+        if(!fieldIds.isEmpty())
+        {
+            addEmaViewBasedOnFieldIdsTo(elementList, fieldIds);
+        }
+        else if(!fieldNames.isEmpty())
+        {
+            addEmaViewBasedOnFieldNamesTo(elementList, fieldNames);
+        }
+    }
+    
+    /**
+     * Add an EMA View based on field Ids.
+     * @param elementList the ElementList to add the View to
+     * @param fieldIds the field Ids of the View
+     */
+    private static void addEmaViewBasedOnFieldIdsTo(ElementList elementList, List<Integer> fieldIds) 
+    {
+        OmmArray array = EmaFactory.createOmmArray();
+        
+        for(Integer fieldId : fieldIds)
+        {
+            array.add(EmaFactory.createOmmArrayEntry().intValue(fieldId));
+        }
+
+        elementList.add(EmaFactory.createElementEntry().uintValue(EmaRdm.ENAME_VIEW_TYPE, 1));        
+        elementList.add(EmaFactory.createElementEntry().array(EmaRdm.ENAME_VIEW_DATA, array));
+    }
+
+    /**
+     * Add an EMA View based on field names.
+     * @param elementList the ElementList to add the View to
+     * @param fieldNames the field names of the View
+     */    
+    private static void addEmaViewBasedOnFieldNamesTo(ElementList elementList, List<String> fieldNames) 
+    {
+        OmmArray array = EmaFactory.createOmmArray();
+        
+        for(String fieldName : fieldNames)
+        {
+            array.add(EmaFactory.createOmmArrayEntry().ascii(fieldName));
+        }
+
+        elementList.add(EmaFactory.createElementEntry().uintValue(EmaRdm.ENAME_VIEW_TYPE, 2));
+        elementList.add(EmaFactory.createElementEntry().array(EmaRdm.ENAME_VIEW_DATA, array));
+    }
+    
+    /**
+     * Notifies the completion of this MarketPrice to the application, then 
+     * completes the future of the open.
+     */
+    private void notifyComplete()
+    {
+        CompletableFuture<MarketPrice> future = openFuture;
+        if(callbackExecutor != null)
+        {
+            callbackExecutor.execute(() -> completeOpen(future));
+        }
+        else
+        {
+            completeOpen(future);
+        }
+    }
+
+    /**
+     * Calls the <code>OnCompleteFunction</code>, then completes the future 
+     * of the open.
+     * @param future the future of the open, or null.
+     */
+    private void completeOpen(CompletableFuture<MarketPrice> future)
+    {
+        onCompleteFunction.onComplete(this);
+        if(future != null)
+        {
+            future.complete(this);
+        }
+    }
+
+    /**
+     * Calls the <code>OnImageFunction</code>, on the callback executor if
+     * there is one, or publishes the image into the event pipeline.
+     * @param image the fields of the image.
+     * @param imageState the state received with the image.
+     */
+    private void invokeOnImage(Collection<Field> image, OmmState imageState)
+    {
+        if(eventPipeline != null)
+        {
+            publishEvent(MarketPriceEvent.Type.IMAGE, image, null, imageState);
+        }
+        else if(callbackExecutor != null)
+        {
+            callbackExecutor.execute(() -> onImageFunction.onImage(this, image, imageState));
+        }
+        else
+        {
+            onImageFunction.onImage(this, image, imageState);
+        }
+    }
+
+    /**
+     * Calls the <code>OnUpdateFunction</code> and the 
+     * <code>OnChangedFieldsFunction</code>, on the callback executor if
+     * there is one, or publishes the update into the event pipeline.
+     * @param arrivalTime the time the update arrived, if the update 
+     * latencies are recorded.
+     * @param update the updated fields. This collection must not be reused
+     * by the caller.
+     * @param changedFields the changed fields. This set must not be reused
+     * by the caller.
+     */
+    private void invokeOnUpdate(long arrivalTime, Collection<Field> update, ChangedFields changedFields)
+    {
+        if(eventPipeline != null)
+        {
+            publishEvent(MarketPriceEvent.Type.UPDATE, update, changedFields, null);
+        }
+        else if(callbackExecutor != null)
+        {
+            callbackExecutor.execute(() -> callUpdateFunctions(arrivalTime, update, changedFields));
+        }
+        else
+        {
+            callUpdateFunctions(arrivalTime, update, changedFields);
+        }
+    }
+
+    /**
+     * Calls the <code>OnUpdateFunction</code>, then the 
+     * <code>OnChangedFieldsFunction</code>, on the current thread. The 
+     * callback latency is measured here, whatever the thread that runs the
+     * callbacks, so that it is always the duration of the application code.
+     * @param arrivalTime the time the update arrived, if the update 
+     * latencies are recorded.
+     * @param update the updated fields.
+     * @param changedFields the changed fields.
+     */
+    private void callUpdateFunctions(long arrivalTime, Collection<Field> update, ChangedFields changedFields)
+    {
+        long callbackStartTime = nanoTimeIfLatenciesRecorded();
+        onUpdateFunction.onUpdate(this, update);
+        onChangedFieldsFunction.onChangedFields(this, update, changedFields);
+        if(serviceUpdateLatencies != null)
+        {
+            recordCallbackLatencies(arrivalTime, callbackStartTime, System.nanoTime());
+        }
+    }
+
+    /**
+     * Indicates if an update changed at least one of the fields of interest
+     * of the application. Always true when no field of interest is set.
+     * Must be called by the thread that applies updates.
+     * @param changedFields the fields changed by the update.
+     * @return true if the update must be delivered.
+     */
+    private boolean isOfInterest(ChangedFieldsImpl changedFields)
+    {
+        if(fieldIdsOfInterest.isEmpty() && fieldNamesOfInterest.isEmpty())
+        {
+            return true;
+        }
+
+        if(slotsOfInterestImageGeneration != imageGeneration 
+                || slotsOfInterestImageSize != cachedImage.size())
+        {
+            resolveSlotsOfInterest();
+        }
+
+        return changedFields.intersects(slotsOfInterest);
+    }
+
+    /**
+     * Resolves the fields of interest to a bitset of slots of the cached 
+     * image. Slots never move until the next image, so that the bitset only
+     * needs to be resolved again when fields are added to the image or when
+     * a new image is received.
+     */
+    private void resolveSlotsOfInterest()
+    {
+        long[] slots = new long[(cachedImage.size() + 63) >>> 6];
+        for(int fieldId : fieldIdsOfInterest)
+        {
+            int slot = cachedImage.slotOf(fieldId);
+            if(slot != FieldStore.NO_SLOT)
+            {
+                slots[slot >>> 6] |= 1L << slot;
+            }
+        }
+        for(String fieldName : fieldNamesOfInterest)
+        {
+            int slot = cachedImage.slotOf(fieldName);
+            if(slot != FieldStore.NO_SLOT)
+            {
+                slots[slot >>> 6] |= 1L << slot;
+            }
+        }
+
+        slotsOfInterest = slots;
+        slotsOfInterestImageGeneration = imageGeneration;
+        slotsOfInterestImageSize = cachedImage.size();
+    }
+
+    /**
+     * Reads a primitive column of the cached image with an optimistic read,
+     * retried under the read lock if a write happened concurrently.
+     * @param fieldId the field Id.
+     * @param reader the <code>FieldStore</code> method that reads the column.
+     * @return the read value.
+     */
+    private long readPrimitive(int fieldId, PrimitiveReader reader)
+    {
+        long stamp = cachedImageLock.tryOptimisticRead();
+        long value = NO_LONG_VALUE;
+        try
+        {
+            value = reader.read(cachedImage, fieldId);
+        }
+        catch(RuntimeException exception)
+        {
+            stamp = 0;
+        }
+        
+        if(!cachedImageLock.validate(stamp))
+        {
+            stamp = cachedImageLock.readLock();
+            try
+            {
+                value = reader.read(cachedImage, fieldId);
+            }
+            finally
+            {
+                cachedImageLock.unlockRead(stamp);
+            }
+        }
+        
+        return value;
+    }
+
+    /**
+     * Exposes the image persisted in the warm start file, if any, until the 
+     * first refresh is received, and starts persisting the image.
+     */
+    private void startWarmStart()
+    {
+        if(warmStartFile != null)
+        {
+            warmStartImage = warmStartFile.imageOf(serviceName, name);
+            warmStartFile.register(this);
+        }
+    }
+
+    /**
+     * Returns the dictionary used to materialize the fields of the stale 
+     * image: the warm start dictionary if set, otherwise the dictionary of 
+     * the last refresh.
+     * @return the dictionary or null if there is none.
+     */
+    private FieldDictionary staleImageDictionary()
+    {
+        return warmStartFieldDictionary != null ? warmStartFieldDictionary : fieldDictionary;
+    }
+
+    /**
+     * Writes the warm start record of this <code>MarketPrice</code>: the 
+     * stale image as is if the first refresh is not received yet, otherwise 
+     * the cached image. Called by the <code>WarmStartFile</code>.
+     * @param target the buffer the record is written to.
+     * @throws java.nio.BufferOverflowException if the remaining space of 
+     * the target is too small.
+     */
+    void writeWarmStartRecordTo(ByteBuffer target)
+    {
+        WarmStartImage staleImage = warmStartImage;
+        if(staleImage != null)
+        {
+            staleImage.writeTo(target);
+            return;
+        }
+
+        long stamp = cachedImageLock.readLock();
+        try
+        {
+            WarmStartImage.write(target, serviceName, name, cachedImage);
+        }
+        finally
+        {
+            cachedImageLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the slot of a field in the cached image, provided that the 
+     * image is still the one of the given generation. Used by 
+     * <code>ChangedFieldsImpl</code> to resolve field Ids.
+     * @param fieldId the field Id.
+     * @param generation the generation of the image the caller refers to.
+     * @return the slot or <code>FieldStore.NO_SLOT</code>.
+     */
+    int slotOf(int fieldId, long generation)
+    {
+        long stamp = cachedImageLock.tryOptimisticRead();
+        int slot = FieldStore.NO_SLOT;
+        try
+        {
+            slot = imageGeneration == generation ? cachedImage.slotOf(fieldId) : FieldStore.NO_SLOT;
+        }
+        catch(RuntimeException exception)
+        {
+            stamp = 0;
+        }
+        
+        if(!cachedImageLock.validate(stamp))
+        {
+            stamp = cachedImageLock.readLock();
+            try
+            {
+                slot = imageGeneration == generation ? cachedImage.slotOf(fieldId) : FieldStore.NO_SLOT;
+            }
+            finally
+            {
+                cachedImageLock.unlockRead(stamp);
+            }
+        }
+        
+        return slot;
+    }
+
+    /**
+     * Returns the slot of a field in the cached image, provided that the 
+     * image is still the one of the given generation. Used by 
+     * <code>ChangedFieldsImpl</code> to resolve field names.
+     * @param fieldName the field name (acronym).
+     * @param generation the generation of the image the caller refers to.
+     * @return the slot or <code>FieldStore.NO_SLOT</code>.
+     */
+    int slotOf(String fieldName, long generation)
+    {
+        long stamp = cachedImageLock.tryOptimisticRead();
+        int slot = FieldStore.NO_SLOT;
+        try
+        {
+            slot = imageGeneration == generation ? cachedImage.slotOf(fieldName) : FieldStore.NO_SLOT;
+        }
+        catch(RuntimeException exception)
+        {
+            stamp = 0;
+        }
+        
+        if(!cachedImageLock.validate(stamp))
+        {
+            stamp = cachedImageLock.readLock();
+            try
+            {
+                slot = imageGeneration == generation ? cachedImage.slotOf(fieldName) : FieldStore.NO_SLOT;
+            }
+            finally
+            {
+                cachedImageLock.unlockRead(stamp);
+            }
+        }
+        
+        return slot;
+    }
+
+    /**
+     * Calls the <code>OnStateFunction</code>, on the callback executor if
+     * there is one, or publishes the state into the event pipeline.
+     * @param newState the received state.
+     */
+    private void invokeOnState(OmmState newState)
+    {
+        if(eventPipeline != null)
+        {
+            publishEvent(MarketPriceEvent.Type.STATE, null, null, newState);
+        }
+        else if(callbackExecutor != null)
+        {
+            callbackExecutor.execute(() -> onStateFunction.onState(this, newState));
+        }
+        else
+        {
+            onStateFunction.onState(this, newState);
+        }
+    }
+
+    /**
+     * Publishes an event into the next slot of the event pipeline. Waits if
+     * the slowest consumer of the pipeline is a full ring behind.
+     * @param type the type of the event.
+     * @param fields the fields of the image or of the update.
+     * @param changedFields the fields changed by the update.
+     * @param eventState the received state.
+     */
+    private void publishEvent(MarketPriceEvent.Type type, Collection<Field> fields, ChangedFields changedFields, OmmState eventState)
+    {
+        long sequence = eventPipeline.next();
+        eventPipeline.get(sequence).set(type, this, fields, changedFields, eventState);
+        eventPipeline.publish(sequence);
+    }
+
+    /**
+     * Wait for the completion of this MarketPrice either by waiting for the 
+     * future of the open (autoDispatch==false) or by dispatching events until
+     * this future is done (autoDispatch==true). Both return as soon as the 
+     * MarketPrice completes.
+     * @param future the future returned by {@link #openAsync()}
+     */
+    private void waitForCompletion(CompletableFuture<MarketPrice> future) 
+    {
+        if(autoDispatch)
+        {
+            dispatcher.dispatchEventsUntilComplete(future::isDone);
+        }
+        else
+        {
+            try 
+            {
+                future.join();
+            } 
+            catch (CancellationException | CompletionException exception) {}
+        }
+    }
+
+    
+    /**
+     * Returns the EMA DataDictionary used by the FieldList
+     * @param fieldList the field list that refers to the dictionary
+     * @return the EMA <code>DataDictionary</code>
+     */
+    private DataDictionary getDictionaryFrom(FieldList fieldList) 
+    {
+        DataDictionary dataDictionary = dictionaryUtility.dataDictionary(fieldList);
+        
+        return dataDictionary;
+    }       
+    
+    /**
+     * Extract a collection of <code>Fields</code> from the fields of a message.
+     * @param messageFields the fields of the message.
+     * @return the collection of <code>Fields</code>.
+     */
+    private Collection<Field> extractFieldsFrom(FieldCursor messageFields) 
+    {
+        LinkedList<Field> fields = new LinkedList<>();
+        resolveFieldDictionaryFrom(messageFields);
+        
+        while (messageFields.next()) 
+        {
+            int fieldId = messageFields.fieldId();
+            Data fieldValue = messageFields.value();
+            Field newField = null;
+                               
+            if(partialUpdatesManagementActivated)
+            {
+                // Retrieve the cached Field
+                Field cachedField = cachedImage.get(fieldId);
+                
+                // If found, apply the partial update
+                if(cachedField != null)
+                {
+                    newField = cachedField.applyPartialUpdate(fieldValue);
+                }
+            }
+            
+            // If partial updates management is not activated 
+            //      or
+            // If the field was not cached yet
+            if(newField == null)
+            {
+                newField = 
+                        new Field.Builder()
+                                .withId(fieldId)
+                                .withValue(fieldValue)
+                                .withFieldDictionary(fieldDictionary)
+                                .build();
+            }
+            
+            fields.add(newField);
+        }
+        
+        return fields;
+    }
+    
+
+    /**
+     * Apply the fields of a message to the cached image,
+     * without building intermediate collections. Cached <code>Fields</code>
+     * are overwritten in place when in-place updates are activated. 
+     * When the update is conflated, the updated slots of the cached image are
+     * marked so that they can be published later on. Otherwise, the updated 
+     * <code>Fields</code> are collected in the reused <code>updatedFields</code> 
+     * list.
+     * @param messageFields the fields of the message.
+     * @param conflated indicates if the update is conflated.
+     */
+    private void applyUpdateFrom(FieldCursor messageFields, boolean conflated) 
+    {
+        updatedFields.clear();
+        reusedChangedFields.reset(imageGeneration);
+        resolveFieldDictionaryFrom(messageFields);
+        
+        // The whole message is applied under the write lock so that readers
+        // never see a partially applied update
+        long stamp = cachedImageLock.writeLock();
+        try
+        {
+            applyUpdateEntriesFrom(messageFields, conflated);
+        }
+        finally
+        {
+            cachedImageLock.unlockWrite(stamp);
+        }
+
+        // Published out of the lock, as subscribers may read the image
+        if(!fieldUpdateSubscriptions.isEmpty())
+        {
+            updatedFields.forEach(this::publishFieldUpdate);
+        }
+    }
+
+    /**
+     * Apply the fields of a message to the cached image.
+     * Must be called with the write lock of the cached image held.
+     * @param messageFields the fields of the message.
+     * @param conflated indicates if the update is conflated.
+     */
+    private void applyUpdateEntriesFrom(FieldCursor messageFields, boolean conflated) 
+    {
+        while (messageFields.next()) 
+        {
+            int fieldId = messageFields.fieldId();
+            Data fieldValue = messageFields.value();
+            int slot = cachedImage.slotOf(fieldId);
+            Field cachedField = slot == FieldStore.NO_SLOT ? null : cachedImage.fieldAt(slot);
+            Field updatedField;
+            
+            if(inPlaceUpdatesActivated 
+                    && cachedField != null 
+                    && cachedField.applyInPlaceUpdate(fieldValue))
+            {
+                updatedField = cachedField;
+            }
+            else if(cachedField != null && partialUpdatesManagementActivated)
+            {
+                updatedField = cachedField.applyPartialUpdate(fieldValue);
+            }
+            else
+            {
+                updatedField = 
+                        new Field.Builder()
+                                .withId(fieldId)
+                                .withValue(fieldValue)
+                                .withFieldDictionary(fieldDictionary)
+                                .build();
+            }
+            
+            if(updatedField != cachedField)
+            {
+                slot = cachedImage.put(updatedField);
+            }
+            else
+            {
+                cachedImage.refresh(slot);
+            }
+            
+            if(!conflated || !fieldUpdateSubscriptions.isEmpty())
+            {
+                updatedFields.add(updatedField);
+            }
+            if(conflated && slot != FieldStore.NO_SLOT)
+            {
+                cachedImage.markUpdated(slot);
+            }
+            else if(!conflated)
+            {
+                reusedChangedFields.add(slot);
+            }
+        }
+    }
+
+    /**
+     * Schedules the publication of the conflated update, if not already 
+     * scheduled. The publication happens at least one conflation interval 
+     * after the previous one.
+     */
+    private void scheduleConflatedUpdate() 
+    {
+        if(conflatedUpdateFuture != null || !cachedImage.hasUpdatedSlots())
+        {
+            return;
+        }
+        
+        long delayInNs = Math.max(0, lastConflatedUpdateTimeInNs + conflationIntervalInNs - System.nanoTime());
+        conflatedUpdateFuture = ConflationTimer.INSTANCE.schedule(
+                this::publishConflatedUpdate, 
+                delayInNs, 
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Collects the fields updated since the last conflated update, with 
+     * their latest values, and hands them over to the callback executor. 
+     * Called by the conflation timer thread, that only holds the lock of this
+     * <code>MarketPrice</code> while collecting the fields and never runs 
+     * application code.
+     */
+    private synchronized void publishConflatedUpdate() 
+    {
+        conflatedUpdateFuture = null;
+        if(state == State.CLOSED || !cachedImage.hasUpdatedSlots())
+        {
+            return;
+        }
+        
+        lastConflatedUpdateTimeInNs = System.nanoTime();
+        updatedFields.clear();
+        ChangedFieldsImpl changedFields = new ChangedFieldsImpl(this, imageGeneration);
+        cachedImage.drainUpdatedFieldsTo(updatedFields, changedFields);
+        if(!isOfInterest(changedFields))
+        {
+            return;
+        }
+        
+        invokeOnUpdate(conflatedArrivalTime, Collections.unmodifiableList(new ArrayList<>(updatedFields)), changedFields);
+    }
+
+    /**
+     * Resolves the <code>FieldDictionary</code> used to describe fields. The 
+     * dictionary is resolved once per refresh. It is only resolved here if 
+     * an update is received before the first refresh.
+     * @param messageFields the fields of the message.
+     */
+    private void resolveFieldDictionaryFrom(FieldCursor messageFields) 
+    {
+        if(fieldDictionary == null)
+        {
+            fieldDictionary = FieldDictionary.of(messageFields.dataDictionary());
+        }
+    }
+
+    /**
+     * Apply a given image to the cached image of this <code>MarketPrice</code>.
+     * @param image the image to apply
+     */
+    private void applyImage(Collection<Field> image) 
+    {
+        long stamp = cachedImageLock.writeLock();
+        try
+        {
+            cachedImage.clear();
+            ++imageGeneration;
+            for(Field field: image)
+            {                        
+                cachedImage.put(field);
+            }        
+        }
+        finally
+        {
+            cachedImageLock.unlockWrite(stamp);
+        }
+
+        if(!fieldUpdateSubscriptions.isEmpty())
+        {
+            image.forEach(this::publishFieldUpdate);
+        }
+    }
+
+    /**
+     * Clear the cached image
+     */
+    private void clearCachedImage() 
+    {
+        long stamp = cachedImageLock.writeLock();
+        try
+        {
+            cachedImage.clear();
+            ++imageGeneration;
+        }
+        finally
+        {
+            cachedImageLock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Apply a given update to the cached image of this <code>MarketPrice</code>.
+     * @param update the update to apply
+     * @return the fields changed by the update
+     */   
+    private ChangedFieldsImpl applyUpdate(Collection<Field> update) 
+    {
+        ChangedFieldsImpl changedFields = new ChangedFieldsImpl(this, imageGeneration);
+        long stamp = cachedImageLock.writeLock();
+        try
+        {
+            for(Field updatedField: update)
+            {                        
+                changedFields.add(cachedImage.put(updatedField));
+            }        
+        }
+        finally
+        {
+            cachedImageLock.unlockWrite(stamp);
+        }
+
+        if(!fieldUpdateSubscriptions.isEmpty())
+        {
+            update.forEach(this::publishFieldUpdate);
+        }
+        
+        return changedFields;
+    }
+    
+
+    /**
+     * Reads a primitive column of a <code>FieldStore</code>. Implemented by 
+     * non-capturing method references, so that reads do not allocate.
+     */
+    @FunctionalInterface
+    private interface PrimitiveReader
+    {
+        long read(FieldStore fieldStore, int fieldId);
+    }
+
+    /**
+     * Iterates over the fields of a message, whether it was received from 
+     * EMA or replayed from a recording. Cursors are reset and reused for each
+     * message.
+     */
+    private interface FieldCursor
+    {
+        /**
+         * Moves to the next field of the message.
+         * @return <code>false</code> if there is no more field.
+         */
+        boolean next();
+
+        int fieldId();
+
+        Data value();
+
+        /**
+         * Returns the dictionary that describes the fields of the message.
+         * @return the data dictionary.
+         */
+        DataDictionary dataDictionary();
+    }
+
+    /**
+     * Iterates over the field list of an EMA message. The field list is only
+     * read when the cursor is used, as messages of other domains may carry 
+     * other payloads.
+     */
+    private class EmaFieldCursor implements FieldCursor
+    {
+        private Msg message;
+        private FieldList fieldList;
+        private Iterator<FieldEntry> fieldEntries;
+        private FieldEntry fieldEntry;
+
+        EmaFieldCursor reset(Msg message)
+        {
+            this.message = message;
+            fieldList = null;
+            fieldEntries = null;
+            fieldEntry = null;
+            return this;
+        }
+
+        private FieldList fieldList()
+        {
+            if(fieldList == null)
+            {
+                fieldList = message.payload().fieldList();
+            }
+            return fieldList;
+        }
+
+        @Override
+        public boolean next()
+        {
+            if(fieldEntries == null)
+            {
+                fieldEntries = fieldList().iterator();
+            }
+            fieldEntry = fieldEntries.hasNext() ? fieldEntries.next() : null;
+            return fieldEntry != null;
+        }
+
+        @Override
+        public int fieldId()
+        {
+            return fieldEntry.fieldId();
+        }
+
+        @Override
+        public Data value()
+        {
+            return fieldEntry.load();
+        }
+
+        @Override
+        public DataDictionary dataDictionary()
+        {
+            return getDictionaryFrom(fieldList());
+        }
+    }
+
+    /**
+     * Iterates over the fields of a replayed message.
+     */
+    private class RecordedFieldCursor implements FieldCursor
+    {
+        private RecordedMessage message;
+        private int index;
+
+        RecordedFieldCursor reset(RecordedMessage message)
+        {
+            this.message = message;
+            index = -1;
+            return this;
+        }
+
+        @Override
+        public boolean next()
+        {
+            return ++index < message.getFieldsCount();
+        }
+
+        @Override
+        public int fieldId()
+        {
+            return message.getFieldId(index);
+        }
+
+        @Override
+        public Data value()
+        {
+            return message.getFieldValue(index);
+        }
+
+        @Override
+        public DataDictionary dataDictionary()
+        {
+            return messageReplayer.getDataDictionary();
+        }
+    }
+
+    /**
+     * Holder of the timer shared by all conflated <code>MarketPrice</code>s.
+     * The timer thread is a daemon thread, created on first use.
+     */
+    private static class ConflationTimer
+    {
+        static final ScheduledExecutorService INSTANCE = 
+                Executors.newSingleThreadScheduledExecutor(
+                        (runnable) -> {
+                            Thread thread = new Thread(runnable, "MarketPrice-Conflation");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+
+    /**
+     * Holder of the pool that runs the callbacks of the conflated 
+     * <code>MarketPrice</code>s built without a callback executor, through
+     * a <code>SerialExecutor</code> per <code>MarketPrice</code>. It has one
+     * thread per available processor, so that a slow callback only delays
+     * the callbacks of its own <code>MarketPrice</code>. The threads are 
+     * daemon threads, created on first use.
+     */
+    private static class ConflatedCallbacksPool
+    {
+        private static final AtomicInteger THREADS_COUNT = new AtomicInteger();
+
+        static final ExecutorService INSTANCE = 
+                Executors.newFixedThreadPool(
+                        Runtime.getRuntime().availableProcessors(),
+                        (runnable) -> {
+                            Thread thread = new Thread(runnable, "MarketPrice-ConflatedCallbacks-" + THREADS_COUNT.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
     }
-    
 }
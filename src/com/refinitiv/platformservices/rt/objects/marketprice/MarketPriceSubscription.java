@@ -0,0 +1,191 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.platformservices.rt.objects.common.Flow;
+import com.refinitiv.platformservices.rt.objects.data.Field;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A subscription to the field updates of a <code>MarketPrice</code> (see
+ * {@link MarketPrice#asPublisher()}). Fields offered while the demand of the
+ * subscriber is exhausted are conflated by field Id: only the latest value of
+ * each field is kept, so that the number of pending updates is bounded by
+ * the number of fields of the instrument.
+ * <br>
+ * <br>
+ * Items are delivered by the thread that offers them (the thread that
+ * dispatches EMA events) or by the thread that requests them, never by two
+ * threads at the same time.
+ */
+class MarketPriceSubscription implements Flow.Subscription
+{
+    private final MarketPriceImpl marketPrice;
+    private final Flow.Subscriber<? super FieldUpdate> subscriber;
+
+    // The pending fields, by field Id, in the order of their first update.
+    // All the fields below are guarded by this.
+    private final LinkedHashMap<Integer, Field> pendingFields = new LinkedHashMap<>();
+    private long demand;
+    private boolean delivering;
+    private boolean completed;
+    private boolean terminated;
+    private Throwable error;
+
+    MarketPriceSubscription(MarketPriceImpl marketPrice, Flow.Subscriber<? super FieldUpdate> subscriber)
+    {
+        this.marketPrice = marketPrice;
+        this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n)
+    {
+        synchronized(this)
+        {
+            if(terminated)
+                return;
+
+            if(n <= 0)
+            {
+                error = new IllegalArgumentException("The number of requested items must be greater than 0 (rule 3.9 of the Reactive Streams specification).");
+            }
+            else
+            {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+        }
+
+        deliver();
+    }
+
+    @Override
+    public void cancel()
+    {
+        synchronized(this)
+        {
+            terminated = true;
+            pendingFields.clear();
+        }
+
+        marketPrice.unsubscribe(this);
+    }
+
+    /**
+     * Offers the latest value of a field to the subscriber. The field
+     * replaces the pending value of the same field Id, if any.
+     * @param field the field.
+     */
+    void offer(Field field)
+    {
+        synchronized(this)
+        {
+            if(terminated || completed)
+                return;
+
+            pendingFields.put(field.description().fid(), field);
+        }
+
+        deliver();
+    }
+
+    /**
+     * Completes the subscription. The subscriber receives its
+     * <code>onComplete</code> once the pending fields are delivered.
+     */
+    void complete()
+    {
+        synchronized(this)
+        {
+            completed = true;
+        }
+
+        deliver();
+    }
+
+    /**
+     * Delivers pending fields while there is demand. Only one thread delivers
+     * at a time. A thread that finds another one delivering returns at once,
+     * the delivering thread takes its offer or request into account.
+     */
+    private void deliver()
+    {
+        synchronized(this)
+        {
+            if(delivering)
+                return;
+
+            delivering = true;
+        }
+
+        while(true)
+        {
+            Field nextField = null;
+            Throwable terminalError = null;
+            boolean terminalCompletion = false;
+
+            synchronized(this)
+            {
+                if(terminated)
+                {
+                    delivering = false;
+                    return;
+                }
+
+                if(error != null)
+                {
+                    terminated = true;
+                    terminalError = error;
+                    pendingFields.clear();
+                }
+                else if(demand > 0 && !pendingFields.isEmpty())
+                {
+                    Iterator<Field> iterator = pendingFields.values().iterator();
+                    nextField = iterator.next();
+                    iterator.remove();
+                    if(demand != Long.MAX_VALUE)
+                    {
+                        --demand;
+                    }
+                }
+                else if(completed && pendingFields.isEmpty())
+                {
+                    terminated = true;
+                    terminalCompletion = true;
+                }
+                else
+                {
+                    delivering = false;
+                    return;
+                }
+            }
+
+            if(terminalError != null)
+            {
+                marketPrice.unsubscribe(this);
+                subscriber.onError(terminalError);
+            }
+            else if(terminalCompletion)
+            {
+                marketPrice.unsubscribe(this);
+                subscriber.onComplete();
+            }
+            else
+            {
+                subscriber.onNext(new FieldUpdateImpl(marketPrice, nextField));
+            }
+        }
+    }
+}
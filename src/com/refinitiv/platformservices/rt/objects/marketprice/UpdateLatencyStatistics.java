@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.platformservices.rt.objects.common.LatencyHistogram;
+import java.util.Set;
+
+/**
+ * The interface of the latency statistics of the updates processed by
+ * <code>MarketPrice</code>s built with 
+ * {@link MarketPrice.Builder#withUpdateLatencyStatistics()}. Each update 
+ * message is timestamped when it enters the <code>onUpdateMsg</code> callback
+ * of the <code>MarketPrice</code>, and three intervals are recorded:
+ * <ul>
+ * <li>the decode latency: from the arrival of the message until its fields 
+ * are decoded and applied to the cached image,</li>
+ * <li>the callback latency: the duration of the {@link MarketPrice.OnUpdateFunction}
+ * and {@link MarketPrice.OnChangedFieldsFunction} of the application,</li>
+ * <li>the total latency: from the arrival of the message until the 
+ * <code>OnChangedFieldsFunction</code> returns.</li>
+ * </ul>
+ * The callback latency is measured by the thread that runs the callbacks. 
+ * When the <code>MarketPrice</code> has a callback executor, it still only 
+ * measures the application code, and the total latency includes the time the
+ * update waited in the executor queue. Updates that change none of the 
+ * fields of interest only record the decode latency.
+ * These statistics show whether latency spikes come from this library or 
+ * from the application callbacks. They are kept per service (see 
+ * {@link #ofService(String)}) and optionally per item (see 
+ * {@link MarketPrice#getUpdateLatencyStatistics()}).
+ * <br>
+ * <br>
+ * <strong>Note:</strong> Each update of a conflated <code>MarketPrice</code> 
+ * records its decode latency. The callback and total latencies are recorded
+ * once per conflated update, the total latency being measured from the 
+ * arrival of the oldest update it merges.
+ */
+public interface UpdateLatencyStatistics
+{
+    /**
+     * Returns the histogram of the decode latencies.
+     * @return the decode latencies in nanoseconds.
+     */
+    LatencyHistogram getDecodeLatency();
+
+    /**
+     * Returns the histogram of the durations of the application callbacks.
+     * @return the callback latencies in nanoseconds.
+     */
+    LatencyHistogram getCallbackLatency();
+
+    /**
+     * Returns the histogram of the total in-library latencies.
+     * @return the total latencies in nanoseconds.
+     */
+    LatencyHistogram getTotalLatency();
+
+    /**
+     * Clears the three histograms.
+     */
+    void reset();
+
+    /**
+     * Returns the update latency statistics of a service. These statistics
+     * aggregate the updates of all the <code>MarketPrice</code>s of the 
+     * service built with update latency statistics.
+     * @param serviceName the name of the service.
+     * @return the statistics of the service, or null if no update was 
+     * recorded for this service.
+     */
+    static UpdateLatencyStatistics ofService(String serviceName)
+    {
+        return UpdateLatencyStatisticsImpl.ofService(serviceName);
+    }
+
+    /**
+     * Returns the names of the services that have update latency statistics.
+     * @return the names of the services.
+     */
+    static Set<String> getServiceNames()
+    {
+        return UpdateLatencyStatisticsImpl.getServiceNames();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.platformservices.rt.objects.common.LatencyHistogram;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The implementation class of the <code>UpdateLatencyStatistics</code> 
+ * interface. Also holds the statistics of each service.
+ */
+class UpdateLatencyStatisticsImpl implements UpdateLatencyStatistics
+{
+    // Statistics of each service, shared by all the MarketPrices of the service
+    private static final ConcurrentHashMap<String, UpdateLatencyStatisticsImpl> statisticsByService = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram decodeLatency = new LatencyHistogram();
+    private final LatencyHistogram callbackLatency = new LatencyHistogram();
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+
+    /**
+     * Returns the statistics of a service, creating them if needed.
+     * @param serviceName the name of the service.
+     * @return the statistics of the service.
+     */
+    static UpdateLatencyStatisticsImpl forService(String serviceName)
+    {
+        return statisticsByService.computeIfAbsent(serviceName, (name) -> new UpdateLatencyStatisticsImpl());
+    }
+
+    static UpdateLatencyStatistics ofService(String serviceName)
+    {
+        return statisticsByService.get(serviceName);
+    }
+
+    static Set<String> getServiceNames()
+    {
+        return Collections.unmodifiableSet(statisticsByService.keySet());
+    }
+
+    /**
+     * Records the decode latency of an update.
+     * @param arrivalTime the <code>System.nanoTime()</code> when the update arrived.
+     * @param decodedTime the <code>System.nanoTime()</code> when the update was decoded and applied.
+     */
+    void recordDecode(long arrivalTime, long decodedTime)
+    {
+        decodeLatency.record(decodedTime - arrivalTime);
+    }
+
+    /**
+     * Records the callback and total latencies of an update. Called by the
+     * thread that ran the application callback, whichever it is.
+     * @param arrivalTime the <code>System.nanoTime()</code> when the update arrived.
+     * @param callbackStartTime the <code>System.nanoTime()</code> when the application callback was called.
+     * @param callbackEndTime the <code>System.nanoTime()</code> when the application callback returned.
+     */
+    void recordCallback(long arrivalTime, long callbackStartTime, long callbackEndTime)
+    {
+        callbackLatency.record(callbackEndTime - callbackStartTime);
+        totalLatency.record(callbackEndTime - arrivalTime);
+    }
+
+    @Override
+    public LatencyHistogram getDecodeLatency()
+    {
+        return decodeLatency;
+    }
+
+    @Override
+    public LatencyHistogram getCallbackLatency()
+    {
+        return callbackLatency;
+    }
+
+    @Override
+    public LatencyHistogram getTotalLatency()
+    {
+        return totalLatency;
+    }
+
+    @Override
+    public void reset()
+    {
+        decodeLatency.reset();
+        callbackLatency.reset();
+        totalLatency.reset();
+    }
+}
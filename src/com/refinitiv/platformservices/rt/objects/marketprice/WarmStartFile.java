@@ -0,0 +1,370 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A file that persists the images of the <code>MarketPrice</code>s built
+ * with a warm start (see {@link MarketPrice.Builder#withWarmStart(Path)}).
+ * There is one <code>WarmStartFile</code> per path, shared by all the
+ * <code>MarketPrice</code>s that use this path.
+ * <br>
+ * When a <code>WarmStartFile</code> is first used, the existing file is
+ * memory-mapped and each persisted image is exposed as a
+ * {@link WarmStartImage} that reads the mapping directly. The images of the
+ * registered <code>MarketPrice</code>s are then persisted every 10 seconds
+ * and when the JVM shuts down. Images are written to a temporary file that
+ * replaces the previous file once complete, so that a crash never leaves a
+ * truncated file behind. Images of items that are not opened any more are
+ * carried over from one file to the next.
+ * <br>
+ * <br>
+ * <strong>Note:</strong> The JVM unmaps a file only when its mapping is
+ * garbage collected. Before the first replacement of the file, the images
+ * still read from the mapping are copied to the heap and the mapping is 
+ * released. On Windows, a file cannot be replaced while it is mapped, so
+ * the first persistences may fail (and are logged) until the mapping is 
+ * collected.
+ * <br>
+ * <br>
+ * The file starts with a 12 bytes header (magic number, version and records
+ * count) followed by the records of the images (see {@link WarmStartImage}).
+ * Files that are missing, of another version or malformed are ignored.
+ */
+class WarmStartFile
+{
+    private static final Logger LOGGER = Logger.getLogger(WarmStartFile.class.getName());
+
+    private static final int MAGIC = 0x57534D50;
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 12;
+    private static final int RECORDS_COUNT_POSITION = 8;
+    private static final long PERSISTENCE_INTERVAL_IN_SECONDS = 10;
+    private static final int INITIAL_BUFFER_CAPACITY = 64 * 1024;
+
+    private static final ConcurrentHashMap<Path, WarmStartFile> FILES = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final Path temporaryPath;
+    // Images read from the file or retained when their MarketPrice closed,
+    // keyed by service name and item name
+    private final Map<String, WarmStartImage> images;
+    // Registered MarketPrices, keyed the same way
+    private final Map<String, MarketPriceImpl> marketPrices = new ConcurrentHashMap<>();
+    // Reused to encode the file content. Guarded by this.
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_CAPACITY);
+    // True while images read the mapping of the loaded file. Guarded by this.
+    private boolean mapped;
+
+    /**
+     * Returns the <code>WarmStartFile</code> of a path. The file is loaded
+     * and its persistence is scheduled the first time the path is used.
+     * @param path the path of the file.
+     * @return the shared <code>WarmStartFile</code>.
+     */
+    static WarmStartFile forPath(Path path)
+    {
+        return FILES.computeIfAbsent(path.toAbsolutePath().normalize(), WarmStartFile::new);
+    }
+
+    private WarmStartFile(Path path)
+    {
+        this.path = path;
+        temporaryPath = Paths.get(path.toString() + ".tmp");
+        images = load(path);
+        mapped = !images.isEmpty();
+        PersistenceTimer.INSTANCE.scheduleWithFixedDelay(
+                this::persist,
+                PERSISTENCE_INTERVAL_IN_SECONDS,
+                PERSISTENCE_INTERVAL_IN_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns the last persisted image of an item.
+     * @param serviceName the service name of the item.
+     * @param name the name of the item.
+     * @return the image or null if the item was not persisted.
+     */
+    WarmStartImage imageOf(String serviceName, String name)
+    {
+        return images.get(keyOf(serviceName, name));
+    }
+
+    /**
+     * Starts persisting the image of a <code>MarketPrice</code>.
+     * @param marketPrice the opened <code>MarketPrice</code>.
+     */
+    void register(MarketPriceImpl marketPrice)
+    {
+        marketPrices.put(keyOf(marketPrice.getServiceName(), marketPrice.getName()), marketPrice);
+    }
+
+    /**
+     * Stops persisting the image of a <code>MarketPrice</code>. Its current
+     * image is retained and persisted as is. Must be called before the
+     * image of the <code>MarketPrice</code> is cleared.
+     * @param marketPrice the closing <code>MarketPrice</code>.
+     */
+    void unregister(MarketPriceImpl marketPrice)
+    {
+        String key = keyOf(marketPrice.getServiceName(), marketPrice.getName());
+        if(!marketPrices.remove(key, marketPrice))
+        {
+            return;
+        }
+
+        ByteBuffer record;
+        synchronized(this)
+        {
+            buffer.clear();
+            writeRecord(marketPrice::writeWarmStartRecordTo);
+            buffer.flip();
+            record = ByteBuffer.allocate(buffer.remaining());
+            record.put(buffer);
+            record.clear();
+        }
+        images.put(key, new WarmStartImage(record));
+    }
+
+    /**
+     * Writes the images of the registered <code>MarketPrice</code>s and the
+     * retained images to the file. Errors are logged with 
+     * <code>java.util.logging</code> and the previous file is kept.
+     */
+    synchronized void persist()
+    {
+        try
+        {
+            buffer.clear();
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(0);
+
+            int recordsCount = 0;
+            for(MarketPriceImpl marketPrice : marketPrices.values())
+            {
+                writeRecord(marketPrice::writeWarmStartRecordTo);
+                ++recordsCount;
+            }
+            for(Map.Entry<String, WarmStartImage> entry : images.entrySet())
+            {
+                if(!marketPrices.containsKey(entry.getKey()))
+                {
+                    writeRecord(entry.getValue()::writeTo);
+                    ++recordsCount;
+                }
+            }
+            buffer.putInt(RECORDS_COUNT_POSITION, recordsCount);
+            buffer.flip();
+
+            releaseMapping();
+            writeAndReplace();
+        }
+        catch(IOException | RuntimeException exception)
+        {
+            // Not rethrown, as it would cancel the next persistences
+            LOGGER.log(Level.WARNING, "The warm start file <" + path + "> cannot be written", exception);
+        }
+    }
+
+    /**
+     * Writes a record at the position of the buffer, growing the buffer and
+     * writing the record again until it fits.
+     * @param recordWriter writes the record to the buffer it is given.
+     */
+    private void writeRecord(Consumer<ByteBuffer> recordWriter)
+    {
+        int recordPosition = buffer.position();
+        while(true)
+        {
+            try
+            {
+                recordWriter.accept(buffer);
+                return;
+            }
+            catch(BufferOverflowException | IndexOutOfBoundsException exception)
+            {
+                buffer.position(recordPosition);
+                grow();
+            }
+        }
+    }
+
+    private void grow()
+    {
+        ByteBuffer previousBuffer = buffer;
+        buffer = ByteBuffer.allocate(previousBuffer.capacity() * 2);
+        previousBuffer.flip();
+        buffer.put(previousBuffer);
+    }
+
+    /**
+     * Copies the images that still read the mapping of the loaded file to
+     * the heap, so that the mapping can be collected before the file is 
+     * replaced. Images replaced concurrently by {@link #unregister} are kept.
+     */
+    private void releaseMapping()
+    {
+        if(!mapped)
+        {
+            return;
+        }
+
+        for(Map.Entry<String, WarmStartImage> entry : images.entrySet())
+        {
+            WarmStartImage mappedImage = entry.getValue();
+            if(mappedImage.isMapped())
+            {
+                images.replace(entry.getKey(), mappedImage, mappedImage.copy());
+            }
+        }
+        mapped = false;
+    }
+
+    /**
+     * Writes the encoded content to the temporary file, then replaces the 
+     * file with it.
+     * @throws IOException if the file cannot be written or replaced.
+     */
+    private void writeAndReplace() throws IOException
+    {
+        Path directory = path.getParent();
+        if(directory != null)
+        {
+            Files.createDirectories(directory);
+        }
+
+        try(FileChannel channel = FileChannel.open(temporaryPath,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE))
+        {
+            while(buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+
+        try
+        {
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch(AtomicMoveNotSupportedException exception)
+        {
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Maps an existing file and builds the views of its images.
+     * @param path the path of the file.
+     * @return the images keyed by service name and item name. Empty if the
+     * file does not exist or cannot be read.
+     */
+    private static Map<String, WarmStartImage> load(Path path)
+    {
+        ConcurrentHashMap<String, WarmStartImage> loadedImages = new ConcurrentHashMap<>();
+        if(!Files.isRegularFile(path))
+        {
+            return loadedImages;
+        }
+
+        // The mapping stays valid once the channel is closed
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(mapping.limit() < HEADER_LENGTH
+                    || mapping.getInt(0) != MAGIC
+                    || mapping.getInt(Integer.BYTES) != VERSION)
+            {
+                LOGGER.warning("The warm start file <" + path + "> is ignored: unknown format.");
+                return loadedImages;
+            }
+
+            int recordsCount = mapping.getInt(RECORDS_COUNT_POSITION);
+            int position = HEADER_LENGTH;
+            for(int index = 0; index < recordsCount; ++index)
+            {
+                int recordLength = mapping.getInt(position);
+                if(recordLength < Integer.BYTES || recordLength > mapping.limit() - position)
+                {
+                    throw new IllegalArgumentException("Malformed record at position " + position + ".");
+                }
+
+                ByteBuffer record = mapping.duplicate();
+                record.position(position);
+                record.limit(position + recordLength);
+                WarmStartImage image = new WarmStartImage(record.slice());
+                loadedImages.put(keyOf(image.getServiceName(), image.getName()), image);
+                position += recordLength;
+            }
+        }
+        catch(IOException | RuntimeException exception)
+        {
+            LOGGER.log(Level.WARNING, "The warm start file <" + path + "> is ignored", exception);
+            loadedImages.clear();
+        }
+
+        return loadedImages;
+    }
+
+    private static String keyOf(String serviceName, String name)
+    {
+        return serviceName + "/" + name;
+    }
+
+    /**
+     * Holder of the timer shared by all the <code>WarmStartFile</code>s. The
+     * timer thread is a daemon thread, created on first use. The files are
+     * also persisted when the JVM shuts down.
+     */
+    private static class PersistenceTimer
+    {
+        static final ScheduledExecutorService INSTANCE =
+                Executors.newSingleThreadScheduledExecutor(
+                        (runnable) -> {
+                            Thread thread = new Thread(runnable, "MarketPrice-WarmStart");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+
+        static
+        {
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                    () -> FILES.values().forEach(WarmStartFile::persist),
+                    "MarketPrice-WarmStart-Shutdown"));
+        }
+    }
+}
@@ -0,0 +1,558 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.ema.access.Data;
+import com.refinitiv.ema.access.DataType.DataTypes;
+import com.refinitiv.ema.rdm.DataDictionary;
+import com.refinitiv.platformservices.rt.objects.data.DataFactory;
+import com.refinitiv.platformservices.rt.objects.data.Field;
+import com.refinitiv.platformservices.rt.objects.data.FieldDictionary;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only view of the image of a <code>MarketPrice</code> persisted in a
+ * warm start file (see {@link WarmStartFile}). The view reads the record
+ * directly from the memory mapping of the file: primitive reads do not copy
+ * nor allocate. <code>Field</code>s are only materialized on demand.
+ * <br>
+ * <br>
+ * A record is laid out as follows (big-endian):
+ * <pre>
+ *    int     record length (including this int)
+ *    short   name length, followed by the UTF-8 name
+ *    short   service name length, followed by the UTF-8 service name
+ *    int     fields count
+ *    entries sorted by field Id, 24 bytes each:
+ *              short  field Id
+ *              byte   data type
+ *              byte   hint
+ *              long   long column
+ *              double double column
+ *              int    position of the text in the record or -1
+ *    texts   short length followed by the UTF-8 bytes
+ * </pre>
+ * The columns hold the same values as the columns of the
+ * <code>FieldStore</code> the record was written from. Blank fields are not
+ * persisted. RMTES strings are persisted as text and restored as ASCII.
+ */
+class WarmStartImage
+{
+    private static final int ENTRY_LENGTH = 24;
+    private static final int FIELD_ID_OFFSET = 0;
+    private static final int DATA_TYPE_OFFSET = 2;
+    private static final int HINT_OFFSET = 3;
+    private static final int LONG_OFFSET = 4;
+    private static final int DOUBLE_OFFSET = 12;
+    private static final int TEXT_POSITION_OFFSET = 20;
+    private static final int NO_ENTRY = -1;
+    private static final int NO_TEXT = -1;
+    private static final long NANOS_PER_HOUR = 3_600L * FieldStore.NANOS_PER_SECOND;
+    private static final long NANOS_PER_MINUTE = 60L * FieldStore.NANOS_PER_SECOND;
+    private static final int MAX_TEXT_LENGTH = 0xFFFF;
+
+    private final ByteBuffer record;
+    private final String name;
+    private final String serviceName;
+    private final int fieldsCount;
+    private final int entriesPosition;
+
+    /**
+     * Builds a view of a record.
+     * @param record the record, from position 0 to its length. The buffer
+     * must not be shared, as its position is not used but its content is
+     * read for the life of this view.
+     * @throws IllegalArgumentException if the record is malformed.
+     */
+    WarmStartImage(ByteBuffer record)
+    {
+        this.record = record;
+
+        int position = Integer.BYTES;
+        name = readText(record, position);
+        position += Short.BYTES + textLength(record, position);
+        serviceName = readText(record, position);
+        position += Short.BYTES + textLength(record, position);
+        fieldsCount = record.getInt(position);
+        entriesPosition = position + Integer.BYTES;
+
+        if(fieldsCount < 0 || entriesPosition + (long) fieldsCount * ENTRY_LENGTH > record.limit())
+        {
+            throw new IllegalArgumentException("Malformed warm start record of <" + name + ">.");
+        }
+    }
+
+    /**
+     * Returns the name of the persisted item.
+     * @return the item name.
+     */
+    String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the service name of the persisted item.
+     * @return the service name.
+     */
+    String getServiceName()
+    {
+        return serviceName;
+    }
+
+    /**
+     * Returns the number of persisted fields.
+     * @return the fields count.
+     */
+    int size()
+    {
+        return fieldsCount;
+    }
+
+    /**
+     * See {@link FieldStore#doubleOf(int)}.
+     * @param fieldId the field Id.
+     * @return the value or <code>Double.NaN</code>.
+     */
+    double doubleOf(int fieldId)
+    {
+        int entry = entryOf(fieldId);
+        return entry == NO_ENTRY ? Double.NaN : record.getDouble(entry + DOUBLE_OFFSET);
+    }
+
+    /**
+     * See {@link FieldStore#longOf(int)}.
+     * @param fieldId the field Id.
+     * @return the value or <code>MarketPrice.NO_LONG_VALUE</code>.
+     */
+    long longOf(int fieldId)
+    {
+        int entry = entryOf(fieldId);
+        if(entry == NO_ENTRY)
+        {
+            return MarketPrice.NO_LONG_VALUE;
+        }
+        switch(dataTypeAt(entry))
+        {
+            case DataTypes.INT:
+            case DataTypes.UINT:
+            case DataTypes.ENUM:
+                return record.getLong(entry + LONG_OFFSET);
+            default:
+                return MarketPrice.NO_LONG_VALUE;
+        }
+    }
+
+    /**
+     * See {@link FieldStore#mantissaOf(int)}.
+     * @param fieldId the field Id.
+     * @return the mantissa or <code>MarketPrice.NO_LONG_VALUE</code>.
+     */
+    long mantissaOf(int fieldId)
+    {
+        int entry = entryOf(fieldId);
+        return entry != NO_ENTRY && dataTypeAt(entry) == DataTypes.REAL
+                ? record.getLong(entry + LONG_OFFSET)
+                : MarketPrice.NO_LONG_VALUE;
+    }
+
+    /**
+     * See {@link FieldStore#hintOf(int)}.
+     * @param fieldId the field Id.
+     * @return the hint or <code>MarketPrice.NO_INT_VALUE</code>.
+     */
+    long hintOf(int fieldId)
+    {
+        int entry = entryOf(fieldId);
+        return entry != NO_ENTRY && dataTypeAt(entry) == DataTypes.REAL
+                ? record.get(entry + HINT_OFFSET)
+                : MarketPrice.NO_INT_VALUE;
+    }
+
+    /**
+     * See {@link FieldStore#epochNanosOf(int)}.
+     * @param fieldId the field Id.
+     * @return the nanoseconds or <code>MarketPrice.NO_LONG_VALUE</code>.
+     */
+    long epochNanosOf(int fieldId)
+    {
+        int entry = entryOf(fieldId);
+        if(entry == NO_ENTRY)
+        {
+            return MarketPrice.NO_LONG_VALUE;
+        }
+        switch(dataTypeAt(entry))
+        {
+            case DataTypes.DATE:
+            case DataTypes.TIME:
+            case DataTypes.DATETIME:
+                return record.getLong(entry + LONG_OFFSET);
+            default:
+                return MarketPrice.NO_LONG_VALUE;
+        }
+    }
+
+    /**
+     * See {@link FieldStore#enumCodeOf(int)}.
+     * @param fieldId the field Id.
+     * @return the code or <code>MarketPrice.NO_INT_VALUE</code>.
+     */
+    long enumCodeOf(int fieldId)
+    {
+        int entry = entryOf(fieldId);
+        return entry != NO_ENTRY && dataTypeAt(entry) == DataTypes.ENUM
+                ? record.getLong(entry + LONG_OFFSET)
+                : MarketPrice.NO_INT_VALUE;
+    }
+
+    /**
+     * Materializes a persisted field.
+     * @param fieldId the field Id.
+     * @param fieldDictionary the dictionary used to describe the field.
+     * @return the field or null if it is not persisted or unknown to the
+     * dictionary.
+     */
+    Field fieldOf(int fieldId, FieldDictionary fieldDictionary)
+    {
+        int entry = entryOf(fieldId);
+        return entry == NO_ENTRY ? null : materialize(entry, fieldDictionary);
+    }
+
+    /**
+     * Materializes a persisted field.
+     * @param fieldName the field name (acronym).
+     * @param fieldDictionary the dictionary used to describe the field.
+     * @return the field or null if it is not persisted or unknown to the
+     * dictionary.
+     */
+    Field fieldOf(String fieldName, FieldDictionary fieldDictionary)
+    {
+        DataDictionary dataDictionary = fieldDictionary.dataDictionary();
+        if(!dataDictionary.hasEntry(fieldName))
+        {
+            return null;
+        }
+
+        return fieldOf(dataDictionary.entry(fieldName).fid(), fieldDictionary);
+    }
+
+    /**
+     * Materializes all the persisted fields, sorted by field Id.
+     * @param fieldDictionary the dictionary used to describe the fields.
+     * @return the fields. Fields unknown to the dictionary are left out.
+     */
+    List<Field> toFields(FieldDictionary fieldDictionary)
+    {
+        List<Field> fields = new ArrayList<>(fieldsCount);
+        for(int index = 0; index < fieldsCount; ++index)
+        {
+            Field field = materialize(entriesPosition + index * ENTRY_LENGTH, fieldDictionary);
+            if(field != null)
+            {
+                fields.add(field);
+            }
+        }
+
+        return fields;
+    }
+
+    /**
+     * Copies the record of this image.
+     * @param target the buffer the record is copied to, at its position.
+     * @throws BufferOverflowException if the remaining space of
+     * the target is too small.
+     */
+    void writeTo(ByteBuffer target)
+    {
+        ByteBuffer source = record.duplicate();
+        source.clear();
+        target.put(source);
+    }
+
+    /**
+     * Tells if the record is read from the mapping of a warm start file.
+     * @return true if the record is a view of a mapping.
+     */
+    boolean isMapped()
+    {
+        return record.isDirect();
+    }
+
+    /**
+     * Returns a copy of this image that reads a heap copy of its record.
+     * @return the copy.
+     */
+    WarmStartImage copy()
+    {
+        ByteBuffer copiedRecord = ByteBuffer.allocate(record.capacity());
+        writeTo(copiedRecord);
+        copiedRecord.clear();
+        return new WarmStartImage(copiedRecord);
+    }
+
+    /**
+     * Writes the record of a live image.
+     * @param target the buffer the record is written to, at its position.
+     * @param serviceName the service name of the item.
+     * @param name the name of the item.
+     * @param fieldStore the image of the item.
+     * @throws BufferOverflowException if the remaining space of
+     * the target is too small. The position of the target is then undefined.
+     */
+    static void write(ByteBuffer target, String serviceName, String name, FieldStore fieldStore)
+    {
+        int recordPosition = target.position();
+        target.putInt(0);
+        writeText(target, name);
+        writeText(target, serviceName);
+        int fieldsCountPosition = target.position();
+        target.putInt(0);
+
+        // Entries first, texts after the last entry
+        int persistedCount = 0;
+        for(int rank = 0; rank < fieldStore.size(); ++rank)
+        {
+            int slot = fieldStore.slotAt(rank);
+            if(isPersisted(fieldStore.dataTypeAt(slot)))
+            {
+                ++persistedCount;
+            }
+        }
+        int entryPosition = target.position();
+        int textPosition = entryPosition + persistedCount * ENTRY_LENGTH;
+        if(textPosition > target.limit())
+        {
+            throw new BufferOverflowException();
+        }
+
+        for(int rank = 0; rank < fieldStore.size(); ++rank)
+        {
+            int slot = fieldStore.slotAt(rank);
+            int dataType = fieldStore.dataTypeAt(slot);
+            if(!isPersisted(dataType))
+            {
+                continue;
+            }
+
+            int relativeTextPosition = NO_TEXT;
+            if(dataType == DataTypes.ASCII || dataType == DataTypes.RMTES)
+            {
+                byte[] text = fieldStore.fieldAt(slot).value().toString().getBytes(StandardCharsets.UTF_8);
+                if(text.length <= MAX_TEXT_LENGTH)
+                {
+                    relativeTextPosition = textPosition - recordPosition;
+                    target.position(textPosition);
+                    target.putShort((short) text.length);
+                    target.put(text);
+                    textPosition = target.position();
+                }
+            }
+
+            target.putShort(entryPosition + FIELD_ID_OFFSET, (short) fieldStore.fieldIdAt(slot));
+            target.put(entryPosition + DATA_TYPE_OFFSET, (byte) dataType);
+            target.put(entryPosition + HINT_OFFSET, (byte) fieldStore.hintAt(slot));
+            target.putLong(entryPosition + LONG_OFFSET, fieldStore.longValueAt(slot));
+            target.putDouble(entryPosition + DOUBLE_OFFSET, fieldStore.doubleValueAt(slot));
+            target.putInt(entryPosition + TEXT_POSITION_OFFSET, relativeTextPosition);
+            entryPosition += ENTRY_LENGTH;
+        }
+
+        target.position(textPosition);
+        target.putInt(fieldsCountPosition, persistedCount);
+        target.putInt(recordPosition, textPosition - recordPosition);
+    }
+
+    /**
+     * Returns the position of the entry of a field, using a binary search
+     * on the entries sorted by field Id.
+     * @param fieldId the field Id.
+     * @return the position of the entry or -1 if the field is not persisted.
+     */
+    private int entryOf(int fieldId)
+    {
+        int low = 0;
+        int high = fieldsCount - 1;
+        while(low <= high)
+        {
+            int middle = (low + high) >>> 1;
+            int entry = entriesPosition + middle * ENTRY_LENGTH;
+            int middleFieldId = record.getShort(entry + FIELD_ID_OFFSET);
+            if(middleFieldId < fieldId)
+            {
+                low = middle + 1;
+            }
+            else if(middleFieldId > fieldId)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                return entry;
+            }
+        }
+
+        return NO_ENTRY;
+    }
+
+    private int dataTypeAt(int entry)
+    {
+        return record.get(entry + DATA_TYPE_OFFSET);
+    }
+
+    /**
+     * Builds the field of an entry.
+     * @param entry the position of the entry.
+     * @param fieldDictionary the dictionary used to describe the field.
+     * @return the field or null if the field is unknown to the dictionary.
+     */
+    private Field materialize(int entry, FieldDictionary fieldDictionary)
+    {
+        int fieldId = record.getShort(entry + FIELD_ID_OFFSET);
+        if(!fieldDictionary.hasEntry(fieldId))
+        {
+            return null;
+        }
+
+        long longValue = record.getLong(entry + LONG_OFFSET);
+        double doubleValue = record.getDouble(entry + DOUBLE_OFFSET);
+        Data value;
+        switch(dataTypeAt(entry))
+        {
+            case DataTypes.REAL:
+                value = DataFactory.createReal(longValue, record.get(entry + HINT_OFFSET));
+                break;
+            case DataTypes.INT:
+                value = DataFactory.createInt(longValue);
+                break;
+            case DataTypes.UINT:
+                value = DataFactory.createUInt(longValue);
+                break;
+            case DataTypes.FLOAT:
+                value = DataFactory.createFloat((float) doubleValue);
+                break;
+            case DataTypes.DOUBLE:
+                value = DataFactory.createDouble(doubleValue);
+                break;
+            case DataTypes.ENUM:
+                value = DataFactory.createEnum((int) longValue, fieldDictionary.entry(fieldId));
+                break;
+            case DataTypes.DATE:
+                {
+                    LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(longValue, FieldStore.NANOS_PER_DAY));
+                    value = DataFactory.createDate(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+                }
+                break;
+            case DataTypes.TIME:
+                value = DataFactory.createTime(
+                        timeUnitsOf(longValue, NANOS_PER_HOUR, 24),
+                        timeUnitsOf(longValue, NANOS_PER_MINUTE, 60),
+                        timeUnitsOf(longValue, FieldStore.NANOS_PER_SECOND, 60),
+                        timeUnitsOf(longValue, 1_000_000L, 1_000),
+                        timeUnitsOf(longValue, 1_000L, 1_000),
+                        timeUnitsOf(longValue, 1L, 1_000));
+                break;
+            case DataTypes.DATETIME:
+                {
+                    LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(longValue, FieldStore.NANOS_PER_DAY));
+                    long nanosOfDay = Math.floorMod(longValue, FieldStore.NANOS_PER_DAY);
+                    value = DataFactory.createDateTime(date.getYear(), date.getMonthValue(), date.getDayOfMonth(),
+                            timeUnitsOf(nanosOfDay, NANOS_PER_HOUR, 24),
+                            timeUnitsOf(nanosOfDay, NANOS_PER_MINUTE, 60),
+                            timeUnitsOf(nanosOfDay, FieldStore.NANOS_PER_SECOND, 60),
+                            timeUnitsOf(nanosOfDay, 1_000_000L, 1_000),
+                            timeUnitsOf(nanosOfDay, 1_000L, 1_000),
+                            timeUnitsOf(nanosOfDay, 1L, 1_000));
+                }
+                break;
+            default:
+                {
+                    int textPosition = record.getInt(entry + TEXT_POSITION_OFFSET);
+                    if(textPosition == NO_TEXT)
+                    {
+                        return null;
+                    }
+                    value = DataFactory.createAscii(readText(record, textPosition));
+                }
+                break;
+        }
+
+        return new Field.Builder()
+                .withId(fieldId)
+                .withValue(value)
+                .withFieldDictionary(fieldDictionary)
+                .build();
+    }
+
+    /**
+     * Extracts a component (hours, minutes...) of a time of the day.
+     * @param nanosOfDay the nanoseconds since midnight.
+     * @param unitInNanos the unit of the component in nanoseconds.
+     * @param unitsCount the number of units before the next component.
+     * @return the component.
+     */
+    private static int timeUnitsOf(long nanosOfDay, long unitInNanos, int unitsCount)
+    {
+        return (int) (nanosOfDay / unitInNanos % unitsCount);
+    }
+
+    private static boolean isPersisted(int dataType)
+    {
+        switch(dataType)
+        {
+            case DataTypes.REAL:
+            case DataTypes.INT:
+            case DataTypes.UINT:
+            case DataTypes.FLOAT:
+            case DataTypes.DOUBLE:
+            case DataTypes.ENUM:
+            case DataTypes.DATE:
+            case DataTypes.TIME:
+            case DataTypes.DATETIME:
+            case DataTypes.ASCII:
+            case DataTypes.RMTES:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static int textLength(ByteBuffer buffer, int position)
+    {
+        return buffer.getShort(position) & MAX_TEXT_LENGTH;
+    }
+
+    private static String readText(ByteBuffer buffer, int position)
+    {
+        int length = textLength(buffer, position);
+        byte[] bytes = new byte[length];
+        for(int index = 0; index < length; ++index)
+        {
+            bytes[index] = buffer.get(position + Short.BYTES + index);
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeText(ByteBuffer target, String text)
+    {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        target.putShort((short) Math.min(bytes.length, MAX_TEXT_LENGTH));
+        target.put(bytes, 0, Math.min(bytes.length, MAX_TEXT_LENGTH));
+    }
+}
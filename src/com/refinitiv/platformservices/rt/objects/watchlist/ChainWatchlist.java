@@ -0,0 +1,434 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.watchlist;
+
+import com.refinitiv.ema.access.OmmConsumer;
+import com.refinitiv.platformservices.rt.objects.common.Completable;
+import com.refinitiv.platformservices.rt.objects.data.Field;
+import com.refinitiv.platformservices.rt.objects.marketprice.MarketPrice;
+import com.refinitiv.platformservices.rt.objects.marketprice.MarketPriceGroup;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The interface of a <code>ChainWatchlist</code> implementation that you can
+ * use to open a chain and a <code>MarketPrice</code> for each of its 
+ * constituents. <code>ChainWatchlist</code>s must be built using a 
+ * <code>ChainWatchlist.Builder</code>.
+ * <br>
+ * The watchlist opens a {@link com.refinitiv.platformservices.rt.objects.chain.FlatChain}
+ * (or a {@link com.refinitiv.platformservices.rt.objects.chain.RecursiveChain}
+ * if recursion is activated) and keeps the set of opened 
+ * <code>MarketPrice</code>s in sync with the elements of the chain:
+ * <ul>
+ *  <li>New constituents are opened in batches, with EMA batch requests (see 
+ * {@link MarketPriceGroup}).</li>
+ *  <li>Removed constituents are closed.</li>
+ *  <li>A constituent that moves from one position to another keeps its 
+ * <code>MarketPrice</code>. Constituents that appear at several positions 
+ * are opened once.</li>
+ * </ul>
+ * As an example, the code snippet below opens the CAC 40 chain and its 
+ * constituents:
+ * <br>
+ * <br>
+ * <pre>
+ *    OmmConsumer ommConsumer = ...;
+ *      .
+ *      .
+ *      .
+ *      ChainWatchlist theWatchlist = new ChainWatchlist.Builder()
+ *           .withOmmConsumer(ommConsumer)
+ *           .withChainName("0#.FCHI")
+ *           .withServiceName("ELEKTRON_DD")
+ *           .onComplete(
+ *               (watchlist) -&gt;
+ *                   watchlist.getImages().forEach(
+ *                       (position, image) -&gt; println(position + " = " + image)
+ *                   )
+ *           )
+ *           .build();
+ *
+ *      theWatchlist.open();
+ * </pre>
+ * <br>
+ * <strong>Note that this implementation of <code>ChainWatchlist</code> is synchronized</strong>.
+ * Batches are opened and removed constituents are closed by a daemon thread 
+ * shared by all the watchlists.
+ */
+public interface ChainWatchlist extends Completable
+{
+    /**
+     * Returns the name of the chain of this watchlist.
+     * @return the name of the chain.
+     */
+    String getChainName();
+
+    /**
+     * Returns the name of the service the chain and its constituents are 
+     * published on.
+     * @return the service name used to subscribe.
+     */
+    String getServiceName();
+
+    /**
+     * Opens the chain of this watchlist. Its constituents are opened as they
+     * are decoded.
+     */
+    void open();
+
+    /**
+     * Opens this <code>ChainWatchlist</code>. The returned 
+     * <code>CompletableFuture</code> is completed with this 
+     * <code>ChainWatchlist</code> as soon as it is complete (see 
+     * {@link #isComplete()}), right after the <code>OnCompleteFunction</code> 
+     * is called. It is cancelled if the <code>ChainWatchlist</code> is closed
+     * before it completes. If the <code>ChainWatchlist</code> is already opened
+     * or being opened, the future of this previous open is returned.
+     * @return the future of the open.
+     */
+    CompletableFuture<ChainWatchlist> openAsync();
+
+    /**
+     * Closes the chain and all the <code>MarketPrice</code>s of this watchlist.
+     */
+    void close();
+
+    /**
+     * Returns the <code>MarketPrice</code>s of the constituents that are 
+     * opened, by position in the chain. Positions are lists of numbers as 
+     * for {@link com.refinitiv.platformservices.rt.objects.chain.RecursiveChain#getElements()}.
+     * Positions of a <code>FlatChain</code> have a single number. The map is 
+     * sorted according to the natural ordering of the positions and does not
+     * reflect the changes of the chain that happen after the call.
+     * @return the <code>MarketPrice</code>s by position.
+     */
+    Map<List<Long>, MarketPrice> getMarketPrices();
+
+    /**
+     * Returns the images of the constituents that are opened, by position in
+     * the chain, in the same order as {@link #getMarketPrices()}. Each image 
+     * is a snapshot (see {@link MarketPrice#getFields()}).
+     * @return the images by position.
+     */
+    Map<List<Long>, Collection<Field>> getImages();
+
+    /**
+     * Represents an optional operation that is called when a watchlist is
+     * complete, that is when its chain is complete and all its constituents
+     * are complete. This operation is optionally set when the 
+     * <code>ChainWatchlist</code> is created.
+     */
+    @FunctionalInterface
+    interface OnCompleteFunction
+    {
+        /**
+         * Called when the watchlist is complete.
+         * @param watchlist the completed watchlist.
+         */
+        void onComplete(ChainWatchlist watchlist);
+    }
+
+    /**
+     * Represents an optional operation that is called when the chain of a
+     * watchlist fails. This operation is optionally set when the 
+     * <code>ChainWatchlist</code> is created.
+     */
+    @FunctionalInterface
+    interface OnErrorFunction
+    {
+        /**
+         * Called when the chain of the watchlist fails.
+         * @param errorMessage the error message of the chain.
+         * @param watchlist the watchlist.
+         */
+        void onError(String errorMessage, ChainWatchlist watchlist);
+    }
+
+    /**
+     * Used to build <code>ChainWatchlist</code> objects. The parameters that 
+     * apply to the constituents (updates, view, functions...) have the same
+     * meaning as their {@link MarketPrice.Builder} counterparts.
+     * <br>
+     * <br>
+     * <strong>Note:</strong> The OmmConsumer and the chain name are mandatory 
+     * parameters that must be set before {@link #build()} is called.
+     */
+    public static class Builder
+    {
+        /**
+         * Default delay before the constituents added or removed once the 
+         * chain is complete are opened or closed.
+         */
+        public static final Duration DEFAULT_BATCH_DELAY = Duration.ofMillis(100);
+
+        OmmConsumer ommConsumer;
+        String chainName;
+        String serviceName = "ELEKTRON_DD";
+        boolean recursionActivated;
+        int maxDepth = -1;
+        boolean withUpdates = true;
+        int batchSize = MarketPriceGroup.Builder.DEFAULT_BATCH_SIZE;
+        Duration batchDelay = DEFAULT_BATCH_DELAY;
+        LinkedList<Integer> fieldIds = new LinkedList<>();
+        LinkedList<String> fieldNames = new LinkedList<>();
+        OnCompleteFunction onCompleteFunction = (watchlist) -> {};
+        OnErrorFunction onErrorFunction = (errorMessage, watchlist) -> {};
+        MarketPrice.OnImageFunction onImageFunction = (marketPrice, image, state) -> {};
+        MarketPrice.OnUpdateFunction onUpdateFunction = (marketPrice, update) -> {};
+        MarketPrice.OnStateFunction onStateFunction = (marketPrice, state) -> {};
+
+        /**
+         * Default constructor
+         */
+        public Builder()
+        {
+        }
+
+        /**
+         * Sets the EMA OmmConsumer used to open the chain and its constituents.
+         * This <code>OmmConsumer</code> must have been properly initialized and
+         * connected to a Refinitiv real-time platform.
+         * @param ommConsumer the OmmConsumer used to subscribe.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withOmmConsumer(OmmConsumer ommConsumer)
+        {
+            this.ommConsumer = ommConsumer;
+            return this;
+        }
+
+        /**
+         * Sets the name of the chain.
+         * @param chainName the name of the chain.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withChainName(String chainName)
+        {
+            this.chainName = chainName;
+            return this;
+        }
+
+        /**
+         * Sets the name of the service the chain and its constituents are 
+         * published on. If <code>withServiceName</code> is not called, 
+         * ELEKTRON_DD is used.
+         * @param serviceName the name of the service.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withServiceName(String serviceName)
+        {
+            this.serviceName = serviceName;
+            return this;
+        }
+
+        /**
+         * Indicates that the chain is a chain of chains that must be opened 
+         * recursively (see {@link com.refinitiv.platformservices.rt.objects.chain.RecursiveChain}).
+         * The elements of recursive chains are not updated: constituents are 
+         * added, never removed.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withRecursion()
+        {
+            return withRecursion(-1);
+        }
+
+        /**
+         * Indicates that the chain must be opened recursively, down to a 
+         * maximum depth. See {@link com.refinitiv.platformservices.rt.objects.chain.RecursiveChain.Builder#withMaxDepth(int)}.
+         * @param maxDepth the maximum depth. -1 means no limit.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withRecursion(int maxDepth)
+        {
+            this.recursionActivated = true;
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Indicates you are interested in the changes of the chain and in the
+         * updates of its constituents or not. 
+         * @param withUpdates whether or not you are interested in updates.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withUpdates(boolean withUpdates)
+        {
+            this.withUpdates = withUpdates;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of constituents requested by a single EMA 
+         * batch request. If <code>withBatchSize</code> is not called, the 
+         * default value of <code>MarketPriceGroup</code>s is used.
+         * @param batchSize the maximum number of constituents per batch request.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withBatchSize(int batchSize)
+        {
+            if(batchSize < 1)
+            {
+                batchSize = 1;
+            }
+
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets the delay before the constituents added or removed once the 
+         * chain is complete are opened or closed, so that the changes of a 
+         * chain reorganisation are applied in a single batch. Constituents 
+         * that move from one position to another during this delay keep 
+         * their <code>MarketPrice</code>. If <code>withBatchDelay</code> is
+         * not called, {@link #DEFAULT_BATCH_DELAY} is used.
+         * @param batchDelay the delay.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withBatchDelay(Duration batchDelay)
+        {
+            this.batchDelay = batchDelay;
+            return this;
+        }
+
+        /**
+         * Indicates that the constituents must be subscribed using a view that
+         * contains this field Id.
+         * See {@link MarketPrice.Builder#withField(int)} for more details.
+         * @param fieldId the Id of a field to include to the view.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withField(int fieldId)
+        {
+            fieldIds.add(fieldId);
+            return this;
+        }
+
+        /**
+         * Indicates that the constituents must be subscribed using a view that
+         * contains this field name.
+         * See {@link MarketPrice.Builder#withField(String)} for more details.
+         * @param fieldName the name of a field to include to the view.
+         * @return this <code>Builder</code> so that you can chain other <code>Builder</code>
+         * methods calls.
+         */
+        public Builder withField(String fieldName)
+        {
+            fieldNames.add(fieldName);
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when the watchlist is complete.
+         * @param function function to be called when the watchlist is complete.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onComplete(OnCompleteFunction function)
+        {
+            this.onCompleteFunction = function;
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when the chain of the watchlist fails.
+         * @param function function to be called on errors.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onError(OnErrorFunction function)
+        {
+            this.onErrorFunction = function;
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when a constituent receives a new 
+         * image (all fields).
+         * @param function function to be called when a constituent receives
+         * a new image.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onImage(MarketPrice.OnImageFunction function)
+        {
+            this.onImageFunction = function;
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when a constituent receives an update
+         * (updated fields only).
+         * @param function function to be called when a constituent receives
+         * an update.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onUpdate(MarketPrice.OnUpdateFunction function)
+        {
+            this.onUpdateFunction = function;
+            return this;
+        }
+
+        /**
+         * Sets the function to be called when a constituent receives a new 
+         * state (Status).
+         * @param function function to be called when a constituent receives
+         * a new state.
+         * @return this Builder so that you can chain other Builder methods calls.
+         */
+        public Builder onState(MarketPrice.OnStateFunction function)
+        {
+            this.onStateFunction = function;
+            return this;
+        }
+
+        /**
+         * Builds the <code>ChainWatchlist</code> object
+         * @return the built ChainWatchlist
+         */
+        public ChainWatchlist build()
+        {
+            if (chainName == null || chainName.isEmpty())
+            {
+                throw new IllegalStateException("The ChainWatchlist.Builder cannot build a ChainWatchlist without a chain name.");
+            }
+            if (ommConsumer == null)
+            {
+                throw new IllegalStateException("The ChainWatchlist.Builder cannot build a ChainWatchlist without an OmmConsumer.");
+            }
+            if(!fieldIds.isEmpty() && !fieldNames.isEmpty())
+            {
+                throw new IllegalStateException("The ChainWatchlist.Builder cannot build this ChainWatchlist. Views cannot be defined with a mix of field ids and field names.");
+            }
+            if (batchDelay == null || batchDelay.isNegative())
+            {
+                throw new IllegalStateException("The ChainWatchlist.Builder cannot build a ChainWatchlist with a null or negative batch delay.");
+            }
+
+            return new ChainWatchlistImpl(this);
+        }
+    }
+}
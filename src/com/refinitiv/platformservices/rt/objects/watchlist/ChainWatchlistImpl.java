@@ -0,0 +1,573 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.watchlist;
+
+import com.refinitiv.ema.access.OmmConsumer;
+import com.refinitiv.platformservices.rt.objects.chain.FlatChain;
+import com.refinitiv.platformservices.rt.objects.chain.RecursiveChain;
+import com.refinitiv.platformservices.rt.objects.data.Field;
+import com.refinitiv.platformservices.rt.objects.marketprice.MarketPrice;
+import com.refinitiv.platformservices.rt.objects.marketprice.MarketPriceGroup;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The implementation class of the <code>ChainWatchlist</code> interface.
+ * The elements of the chain are tracked by position. Constituents are 
+ * reference-counted by name, so that a name that moves from one position to 
+ * another or that appears at several positions is opened once. New names 
+ * are collected and opened with a <code>MarketPriceGroup</code> per batch. 
+ * Names that are not referenced any more are closed with the next batch, 
+ * unless they are referenced again in between.
+ * <br>
+ * Batches are applied by the shared batcher thread, outside of the lock of 
+ * the watchlist, so that the threads that dispatch EMA events never wait for
+ * <code>MarketPrice</code>s to be opened or closed.
+ */
+class ChainWatchlistImpl implements ChainWatchlist
+{
+    // Orders positions depth by depth, shorter positions first
+    private static final Comparator<List<Long>> POSITION_ORDER = (positions1, positions2) -> {
+        Iterator<Long> iterator1 = positions1.iterator();
+        Iterator<Long> iterator2 = positions2.iterator();
+        while(iterator1.hasNext() && iterator2.hasNext())
+        {
+            int comparison = Long.compare(iterator1.next(), iterator2.next());
+            if(comparison != 0)
+            {
+                return comparison;
+            }
+        }
+        
+        return Integer.compare(positions1.size(), positions2.size());
+    };
+
+    private final OmmConsumer ommConsumer;
+    private final String chainName;
+    private final String serviceName;
+    private final boolean withUpdates;
+    private final int batchSize;
+    private final long batchDelayInNs;
+    private final LinkedList<Integer> fieldIds;
+    private final LinkedList<String> fieldNames;
+    private final OnCompleteFunction onCompleteFunction;
+    private final OnErrorFunction onErrorFunction;
+    private final MarketPrice.OnImageFunction onImageFunction;
+    private final MarketPrice.OnUpdateFunction onUpdateFunction;
+    private final MarketPrice.OnStateFunction onStateFunction;
+    // One of the two is set
+    private final FlatChain flatChain;
+    private final RecursiveChain recursiveChain;
+
+    private enum State {OPENING, OPENED, CLOSED};
+    private State state;
+    private CompletableFuture<ChainWatchlist> openFuture;
+    private boolean chainComplete;
+    private final TreeMap<List<Long>, String> namesByPosition = new TreeMap<>(POSITION_ORDER);
+    private final Map<String, Constituent> constituentsByName = new HashMap<>();
+    private final LinkedHashSet<String> namesToOpen = new LinkedHashSet<>();
+    private final LinkedHashSet<String> namesToClose = new LinkedHashSet<>();
+    private final Set<MarketPrice> incompleteMarketPrices = new HashSet<>();
+    private ScheduledFuture<?> scheduledBatch;
+    // Held while a batch is applied, so that batches and the close of the
+    // watchlist are applied one at a time
+    private final Object batchLock = new Object();
+
+    /**
+     * Constructor used by the <code>ChainWatchlist.Builder</code> to build a new
+     * <code>ChainWatchlist</code> object.
+     * @param builder the <code>Builder</code> that contains all the parameters
+     * required to build the class.
+     */
+    ChainWatchlistImpl(ChainWatchlist.Builder builder)
+    {
+        ommConsumer = builder.ommConsumer;
+        chainName = builder.chainName;
+        serviceName = builder.serviceName;
+        withUpdates = builder.withUpdates;
+        batchSize = builder.batchSize;
+        batchDelayInNs = builder.batchDelay.toNanos();
+        fieldIds = builder.fieldIds;
+        fieldNames = builder.fieldNames;
+        onCompleteFunction = builder.onCompleteFunction;
+        onErrorFunction = builder.onErrorFunction;
+        onImageFunction = builder.onImageFunction;
+        onUpdateFunction = builder.onUpdateFunction;
+        onStateFunction = builder.onStateFunction;
+
+        if(builder.recursionActivated)
+        {
+            flatChain = null;
+            recursiveChain = new RecursiveChain.Builder()
+                    .withOmmConsumer(ommConsumer)
+                    .withChainName(chainName)
+                    .withServiceName(serviceName)
+                    .withMaxDepth(builder.maxDepth)
+                    .onElementAdded(
+                            (position, name, chain) -> onElementAdded(position, name.get(name.size() - 1))
+                    )
+                    .onComplete(
+                            (chain) -> onChainComplete()
+                    )
+                    .onError(
+                            (errorMessage, chain) -> onChainError(errorMessage)
+                    )
+                    .build();
+        }
+        else
+        {
+            recursiveChain = null;
+            flatChain = new FlatChain.Builder()
+                    .withOmmConsumer(ommConsumer)
+                    .withChainName(chainName)
+                    .withServiceName(serviceName)
+                    .withUpdates(withUpdates)
+                    .onElementAdded(
+                            (position, name, chain) -> onElementAdded(Collections.singletonList(position), name)
+                    )
+                    .onElementChanged(
+                            (position, previousName, newName, chain) -> onElementChanged(Collections.singletonList(position), newName)
+                    )
+                    .onElementRemoved(
+                            (position, chain) -> onElementRemoved(Collections.singletonList(position))
+                    )
+                    .onComplete(
+                            (chain) -> onChainComplete()
+                    )
+                    .onError(
+                            (errorMessage, chain) -> onChainError(errorMessage)
+                    )
+                    .build();
+        }
+
+        state = State.CLOSED;
+    }
+
+    @Override
+    public String getChainName()
+    {
+        return chainName;
+    }
+
+    @Override
+    public String getServiceName()
+    {
+        return serviceName;
+    }
+
+    @Override
+    public void open()
+    {
+        openAsync();
+    }
+
+    @Override
+    public CompletableFuture<ChainWatchlist> openAsync()
+    {
+        synchronized(this)
+        {
+            if(state == State.OPENED || state == State.OPENING)
+                return openFuture;
+
+            state = State.OPENING;
+            openFuture = new CompletableFuture<>();
+            chainComplete = false;
+        }
+
+        // Outside of the lock, as the chain may call back synchronously
+        if(flatChain != null)
+        {
+            flatChain.openAsync();
+        }
+        else
+        {
+            recursiveChain.openAsync();
+        }
+        
+        return openFuture;
+    }
+
+    @Override
+    public void close()
+    {
+        synchronized(batchLock)
+        {
+            Set<MarketPriceGroup> groupsToClose = new LinkedHashSet<>();
+            synchronized(this)
+            {
+                if(state == State.CLOSED)
+                    return;
+
+                state = State.CLOSED;
+                if(openFuture != null && !openFuture.isDone())
+                {
+                    openFuture.cancel(false);
+                }
+                if(scheduledBatch != null)
+                {
+                    scheduledBatch.cancel(false);
+                    scheduledBatch = null;
+                }
+                
+                for(Constituent constituent : constituentsByName.values())
+                {
+                    if(constituent.group != null)
+                    {
+                        groupsToClose.add(constituent.group.group);
+                    }
+                }
+                namesByPosition.clear();
+                constituentsByName.clear();
+                namesToOpen.clear();
+                namesToClose.clear();
+                incompleteMarketPrices.clear();
+            }
+            
+            if(flatChain != null)
+            {
+                flatChain.close();
+            }
+            else
+            {
+                recursiveChain.close();
+            }
+            groupsToClose.forEach(MarketPriceGroup::close);
+        }
+    }
+
+    @Override
+    public synchronized boolean isComplete()
+    {
+        return state == State.OPENED;
+    }
+
+    @Override
+    public synchronized Map<List<Long>, MarketPrice> getMarketPrices()
+    {
+        Map<List<Long>, MarketPrice> marketPricesByPosition = new TreeMap<>(POSITION_ORDER);
+        namesByPosition.forEach(
+                (position, name) -> {
+                    MarketPrice marketPrice = constituentsByName.get(name).marketPrice;
+                    if(marketPrice != null)
+                    {
+                        marketPricesByPosition.put(position, marketPrice);
+                    }
+                }
+        );
+        
+        return marketPricesByPosition;
+    }
+
+    @Override
+    public Map<List<Long>, Collection<Field>> getImages()
+    {
+        // Images are read outside of the lock of the watchlist
+        Map<List<Long>, Collection<Field>> imagesByPosition = new TreeMap<>(POSITION_ORDER);
+        getMarketPrices().forEach(
+                (position, marketPrice) -> imagesByPosition.put(position, marketPrice.getFields())
+        );
+        
+        return imagesByPosition;
+    }
+
+    private synchronized void onElementAdded(List<Long> position, String name)
+    {
+        if(state == State.CLOSED || name.isEmpty())
+            return;
+
+        String previousName = namesByPosition.put(position, name);
+        acquire(name);
+        if(previousName != null)
+        {
+            release(previousName);
+        }
+        scheduleBatch();
+    }
+
+    private synchronized void onElementChanged(List<Long> position, String newName)
+    {
+        if(newName.isEmpty())
+        {
+            onElementRemoved(position);
+        }
+        else
+        {
+            onElementAdded(position, newName);
+        }
+    }
+
+    private synchronized void onElementRemoved(List<Long> position)
+    {
+        if(state == State.CLOSED)
+            return;
+
+        String name = namesByPosition.remove(position);
+        if(name != null)
+        {
+            release(name);
+            scheduleBatch();
+        }
+    }
+
+    private synchronized void onChainComplete()
+    {
+        if(state == State.CLOSED || chainComplete)
+            return;
+
+        chainComplete = true;
+        scheduleBatchNow();
+        checkIfCompleteAndNotify();
+    }
+
+    private void onChainError(String errorMessage)
+    {
+        onErrorFunction.onError(errorMessage, this);
+        // The constituents decoded so far are kept
+        onChainComplete();
+    }
+
+    private synchronized void onItemComplete(MarketPrice marketPrice)
+    {
+        if(incompleteMarketPrices.remove(marketPrice))
+        {
+            checkIfCompleteAndNotify();
+        }
+    }
+
+    /**
+     * References a constituent. A name that is not opened is added to the 
+     * next batch. A name that was about to be closed is kept.
+     * @param name the name of the constituent.
+     */
+    private void acquire(String name)
+    {
+        Constituent constituent = constituentsByName.get(name);
+        if(constituent == null)
+        {
+            constituent = new Constituent();
+            constituentsByName.put(name, constituent);
+            namesToOpen.add(name);
+        }
+        else if(constituent.positionsCount == 0)
+        {
+            namesToClose.remove(name);
+        }
+        ++constituent.positionsCount;
+    }
+
+    /**
+     * Dereferences a constituent. A name that is not referenced any more is
+     * closed with the next batch, or just forgotten if it is not opened yet.
+     * @param name the name of the constituent.
+     */
+    private void release(String name)
+    {
+        Constituent constituent = constituentsByName.get(name);
+        if(constituent == null || --constituent.positionsCount > 0)
+            return;
+
+        if(constituent.marketPrice == null)
+        {
+            constituentsByName.remove(name);
+            namesToOpen.remove(name);
+        }
+        else
+        {
+            namesToClose.add(name);
+        }
+    }
+
+    /**
+     * Schedules the next batch. Until the chain is complete, batches are only
+     * applied when they are full. Once the chain is complete, changes are 
+     * applied after the batch delay.
+     */
+    private void scheduleBatch()
+    {
+        if(namesToOpen.size() >= batchSize)
+        {
+            scheduleBatchNow();
+        }
+        else if(chainComplete && scheduledBatch == null)
+        {
+            scheduledBatch = Batcher.INSTANCE.schedule(this::applyBatch, batchDelayInNs, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void scheduleBatchNow()
+    {
+        if(scheduledBatch != null)
+        {
+            scheduledBatch.cancel(false);
+        }
+        scheduledBatch = Batcher.INSTANCE.schedule(this::applyBatch, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Closes the constituents that are not referenced any more and opens the
+     * new ones, with a <code>MarketPriceGroup</code> per batch of at most 
+     * <code>batchSize</code> names. Runs on the batcher thread.
+     */
+    private void applyBatch()
+    {
+        synchronized(batchLock)
+        {
+            List<MarketPrice> marketPricesToClose = new ArrayList<>();
+            List<MarketPriceGroup> groupsToClose = new ArrayList<>();
+            List<MarketPriceGroup> groupsToOpen = new ArrayList<>();
+            synchronized(this)
+            {
+                scheduledBatch = null;
+                if(state == State.CLOSED)
+                    return;
+
+                for(String name : namesToClose)
+                {
+                    Constituent constituent = constituentsByName.remove(name);
+                    marketPricesToClose.add(constituent.marketPrice);
+                    incompleteMarketPrices.remove(constituent.marketPrice);
+                    if(--constituent.group.openedCount == 0)
+                    {
+                        groupsToClose.add(constituent.group.group);
+                    }
+                }
+                namesToClose.clear();
+
+                List<String> names = new ArrayList<>(namesToOpen);
+                namesToOpen.clear();
+                for(int first = 0; first < names.size(); first += batchSize)
+                {
+                    groupsToOpen.add(buildGroup(names.subList(first, Math.min(first + batchSize, names.size()))));
+                }
+                
+                checkIfCompleteAndNotify();
+            }
+
+            marketPricesToClose.forEach(MarketPrice::close);
+            groupsToClose.forEach(MarketPriceGroup::close);
+            groupsToOpen.forEach(MarketPriceGroup::openAsync);
+        }
+    }
+
+    /**
+     * Builds the <code>MarketPriceGroup</code> of a batch and binds its 
+     * <code>MarketPrice</code>s to their constituents.
+     * @param names the names of the batch.
+     * @return the group to open.
+     */
+    private MarketPriceGroup buildGroup(List<String> names)
+    {
+        MarketPriceGroup.Builder groupBuilder = new MarketPriceGroup.Builder()
+                .withOmmConsumer(ommConsumer)
+                .withNames(names)
+                .withServiceName(serviceName)
+                .withBatchSize(batchSize)
+                .withUpdates(withUpdates)
+                .onItemComplete(
+                        (marketPrice) -> onItemComplete(marketPrice)
+                )
+                .onImage(onImageFunction)
+                .onUpdate(onUpdateFunction)
+                .onState(onStateFunction);
+        fieldIds.forEach(groupBuilder::withField);
+        fieldNames.forEach(groupBuilder::withField);
+        MarketPriceGroup group = groupBuilder.build();
+
+        ConstituentGroup constituentGroup = new ConstituentGroup(group, names.size());
+        for(String name : names)
+        {
+            Constituent constituent = constituentsByName.get(name);
+            constituent.marketPrice = group.getMarketPrice(name);
+            constituent.group = constituentGroup;
+            incompleteMarketPrices.add(constituent.marketPrice);
+        }
+        
+        return group;
+    }
+
+    private void checkIfCompleteAndNotify()
+    {
+        if(state != State.OPENING 
+                || !chainComplete 
+                || !namesToOpen.isEmpty() 
+                || !incompleteMarketPrices.isEmpty())
+            return;
+
+        state = State.OPENED;
+        onCompleteFunction.onComplete(this);
+        if(openFuture != null)
+        {
+            openFuture.complete(this);
+        }
+    }
+
+    /**
+     * A name of the chain, the number of positions it appears at and its 
+     * <code>MarketPrice</code> once opened.
+     */
+    private static class Constituent
+    {
+        private int positionsCount;
+        private MarketPrice marketPrice;
+        private ConstituentGroup group;
+    }
+
+    /**
+     * A <code>MarketPriceGroup</code> opened for a batch and the number of its
+     * <code>MarketPrice</code>s that are still opened. The group is closed 
+     * with its last <code>MarketPrice</code>.
+     */
+    private static class ConstituentGroup
+    {
+        private final MarketPriceGroup group;
+        private int openedCount;
+
+        private ConstituentGroup(MarketPriceGroup group, int openedCount)
+        {
+            this.group = group;
+            this.openedCount = openedCount;
+        }
+    }
+
+    /**
+     * Holder of the thread shared by all the <code>ChainWatchlist</code>s to
+     * apply their batches. The thread is a daemon thread, created on first use.
+     */
+    private static class Batcher
+    {
+        static final ScheduledExecutorService INSTANCE =
+                Executors.newSingleThreadScheduledExecutor(
+                        (runnable) -> {
+                            Thread thread = new Thread(runnable, "ChainWatchlist-Batcher");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+}
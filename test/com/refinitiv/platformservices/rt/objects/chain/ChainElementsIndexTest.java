@@ -0,0 +1,167 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.chain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the chunks of the <code>ChainElementsIndex</code> and the copy on 
+ * write of the chunks shared with <code>ChainElements</code> snapshots.
+ */
+public class ChainElementsIndexTest
+{
+    @Test
+    public void elementsAreStoredAcrossChunks()
+    {
+        ChainElementsIndex index = new ChainElementsIndex();
+        index.put(0, "A.N");
+        index.put(255, "B.N");
+        index.put(256, "C.N");
+        index.put(10_000, "D.N");
+
+        assertEquals("A.N", index.get(0));
+        assertEquals("B.N", index.get(255));
+        assertEquals("C.N", index.get(256));
+        assertEquals("D.N", index.get(10_000));
+        assertNull(index.get(1));
+        assertNull(index.get(9_999));
+        assertNull(index.get(1_000_000));
+        assertNull(index.get(-1));
+        assertEquals(4, index.snapshot().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativePositionsAreRejected()
+    {
+        new ChainElementsIndex().put(-1, "A.N");
+    }
+
+    @Test
+    public void replaceAndRemoveOnlyChangeExistingElements()
+    {
+        ChainElementsIndex index = new ChainElementsIndex();
+        index.put(3, "A.N");
+
+        index.replace(3, "B.N");
+        index.replace(4, "C.N");
+        index.remove(5);
+
+        assertEquals("B.N", index.get(3));
+        assertNull(index.get(4));
+        assertEquals(1, index.snapshot().size());
+
+        index.remove(3);
+
+        assertNull(index.get(3));
+        assertEquals(0, index.snapshot().size());
+    }
+
+    @Test
+    public void snapshotIsReusedUntilTheNextModification()
+    {
+        ChainElementsIndex index = new ChainElementsIndex();
+        index.put(1, "A.N");
+
+        ChainElements snapshot = index.snapshot();
+
+        assertSame(snapshot, index.snapshot());
+        index.put(2, "B.N");
+        assertTrue(snapshot != index.snapshot());
+    }
+
+    @Test
+    public void snapshotsAreNotChangedByLaterWrites()
+    {
+        ChainElementsIndex index = new ChainElementsIndex();
+        for(long position = 0; position < 600; ++position)
+        {
+            index.put(position, "E" + position);
+        }
+
+        ChainElements first = index.snapshot();
+        // Writes to a shared chunk, to a new chunk past the end and removes
+        // from another shared chunk
+        index.put(10, "CHANGED");
+        index.put(1_000, "NEW");
+        index.remove(300);
+        ChainElements second = index.snapshot();
+        index.put(11, "CHANGED AGAIN");
+        index.clear();
+        index.put(10, "AFTER CLEAR");
+
+        assertEquals(600, first.size());
+        assertEquals("E10", first.elementAt(10));
+        assertEquals("E11", first.elementAt(11));
+        assertEquals("E300", first.elementAt(300));
+        assertNull(first.elementAt(1_000));
+
+        assertEquals(600, second.size());
+        assertEquals("CHANGED", second.elementAt(10));
+        assertEquals("E11", second.elementAt(11));
+        assertNull(second.elementAt(300));
+        assertEquals("NEW", second.elementAt(1_000));
+
+        assertEquals("AFTER CLEAR", index.get(10));
+        assertNull(index.get(11));
+        assertEquals(1, index.snapshot().size());
+    }
+
+    @Test
+    public void rangesShareTheElementsOfTheSnapshot()
+    {
+        ChainElementsIndex index = new ChainElementsIndex();
+        index.put(0, "A.N");
+        index.put(250, "B.N");
+        index.put(260, "C.N");
+        index.put(900, "D.N");
+        ChainElements snapshot = index.snapshot();
+
+        ChainElements range = snapshot.elements(100, 300);
+
+        assertEquals(2, range.size());
+        assertNull(range.elementAt(0));
+        assertEquals("B.N", range.elementAt(250));
+        assertEquals("C.N", range.elementAt(260));
+        assertNull(range.elementAt(900));
+        assertEquals(0, snapshot.elements(300, 100).size());
+        assertEquals(0, snapshot.elements(2_000, 3_000).size());
+    }
+
+    @Test
+    public void mapViewIteratesInPositionOrder()
+    {
+        ChainElementsIndex index = new ChainElementsIndex();
+        index.put(700, "C.N");
+        index.put(5, "A.N");
+        index.put(256, "B.N");
+
+        Map<Long, String> elements = index.snapshot().asMap();
+        List<Long> positions = new ArrayList<>(elements.keySet());
+
+        assertEquals(Arrays.asList(5L, 256L, 700L), positions);
+        assertEquals(Arrays.asList("A.N", "B.N", "C.N"), new ArrayList<>(elements.values()));
+        assertEquals("B.N", elements.get(256L));
+        assertNull(elements.get(256));
+        assertEquals(3, elements.size());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.chain;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the splitting of <code>Chain Record</code> names used by the name
+ * guessing of the <code>ChainRecordFactoryImpl</code>.
+ */
+public class ChainRecordNameTest
+{
+    @Test
+    public void prefixIsParsedAsHexadecimal()
+    {
+        assertName(0, ".DJI", "0#.DJI");
+        assertName(26, ".INDEX", "1A#.INDEX");
+        assertName(0xFFFFFFF, "ROOT", "FFFFFFF#ROOT");
+        assertName(1, "", "1#");
+    }
+
+    @Test
+    public void namesWithoutPrefixAreAtPositionZero()
+    {
+        assertName(0, ".AV.O", ".AV.O");
+        assertName(0, "#.DJI", "#.DJI");
+        // Only hexadecimal digits, but no '#'
+        assertName(0, "ABC", "ABC");
+        assertName(0, "ABC.N", "ABC.N");
+        // Lower case digits are not part of a prefix
+        assertName(0, "1a#.INDEX", "1a#.INDEX");
+        assertName(0, "", "");
+    }
+
+    @Test
+    public void prefixesThatWouldOverflowAreNotParsed()
+    {
+        assertName(0, "12345678#.INDEX", "12345678#.INDEX");
+        assertName(0, "FFFFFFFFF#.INDEX", "FFFFFFFFF#.INDEX");
+    }
+
+    @Test
+    public void namesOfOtherPositionsShareTheRoot()
+    {
+        ChainRecordName name = ChainRecordName.parse("1A#.INDEX");
+
+        assertEquals("0#.INDEX", name.nameAt(0));
+        assertEquals("1B#.INDEX", name.nameAt(27));
+        assertEquals("100#.INDEX", name.nameAt(256));
+        assertEquals("1#.AV.O", ChainRecordName.parse(".AV.O").nameAt(1));
+    }
+
+    @Test
+    public void guessedNamesAreParsedBack()
+    {
+        ChainRecordName name = ChainRecordName.parse("0#.FTSE");
+        for(int id = 0; id < 5_000; ++id)
+        {
+            assertName(id, ".FTSE", name.nameAt(id));
+        }
+    }
+
+    private static void assertName(int expectedId, String expectedRootName, String name)
+    {
+        ChainRecordName chainRecordName = ChainRecordName.parse(name);
+
+        assertEquals("id of " + name, expectedId, chainRecordName.getId());
+        assertEquals("root name of " + name, expectedRootName, chainRecordName.getRootName());
+    }
+}
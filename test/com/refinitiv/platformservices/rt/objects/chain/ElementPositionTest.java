@@ -0,0 +1,106 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.chain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the <code>ElementPosition</code> list and its order.
+ */
+public class ElementPositionTest
+{
+    @Test
+    public void positionsBehaveLikeListsOfLongs()
+    {
+        ElementPosition position = ElementPosition.of(7).prefixedWith(2).prefixedWith(1);
+        List<Long> sameList = new ArrayList<>(Arrays.asList(1L, 2L, 7L));
+
+        assertEquals(sameList, position);
+        assertEquals(position, sameList);
+        assertEquals(position, ElementPosition.of(sameList));
+        assertEquals(sameList.hashCode(), position.hashCode());
+        assertEquals(3, position.size());
+        assertEquals(Long.valueOf(2), position.get(1));
+        assertFalse(position.equals(ElementPosition.of(Arrays.asList(1L, 2L))));
+    }
+
+    @Test
+    public void elementPositionsAreNotCopied()
+    {
+        ElementPosition position = ElementPosition.of(3);
+
+        assertSame(position, ElementPosition.of(position));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void positionsAreImmutable()
+    {
+        ElementPosition.of(3).set(0, 4L);
+    }
+
+    @Test
+    public void orderIsDepthByDepthWithPrefixesFirst()
+    {
+        List<List<Long>> expectedOrder = Arrays.asList(
+                ElementPosition.of(0),
+                ElementPosition.of(0).prefixedWith(1),
+                ElementPosition.of(5).prefixedWith(1),
+                ElementPosition.of(Arrays.asList(1L, 5L, 0L)),
+                ElementPosition.of(10).prefixedWith(1),
+                ElementPosition.of(2),
+                ElementPosition.of(Long.MAX_VALUE));
+
+        for(int index1 = 0; index1 < expectedOrder.size(); ++index1)
+        {
+            for(int index2 = 0; index2 < expectedOrder.size(); ++index2)
+            {
+                List<Long> position1 = expectedOrder.get(index1);
+                List<Long> position2 = expectedOrder.get(index2);
+                int expectedSign = Integer.signum(Integer.compare(index1, index2));
+
+                assertEquals(position1 + " vs " + position2, expectedSign, 
+                        Integer.signum(ElementPosition.ORDER.compare(position1, position2)));
+                // Same order when one of the positions is a plain list
+                assertEquals(position1 + " vs " + position2, expectedSign, 
+                        Integer.signum(ElementPosition.ORDER.compare(new ArrayList<>(position1), position2)));
+            }
+        }
+    }
+
+    @Test
+    public void nextSiblingBoundsTheElementsOfASubChain()
+    {
+        ElementPosition subChainPosition = ElementPosition.of(4).prefixedWith(1);
+        ElementPosition nextSibling = subChainPosition.nextSibling();
+        TreeSet<List<Long>> positions = new TreeSet<>(ElementPosition.ORDER);
+        positions.add(ElementPosition.of(3).prefixedWith(1));
+        positions.add(subChainPosition);
+        positions.add(ElementPosition.of(0).prefixedWith(4).prefixedWith(1));
+        positions.add(ElementPosition.of(Long.MAX_VALUE - 1).prefixedWith(4).prefixedWith(1));
+        positions.add(nextSibling);
+        positions.add(ElementPosition.of(2));
+
+        assertEquals(Arrays.asList(1L, 5L), nextSibling);
+        assertEquals(Arrays.asList(1L, 4L), subChainPosition);
+        assertEquals(3, positions.subSet(subChainPosition, nextSibling).size());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the bucket math and the statistics of the <code>LatencyHistogram</code>.
+ */
+public class LatencyHistogramTest
+{
+    @Test
+    public void emptyHistogramReturnsZeros()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getSum());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0.0, histogram.getMean(), 0.0);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void smallValuesAreExact()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for(long value = 0; value < 32; ++value)
+        {
+            histogram.record(value);
+        }
+
+        for(long value = 0; value < 32; ++value)
+        {
+            double percentile = (value + 1) * 100.0 / 32;
+            assertEquals("value at " + percentile + "%", value, histogram.getValueAtPercentile(percentile));
+        }
+    }
+
+    @Test
+    public void largeValuesAreAccurateToOneSubBucket()
+    {
+        for(long value = 33; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1)
+        {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            // A second larger value so that the max does not hide the
+            // upper bound of the bucket
+            histogram.record(value * 2);
+
+            long valueAtMedian = histogram.getValueAtPercentile(50);
+            assertTrue("value " + value + " returned " + valueAtMedian, valueAtMedian >= value);
+            assertTrue("value " + value + " returned " + valueAtMedian, valueAtMedian - value <= value / 16);
+        }
+    }
+
+    @Test
+    public void bucketBoundariesAreContiguous()
+    {
+        // Both ends of each bucket between 16 and 2^20 must be returned as
+        // the highest value of their own bucket
+        for(long value = 16; value < (1 << 20); ++value)
+        {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE);
+
+            long highestValue = histogram.getValueAtPercentile(50);
+            int shift = 63 - Long.numberOfLeadingZeros(value) - 4;
+            assertEquals("highest value of the bucket of " + value, value | ((1L << shift) - 1), highestValue);
+        }
+    }
+
+    @Test
+    public void percentilesAreCappedByTheMax()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+
+        assertEquals(1_000_001, histogram.getValueAtPercentile(50));
+        assertEquals(1_000_001, histogram.getValueAtPercentile(100));
+        assertEquals(1_000_001, histogram.getValueAtPercentile(150));
+    }
+
+    @Test
+    public void percentilesFollowTheRanks()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for(int index = 0; index < 99; ++index)
+        {
+            histogram.record(10);
+        }
+        histogram.record(5_000);
+
+        assertEquals(10, histogram.getValueAtPercentile(0));
+        assertEquals(10, histogram.getValueAtPercentile(50));
+        assertEquals(10, histogram.getValueAtPercentile(99));
+        assertEquals(5_000, histogram.getValueAtPercentile(99.5));
+        assertEquals(5_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void statisticsAreComputedFromTheRecordedValues()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.record(300);
+        histogram.record(-50);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(400, histogram.getSum());
+        assertEquals(300, histogram.getMax());
+        assertEquals(400.0 / 3, histogram.getMean(), 1e-9);
+        assertEquals(0, histogram.getValueAtPercentile(10));
+    }
+
+    @Test
+    public void resetClearsAllTheRecordedValues()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.record(1_000_000_000);
+
+        histogram.reset();
+        histogram.record(7);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(7, histogram.getSum());
+        assertEquals(7, histogram.getMax());
+        assertEquals(7, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void concurrentRecordsAreAllCounted() throws InterruptedException
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for(int index = 0; index < threads.length; ++index)
+        {
+            long base = index * 1_000L;
+            threads[index] = new Thread(() -> {
+                for(long value = 1; value <= 10_000; ++value)
+                {
+                    histogram.record(base + value);
+                }
+            });
+            threads[index].start();
+        }
+        for(Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(13_000, histogram.getMax());
+        assertEquals(4 * (10_000L * 10_001 / 2) + 10_000L * (0 + 1_000 + 2_000 + 3_000), histogram.getSum());
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the claiming, wrapping and consuming of events by the 
+ * <code>RingBuffer</code>.
+ */
+public class RingBufferTest
+{
+    private static final long TIMEOUT_IN_SECONDS = 10;
+
+    private final Logger ringBufferLogger = Logger.getLogger(RingBufferImpl.class.getName());
+    private Level ringBufferLogLevel;
+    private final List<RingBuffer<?>> startedRingBuffers = new ArrayList<>();
+
+    @Before
+    public void silenceHandlerErrors()
+    {
+        ringBufferLogLevel = ringBufferLogger.getLevel();
+        ringBufferLogger.setLevel(Level.OFF);
+    }
+
+    @After
+    public void stopRingBuffers()
+    {
+        startedRingBuffers.forEach(RingBuffer::stop);
+        ringBufferLogger.setLevel(ringBufferLogLevel);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void capacityMustBeAPowerOfTwo()
+    {
+        new RingBuffer.Builder<long[]>()
+                .withEventFactory(() -> new long[1])
+                .withCapacity(6)
+                .withEventHandler((event, sequence, endOfBatch) -> {})
+                .build();
+    }
+
+    @Test
+    public void eventsAreReusedAfterAWrap()
+    {
+        RingBuffer<long[]> ringBuffer = ringBuffer(4, RingBuffer.WaitStrategy.BLOCKING, (event, sequence, endOfBatch) -> {});
+
+        assertEquals(4, ringBuffer.getCapacity());
+        assertSame(ringBuffer.get(0), ringBuffer.get(4));
+        assertSame(ringBuffer.get(3), ringBuffer.get(7));
+        assertFalse(ringBuffer.get(0) == ringBuffer.get(1));
+    }
+
+    @Test
+    public void producerWaitsForTheSlowestConsumerAtTheWrapPoint() throws Exception
+    {
+        CountDownLatch releaseConsumer = new CountDownLatch(1);
+        List<Long> handledSequences = Collections.synchronizedList(new ArrayList<>());
+        RingBuffer<long[]> ringBuffer = new RingBuffer.Builder<long[]>()
+                .withEventFactory(() -> new long[1])
+                .withCapacity(4)
+                .withEventHandler((event, sequence, endOfBatch) -> handledSequences.add(event[0]))
+                .withEventHandler((event, sequence, endOfBatch) -> await(releaseConsumer))
+                .withWaitStrategy(RingBuffer.WaitStrategy.YIELDING)
+                .withName("RingBufferTest")
+                .build();
+        start(ringBuffer);
+
+        for(long index = 0; index < 4; ++index)
+        {
+            publish(ringBuffer, index);
+        }
+        assertEquals(4, ringBuffer.getBacklog());
+
+        // The 5th event would overwrite the 1st one that the second
+        // consumer did not handle yet
+        AtomicLong claimedSequence = new AtomicLong(-1);
+        Thread producer = new Thread(() -> claimedSequence.set(ringBuffer.next()));
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive());
+        assertEquals(-1, claimedSequence.get());
+
+        releaseConsumer.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_IN_SECONDS));
+        assertFalse(producer.isAlive());
+        assertEquals(4, claimedSequence.get());
+
+        ringBuffer.get(4)[0] = 4;
+        ringBuffer.publish(4);
+        waitUntil(() -> ringBuffer.getBacklog() == 0);
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L), handledSequences);
+    }
+
+    @Test
+    public void eventsAreHandledInOrderWithAllStrategies() throws Exception
+    {
+        for(RingBuffer.WaitStrategy waitStrategy : RingBuffer.WaitStrategy.values())
+        {
+            int eventsCount = 20_000;
+            AtomicLong outOfOrderEvents = new AtomicLong();
+            AtomicLong handledEvents = new AtomicLong();
+            RingBuffer<long[]> ringBuffer = ringBuffer(8, waitStrategy, (event, sequence, endOfBatch) -> {
+                if(event[0] != sequence)
+                {
+                    outOfOrderEvents.incrementAndGet();
+                }
+                handledEvents.incrementAndGet();
+            });
+            start(ringBuffer);
+
+            for(long index = 0; index < eventsCount; ++index)
+            {
+                publish(ringBuffer, index);
+            }
+            waitUntil(() -> handledEvents.get() == eventsCount);
+
+            assertEquals(waitStrategy + " out of order events", 0, outOfOrderEvents.get());
+            assertEquals(0, ringBuffer.getBacklog());
+        }
+    }
+
+    @Test
+    public void handlerExceptionsDoNotStopTheConsumer() throws Exception
+    {
+        List<Long> handledSequences = Collections.synchronizedList(new ArrayList<>());
+        RingBuffer<long[]> ringBuffer = ringBuffer(4, RingBuffer.WaitStrategy.SLEEPING, (event, sequence, endOfBatch) -> {
+            if(sequence % 3 == 1)
+            {
+                throw new IllegalStateException("Failure of event " + sequence);
+            }
+            handledSequences.add(sequence);
+        });
+        start(ringBuffer);
+
+        for(long index = 0; index < 10; ++index)
+        {
+            publish(ringBuffer, index);
+        }
+        waitUntil(() -> ringBuffer.getBacklog() == 0);
+
+        assertEquals(Arrays.asList(0L, 2L, 3L, 5L, 6L, 8L, 9L), handledSequences);
+    }
+
+    @Test
+    public void stoppedRingBufferCanBeRestarted() throws Exception
+    {
+        List<Long> handledSequences = Collections.synchronizedList(new ArrayList<>());
+        RingBuffer<long[]> ringBuffer = ringBuffer(4, RingBuffer.WaitStrategy.BLOCKING, (event, sequence, endOfBatch) -> handledSequences.add(event[0]));
+        start(ringBuffer);
+        publish(ringBuffer, 0);
+        waitUntil(() -> handledSequences.size() == 1);
+
+        ringBuffer.stop();
+        ringBuffer.stop();
+        ringBuffer.start();
+        publish(ringBuffer, 1);
+        waitUntil(() -> handledSequences.size() == 2);
+
+        assertEquals(Arrays.asList(0L, 1L), handledSequences);
+    }
+
+    @Test
+    public void producerDoesNotWaitForStoppedConsumers() throws Exception
+    {
+        RingBuffer<long[]> ringBuffer = ringBuffer(4, RingBuffer.WaitStrategy.BLOCKING, (event, sequence, endOfBatch) -> {});
+        start(ringBuffer);
+        ringBuffer.stop();
+
+        Thread producer = new Thread(() -> {
+            for(long index = 0; index < 20; ++index)
+            {
+                publish(ringBuffer, index);
+            }
+        });
+        producer.start();
+        producer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_IN_SECONDS));
+
+        assertFalse(producer.isAlive());
+    }
+
+    @Test
+    public void handlerErrorsDoNotBlockTheProducer() throws Exception
+    {
+        Thread.UncaughtExceptionHandler defaultHandler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, throwable) -> {});
+        try
+        {
+            List<Long> handledSequences = Collections.synchronizedList(new ArrayList<>());
+            RingBuffer<long[]> ringBuffer = new RingBuffer.Builder<long[]>()
+                    .withEventFactory(() -> new long[1])
+                    .withCapacity(4)
+                    .withEventHandler((event, sequence, endOfBatch) -> {
+                        if(sequence == 1)
+                        {
+                            throw new AssertionError("Failure of event " + sequence);
+                        }
+                    })
+                    .withEventHandler((event, sequence, endOfBatch) -> handledSequences.add(sequence))
+                    .withWaitStrategy(RingBuffer.WaitStrategy.YIELDING)
+                    .withName("RingBufferTest")
+                    .build();
+            start(ringBuffer);
+
+            Thread producer = new Thread(() -> {
+                for(long index = 0; index < 20; ++index)
+                {
+                    publish(ringBuffer, index);
+                }
+            });
+            producer.start();
+            producer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_IN_SECONDS));
+
+            assertFalse(producer.isAlive());
+            waitUntil(() -> handledSequences.size() == 20);
+        }
+        finally
+        {
+            Thread.setDefaultUncaughtExceptionHandler(defaultHandler);
+        }
+    }
+
+    private RingBuffer<long[]> ringBuffer(int capacity, RingBuffer.WaitStrategy waitStrategy, RingBuffer.EventHandler<long[]> eventHandler)
+    {
+        return new RingBuffer.Builder<long[]>()
+                .withEventFactory(() -> new long[1])
+                .withCapacity(capacity)
+                .withEventHandler(eventHandler)
+                .withWaitStrategy(waitStrategy)
+                .withName("RingBufferTest")
+                .build();
+    }
+
+    private void start(RingBuffer<?> ringBuffer)
+    {
+        ringBuffer.start();
+        startedRingBuffers.add(ringBuffer);
+    }
+
+    private static void publish(RingBuffer<long[]> ringBuffer, long value)
+    {
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence)[0] = value;
+        ringBuffer.publish(sequence);
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException
+    {
+        long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_IN_SECONDS);
+        while(!condition.getAsBoolean())
+        {
+            assertTrue("Timed out", System.nanoTime() - endTime < 0);
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the ordering of the <code>SerialExecutor</code> tasks and its 
+ * behavior when a task fails or the underlying executor rejects it.
+ */
+public class SerialExecutorTest
+{
+    private final Logger logger = Logger.getLogger(SerialExecutor.class.getName());
+    private Level previousLevel;
+
+    // Underlying executor that queues the mailbox runs, so that the test
+    // decides when they run
+    private final List<Runnable> runs = new ArrayList<>();
+    private boolean rejecting;
+
+    @Before
+    public void silenceTheLogs()
+    {
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.OFF);
+    }
+
+    @After
+    public void restoreTheLogs()
+    {
+        logger.setLevel(previousLevel);
+    }
+
+    @Test
+    public void tasksRunInSubmissionOrder()
+    {
+        SerialExecutor mailbox = new SerialExecutor(this::submit);
+        List<Integer> order = new ArrayList<>();
+        for(int index = 0; index < 200; ++index)
+        {
+            int taskNumber = index;
+            mailbox.execute(() -> order.add(taskNumber));
+        }
+
+        assertEquals(200, mailbox.getQueueDepth());
+        runAll();
+
+        assertEquals(200, order.size());
+        for(int index = 0; index < 200; ++index)
+        {
+            assertEquals(index, (int) order.get(index));
+        }
+        assertEquals(0, mailbox.getQueueDepth());
+    }
+
+    @Test
+    public void exceptionsDoNotStopTheNextTasks()
+    {
+        SerialExecutor mailbox = new SerialExecutor(this::submit);
+        List<String> ran = new ArrayList<>();
+        mailbox.execute(() -> { throw new IllegalArgumentException("test"); });
+        mailbox.execute(() -> ran.add("second"));
+
+        runAll();
+
+        assertEquals(1, ran.size());
+        assertEquals(0, mailbox.getQueueDepth());
+    }
+
+    @Test
+    public void errorsDoNotWedgeTheMailbox()
+    {
+        SerialExecutor mailbox = new SerialExecutor(this::submit);
+        List<String> ran = new ArrayList<>();
+        mailbox.execute(() -> { throw new AssertionError("test"); });
+        mailbox.execute(() -> ran.add("second"));
+
+        try
+        {
+            runs.remove(0).run();
+            fail("The error must be propagated");
+        }
+        catch (AssertionError error)
+        {
+            assertEquals("test", error.getMessage());
+        }
+        runAll();
+
+        assertEquals(1, ran.size());
+        assertEquals(0, mailbox.getQueueDepth());
+    }
+
+    @Test
+    public void rejectedTasksAreRemoved()
+    {
+        SerialExecutor mailbox = new SerialExecutor(this::submit);
+        List<String> ran = new ArrayList<>();
+        rejecting = true;
+        try
+        {
+            mailbox.execute(() -> ran.add("rejected"));
+            fail("The rejection must be propagated");
+        }
+        catch (RejectedExecutionException exception)
+        {
+            assertEquals(0, mailbox.getQueueDepth());
+        }
+
+        rejecting = false;
+        mailbox.execute(() -> ran.add("accepted"));
+        runAll();
+
+        assertEquals(1, ran.size());
+        assertEquals("accepted", ran.get(0));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void executorIsRequired()
+    {
+        new SerialExecutor(null);
+    }
+
+    private void submit(Runnable run)
+    {
+        if(rejecting)
+        {
+            throw new RejectedExecutionException("test");
+        }
+        runs.add(run);
+    }
+
+    private void runAll()
+    {
+        while(!runs.isEmpty())
+        {
+            runs.remove(0).run();
+        }
+    }
+}
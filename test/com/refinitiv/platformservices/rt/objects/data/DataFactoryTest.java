@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.data;
+
+import com.refinitiv.ema.access.Data;
+import com.refinitiv.ema.access.DataType.DataTypes;
+import com.refinitiv.ema.access.OmmReal;
+import com.refinitiv.ema.access.OmmReal.MagnitudeType;
+import com.refinitiv.ema.access.OmmUInt;
+import java.math.BigInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Pins the string representations and the derived values of the in-memory
+ * data built by the <code>DataFactory</code>. The expected strings are the 
+ * ones EMA returns for the same wire values.
+ */
+public class DataFactoryTest
+{
+    @Test
+    public void realsAreFormattedLikeEma()
+    {
+        assertEquals("123.45", DataFactory.createReal(12345, MagnitudeType.EXPONENT_NEG2).toString());
+        assertEquals("-0.05", DataFactory.createReal(-5, MagnitudeType.EXPONENT_NEG2).toString());
+        assertEquals("0.00000000000001", DataFactory.createReal(1, MagnitudeType.EXPONENT_NEG_14).toString());
+        assertEquals("42", DataFactory.createReal(42, MagnitudeType.EXPONENT_0).toString());
+        assertEquals("420000000", DataFactory.createReal(42, MagnitudeType.EXPONENT_POS_7).toString());
+        assertEquals("2.5", DataFactory.createReal(5, MagnitudeType.DIVISOR_2).toString());
+        assertEquals("Inf", DataFactory.createReal(0, MagnitudeType.INFINITY).toString());
+        assertEquals("-Inf", DataFactory.createReal(0, MagnitudeType.NEG_INFINITY).toString());
+        assertEquals("NaN", DataFactory.createReal(0, MagnitudeType.NOT_A_NUMBER).toString());
+        assertEquals("(blank data)", DataFactory.createBlank(DataTypes.REAL).toString());
+    }
+
+    @Test
+    public void realsAreConvertedToDoubles()
+    {
+        assertEquals(123.45, ((OmmReal) DataFactory.createReal(12345, MagnitudeType.EXPONENT_NEG2)).asDouble(), 1e-12);
+        assertEquals(4.2e8, ((OmmReal) DataFactory.createReal(42, MagnitudeType.EXPONENT_POS_7)).asDouble(), 0.0);
+        assertEquals(0.625, ((OmmReal) DataFactory.createReal(5, MagnitudeType.DIVISOR_8)).asDouble(), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, ((OmmReal) DataFactory.createReal(0, MagnitudeType.INFINITY)).asDouble(), 0.0);
+        assertEquals(0.0, ((OmmReal) DataFactory.createBlank(DataTypes.REAL)).asDouble(), 0.0);
+        assertEquals("ExponentNeg2", ((OmmReal) DataFactory.createReal(1, MagnitudeType.EXPONENT_NEG2)).magnitudeTypeAsString());
+        assertEquals("Divisor256", ((OmmReal) DataFactory.createReal(1, MagnitudeType.DIVISOR_256)).magnitudeTypeAsString());
+    }
+
+    @Test
+    public void datesAndTimesAreFormattedLikeEma()
+    {
+        assertEquals("02 JAN 1970", DataFactory.createDate(1970, 1, 2).toString());
+        assertEquals("31 DEC 2021", DataFactory.createDate(2021, 12, 31).toString());
+        assertEquals("01:02:03:004:005:006", DataFactory.createTime(1, 2, 3, 4, 5, 6).toString());
+        assertEquals("15 MAR 2021 23:59:59:999:000:000",
+                DataFactory.createDateTime(2021, 3, 15, 23, 59, 59, 999, 0, 0).toString());
+        assertEquals("(blank data)", DataFactory.createBlank(DataTypes.DATE).toString());
+        assertEquals("(blank data)", DataFactory.createBlank(DataTypes.TIME).toString());
+        assertEquals("(blank data)", DataFactory.createBlank(DataTypes.DATETIME).toString());
+    }
+
+    @Test
+    public void unsignedIntegersUseTheWholeLong()
+    {
+        OmmUInt max = (OmmUInt) DataFactory.createUInt(-1);
+
+        assertEquals("18446744073709551615", max.toString());
+        assertEquals(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE), max.bigIntegerValue());
+        assertEquals("(blank data)", DataFactory.createBlank(DataTypes.UINT).toString());
+    }
+
+    @Test
+    public void enumsWithoutDictionaryAreFormattedAsNumbers()
+    {
+        assertEquals("7", DataFactory.createEnum(7, null).toString());
+    }
+
+    @Test
+    public void stringRepresentationsAreComputedOnce()
+    {
+        Data real = DataFactory.createReal(12345, MagnitudeType.EXPONENT_NEG2);
+
+        assertSame(real.toString(), real.toString());
+    }
+}
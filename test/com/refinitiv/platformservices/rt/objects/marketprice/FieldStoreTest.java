@@ -0,0 +1,296 @@
+/*
+ * Copyright 2021 Refinitiv
+ *
+ * DISCLAIMER: This source code has been written by Refinitiv for the only 
+ * purpose of illustrating articles published on the Refinitiv Developer 
+ * Community. It has not been tested for usage in production environments. 
+ * Refinitiv cannot be held responsible for any issues that may happen if 
+ * these objects or the related source code is used in production or any other 
+ * client environment.
+ *
+ * Refinitiv Developer Community: https://developers.refinitiv.com
+ *
+ */
+package com.refinitiv.platformservices.rt.objects.marketprice;
+
+import com.refinitiv.ema.access.Data;
+import com.refinitiv.ema.access.DataType.DataTypes;
+import com.refinitiv.ema.access.OmmReal;
+import com.refinitiv.ema.rdm.DictionaryEntry;
+import com.refinitiv.platformservices.rt.objects.data.DataFactory;
+import com.refinitiv.platformservices.rt.objects.data.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the slot allocation, the probe tables and the primitive columns of
+ * the <code>FieldStore</code>.
+ */
+public class FieldStoreTest
+{
+    @Test
+    public void fieldsAreFoundByIdAndByName()
+    {
+        FieldStore store = new FieldStore();
+        Field bid = field(22, "BID", DataFactory.createReal(12345, OmmReal.MagnitudeType.EXPONENT_NEG2));
+        Field ask = field(25, "ASK", DataFactory.createReal(12347, OmmReal.MagnitudeType.EXPONENT_NEG2));
+
+        int bidSlot = store.put(bid);
+        int askSlot = store.put(ask);
+
+        assertEquals(2, store.size());
+        assertEquals(bidSlot, store.slotOf(22));
+        assertEquals(bidSlot, store.slotOf("BID"));
+        assertEquals(askSlot, store.slotOf(25));
+        assertEquals(askSlot, store.slotOf("ASK"));
+        assertSame(bid, store.get(22));
+        assertSame(ask, store.get("ASK"));
+        assertEquals(FieldStore.NO_SLOT, store.slotOf(30));
+        assertEquals(FieldStore.NO_SLOT, store.slotOf("BIDSIZE"));
+        assertEquals(FieldStore.NO_SLOT, store.slotOf((String) null));
+        assertNull(store.get(30));
+    }
+
+    @Test
+    public void replacedFieldKeepsItsSlot()
+    {
+        FieldStore store = new FieldStore();
+        int slot = store.put(field(22, "BID", DataFactory.createReal(12345, OmmReal.MagnitudeType.EXPONENT_NEG2)));
+        Field newBid = field(22, "BID", DataFactory.createReal(12400, OmmReal.MagnitudeType.EXPONENT_NEG2));
+
+        assertEquals(slot, store.put(newBid));
+        assertEquals(1, store.size());
+        assertSame(newBid, store.fieldAt(slot));
+        assertEquals(12400, store.mantissaOf(22));
+        assertEquals(124.0, store.doubleOf(22), 0.0);
+    }
+
+    @Test
+    public void fieldsWithoutDescriptionAreIgnored()
+    {
+        FieldStore store = new FieldStore();
+
+        assertEquals(FieldStore.NO_SLOT, store.put(new TestField(null, DataFactory.createInt(1))));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void collidingIdsAreAllFoundAfterGrowth()
+    {
+        FieldStore store = new FieldStore();
+        // Enough fields to grow the store several times. Multiples of a
+        // power of 2 stress the linear probing of the tables.
+        List<Integer> slots = new ArrayList<>();
+        for(int index = 0; index < 300; ++index)
+        {
+            int fieldId = index * 1024;
+            slots.add(store.put(field(fieldId, "F" + fieldId, DataFactory.createInt(index))));
+        }
+
+        assertEquals(300, store.size());
+        for(int index = 0; index < 300; ++index)
+        {
+            int fieldId = index * 1024;
+            int slot = slots.get(index);
+            assertEquals("slot of " + fieldId, index, slot);
+            assertEquals(slot, store.slotOf(fieldId));
+            assertEquals(slot, store.slotOf("F" + fieldId));
+            assertEquals(index, store.longOf(fieldId));
+        }
+        assertEquals(FieldStore.NO_SLOT, store.slotOf(300 * 1024));
+    }
+
+    @Test
+    public void clearEmptiesTheProbeTablesAndReusesTheSlots()
+    {
+        FieldStore store = new FieldStore();
+        for(int fieldId = 1; fieldId <= 40; ++fieldId)
+        {
+            store.put(field(fieldId, "F" + fieldId, DataFactory.createInt(fieldId)));
+        }
+        store.markUpdated(store.slotOf(7));
+
+        store.clear();
+
+        assertEquals(0, store.size());
+        assertFalse(store.hasUpdatedSlots());
+        assertFalse(store.values().iterator().hasNext());
+        for(int fieldId = 1; fieldId <= 40; ++fieldId)
+        {
+            assertEquals(FieldStore.NO_SLOT, store.slotOf(fieldId));
+            assertEquals(FieldStore.NO_SLOT, store.slotOf("F" + fieldId));
+        }
+
+        // Slots are allocated again from 0, and stale entries of the previous
+        // image are not found anymore
+        assertEquals(0, store.put(field(40, "F40", DataFactory.createInt(400))));
+        assertEquals(0, store.slotOf(40));
+        assertEquals(400, store.longOf(40));
+        assertEquals(FieldStore.NO_SLOT, store.slotOf(1));
+    }
+
+    @Test
+    public void valuesAreSortedByFieldId()
+    {
+        FieldStore store = new FieldStore();
+        int[] fieldIds = {25, 3, 22, 1, 30, 16};
+        for(int fieldId : fieldIds)
+        {
+            store.put(field(fieldId, "F" + fieldId, DataFactory.createInt(fieldId)));
+        }
+
+        List<Integer> sortedFieldIds = new ArrayList<>();
+        for(Field field : store.values())
+        {
+            sortedFieldIds.add(field.description().fid());
+        }
+
+        assertEquals(java.util.Arrays.asList(1, 3, 16, 22, 25, 30), sortedFieldIds);
+        assertEquals(1, store.fieldIdAt(store.slotAt(0)));
+        assertEquals(30, store.fieldIdAt(store.slotAt(5)));
+    }
+
+    @Test
+    public void updatedSlotsAreDrainedOnce()
+    {
+        FieldStore store = new FieldStore();
+        for(int fieldId = 1; fieldId <= 100; ++fieldId)
+        {
+            store.put(field(fieldId, "F" + fieldId, DataFactory.createInt(fieldId)));
+        }
+        store.markUpdated(store.slotOf(70));
+        store.markUpdated(store.slotOf(2));
+        store.markUpdated(store.slotOf(70));
+
+        List<Field> updatedFields = new ArrayList<>();
+        ChangedFieldsImpl changedFields = new ChangedFieldsImpl(null, 0);
+        store.drainUpdatedFieldsTo(updatedFields, changedFields);
+
+        assertEquals(2, updatedFields.size());
+        assertEquals(2, updatedFields.get(0).description().fid());
+        assertEquals(70, updatedFields.get(1).description().fid());
+        assertTrue(changedFields.intersects(maskOf(store.slotOf(70))));
+        assertFalse(changedFields.intersects(maskOf(store.slotOf(3))));
+        assertFalse(store.hasUpdatedSlots());
+
+        updatedFields.clear();
+        store.drainUpdatedFieldsTo(updatedFields, new ChangedFieldsImpl(null, 0));
+        assertTrue(updatedFields.isEmpty());
+    }
+
+    @Test
+    public void primitiveColumnsFollowTheDataType()
+    {
+        FieldStore store = new FieldStore();
+        store.put(field(22, "BID", DataFactory.createReal(12345, OmmReal.MagnitudeType.EXPONENT_NEG2)));
+        store.put(field(32, "ACVOL_1", DataFactory.createInt(1500)));
+        store.put(field(16, "TRADE_DATE", DataFactory.createDate(1970, 1, 2)));
+        store.put(field(5, "TIMACT", DataFactory.createTime(1, 2, 3, 4, 5, 6)));
+        store.put(field(3, "DSPLY_NAME", DataFactory.createAscii("EURO")));
+        store.put(field(12, "HIGH_1", DataFactory.createBlank(DataTypes.REAL)));
+
+        assertEquals(123.45, store.doubleOf(22), 1e-9);
+        assertEquals(12345, store.mantissaOf(22));
+        assertEquals(OmmReal.MagnitudeType.EXPONENT_NEG2, store.hintOf(22));
+        assertEquals(MarketPrice.NO_LONG_VALUE, store.longOf(22));
+
+        assertEquals(1500, store.longOf(32));
+        assertEquals(1500.0, store.doubleOf(32), 0.0);
+        assertEquals(MarketPrice.NO_LONG_VALUE, store.mantissaOf(32));
+
+        assertEquals(FieldStore.NANOS_PER_DAY, store.epochNanosOf(16));
+        assertEquals(((1 * 60L + 2) * 60L + 3) * FieldStore.NANOS_PER_SECOND + 4_005_006L, store.epochNanosOf(5));
+
+        assertTrue(Double.isNaN(store.doubleOf(3)));
+        assertEquals(MarketPrice.NO_LONG_VALUE, store.longOf(3));
+
+        assertEquals(FieldStore.NO_DATA_TYPE, store.dataTypeAt(store.slotOf(12)));
+        assertTrue(Double.isNaN(store.doubleOf(12)));
+
+        assertTrue(Double.isNaN(store.doubleOf(99)));
+        assertEquals(MarketPrice.NO_LONG_VALUE, store.epochNanosOf(99));
+    }
+
+    private static long[] maskOf(int slot)
+    {
+        long[] mask = new long[(slot >>> 6) + 1];
+        mask[slot >>> 6] = 1L << slot;
+        return mask;
+    }
+
+    private static Field field(int fieldId, String acronym, Data value)
+    {
+        return new TestField(entry(fieldId, acronym), value);
+    }
+
+    private static DictionaryEntry entry(int fieldId, String acronym)
+    {
+        return (DictionaryEntry) Proxy.newProxyInstance(
+                DictionaryEntry.class.getClassLoader(),
+                new Class<?>[] {DictionaryEntry.class},
+                (proxy, method, arguments) -> {
+                    switch(method.getName())
+                    {
+                        case "fid":
+                            return fieldId;
+                        case "acronym":
+                            return acronym;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == arguments[0];
+                        case "toString":
+                            return acronym;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * An immutable field that does not need a data dictionary.
+     */
+    private static class TestField implements Field
+    {
+        private final DictionaryEntry description;
+        private final Data value;
+
+        TestField(DictionaryEntry description, Data value)
+        {
+            this.description = description;
+            this.value = value;
+        }
+
+        @Override
+        public DictionaryEntry description()
+        {
+            return description;
+        }
+
+        @Override
+        public Data value()
+        {
+            return value;
+        }
+
+        @Override
+        public Field applyPartialUpdate(Data fieldValue)
+        {
+            return new TestField(description, fieldValue);
+        }
+
+        @Override
+        public boolean applyInPlaceUpdate(Data fieldValue)
+        {
+            return false;
+        }
+    }
+}